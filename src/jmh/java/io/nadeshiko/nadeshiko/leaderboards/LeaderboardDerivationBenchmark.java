@@ -0,0 +1,111 @@
+/*
+ * This file is a part of the Nadeshiko project. Nadeshiko is free software, licensed under the MIT license.
+ *
+ * Usage of these works (including, yet not limited to, reuse, modification, copying, distribution, and selling) is
+ * permitted, provided that the relevant copyright notice and permission notice (as specified in LICENSE) shall be
+ * included in all copies or substantial portions of this software.
+ *
+ * These works are provided "AS IS" with absolutely no warranty of any kind, either expressed or implied.
+ *
+ * You should have received a copy of the MIT License alongside this software; refer to LICENSE for information.
+ * If not, refer to https://mit-license.org.
+ */
+
+package io.nadeshiko.nadeshiko.leaderboards;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Derives every leaderboard declared as a {@link LeaderboardDerivation} for a player, with the derivations and with the
+ * lambdas they replaced. Most players are missing most stats, which is what made the lambdas slow.
+ *
+ * @author chloe
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LeaderboardDerivationBenchmark {
+
+    /**
+     * The number of distinct players derived, in turn
+     */
+    private static final int PLAYERS = 256;
+
+    /**
+     * The chance that a player has each stat
+     */
+    @Param({"0.1", "0.5", "0.9"})
+    public double presence;
+
+    /**
+     * The leaderboards declared as derivations
+     */
+    private List<Leaderboard> leaderboards;
+
+    /**
+     * The inputs of each player, by category ordinal
+     */
+    private JsonObject[][] players;
+
+    private int player = 0;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(16);
+
+        this.leaderboards = List.copyOf(LegacyDerivations.LAMBDAS.keySet());
+        this.players = new JsonObject[PLAYERS][LeaderboardCategory.values().length];
+
+        Leaderboard.byCategory().forEach((category, leaderboards) -> {
+            List<Leaderboard> declarative = leaderboards.stream()
+                .filter(LegacyDerivations.LAMBDAS::containsKey)
+                .toList();
+
+            for (JsonObject[] inputs : this.players) {
+                JsonObject input = RandomPlayers.generate(random, RandomPlayers.paths(declarative), this.presence, false);
+                inputs[category.ordinal()] = JsonParser.parseString(input.toString()).getAsJsonObject();
+            }
+        });
+    }
+
+    @Benchmark
+    public void derivations(Blackhole blackhole) {
+        JsonObject[] inputs = this.next();
+        for (Leaderboard leaderboard : this.leaderboards) {
+            blackhole.consume(leaderboard.derive(inputs[leaderboard.getCategory().ordinal()]));
+        }
+    }
+
+    @Benchmark
+    public void lambdas(Blackhole blackhole) {
+        JsonObject[] inputs = this.next();
+        for (Leaderboard leaderboard : this.leaderboards) {
+            blackhole.consume(LegacyDerivations.derive(leaderboard, inputs[leaderboard.getCategory().ordinal()]));
+        }
+    }
+
+    private JsonObject[] next() {
+        this.player = (this.player + 1) % PLAYERS;
+        return this.players[this.player];
+    }
+}
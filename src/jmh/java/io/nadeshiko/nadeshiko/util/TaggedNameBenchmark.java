@@ -0,0 +1,82 @@
+/*
+ * This file is a part of the Nadeshiko project. Nadeshiko is free software, licensed under the MIT license.
+ *
+ * Usage of these works (including, yet not limited to, reuse, modification, copying, distribution, and selling) is
+ * permitted, provided that the relevant copyright notice and permission notice (as specified in LICENSE) shall be
+ * included in all copies or substantial portions of this software.
+ *
+ * These works are provided "AS IS" with absolutely no warranty of any kind, either expressed or implied.
+ *
+ * You should have received a copy of the MIT License alongside this software; refer to LICENSE for information.
+ * If not, refer to https://mit-license.org.
+ */
+
+package io.nadeshiko.nadeshiko.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures and draws a tagged name the way {@link io.nadeshiko.nadeshiko.cards.CardGenerator} does, with the
+ * {@link MinecraftRenderer} and with the character by character {@link LegacyMinecraftRenderer} it replaced
+ *
+ * @author chloe
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaggedNameBenchmark {
+
+	@Param({"§7Notch", "§b[MVP§c+§b] chloe", "§l§6[2000✫]§r §b[MVP§2+§b] Brooke"})
+	public String taggedName;
+
+	private BufferedImage card;
+	private Graphics2D graphics;
+
+	@Setup
+	public void setup() throws Exception {
+		MinecraftRendererTest.registerFonts();
+
+		this.card = new BufferedImage(1200, 600, BufferedImage.TYPE_INT_ARGB);
+		this.graphics = this.card.createGraphics();
+		this.graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+			RenderingHints.VALUE_TEXT_ANTIALIAS_LCD_HRGB);
+		this.graphics.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.graphics.dispose();
+	}
+
+	@Benchmark
+	public int legacy() {
+		int width = LegacyMinecraftRenderer.minecraftWidth(this.graphics, this.taggedName, 40);
+		LegacyMinecraftRenderer.drawMinecraftString(this.graphics, this.taggedName, 300 - (width / 2), 120, 40);
+		return width;
+	}
+
+	@Benchmark
+	public int runs() {
+		int width = MinecraftRenderer.minecraftWidth(this.graphics, this.taggedName, 40);
+		MinecraftRenderer.drawMinecraftString(this.graphics, this.taggedName, 300 - (width / 2), 120, 40);
+		return width;
+	}
+}
@@ -18,6 +18,7 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import io.nadeshiko.nadeshiko.util.HTTPUtil;
 import io.nadeshiko.nadeshiko.util.MinecraftColors;
+import io.nadeshiko.nadeshiko.util.RateLimitedException;
 import io.nadeshiko.nadeshiko.util.hypixel.GuildLevel;
 import io.nadeshiko.nadeshiko.util.hypixel.NetworkLevel;
 import io.nadeshiko.nadeshiko.util.hypixel.RankHelper;
@@ -27,6 +28,11 @@ import java.io.File;
 import java.nio.file.Files;
 import java.util.Base64;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Base class of all response builders ({@link io.nadeshiko.nadeshiko.skyblock.SkyBlockBuilder},
@@ -82,6 +88,21 @@ public abstract class BaseBuilder {
         }
     }
 
+    /**
+     * Normalize a UUID to the dashed form used by PlayerDB, badges.json and the leaderboard database. Hypixel
+     * returns UUIDs without dashes.
+     * @param uuid The UUID, with or without dashes
+     * @return The UUID, with dashes
+     */
+    public static String toDashedUuid(@NonNull String uuid) {
+        if (uuid.length() != 32) {
+            return uuid; // Already dashed, or not a UUID at all
+        }
+
+        return uuid.substring(0, 8) + "-" + uuid.substring(8, 12) + "-" + uuid.substring(12, 16) + "-" +
+            uuid.substring(16, 20) + "-" + uuid.substring(20);
+    }
+
     /**
      * Generate a response, as a JsonObject, to indicate a failure with the given cause
      * @param cause The reason for the failure - returned to the client in the response
@@ -120,162 +141,269 @@ public abstract class BaseBuilder {
     }
 
     protected JsonObject fetchTextures(@NonNull String uuid) {
-        try {
-            HTTPUtil.Response response =
-                HTTPUtil.get("https://sessionserver.mojang.com/session/minecraft/profile/" + uuid);
+        return this.join(this.fetchTexturesAsync(uuid));
+    }
 
-            // If the API responded OK
-            if (response.status() == 200) {
-                JsonObject profile = JsonParser.parseString(response.response()).getAsJsonObject();
-                JsonObject outerTexturesObject = profile.getAsJsonArray("properties").get(0).getAsJsonObject();
+    /**
+     * Fetch the skin and cape textures of a player from the Mojang session server, without blocking
+     * @param uuid The UUID of the player to look up
+     * @return A future completing with the textures object, the error response of the session server, or
+     *         {@code null} if something went wrong
+     */
+    protected CompletableFuture<JsonObject> fetchTexturesAsync(@NonNull String uuid) {
+        return HTTPUtil.getAsync("https://sessionserver.mojang.com/session/minecraft/profile/" + uuid)
+            .thenApply(response -> {
 
-                String texturesPropertyEncoded = outerTexturesObject.get("value").getAsString();
-                String texturesPropertyDecoded = new String(Base64.getDecoder().decode(texturesPropertyEncoded));
+                // If the API responded OK
+                if (response.status() == 200) {
+                    JsonObject profile = JsonParser.parseString(response.response()).getAsJsonObject();
+                    JsonObject outerTexturesObject = profile.getAsJsonArray("properties").get(0).getAsJsonObject();
 
-                JsonObject texturesProperty = JsonParser.parseString(texturesPropertyDecoded).getAsJsonObject();
+                    String texturesPropertyEncoded = outerTexturesObject.get("value").getAsString();
+                    String texturesPropertyDecoded = new String(Base64.getDecoder().decode(texturesPropertyEncoded));
 
-                return texturesProperty.getAsJsonObject("textures");
-            }
+                    JsonObject texturesProperty = JsonParser.parseString(texturesPropertyDecoded).getAsJsonObject();
 
-            // If something went wrong, return the response, since we want to know what happened
-            else {
-                return JsonParser.parseString(response.response()).getAsJsonObject();
-            }
-        } catch (Exception e) {
-            Nadeshiko.logger.error("Encountered error while looking up Minecraft textures for {}", uuid, e);
-            Nadeshiko.INSTANCE.getDiscordMonitor().alertException(e,
-                "Encountered error while looking up Minecraft textures for %s", uuid);
+                    return texturesProperty.getAsJsonObject("textures");
+                }
 
-            return null;
-        }
+                // If something went wrong, return the response, since we want to know what happened
+                else {
+                    return JsonParser.parseString(response.response()).getAsJsonObject();
+                }
+            })
+            .exceptionally(e -> this.reportFailure(e, "Minecraft textures", uuid, null));
     }
 
-    // TODO error handling
-    protected JsonObject fetchHypixelStatus(@NonNull String uuid) {
-        try {
-            HTTPUtil.Response response =
-                HTTPUtil.get("https://api.hypixel.net/v2/status?uuid=" + uuid +
-                    "&key=" + Nadeshiko.INSTANCE.getHypixelKey());
+    /**
+     * Fetch the cape of a player, preferring their OptiFine cape over their vanilla cape. The OptiFine lookup starts
+     * right away; the vanilla cape is only requested once the textures are known, and only if there is no OptiFine
+     * cape.
+     * @param name The properly capitalized name of the player
+     * @param textures The pending textures of the player, as returned by {@link #fetchTexturesAsync(String)}
+     * @return A future completing with the Base64 encoded cape, an empty string if the player has no cape, or
+     *         {@code null} if something went wrong
+     */
+    protected CompletableFuture<String> fetchCapeAsync(@NonNull String name,
+                                                       @NonNull CompletableFuture<JsonObject> textures) {
 
-            JsonObject jsonResponse = JsonParser.parseString(response.response()).getAsJsonObject();
-            JsonObject session = jsonResponse.getAsJsonObject("session");
-            JsonObject object = new JsonObject();
+        // Try OF first
+        return HTTPUtil.getRawAsync("http://s.optifine.net/capes/" + name + ".png")
+            .thenCompose(ofResponse -> {
 
-            if (session.has("online")) {
-                object.addProperty("online", session.get("online").getAsBoolean());
-            } else {
-                object.addProperty("online", false);
-            }
+                // Check if the cape exists
+                if (ofResponse.status() == 200) {
+                    return CompletableFuture.completedFuture(
+                        Base64.getEncoder().encodeToString(ofResponse.response()));
+                }
 
-            if (session.has("gameType")) {
-                object.addProperty("game", session.get("gameType").getAsString());
-            }
+                // Add vanilla cape, if it exists
+                return textures.thenCompose(texturesObject -> {
+                    if (texturesObject != null && texturesObject.has("CAPE")) {
+                        final JsonObject capeObject = texturesObject.getAsJsonObject("CAPE");
 
-            if (session.has("mode")) {
-                object.addProperty("mode", session.get("mode").getAsString());
-            }
+                        if (capeObject.has("url")) {
+                            return HTTPUtil.getRawAsync(capeObject.get("url").getAsString()).thenApply(
+                                mojangResponse -> Base64.getEncoder().encodeToString(mojangResponse.response()));
+                        }
 
-            return object;
+                        return CompletableFuture.completedFuture(null);
+                    }
 
-        } catch (Exception e) {
-            Nadeshiko.logger.error("Encountered error while looking up Hypixel status for {}", uuid, e);
-            Nadeshiko.INSTANCE.getDiscordMonitor().alertException(e,
-                "Encountered error while looking up Hypixel status for %s", uuid);
+                    // Final fallback
+                    return CompletableFuture.completedFuture("");
+                });
+            })
+            .exceptionally(e -> this.reportFailure(e, "cape", name, null));
+    }
 
-            return new JsonObject();
-        }
+    // TODO error handling
+    protected JsonObject fetchHypixelStatus(@NonNull String uuid) {
+        return this.join(this.fetchHypixelStatusAsync(uuid));
+    }
+
+    protected CompletableFuture<JsonObject> fetchHypixelStatusAsync(@NonNull String uuid) {
+        return HTTPUtil.getAsync("https://api.hypixel.net/v2/status?uuid=" + uuid +
+                "&key=" + Nadeshiko.INSTANCE.getHypixelKey())
+            .thenApply(response -> {
+                JsonObject jsonResponse = JsonParser.parseString(response.response()).getAsJsonObject();
+                JsonObject session = jsonResponse.getAsJsonObject("session");
+                JsonObject object = new JsonObject();
+
+                if (session.has("online")) {
+                    object.addProperty("online", session.get("online").getAsBoolean());
+                } else {
+                    object.addProperty("online", false);
+                }
+
+                if (session.has("gameType")) {
+                    object.addProperty("game", session.get("gameType").getAsString());
+                }
+
+                if (session.has("mode")) {
+                    object.addProperty("mode", session.get("mode").getAsString());
+                }
+
+                return object;
+            })
+            .exceptionally(e -> this.reportFailure(e, "Hypixel status", uuid, new JsonObject()));
     }
 
     protected JsonObject fetchHypixelGuild(@NonNull String uuid) {
-        try {
-            HTTPUtil.Response response =
-                HTTPUtil.get("https://api.hypixel.net/v2/guild?player=" + uuid +
-                    "&key=" + Nadeshiko.INSTANCE.getHypixelKey());
+        return this.join(this.fetchHypixelGuildAsync(uuid));
+    }
 
-            JsonObject jsonResponse = JsonParser.parseString(response.response()).getAsJsonObject();
+    protected CompletableFuture<JsonObject> fetchHypixelGuildAsync(@NonNull String uuid) {
+        return HTTPUtil.getAsync("https://api.hypixel.net/v2/guild?player=" + uuid +
+                "&key=" + Nadeshiko.INSTANCE.getHypixelKey())
+            .thenApply(response -> {
+                JsonObject jsonResponse = JsonParser.parseString(response.response()).getAsJsonObject();
 
-            // Check to see if the player actually has a guild
-            if (!jsonResponse.has("guild") || jsonResponse.get("guild").isJsonNull()) {
-                return null;
-            }
+                // Check to see if the player actually has a guild
+                if (!jsonResponse.has("guild") || jsonResponse.get("guild").isJsonNull()) {
+                    return null;
+                }
 
-            JsonObject guild = jsonResponse.getAsJsonObject("guild");
-            JsonObject object = new JsonObject();
+                JsonObject guild = jsonResponse.getAsJsonObject("guild");
+                JsonObject object = new JsonObject();
 
-            long joined = 0;
-            JsonObject playerEntry;
+                long joined = 0;
+                JsonObject playerEntry;
 
-            // Iterate over all guild members to find the requested player by UUID
-            for (JsonElement element : guild.getAsJsonArray("members")) {
-                JsonObject entry = (JsonObject) element;
+                // Iterate over all guild members to find the requested player by UUID
+                for (JsonElement element : guild.getAsJsonArray("members")) {
+                    JsonObject entry = (JsonObject) element;
 
-                if (entry.get("uuid").getAsString().equals(uuid.replace("-", ""))) {
-                    playerEntry = entry;
-                    joined = playerEntry.get("joined").getAsLong();
-                    break;
+                    if (entry.get("uuid").getAsString().equals(uuid.replace("-", ""))) {
+                        playerEntry = entry;
+                        joined = playerEntry.get("joined").getAsLong();
+                        break;
+                    }
                 }
-            }
 
-            object.addProperty("name", guild.get("name").getAsString());
+                object.addProperty("name", guild.get("name").getAsString());
+
+                // Not all guilds have tags
+                if (guild.has("tag")) {
 
-            // Not all guilds have tags
-            if (guild.has("tag")) {
+                    // Not all guilds have tag colors
+                    if (guild.has("tagColor")) {
+                        object.addProperty("tag",
+                            String.format("%s[%s]",
+                                MinecraftColors.getCodeFromName(guild.get("tagColor").getAsString()),
+                                guild.get("tag").getAsString()
+                            )
+                        );
+                    } else {
+                        object.addProperty("tag",
+                            String.format("%s[%s]", "§7", guild.get("tag").getAsString()));
+                    }
 
-                // Not all guilds have tag colors
-                if (guild.has("tagColor")) {
-                    object.addProperty("tag",
-                        String.format("%s[%s]",
-                            MinecraftColors.getCodeFromName(guild.get("tagColor").getAsString()),
-                            guild.get("tag").getAsString()
-                        )
-                    );
                 } else {
-                    object.addProperty("tag",
-                        String.format("%s[%s]", "§7", guild.get("tag").getAsString()));
+                    object.addProperty("tag", "");
                 }
 
-            } else {
-                object.addProperty("tag", "");
-            }
+                int guildXP = guild.has("exp") ? guild.get("exp").getAsInt() : 0;
+                object.addProperty("level", GuildLevel.getExactLevel(guildXP));
+                object.addProperty("members", guild.getAsJsonArray("members").size());
+                object.addProperty("joined", joined);
 
-            int guildXP = guild.has("exp") ? guild.get("exp").getAsInt() : 0;
-            object.addProperty("level", GuildLevel.getExactLevel(guildXP));
-            object.addProperty("members", guild.getAsJsonArray("members").size());
-            object.addProperty("joined", joined);
+                return object;
+            })
+            .exceptionally(e -> this.reportFailure(e, "Hypixel guild", uuid, null));
+    }
 
-            return object;
+    protected JsonObject fetchHypixelStats(@NonNull String uuid) {
+        return this.join(this.fetchHypixelStatsAsync(uuid));
+    }
 
-        } catch (Exception e) {
-            Nadeshiko.logger.error("Encountered error while looking up Hypixel guild for {}", uuid, e);
-            Nadeshiko.INSTANCE.getDiscordMonitor().alertException(e,
-                "Encountered error while looking up Hypixel guild for %s", uuid);
+    protected CompletableFuture<JsonObject> fetchHypixelStatsAsync(@NonNull String uuid) {
+        return HTTPUtil.getAsync("https://api.hypixel.net/v2/player?uuid=" + uuid +
+                "&key=" + Nadeshiko.INSTANCE.getHypixelKey())
+            .thenApply(response -> {
+                JsonObject jsonResponse = JsonParser.parseString(response.response()).getAsJsonObject();
 
-            return null;
-        }
+                // If the player hasn't even been on Hypixel before, player will be null
+                if (jsonResponse.has("player") && !jsonResponse.get("player").isJsonNull()) {
+                    return jsonResponse.get("player").getAsJsonObject();
+                } else {
+                    return null; // The player exists but has never been on Hypixel before
+                }
+            })
+            .exceptionally(e -> this.reportFailure(e, "Hypixel stats", uuid, null));
     }
 
-    protected JsonObject fetchHypixelStats(@NonNull String uuid) {
+    /**
+     * Wait for a pending lookup, but no later than the provided deadline. Lookups that fail or miss the deadline
+     * degrade to the provided fallback instead of failing the whole response.
+     * @param future The pending lookup
+     * @param deadline The {@link System#nanoTime()} by which the lookup must have completed
+     * @param fallback The value to use if the lookup did not complete in time
+     * @param what A description of the lookup, for logging
+     * @return The result of the lookup, or {@code fallback}
+     */
+    protected <T> T await(@NonNull CompletableFuture<T> future, long deadline, T fallback, @NonNull String what) {
         try {
-            HTTPUtil.Response response =
-                HTTPUtil.get("https://api.hypixel.net/v2/player?uuid=" + uuid +
-                    "&key=" + Nadeshiko.INSTANCE.getHypixelKey());
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            Nadeshiko.logger.warn("Timed out waiting on {}, continuing without it", what);
+            future.cancel(true);
+            return fallback;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            return fallback;
+        } catch (ExecutionException e) {
+            // Without the budget to complete the response, fail the whole response with a 503
+            if (e.getCause() instanceof RateLimitedException rateLimited) {
+                throw rateLimited;
+            }
 
-            JsonObject jsonResponse = JsonParser.parseString(response.response()).getAsJsonObject();
+            return fallback; // Lookups report their own failures, this should never happen
+        }
+    }
 
-            // If the player hasn't even been on Hypixel before, player will be null
-            if (jsonResponse.has("player") && !jsonResponse.get("player").isJsonNull()) {
-                return jsonResponse.get("player").getAsJsonObject();
-            } else {
-                return null; // The player exists but has never been on Hypixel before
+    /**
+     * Wait for a pending lookup. Lookups shed by the rate limit governor are rethrown as is, rather than wrapped in a
+     * {@link CompletionException}, so that they are still answered with a 503.
+     * @param future The pending lookup
+     * @return The result of the lookup
+     */
+    private <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RateLimitedException rateLimited) {
+                throw rateLimited;
             }
 
-        } catch (Exception e) {
-            Nadeshiko.logger.error("Encountered error while looking up Hypixel stats for {}", uuid, e);
-            Nadeshiko.INSTANCE.getDiscordMonitor().alertException(e,
-                "Encountered error while looking up Hypixel stats for %s", uuid);
+            throw e;
+        }
+    }
 
-            return null;
+    /**
+     * Log and alert on a failed lookup. Lookups shed by the rate limit governor are not failures of the lookup
+     * itself, so they are passed on instead, for {@link #await(CompletableFuture, long, Object, String)} to surface.
+     * @param throwable The cause of the failure, possibly wrapped by the future it was thrown in
+     * @param what A description of what was being looked up
+     * @param subject The player that was being looked up
+     * @param fallback The value to return in place of the lookup's result
+     * @return {@code fallback}
+     */
+    private <T> T reportFailure(Throwable throwable, String what, String subject, T fallback) {
+        Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ?
+            throwable.getCause() : throwable;
+        if (cause instanceof RateLimitedException rateLimited) {
+            throw rateLimited;
         }
+
+        Exception e = cause instanceof Exception exception ? exception : new Exception(cause);
+
+        Nadeshiko.logger.error("Encountered error while looking up {} for {}", what, subject, e);
+        Nadeshiko.INSTANCE.getDiscordMonitor().alertException(e,
+            "Encountered error while looking up %s for %s", what, subject);
+
+        return fallback;
     }
 
     protected JsonObject buildHypixelProfile(@NonNull JsonObject playerObj) {
@@ -15,25 +15,39 @@ package io.nadeshiko.nadeshiko;
 
 import com.google.gson.Gson;
 import io.nadeshiko.nadeshiko.api.*;
+import io.nadeshiko.nadeshiko.cards.CardAssets;
+import io.nadeshiko.nadeshiko.cards.CardEncoder;
 import io.nadeshiko.nadeshiko.cards.CardsCache;
+import io.nadeshiko.nadeshiko.leaderboards.LeaderboardCache;
 import io.nadeshiko.nadeshiko.leaderboards.LeaderboardService;
 import io.nadeshiko.nadeshiko.monitoring.DiscordMonitor;
 import io.nadeshiko.nadeshiko.monitoring.StatisticsService;
 import io.nadeshiko.nadeshiko.skyblock.SkyBlockCache;
 import io.nadeshiko.nadeshiko.stats.GuildCache;
+import io.nadeshiko.nadeshiko.stats.MemberCache;
 import io.nadeshiko.nadeshiko.stats.StatsCache;
+import io.nadeshiko.nadeshiko.util.Cache;
+import io.nadeshiko.nadeshiko.util.CacheStore;
+import io.nadeshiko.nadeshiko.util.ExecutorUtil;
 import io.nadeshiko.nadeshiko.util.HTTPUtil;
+import io.nadeshiko.nadeshiko.util.OverloadedException;
+import io.nadeshiko.nadeshiko.util.RateLimitedException;
+import io.nadeshiko.nadeshiko.util.VirtualThreadPool;
 import io.nadeshiko.networth.NetworthCalculator;
 import io.nadeshiko.networth.exception.InvalidApiKeyException;
 import lombok.Getter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import spark.Service;
+import spark.embeddedserver.EmbeddedServers;
+import spark.embeddedserver.jetty.EmbeddedJettyFactory;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ThreadPoolExecutor;
 
 /**
  * Main class of the nadeshiko backend
@@ -82,6 +96,30 @@ public class Nadeshiko {
 	@Getter
 	private final StatsCache statsCache = new StatsCache();
 
+	/**
+	 * The {@link MemberCache} instance of this backend instance
+	 */
+	@Getter
+	private final MemberCache memberCache = new MemberCache();
+
+	/**
+	 * The {@link LeaderboardCache} instance of this backend instance
+	 */
+	@Getter
+	private final LeaderboardCache leaderboardCache = new LeaderboardCache();
+
+	/**
+	 * The {@link CardAssets} instance of this backend instance, holding the decoded card templates and images
+	 */
+	@Getter
+	private final CardAssets cardAssets = new CardAssets();
+
+	/**
+	 * The {@link CardEncoder} instance of this backend instance, encoding rendered cards
+	 */
+	@Getter
+	private final CardEncoder cardEncoder = new CardEncoder();
+
 	/**
 	 * The {@link CardsCache} instance of this backend instance
 	 */
@@ -100,6 +138,25 @@ public class Nadeshiko {
 	@Getter
 	private final SkyBlockCache skyBlockCache = new SkyBlockCache();
 
+	/**
+	 * The {@link CacheStore} backing the caches of this backend instance, or {@code null} if persistence is disabled
+	 */
+	@Getter
+	private CacheStore cacheStore;
+
+	/**
+	 * The fixed pool that cards are rendered on, so that CPU-heavy rendering can't starve I/O-bound request threads.
+	 * Its queue is bounded, so that a burst of card requests is refused rather than left waiting indefinitely.
+	 */
+	@Getter
+	private ThreadPoolExecutor renderPool;
+
+	/**
+	 * The fixed pool that SkyBlock networth calculations run on, for the same reasons
+	 */
+	@Getter
+	private ThreadPoolExecutor networthPool;
+
 	/**
 	 * The {@link StatisticsService} of this backend instance
 	 */
@@ -167,14 +224,33 @@ public class Nadeshiko {
 		// Read config file
 		this.readConfig();
 
+		// Apply the per-host HTTP timeouts, if any were configured
+		HTTPUtil.configure(this.config);
+
+		// Set up the worker pools, and the virtual thread request pool if enabled
+		this.igniteThreads();
+
+		// Decode the card templates and images once, rather than on every card
+		this.cardAssets.load();
+		this.cardEncoder.configure(this.config);
+
+		// Apply the cache TTLs and bounds, if any were configured
+		for (Cache<?, ?> cache : this.getCaches()) {
+			cache.configure(this.config);
+		}
+
 		// Start the Discord monitor, if enabled
 		this.igniteDiscordMonitor();
 		discordMonitor.log("Igniting nadeshiko...");
 
 		// Connect to the leaderboard database, creating the collections if required
 		String uri = this.config.containsKey("database") ? (String) this.config.get("database") : DEFAULT_DATABASE;
+		this.leaderboardService.configure(this.config);
 		this.leaderboardService.connect(uri);
 
+		// Back the caches with the persistent cache store, if enabled
+		this.igniteCacheStore();
+
 		// Read the API key from the config file
 		this.hypixelKey = (String) this.config.get("hypixel_key");
 
@@ -225,9 +301,29 @@ public class Nadeshiko {
 		spark.get("/stats", StatsController.serveStatsEndpoint);
 		spark.get("/quests", QuestsController.serveQuestsEndpoint);
 		spark.get("/leaderboard", LeaderboardController.serveLeaderboardEndpoint);
+		spark.get("/leaderboard/player", LeaderboardController.servePlayerEndpoint);
+		spark.get("/leaderboard/distribution", LeaderboardController.serveDistributionEndpoint);
+		spark.get("/leaderboard/backfill", LeaderboardController.serveBackfillEndpoint);
 		spark.get("/skyblock", SkyBlockController.serveSkyBlockEndpoint);
+		spark.get("/metrics", MetricsController.serveMetricsEndpoint);
 		spark.get("/", (request, response) -> "nadeshiko backend version " + VERSION);
 
+		// Work refused by an overloaded worker pool is also temporary, and is retried shortly
+		spark.exception(OverloadedException.class, (exception, request, response) -> {
+			response.status(503);
+			response.type("application/json");
+			response.header("Retry-After", "1");
+			response.body("{\"success\":false,\"cause\":\"The server is busy, please try again later\"}");
+		});
+
+		// Requests shed to protect the Hypixel API key's budget are a temporary condition, not an internal error
+		spark.exception(RateLimitedException.class, (exception, request, response) -> {
+			response.status(503);
+			response.type("application/json");
+			response.header("Retry-After", String.valueOf(exception.getRetryAfter()));
+			response.body("{\"success\":false,\"cause\":\"Too many requests, please try again later\"}");
+		});
+
 		// Set up the shutdown method on JVM stop
 		Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown));
 
@@ -244,7 +340,10 @@ public class Nadeshiko {
 	public void shutdown() {
 		logger.info("Stopping!");
 
-		// Disconnect from the database
+		// Finish writing queued cache entries, then disconnect from the database
+		if (this.cacheStore != null) {
+			this.cacheStore.close();
+		}
 		this.leaderboardService.disconnect();
 
 		// Stop the Spark instance
@@ -256,6 +355,74 @@ public class Nadeshiko {
 		discordMonitor.log("Stopped! nadeshiko was running since <t:%d:f>", this.startTime / 1000);
 	}
 
+	/**
+	 * Reads the {@code threads} section of the configuration, if present, and sets up the worker pools. Example:
+	 * <pre>{@code
+	 * "threads": { "virtual": true, "render": 4, "render_queue": 32, "networth": 2, "networth_queue": 16 }
+	 * }</pre>
+	 * If {@code virtual} is true, every request is served on its own virtual thread instead of Jetty's default pool.
+	 * The render and networth pools default to half of the available processors each. Up to {@code render_queue} cards
+	 * and {@code networth_queue} networth calculations (default: eight per thread) wait for a thread of their pool, and
+	 * any more are refused.
+	 */
+	private void igniteThreads() {
+		Map<?, ?> threadConfig = this.config.containsKey("threads") ? (Map<?, ?>) this.config.get("threads") : Map.of();
+		int defaultThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+		int renderThreads = threadConfig.get("render") != null ?
+			(int) ((double) threadConfig.get("render")) : defaultThreads;
+		int renderQueue = threadConfig.get("render_queue") != null ?
+			(int) ((double) threadConfig.get("render_queue")) : renderThreads * 8;
+		int networthThreads = threadConfig.get("networth") != null ?
+			(int) ((double) threadConfig.get("networth")) : defaultThreads;
+		int networthQueue = threadConfig.get("networth_queue") != null ?
+			(int) ((double) threadConfig.get("networth_queue")) : networthThreads * 8;
+
+		this.renderPool = ExecutorUtil.newBoundedPool("render", renderThreads, renderQueue);
+		this.networthPool = ExecutorUtil.newBoundedPool("networth", networthThreads, networthQueue);
+
+		// Must be registered before the Spark instance is ignited
+		if (Boolean.TRUE.equals(threadConfig.get("virtual"))) {
+			logger.info("Serving requests on virtual threads");
+			EmbeddedServers.add(EmbeddedServers.Identifiers.JETTY,
+				new EmbeddedJettyFactory().withThreadPool(new VirtualThreadPool()));
+		}
+	}
+
+	/**
+	 * @return All caches of this backend instance
+	 */
+	public List<Cache<?, ?>> getCaches() {
+		return List.of(this.statsCache, this.memberCache, this.guildCache, this.skyBlockCache, this.leaderboardCache,
+			this.cardsCache);
+	}
+
+	/**
+	 * Back all caches with a {@link CacheStore} in the nadeshiko database, if enabled in the config, and warm them up
+	 * with the most recently written entries in the background
+	 */
+	private void igniteCacheStore() {
+		Map<?, ?> cacheConfig = (Map<?, ?>) this.config.get("cache");
+
+		if (cacheConfig == null || !Boolean.TRUE.equals(cacheConfig.get("persistent"))) {
+			logger.info("Persistent cache store is disabled");
+			return;
+		}
+
+		int warmUpLimit = cacheConfig.get("warm_up") != null ? (int) ((double) cacheConfig.get("warm_up")) : 500;
+
+		this.cacheStore = new CacheStore(this.leaderboardService.getNadeshikoDatabase());
+		for (Cache<?, ?> cache : this.getCaches()) {
+			cache.attach(this.cacheStore);
+		}
+
+		new Thread(() -> {
+			for (Cache<?, ?> cache : this.getCaches()) {
+				logger.info("Warmed up cache {} with {} stored entries", cache.getName(), cache.warmUp(warmUpLimit));
+			}
+		}, "cache-warm-up").start();
+	}
+
 	/**
 	 * Reads the configuration file into the {@code config} map. If the process fails, the server is terminated
 	 */
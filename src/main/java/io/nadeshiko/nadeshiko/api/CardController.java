@@ -16,7 +16,9 @@ package io.nadeshiko.nadeshiko.api;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import io.nadeshiko.nadeshiko.Nadeshiko;
+import io.nadeshiko.nadeshiko.cards.CardEncoder;
 import io.nadeshiko.nadeshiko.cards.CardGame;
+import io.nadeshiko.nadeshiko.cards.CardsCache;
 import spark.Request;
 import spark.Response;
 import spark.Route;
@@ -89,8 +91,65 @@ public class CardController {
 		// Register the request with the stats service
 		Nadeshiko.INSTANCE.getStatsService().registerCardRequest(data.get("name").getAsString(), game);
 
+		// Fetch the player's stats, which the card is drawn from
+		String name = data.get("name").getAsString();
+		JsonObject stats = Nadeshiko.INSTANCE.getStatsCache().get(name, true);
+
+		// Ensure the player is valid and fetching stats succeeded
+		if (!stats.has("success") || !stats.get("success").getAsBoolean()) {
+			Nadeshiko.INSTANCE.alert("Failed generating %s card for %s!", game.name(), name);
+			response.status(stats.has("status") ? stats.get("status").getAsInt() : 500);
+			response.type("application/json");
+			return stats.toString();
+		}
+
+		// Encode the card as WebP for clients that accept it, if possible
+		CardEncoder encoder = Nadeshiko.INSTANCE.getCardEncoder();
+		CardEncoder.Format format = encoder.negotiate(request.headers("Accept"));
+		if (encoder.isNegotiating()) {
+			response.header("Vary", "Accept");
+		}
+
+		// Cards are identified by everything they are drawn from, so clients holding the same card can revalidate it
+		CardsCache cache = Nadeshiko.INSTANCE.getCardsCache();
+		String tag = cache.getTag(game, data.get("size").getAsString(), format, stats);
+		String etag = "\"" + tag + "\"";
+		response.header("ETag", etag);
+
+		if (matches(request.headers("If-None-Match"), etag)) {
+			response.status(304);
+			return "";
+		}
+
 		// Return the data as provided from the cache
-		response.type("image/png");
-		return Nadeshiko.INSTANCE.getCardsCache().get(data, game);
+		response.type(format.getMimeType());
+		return cache.get(tag, game, format, stats);
 	};
+
+	/**
+	 * Check an {@code If-None-Match} header against an entity tag
+	 * @param ifNoneMatch The header, if any
+	 * @param etag The entity tag of the current response, including its quotes
+	 * @return Whether the header lists the entity tag, or is a wildcard
+	 */
+	private static boolean matches(String ifNoneMatch, String etag) {
+		if (ifNoneMatch == null) {
+			return false;
+		}
+
+		for (String candidate : ifNoneMatch.split(",")) {
+			candidate = candidate.trim();
+
+			// If-None-Match uses the weak comparison, so weak tags match their strong counterparts
+			if (candidate.startsWith("W/")) {
+				candidate = candidate.substring(2);
+			}
+
+			if (candidate.equals("*") || candidate.equals(etag)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
 }
\ No newline at end of file
@@ -13,8 +13,12 @@
 
 package io.nadeshiko.nadeshiko.api;
 
+import com.google.gson.JsonObject;
+import io.nadeshiko.nadeshiko.BaseBuilder;
 import io.nadeshiko.nadeshiko.Nadeshiko;
 import io.nadeshiko.nadeshiko.leaderboards.Leaderboard;
+import io.nadeshiko.nadeshiko.leaderboards.LeaderboardCursor;
+import io.nadeshiko.nadeshiko.leaderboards.LeaderboardDefinition;
 import spark.Request;
 import spark.Response;
 import spark.Route;
@@ -22,7 +26,8 @@ import spark.Route;
 import java.util.Objects;
 
 /**
- * Controller for the /leaderboard endpoint of the API
+ * Controller for the /leaderboard, /leaderboard/player, /leaderboard/distribution and /leaderboard/backfill endpoints
+ * of the API
  * @see Route
  * @since 0.9.0
  * @author chloe
@@ -41,24 +46,140 @@ public class LeaderboardController {
             return "{\"success\":false,\"cause\":\"Missing leaderboard parameter\"}";
         }
 
-        // Ensure that the provided leaderboard is valid
-        if (Leaderboard.get(request.queryParams("leaderboard")) == null) {
+        // Ensure that the provided leaderboard is valid, either built in or dynamic
+        if (Leaderboard.resolve(request.queryParams("leaderboard")) == null) {
             response.status(400);
             response.type("application/json");
             return "{\"success\":false,\"cause\":\"Unknown leaderboard!\"}";
         }
 
-        int page = request.queryParams().contains("page") ? Integer.parseInt(request.queryParams("page")) : 1;
+        LeaderboardDefinition leaderboard = Objects.requireNonNull(
+            Leaderboard.resolve(request.queryParams("leaderboard")));
 
-        // Ensure that the page is valid
-        if (page < 1) {
+        JsonObject page;
+
+        // Continue from a cursor, if one was provided
+        if (request.queryParams().contains("cursor")) {
+            LeaderboardCursor cursor = LeaderboardCursor.decode(request.queryParams("cursor"));
+
+            // Ensure that the cursor is valid
+            if (cursor == null) {
+                response.status(400);
+                response.type("application/json");
+                return "{\"success\":false,\"cause\":\"Malformed cursor!\"}";
+            }
+
+            page = Nadeshiko.INSTANCE.getLeaderboardCache().get(leaderboard, cursor);
+        } else {
+            long number;
+            try {
+                number = request.queryParams().contains("page") ? Long.parseLong(request.queryParams("page")) : 1;
+            } catch (NumberFormatException e) {
+                response.status(400);
+                response.type("application/json");
+                return "{\"success\":false,\"cause\":\"Malformed page!\"}";
+            }
+
+            // Ensure that the page is valid, and exists
+            long pages = Math.max(1, (Nadeshiko.INSTANCE.getLeaderboardCache().getCount(leaderboard) + 99) / 100);
+            if (number < 1 || number > pages) {
+                response.status(400);
+                response.type("application/json");
+                return "{\"success\":false,\"cause\":\"Page must be between 1 and " + pages + "!\"}";
+            }
+
+            page = Nadeshiko.INSTANCE.getLeaderboardCache().get(leaderboard, (int) number);
+        }
+
+        // Concurrent requests may share this response, so strip the status from a copy of it
+        if (!page.get("success").getAsBoolean()) {
+            page = page.deepCopy();
+            response.status(page.get("status").getAsInt());
+            page.remove("status");
+        }
+
+        response.type("application/json");
+        return page;
+    };
+
+    /**
+     * Route provider to serve the /leaderboard/player endpoint of the API
+     */
+    public static Route servePlayerEndpoint = (Request request, Response response) -> {
+        response.type("application/json");
+
+        // Ensure that a UUID was provided
+        if (!request.queryParams().contains("uuid")) {
             response.status(400);
-            response.type("application/json");
-            return "{\"success\":false,\"cause\":\"Page must greater than zero!\"}";
+            return "{\"success\":false,\"cause\":\"Missing uuid parameter\"}";
+        }
+
+        JsonObject cached = Nadeshiko.INSTANCE.getLeaderboardCache()
+            .getPlayer(BaseBuilder.toDashedUuid(request.queryParams("uuid").toLowerCase()));
+
+        // Ensure that the response from the cache is valid
+        if (!cached.get("success").getAsBoolean()) {
+            // Concurrent requests may share this response, so strip the status from a copy of it
+            cached = cached.deepCopy();
+            response.status(cached.get("status").getAsInt());
+            cached.remove("status");
         }
 
+        return cached;
+    };
+
+    /**
+     * Route provider to serve the /leaderboard/distribution endpoint of the API
+     */
+    public static Route serveDistributionEndpoint = (Request request, Response response) -> {
+        response.type("application/json");
+
+        // Ensure that a leaderboard was provided
+        if (!request.queryParams().contains("leaderboard")) {
+            response.status(400);
+            return "{\"success\":false,\"cause\":\"Missing leaderboard parameter\"}";
+        }
+
+        // Ensure that the provided leaderboard is valid, either built in or dynamic
+        LeaderboardDefinition leaderboard = Leaderboard.resolve(request.queryParams("leaderboard"));
+        if (leaderboard == null) {
+            response.status(400);
+            return "{\"success\":false,\"cause\":\"Unknown leaderboard!\"}";
+        }
+
+        int buckets;
+        Double value;
+        Double percentile;
+        try {
+            buckets = request.queryParams().contains("buckets") ? Integer.parseInt(request.queryParams("buckets")) : 20;
+            value = request.queryParams().contains("value") ? Double.valueOf(request.queryParams("value")) : null;
+            percentile = request.queryParams().contains("percentile") ?
+                Double.valueOf(request.queryParams("percentile")) : null;
+        } catch (NumberFormatException e) {
+            response.status(400);
+            return "{\"success\":false,\"cause\":\"Malformed number!\"}";
+        }
+
+        // Ensure that the bucket count and percentile are valid
+        if (buckets < 1 || buckets > 100) {
+            response.status(400);
+            return "{\"success\":false,\"cause\":\"Buckets must be between 1 and 100!\"}";
+        }
+
+        if (percentile != null && !(percentile >= 0 && percentile <= 100)) {
+            response.status(400);
+            return "{\"success\":false,\"cause\":\"Percentile must be between 0 and 100!\"}";
+        }
+
+        return Nadeshiko.INSTANCE.getLeaderboardService().getDistribution(leaderboard, buckets,
+            "log".equals(request.queryParams("scale")), value, percentile);
+    };
+
+    /**
+     * Route provider to serve the /leaderboard/backfill endpoint of the API, reporting the progress of the backfill
+     */
+    public static Route serveBackfillEndpoint = (Request request, Response response) -> {
         response.type("application/json");
-        return Nadeshiko.INSTANCE.getLeaderboardService()
-            .get(Objects.requireNonNull(Leaderboard.get(request.queryParams("leaderboard"))), page);
+        return Nadeshiko.INSTANCE.getLeaderboardService().getBackfillStatistics();
     };
 }
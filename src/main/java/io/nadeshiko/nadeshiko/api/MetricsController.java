@@ -0,0 +1,60 @@
+/*
+ * This file is a part of the Nadeshiko project. Nadeshiko is free software, licensed under the MIT license.
+ *
+ * Usage of these works (including, yet not limited to, reuse, modification, copying, distribution, and selling) is
+ * permitted, provided that the relevant copyright notice and permission notice (as specified in LICENSE) shall be
+ * included in all copies or substantial portions of this software.
+ *
+ * These works are provided "AS IS" with absolutely no warranty of any kind, either expressed or implied.
+ *
+ * You should have received a copy of the MIT License alongside this software; refer to LICENSE for information.
+ * If not, refer to https://mit-license.org.
+ */
+
+package io.nadeshiko.nadeshiko.api;
+
+import com.google.gson.JsonObject;
+import io.nadeshiko.nadeshiko.Nadeshiko;
+import io.nadeshiko.nadeshiko.util.Cache;
+import io.nadeshiko.nadeshiko.util.HTTPUtil;
+import spark.Request;
+import spark.Response;
+import spark.Route;
+
+/**
+ * Controller for the /metrics endpoint of the API
+ * @see Route
+ * @author chloe
+ */
+public class MetricsController {
+
+    /**
+     * Route provider to serve the /metrics endpoint of the API
+     */
+    public static Route serveMetricsEndpoint = (Request request, Response response) -> {
+        final Nadeshiko nadeshiko = Nadeshiko.INSTANCE;
+        final JsonObject metrics = new JsonObject();
+
+        // Cache statistics
+        final JsonObject caches = new JsonObject();
+        for (Cache<?, ?> cache : nadeshiko.getCaches()) {
+            caches.add(cache.getName(), cache.getStatistics());
+        }
+        metrics.add("caches", caches);
+
+        // Rate limit budgets
+        metrics.add("rate_limits", HTTPUtil.getRateLimitStatistics());
+        metrics.add("guild_members", Nadeshiko.INSTANCE.getGuildCache().getMemberStatistics());
+        metrics.add("leaderboard_ingestion",
+            Nadeshiko.INSTANCE.getLeaderboardService().getIngestionStatistics());
+        metrics.add("card_rendering", nadeshiko.getCardsCache().getRenderStatistics());
+
+        // Persistent cache store statistics, if enabled
+        if (nadeshiko.getCacheStore() != null) {
+            metrics.add("cache_store", nadeshiko.getCacheStore().getStatistics());
+        }
+
+        response.type("application/json");
+        return metrics.toString();
+    };
+}
@@ -77,6 +77,8 @@ public class QuestsController {
 		if (cached.get("success").getAsBoolean()) {
 			response.status(200);
 		} else {
+			// Concurrent requests may share this response, so strip the status from a copy of it
+			cached = cached.deepCopy();
 			response.status(cached.get("status").getAsInt());
 
 			// Remove the bad response from the cache, forcing it to be reattempted on the next request
@@ -0,0 +1,265 @@
+/*
+ * This file is a part of the Nadeshiko project. Nadeshiko is free software, licensed under the MIT license.
+ *
+ * Usage of these works (including, yet not limited to, reuse, modification, copying, distribution, and selling) is
+ * permitted, provided that the relevant copyright notice and permission notice (as specified in LICENSE) shall be
+ * included in all copies or substantial portions of this software.
+ *
+ * These works are provided "AS IS" with absolutely no warranty of any kind, either expressed or implied.
+ *
+ * You should have received a copy of the MIT License alongside this software; refer to LICENSE for information.
+ * If not, refer to https://mit-license.org.
+ */
+
+package io.nadeshiko.nadeshiko.cards;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.nadeshiko.nadeshiko.Nadeshiko;
+import lombok.NonNull;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystemAlreadyExistsException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Registry of the images and colors cards are drawn from, decoded once at startup.
+ * <p>
+ * Every image is converted to {@link BufferedImage#TYPE_INT_ARGB_PRE}, which Java2D composites without converting
+ * each pixel, and is never drawn on directly. Cards start from a copy of their template's pixels, rather than from a
+ * freshly decoded PNG. Badges added after startup are decoded the first time they are drawn, and kept from then on.
+ *
+ * @see CardGenerator
+ * @author chloe
+ */
+public class CardAssets {
+
+	/**
+	 * The template of each game, drawn on by {@link CardGenerator}
+	 */
+	private final Map<CardGame, BufferedImage> templates = new EnumMap<>(CardGame.class);
+
+	/**
+	 * The color of each game, as defined in {@code colors.json}
+	 */
+	private final Map<CardGame, Color> colors = new EnumMap<>(CardGame.class);
+
+	/**
+	 * The badge images and glow overlays, keyed by file name without extension. Images missing from the resources are
+	 * kept as empty, so that they aren't looked up again.
+	 */
+	private final Map<String, Optional<BufferedImage>> badges = new ConcurrentHashMap<>();
+
+	/**
+	 * The duel mode icons, keyed by texture name
+	 */
+	private final Map<String, BufferedImage> duelIcons = new ConcurrentHashMap<>();
+
+	/**
+	 * Decode every asset, and log how long each kind took
+	 */
+	public void load() {
+		long start = System.currentTimeMillis();
+
+		for (CardGame game : CardGame.values()) {
+			BufferedImage template = read("/cards/templates/" + game.name() + ".png");
+			if (template != null) {
+				this.templates.put(game, template);
+			} else {
+				Nadeshiko.INSTANCE.alert("Failed reading card template for %s!", game.name());
+			}
+		}
+		long templatesLoaded = System.currentTimeMillis();
+
+		this.loadColors();
+		long colorsLoaded = System.currentTimeMillis();
+
+		for (String name : list("/cards/badge")) {
+			this.badges.put(name, Optional.ofNullable(read("/cards/badge/" + name + ".png")));
+		}
+		long badgesLoaded = System.currentTimeMillis();
+
+		for (String name : list("/cards/duels")) {
+			BufferedImage icon = read("/cards/duels/" + name + ".png");
+			if (icon != null) {
+				this.duelIcons.put(name, icon);
+			}
+		}
+		long iconsLoaded = System.currentTimeMillis();
+
+		long bytes = Stream.of(this.templates.values().stream(),
+				this.badges.values().stream().flatMap(Optional::stream), this.duelIcons.values().stream())
+			.flatMap(images -> images)
+			.mapToLong(image -> (long) image.getWidth() * image.getHeight() * 4)
+			.sum();
+
+		Nadeshiko.logger.info("Loaded card assets in {} ms: {} templates ({} ms), {} colors ({} ms), {} badges ({} ms), " +
+				"{} duel icons ({} ms), {} KiB of pixels", iconsLoaded - start,
+			this.templates.size(), templatesLoaded - start,
+			this.colors.size(), colorsLoaded - templatesLoaded,
+			this.badges.size(), badgesLoaded - colorsLoaded,
+			this.duelIcons.size(), iconsLoaded - badgesLoaded,
+			bytes / 1024);
+	}
+
+	/**
+	 * Create a card to draw on, starting from a copy of a game's template
+	 * @param game The game to get the template of
+	 * @return A new image holding the template, or {@code null} if the game has no template
+	 */
+	public BufferedImage copyTemplate(@NonNull CardGame game) {
+		BufferedImage template = this.templates.get(game);
+		if (template == null) {
+			return null;
+		}
+
+		BufferedImage card = new BufferedImage(template.getWidth(), template.getHeight(),
+			BufferedImage.TYPE_INT_ARGB_PRE);
+		int[] source = ((DataBufferInt) template.getRaster().getDataBuffer()).getData();
+		int[] destination = ((DataBufferInt) card.getRaster().getDataBuffer()).getData();
+		System.arraycopy(source, 0, destination, 0, source.length);
+
+		return card;
+	}
+
+	/**
+	 * @param game The game to get the color of
+	 * @return The color of the game, or white if none is defined
+	 */
+	public Color getColor(@NonNull CardGame game) {
+		return this.colors.getOrDefault(game, Color.WHITE);
+	}
+
+	/**
+	 * @param name The name of the badge image or glow overlay, without extension
+	 * @return The image, or {@code null} if there is none. Must not be drawn on.
+	 */
+	public BufferedImage getBadge(@NonNull String name) {
+		return this.badges.computeIfAbsent(name, key -> Optional.ofNullable(read("/cards/badge/" + key + ".png")))
+			.orElse(null);
+	}
+
+	/**
+	 * @param textureName The texture name of the duel mode
+	 * @return The icon of the duel mode, or {@code null} if there is none. Must not be drawn on.
+	 */
+	public BufferedImage getDuelIcon(@NonNull String textureName) {
+		return this.duelIcons.get(textureName);
+	}
+
+	/**
+	 * Read the game colors from {@code colors.json}
+	 */
+	private void loadColors() {
+		try (InputStream stream = CardAssets.class.getResourceAsStream("/cards/templates/colors.json")) {
+
+			// Ensure colors.json exists
+			if (stream == null) {
+				Nadeshiko.INSTANCE.alert("cards/templates/colors.json was not found!");
+				return;
+			}
+
+			JsonObject json = JsonParser.parseReader(new InputStreamReader(stream)).getAsJsonObject();
+
+			for (CardGame game : CardGame.values()) {
+
+				// Ensure the game color is defined in colors.json
+				if (!json.has(game.name())) {
+					Nadeshiko.logger.warn("Game color of {} was not set! Falling back...", game.name());
+					continue;
+				}
+
+				this.colors.put(game, Color.decode(json.get(game.name()).getAsString()));
+			}
+		} catch (IOException e) {
+			Nadeshiko.INSTANCE.alert("Error while reading card colors!");
+		}
+	}
+
+	/**
+	 * Decode an image from the resources, converting it to {@link BufferedImage#TYPE_INT_ARGB_PRE}
+	 * @param path The path of the image within the resources
+	 * @return The image, or {@code null} if it doesn't exist or can't be decoded
+	 */
+	private static BufferedImage read(String path) {
+		try (InputStream stream = CardAssets.class.getResourceAsStream(path)) {
+			if (stream == null) {
+				return null;
+			}
+
+			BufferedImage decoded = ImageIO.read(stream);
+			if (decoded == null) {
+				return null;
+			}
+
+			BufferedImage image = new BufferedImage(decoded.getWidth(), decoded.getHeight(),
+				BufferedImage.TYPE_INT_ARGB_PRE);
+			Graphics2D graphics = image.createGraphics();
+			graphics.setComposite(AlphaComposite.Src);
+			graphics.drawImage(decoded, 0, 0, null);
+			graphics.dispose();
+
+			return image;
+		} catch (IOException e) {
+			Nadeshiko.logger.error("Failed reading card asset {}!", path, e);
+			return null;
+		}
+	}
+
+	/**
+	 * List the PNG images in a directory of the resources, whether they are packaged in a jar or not
+	 * @param directory The path of the directory within the resources
+	 * @return The names of the images, without extension
+	 */
+	private static List<String> list(String directory) {
+		URL url = CardAssets.class.getResource(directory);
+		if (url == null) {
+			return List.of();
+		}
+
+		try {
+			URI uri = url.toURI();
+			if (!"jar".equals(uri.getScheme())) {
+				return list(Path.of(uri));
+			}
+
+			try {
+				try (FileSystem jar = FileSystems.newFileSystem(uri, Map.of())) {
+					return list(jar.getPath(directory));
+				}
+			} catch (FileSystemAlreadyExistsException e) {
+				return list(FileSystems.getFileSystem(uri).getPath(directory));
+			}
+		} catch (Exception e) {
+			Nadeshiko.logger.error("Failed listing card assets in {}!", directory, e);
+			return List.of();
+		}
+	}
+
+	private static List<String> list(Path directory) throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.map(file -> file.getFileName().toString())
+				.filter(name -> name.endsWith(".png"))
+				.map(name -> name.substring(0, name.length() - ".png".length()))
+				.sorted()
+				.toList();
+		}
+	}
+}
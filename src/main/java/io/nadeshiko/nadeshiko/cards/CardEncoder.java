@@ -0,0 +1,319 @@
+/*
+ * This file is a part of the Nadeshiko project. Nadeshiko is free software, licensed under the MIT license.
+ *
+ * Usage of these works (including, yet not limited to, reuse, modification, copying, distribution, and selling) is
+ * permitted, provided that the relevant copyright notice and permission notice (as specified in LICENSE) shall be
+ * included in all copies or substantial portions of this software.
+ *
+ * These works are provided "AS IS" with absolutely no warranty of any kind, either expressed or implied.
+ *
+ * You should have received a copy of the MIT License alongside this software; refer to LICENSE for information.
+ * If not, refer to https://mit-license.org.
+ */
+
+package io.nadeshiko.nadeshiko.cards;
+
+import io.nadeshiko.nadeshiko.Nadeshiko;
+import lombok.Getter;
+import lombok.NonNull;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.IndexColorModel;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Encoder of rendered cards.
+ * <p>
+ * {@link ImageIO#write} looks up a writer for every image, buffers its output through a temporary file whenever the
+ * disk cache is enabled, and grows its output from a few bytes. This encoder instead keeps a pool of writers, each
+ * with its own output buffer that is reused from card to card, and writes to memory only. The deflate level is
+ * configurable, and cards with at most 256 distinct colors can be written as palette PNGs, losslessly.
+ * <p>
+ * Cards are also encoded as WebP for clients that accept it, if an ImageIO WebP writer is on the classpath. The JDK
+ * ships none, so without such a plugin every card is a PNG.
+ *
+ * @see CardGenerator
+ * @author chloe
+ */
+public class CardEncoder {
+
+	/**
+	 * The formats cards can be encoded in
+	 */
+	public enum Format {
+		PNG("png", "image/png"),
+		WEBP("webp", "image/webp");
+
+		/**
+		 * The ImageIO format name of this format
+		 */
+		private final String formatName;
+
+		/**
+		 * The MIME type of this format
+		 */
+		@Getter
+		private final String mimeType;
+
+		Format(String formatName, String mimeType) {
+			this.formatName = formatName;
+			this.mimeType = mimeType;
+		}
+	}
+
+	/**
+	 * The deflate level of the JDK's PNG writer, used unless another is configured
+	 */
+	private static final int DEFAULT_LEVEL = 4;
+
+	/**
+	 * The initial size of each output buffer. Buffers grow to fit the largest card they have encoded, and stay that size.
+	 */
+	private static final int INITIAL_BUFFER_SIZE = 512 * 1024;
+
+	/**
+	 * The maximum number of distinct colors of a card written as a palette PNG
+	 */
+	private static final int PALETTE_SIZE = 256;
+
+	/**
+	 * The deflate level of PNGs, from 0 (no compression) to 9 (smallest output)
+	 */
+	private int level = DEFAULT_LEVEL;
+
+	/**
+	 * Whether cards with few enough colors are written as palette PNGs
+	 */
+	private boolean palette = false;
+
+	/**
+	 * Whether cards are encoded as WebP for clients that accept it
+	 */
+	private boolean webp = true;
+
+	/**
+	 * Idle writers and their buffers, by format
+	 */
+	private final Map<Format, Queue<PooledWriter>> pool = new EnumMap<>(Format.class);
+
+	public CardEncoder() {
+		for (Format format : Format.values()) {
+			this.pool.put(format, new ConcurrentLinkedQueue<>());
+		}
+	}
+
+	/**
+	 * Reads the {@code cards} section of the configuration, if present. Example:
+	 * <pre>{@code
+	 * "cards": { "deflate_level": 4, "palette": true, "webp": true }
+	 * }</pre>
+	 *
+	 * @param config The whole configuration, as loaded from config.json
+	 */
+	public void configure(@NonNull Map<?, ?> config) {
+		Map<?, ?> cardsConfig = (Map<?, ?>) config.get("cards");
+
+		if (cardsConfig != null) {
+			if (cardsConfig.get("deflate_level") != null) {
+				this.level = Math.clamp((int) ((double) cardsConfig.get("deflate_level")), 0, 9);
+			}
+			if (cardsConfig.get("palette") != null) {
+				this.palette = (boolean) cardsConfig.get("palette");
+			}
+			if (cardsConfig.get("webp") != null) {
+				this.webp = (boolean) cardsConfig.get("webp");
+			}
+		}
+
+		this.webp &= ImageIO.getImageWritersByFormatName(Format.WEBP.formatName).hasNext();
+
+		Nadeshiko.logger.info("Encoding cards at deflate level {}{}{}", this.level,
+			this.palette ? ", with palettes where possible" : "", this.webp ? ", and as WebP where accepted" : "");
+	}
+
+	/**
+	 * @return The settings affecting the output of this encoder, which identify cards along with their inputs
+	 */
+	public String getSettings() {
+		return "level=" + this.level + ",palette=" + this.palette;
+	}
+
+	/**
+	 * @return Whether the format of a card depends on the client's {@code Accept} header
+	 */
+	public boolean isNegotiating() {
+		return this.webp;
+	}
+
+	/**
+	 * Choose the format of a card from the client's {@code Accept} header
+	 * @param accept The {@code Accept} header of the request, if any
+	 * @return WebP if the client explicitly accepts it and it is available, or PNG otherwise
+	 */
+	public Format negotiate(String accept) {
+		if (!this.webp || accept == null) {
+			return Format.PNG;
+		}
+
+		for (String range : accept.split(",")) {
+			String[] parameters = range.split(";");
+			if (!parameters[0].trim().equalsIgnoreCase(Format.WEBP.mimeType)) {
+				continue;
+			}
+
+			// "image/webp;q=0" explicitly refuses WebP
+			boolean refused = Arrays.stream(parameters).skip(1)
+				.map(String::trim)
+				.anyMatch(parameter -> parameter.matches("q=0(\\.0*)?"));
+
+			return refused ? Format.PNG : Format.WEBP;
+		}
+
+		return Format.PNG;
+	}
+
+	/**
+	 * Encode a card
+	 * @param image The card
+	 * @param format The format to encode the card in
+	 * @return The encoded card
+	 * @throws IOException If something went wrong writing the image data
+	 */
+	public byte[] encode(@NonNull BufferedImage image, @NonNull Format format) throws IOException {
+		if (format == Format.WEBP && !this.webp) {
+			format = Format.PNG;
+		}
+
+		if (format == Format.PNG && this.palette) {
+			image = toPalette(image);
+		}
+
+		PooledWriter pooled = this.pool.get(format).poll();
+		if (pooled == null) {
+			pooled = new PooledWriter(createWriter(format), new ByteArrayOutputStream(INITIAL_BUFFER_SIZE));
+		}
+
+		try {
+			pooled.buffer().reset();
+
+			try (ImageOutputStream output = new MemoryCacheImageOutputStream(pooled.buffer())) {
+				pooled.writer().setOutput(output);
+				pooled.writer().write(null, new IIOImage(image, null, null), this.createParam(pooled.writer(), format));
+			}
+
+			return pooled.buffer().toByteArray();
+		} finally {
+			pooled.writer().reset();
+			this.pool.get(format).offer(pooled);
+		}
+	}
+
+	/**
+	 * Create the write parameters of a card
+	 */
+	private ImageWriteParam createParam(ImageWriter writer, Format format) {
+		ImageWriteParam param = writer.getDefaultWriteParam();
+		if (!param.canWriteCompressed()) {
+			return param;
+		}
+
+		if (format == Format.PNG) {
+			// The JDK's PNG writer uses a deflate level of 9 - round(9 * quality)
+			param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+			param.setCompressionQuality((9 - this.level) / 9f);
+		} else if (param.getCompressionTypes() != null &&
+			Arrays.asList(param.getCompressionTypes()).contains("Lossless")) {
+			param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+			param.setCompressionType("Lossless");
+		}
+
+		return param;
+	}
+
+	/**
+	 * @param format The format to write
+	 * @return A new writer of the provided format
+	 */
+	private static ImageWriter createWriter(Format format) throws IOException {
+		Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format.formatName);
+		if (!writers.hasNext()) {
+			throw new IOException("No ImageIO writer for " + format.formatName);
+		}
+
+		return writers.next();
+	}
+
+	/**
+	 * Convert a card to an indexed image, if it has few enough distinct colors to do so losslessly
+	 * @param image The card
+	 * @return The card as an indexed image, or {@code image} itself if it has too many colors
+	 */
+	private static BufferedImage toPalette(BufferedImage image) {
+		int width = image.getWidth();
+		int height = image.getHeight();
+		int[] row = new int[width];
+
+		// Collect the distinct colors in a small open addressing table, giving up once there are too many. Rows are
+		// read one at a time, as most cards have too many colors after a few rows.
+		int[] table = new int[1024];
+		boolean[] used = new boolean[table.length];
+		byte[] slots = new byte[table.length];
+		int[] colors = new int[PALETTE_SIZE];
+		int count = 0;
+
+		byte[] indices = new byte[width * height];
+		for (int y = 0; y < height; y++) {
+			image.getRGB(0, y, width, 1, row, 0, width);
+
+			for (int x = 0; x < width; x++) {
+				int pixel = row[x];
+				int slot = (pixel * 0x9E3779B9) >>> 22;
+
+				while (used[slot] && table[slot] != pixel) {
+					slot = (slot + 1) & (table.length - 1);
+				}
+
+				if (!used[slot]) {
+					if (count == PALETTE_SIZE) {
+						return image;
+					}
+
+					used[slot] = true;
+					table[slot] = pixel;
+					slots[slot] = (byte) count;
+					colors[count++] = pixel;
+				}
+
+				indices[y * width + x] = slots[slot];
+			}
+		}
+
+		IndexColorModel model = new IndexColorModel(8, count, colors, 0, true, -1, DataBuffer.TYPE_BYTE);
+		BufferedImage indexed = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_INDEXED, model);
+
+		byte[] data = ((DataBufferByte) indexed.getRaster().getDataBuffer()).getData();
+		System.arraycopy(indices, 0, data, 0, indices.length);
+		return indexed;
+	}
+
+	/**
+	 * A writer, along with the buffer it writes to
+	 */
+	private record PooledWriter(ImageWriter writer, ByteArrayOutputStream buffer) {
+	}
+}
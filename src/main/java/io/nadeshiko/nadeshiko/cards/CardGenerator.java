@@ -17,14 +17,23 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import io.nadeshiko.nadeshiko.Nadeshiko;
 import io.nadeshiko.nadeshiko.stats.StatsBuilder;
+import io.nadeshiko.nadeshiko.util.ExecutorUtil;
 import io.nadeshiko.nadeshiko.util.HTTPUtil;
 import io.nadeshiko.nadeshiko.util.ImageUtil;
+import io.nadeshiko.nadeshiko.util.LatencyHistogram;
 import io.nadeshiko.nadeshiko.util.MinecraftRenderer;
+import io.nadeshiko.nadeshiko.util.OverloadedException;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.io.IOException;
 import java.io.InputStream;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * @since 0.1.0
@@ -32,7 +41,17 @@ import java.util.HashMap;
  */
 public class CardGenerator {
 
+	/**
+	 * The rendering statistics of each game
+	 */
+	private final Map<CardGame, RenderStatistics> statistics = new EnumMap<>(CardGame.class);
+
 	public CardGenerator() {
+		for (CardGame game : CardGame.values()) {
+			this.statistics.put(game, new RenderStatistics(new LatencyHistogram(), new LatencyHistogram(),
+				new LongAdder()));
+		}
+
 		try {
 			registerFont("/cards/fonts/Minecraft.otf");
 			registerFont("/cards/fonts/MinecraftBold.otf");
@@ -44,73 +63,119 @@ public class CardGenerator {
 		}
 	}
 
-	public byte[] generateCard(CardGame game, JsonObject data) throws Exception {
-
-		String name = data.get("name").getAsString();
-		String badge = Nadeshiko.INSTANCE.getStatsCache().get(name, true).get("badge").getAsString();
-		boolean hasBadge = !badge.isEmpty() && !badge.equals("NONE");
+	/**
+	 * Generate a card
+	 * @param game The game to generate the card of
+	 * @param statsResponse The player's stats, as returned by the stats cache. Must be successful.
+	 * @param format The format to encode the card in
+	 * @return The generated card, encoded in the provided format
+	 */
+	public byte[] generateCard(CardGame game, JsonObject statsResponse, CardEncoder.Format format) throws Exception {
 
-		BufferedImage card;
-		Graphics graphics;
+		String name = statsResponse.get("name").getAsString();
 
-		// Read the template from the resources
-		try (InputStream templateStream = CardGenerator.class.
-			getResourceAsStream("/cards/templates/" + game.name() + ".png")) {
+		// Get the player render
+		byte[] playerBytes = HTTPUtil.getRaw("https://visage.surgeplay.com/bust/333/" + name + ".png",
+			new HashMap<>() {{
+				put("User-Agent", "nadeshiko.io (+https://nadeshiko.io; contact@nadeshiko.io)");
+			}}).response();
 
-			byte[] cardTemplateBytes;
+		// Everything is fetched - hand the CPU-heavy rendering off to the render pool
+		RenderStatistics statistics = this.statistics.get(game);
+		long submitted = System.nanoTime();
 
-			if (templateStream != null) {
-				cardTemplateBytes = templateStream.readAllBytes();
-				card = ImageUtil.createImageFromBytes(cardTemplateBytes);
-				graphics = card.getGraphics();
-			} else {
-				Nadeshiko.INSTANCE.alert("Failed reading card template for %s!", game.name());
-				return null;
-			}
+		try {
+			return ExecutorUtil.callOn(Nadeshiko.INSTANCE.getRenderPool(), () -> {
+				long start = System.nanoTime();
+				statistics.queueWait().record(start - submitted);
+
+				try {
+					return this.renderCard(game, statsResponse, playerBytes, format);
+				} finally {
+					statistics.renderTime().record(System.nanoTime() - start);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			statistics.rejected().increment();
+			throw new OverloadedException("render");
 		}
+	}
+
+	/**
+	 * @return The state of the render pool, and the queue wait and render time histograms and rejection count of each
+	 * game, as a JsonObject
+	 */
+	public JsonObject getStatistics() {
+		ThreadPoolExecutor pool = Nadeshiko.INSTANCE.getRenderPool();
+
+		JsonObject statistics = new JsonObject();
+		statistics.addProperty("threads", pool.getMaximumPoolSize());
+		statistics.addProperty("active", pool.getActiveCount());
+		statistics.addProperty("queued", pool.getQueue().size());
+		statistics.addProperty("queue_capacity", pool.getQueue().size() + pool.getQueue().remainingCapacity());
+
+		JsonObject games = new JsonObject();
+		this.statistics.forEach((game, gameStatistics) -> {
+			JsonObject entry = new JsonObject();
+			entry.addProperty("rejected", gameStatistics.rejected().sum());
+			entry.add("queue_wait", gameStatistics.queueWait().getStatistics());
+			entry.add("render_time", gameStatistics.renderTime().getStatistics());
+			games.add(game.name(), entry);
+		});
+		statistics.add("games", games);
+
+		return statistics;
+	}
+
+	/**
+	 * Render a card from the fetched player data
+	 * @param game The game to render the card of
+	 * @param statsResponse The player's stats, as returned by the stats cache
+	 * @param playerBytes The player render, as a PNG
+	 * @param format The format to encode the card in
+	 * @return The rendered card, encoded in the provided format
+	 * @throws IOException If an asset of the card is missing, or encoding the card failed
+	 */
+	private byte[] renderCard(CardGame game, JsonObject statsResponse, byte[] playerBytes,
+		CardEncoder.Format format) throws Exception {
 
-		// Fetch the player's stats
-		JsonObject statsResponse = Nadeshiko.INSTANCE.getStatsCache().get(name, true);
 		JsonObject profileObject = statsResponse.getAsJsonObject("profile");
+		String badge = statsResponse.get("badge").getAsString();
+		boolean hasBadge = !badge.isEmpty() && !badge.equals("NONE");
+
+		CardAssets assets = Nadeshiko.INSTANCE.getCardAssets();
 
-		// Ensure the player is valid and fetching stats succeeded
-		if (!statsResponse.has("success") || !statsResponse.get("success").getAsBoolean()) {
-			Nadeshiko.INSTANCE.alert("Failed generating %s card for %s!", game.name(), name);
-			return statsResponse.toString().getBytes();
+		// Start from a copy of the template, decoded at startup
+		BufferedImage card = assets.copyTemplate(game);
+		if (card == null) {
+			Nadeshiko.INSTANCE.alert("Failed reading card template for %s!", game.name());
+			throw new IOException("Missing card template for " + game.name());
 		}
 
+		Graphics graphics = card.getGraphics();
+
 		// Add glow, if applicable
 		if (hasBadge) {
+			BufferedImage glowImage = assets.getBadge(badge.split("-")[0] + "-overlay");
 
-			// Read the glow overlay from the resources
-			try (InputStream glowStream = CardGenerator.class.
-				getResourceAsStream("/cards/badge/" + badge.split("-")[0] + "-overlay.png")) {
-
-				if (glowStream != null) {
-					byte[] glowBytes = glowStream.readAllBytes();
-					BufferedImage glowImage = ImageUtil.createImageFromBytes(glowBytes);
-
-					// Draw the glow
-					graphics.drawImage(glowImage, 0, 0, null);
-				} else {
-					Nadeshiko.INSTANCE.alert("Failed reading badge glow file for {}!", badge);
-					return null;
-				}
+			if (glowImage != null) {
+				// Draw the glow
+				graphics.drawImage(glowImage, 0, 0, null);
+			} else {
+				Nadeshiko.INSTANCE.alert("Failed reading badge glow file for %s!", badge);
+				throw new IOException("Missing badge glow for " + badge);
 			}
 		}
 
-		// Get the player render
-		byte[] playerBytes = HTTPUtil.getRaw("https://visage.surgeplay.com/bust/333/" + name + ".png",
-			new HashMap<>() {{
-				put("User-Agent", "nadeshiko.io (+https://nadeshiko.io; contact@nadeshiko.io)");
-			}}).response();
 		BufferedImage playerImage = ImageUtil.createImageFromBytes(playerBytes);
 
 		// Draw the player
 		graphics.drawImage(playerImage, 138, 165, null);
 
 		// Draw the name tag
-		int width = MinecraftRenderer.minecraftWidth(graphics, profileObject.get("tagged_name").getAsString(), 40);
+		String taggedName = profileObject.get("tagged_name").getAsString();
+		int nameWidth = MinecraftRenderer.minecraftWidth(graphics, taggedName, 40);
+		int width = nameWidth;
 		int textX = 300;
 
 		if (hasBadge) {
@@ -121,34 +186,25 @@ public class CardGenerator {
 		graphics.setColor(new Color(0, 0, 0, 128));
 		graphics.fillRect(300 - (width / 2) - 10, 83, width + 20, 50);
 
-		int nameWidth = MinecraftRenderer.minecraftWidth(graphics, profileObject.get("tagged_name").getAsString(), 40);
-		MinecraftRenderer.drawCenterMinecraftString(graphics,
-			profileObject.get("tagged_name").getAsString(), textX, 120, 40);
+		MinecraftRenderer.drawMinecraftString(graphics, taggedName, textX - (nameWidth / 2), 120, 40);
 
 		// Add the badge, if applicable
 		if (hasBadge) {
+			BufferedImage badgeImage = assets.getBadge(badge);
 
-			// Read the badge from the resources
-			try (InputStream glowStream = CardGenerator.class.
-				getResourceAsStream("/cards/badge/" + badge + ".png")) {
-
-				if (glowStream != null) {
-					byte[] badgeBytes = glowStream.readAllBytes();
-					BufferedImage badgeImage = ImageUtil.createImageFromBytes(badgeBytes);
-
-					// Draw the badge
-					graphics.drawImage(badgeImage, textX + (nameWidth / 2) + 10, 91, null);
-				} else {
-					Nadeshiko.INSTANCE.alert("Failed reading badge file for %s!", badge);
-					return null;
-				}
+			if (badgeImage != null) {
+				// Draw the badge
+				graphics.drawImage(badgeImage, textX + (nameWidth / 2) + 10, 91, null);
+			} else {
+				Nadeshiko.INSTANCE.alert("Failed reading badge file for %s!", badge);
+				throw new IOException("Missing badge for " + badge);
 			}
 		}
 
 		// Populate the template using the game's provider
 		game.getProvider().generate(card, statsResponse);
 
-		return ImageUtil.getBytesFromImage(card);
+		return Nadeshiko.INSTANCE.getCardEncoder().encode(card, format);
 	}
 
 	private void registerFont(String filename) throws Exception {
@@ -165,4 +221,13 @@ public class CardGenerator {
 			GraphicsEnvironment.getLocalGraphicsEnvironment().registerFont(font);
 		}
 	}
+
+	/**
+	 * The rendering statistics of a game
+	 * @param queueWait The time cards waited for a render thread
+	 * @param renderTime The time cards took to render and encode
+	 * @param rejected The number of cards refused because the render pool's queue was full
+	 */
+	private record RenderStatistics(LatencyHistogram queueWait, LatencyHistogram renderTime, LongAdder rejected) {
+	}
 }
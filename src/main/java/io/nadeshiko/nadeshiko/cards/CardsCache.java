@@ -14,27 +14,51 @@
 package io.nadeshiko.nadeshiko.cards;
 
 import com.google.gson.JsonObject;
+import io.nadeshiko.nadeshiko.Nadeshiko;
 import io.nadeshiko.nadeshiko.util.Cache;
-import lombok.Getter;
+import io.nadeshiko.nadeshiko.util.JsonUtil;
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HexFormat;
 
 /**
- * Simple cache implementation to save API responses for fifteen minutes before invalidating them.
+ * Cache of rendered cards, keyed by what they are rendered from rather than by the request.
  * <p>
  *
  * The primary purpose of the cache is to reduce the load on the Hypixel and Mojang APIs, as well as saving time
  * by not regenerating the whole response (a heavy operation) every time.
  * <p>
  *
- * The /card endpoint controller ({@link io.nadeshiko.nadeshiko.api.CardController}) utilizes the
- * {@link CardsCache#get(JsonObject, CardGame)} method to fetch the card for a given data set. If the card is not
- * in the cache, it relies upon the {@link CardGenerator} instance to draw a new card, which is then cached and returned.
+ * Each card is identified by its tag - a hash of its game, size and format, of the player's name tag, badge and skin,
+ * and of the parts of the player's stats its {@link io.nadeshiko.nadeshiko.cards.provider.CardProvider} draws from,
+ * along with the nadeshiko version and the encoder's settings. Requests that differ only in the order of their
+ * fields, or in fields that don't affect the card, share one card, and a card is only rendered again once its inputs
+ * actually change. Equal tags always mean byte for byte equal cards, so the tag doubles as a strong ETag.
+ * <p>
+ *
+ * The /card endpoint controller ({@link io.nadeshiko.nadeshiko.api.CardController}) computes the tag of a card with
+ * {@link CardsCache#getTag(CardGame, String, CardEncoder.Format, JsonObject)}, and then fetches the card with
+ * {@link CardsCache#get(String, CardGame, CardEncoder.Format, JsonObject)}. If the card is not in the cache, it relies
+ * upon the {@link CardGenerator} instance to draw a new card, which is then cached and returned.
  *
  * @see CardGenerator
  * @author chloe
  */
-public class CardsCache extends Cache<JsonObject, CardsCache.CacheEntry> {
+public class CardsCache extends Cache<String, byte[]> {
+
+	/**
+	 * Bumped whenever the tag is computed differently
+	 */
+	private static final String TAG_VERSION = "1";
+
+	public CardsCache() {
+		super("cards", 5000, 128L * 1024 * 1024, Duration.ofHours(1), Duration.ofHours(1));
+	}
 
 	/**
 	 * The Card Generator instance used to generate cards
@@ -42,63 +66,108 @@ public class CardsCache extends Cache<JsonObject, CardsCache.CacheEntry> {
 	 */
 	private final CardGenerator generator = new CardGenerator();
 
+	/**
+	 * Compute the tag of a card, identifying it by everything it is rendered from
+	 * @param game The game of the card
+	 * @param size The size of the card, as requested
+	 * @param format The format to encode the card in
+	 * @param stats The player's stats, as returned by the stats cache. Must be successful.
+	 * @return The tag of the card, as 32 hexadecimal digits
+	 */
+	public String getTag(@NonNull CardGame game, @NonNull String size, @NonNull CardEncoder.Format format,
+	                     @NonNull JsonObject stats) {
+
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is unavailable", e);
+		}
+
+		// How the card is drawn and encoded
+		String settings = String.join("\0", TAG_VERSION, Nadeshiko.VERSION,
+			Nadeshiko.INSTANCE.getCardEncoder().getSettings(), game.name(), size, format.name());
+		digest.update(settings.getBytes(StandardCharsets.UTF_8));
+
+		// What every card draws: the name tag, the badge and the player's skin
+		JsonObject player = new JsonObject();
+		player.add("tagged_name", stats.getAsJsonObject("profile").get("tagged_name"));
+		player.add("badge", stats.get("badge"));
+		player.add("skin", stats.has("skin") ? stats.get("skin") : stats.get("uuid"));
+		JsonUtil.digest(digest, player);
+
+		// What the game's provider draws
+		JsonUtil.digest(digest, game.getProvider().getInputs(stats));
+
+		return HexFormat.of().formatHex(Arrays.copyOf(digest.digest(), 16));
+	}
+
 	/**
 	 * Gets the specified card
 	 * <p>
 	 *
-	 * If the card is already in the cache, return the cached version. If the card is not in the cache, or
-	 * the cached response is over five minutes old, generate a new response, update the cache, and return
-	 * that instead.
+	 * If the card is already in the cache, return the cached version. Otherwise, generate the card, cache it, and
+	 * return it.
 	 *
-	 * @param data The data passed along, including the player and any custom settings.
-	 * @return The response for the given player
+	 * @param tag The tag of the card, as computed by {@link #getTag(CardGame, String, CardEncoder.Format, JsonObject)}
+	 * @param game The game of the card
+	 * @param format The format to encode the card in
+	 * @param stats The player's stats the tag was computed from
+	 * @return The card, encoded in the provided format
 	 */
-	public byte[] get(@NonNull JsonObject data, @NonNull CardGame game) throws Exception {
+	public byte[] get(@NonNull String tag, @NonNull CardGame game, @NonNull CardEncoder.Format format,
+	                  @NonNull JsonObject stats) throws Exception {
 
-		// Take this opportunity to remove all outdated cache entries to save memory
-		this.cache.entrySet().removeIf(entry -> entry.getValue().isExpired());
-
-		// If the data is already in the cache, and the cache isn't outdated, use that instead
-		if (this.cache.containsKey(data)) {
-			return this.cache.get(data).getCard();
+		// If the card is already in the cache, use that instead
+		final byte[] cached = this.getIfPresent(tag);
+		if (cached != null) {
+			return cached;
 		}
 
-		// The player either isn't in the cache, or the cache is outdated. Build a new response
-		final byte[] card = this.generator.generateCard(game, data);
+		// The card either isn't in the cache, or has expired. Generate it again, sharing it with any concurrent
+		// requests for the same card
+		return this.coalesce(tag, () -> {
+			final byte[] card = this.generator.generateCard(game, stats, format);
 
-		this.cache.put(data, new CacheEntry(card));
+			this.put(tag, card);
 
-		return card;
+			return card;
+		});
 	}
 
 	/**
-	 * An entry within the cache, mapped to in {@link CardsCache#cache} using player names with the game appended
-	 * as keys. Stores the time the entry was generated at, along with the card itself.
+	 * @return The rendering statistics of the card generator, as a JsonObject
+	 * @see CardGenerator#getStatistics()
 	 */
-	@Getter
-	@RequiredArgsConstructor
-	public static class CacheEntry {
-
-		/**
-		 * The time at which this cache entry was generated
-		 */
-		private final long cacheTime = System.currentTimeMillis();
-
-		private final byte[] card;
-
-		/**
-		 * Gets the time at which this cache entry expires - fifteen minutes after it was created
-		 * @return The timestamp fifteen minutes after this cache was created
-		 */
-		public long getExpiryTime() {
-			return this.cacheTime + (15 * 60 * 1000);
-		}
+	public JsonObject getRenderStatistics() {
+		return this.generator.getStatistics();
+	}
 
-		/**
-		 * @return Whether this cache entry should be considered outdated
-		 */
-		public boolean isExpired() {
-			return this.getExpiryTime() <= System.currentTimeMillis();
-		}
+	@Override
+	protected String serializeKey(@NonNull String key) {
+		return key;
+	}
+
+	@Override
+	protected String deserializeKey(@NonNull String key) {
+		return key;
+	}
+
+	@Override
+	protected byte[] serialize(byte @NonNull [] value) {
+		return value;
+	}
+
+	@Override
+	protected byte[] deserialize(byte @NonNull [] bytes) {
+		return bytes;
+	}
+
+	/**
+	 * Weigh cards by their encoded size
+	 */
+	@Override
+	protected long weigh(byte @NonNull [] value) {
+		return value.length;
 	}
 }
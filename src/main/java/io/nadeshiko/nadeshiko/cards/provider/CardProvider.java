@@ -13,17 +13,14 @@
 
 package io.nadeshiko.nadeshiko.cards.provider;
 
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 import io.nadeshiko.nadeshiko.Nadeshiko;
 import io.nadeshiko.nadeshiko.cards.CardGame;
 import lombok.Getter;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 
 @Getter
 public abstract class CardProvider {
@@ -38,27 +35,7 @@ public abstract class CardProvider {
 	protected final Font mediumBold = new Font("Inter Medium", Font.BOLD, 20);
 
 	public CardProvider(CardGame game) {
-		try (InputStream stream = CardProvider.class.getResourceAsStream("/cards/templates/colors.json")) {
-
-			// Ensure colors.json exists
-			if (stream == null) {
-				Nadeshiko.INSTANCE.alert("cards/templates/colors.json was not found!");
-				return;
-			}
-
-			JsonObject json = JsonParser.parseReader(new InputStreamReader(stream)).getAsJsonObject();
-
-			// Ensure the game color is defined in colors.json
-			if (!json.has(game.name())) {
-				Nadeshiko.logger.warn("Game color of {} was not set! Falling back...", game.name());
-				return;
-			}
-
-			color = Color.decode(json.get(game.name()).getAsString());
-
-		} catch (IOException e) {
-			Nadeshiko.INSTANCE.alert("Error while creating CardProvider for %s!", game.name());
-		}
+		this.color = Nadeshiko.INSTANCE.getCardAssets().getColor(game);
 	}
 
 	protected void drawProgress(Graphics2D g, int x, int y, int maxWidth, double progress) {
@@ -79,5 +56,24 @@ public abstract class CardProvider {
 		g.setColor(originalColor);
 	}
 
+	/**
+	 * Select the parts of a player's stats this provider draws from. Cards are cached by a hash of their inputs, so
+	 * the inputs must cover everything {@link #generate(BufferedImage, JsonObject)} reads.
+	 * @param stats The player's stats, as returned by the stats cache
+	 * @return The inputs of this provider's card - by default, all of the player's stats
+	 */
+	public JsonElement getInputs(JsonObject stats) {
+		return stats;
+	}
+
+	/**
+	 * @param stats The player's stats, as returned by the stats cache
+	 * @param game The name of a game in the Hypixel API, such as {@code Bedwars}
+	 * @return The player's stats in the game, or {@code null} if they have none
+	 */
+	protected JsonElement getGameStats(JsonObject stats, String game) {
+		return stats.get("stats") instanceof JsonObject games ? games.get(game) : null;
+	}
+
 	public abstract void generate(BufferedImage image, JsonObject stats);
 }
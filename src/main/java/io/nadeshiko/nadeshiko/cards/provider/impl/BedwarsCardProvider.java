@@ -13,6 +13,7 @@
 
 package io.nadeshiko.nadeshiko.cards.provider.impl;
 
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import io.nadeshiko.nadeshiko.cards.CardGame;
 import io.nadeshiko.nadeshiko.cards.provider.CardProvider;
@@ -33,6 +34,11 @@ public class BedwarsCardProvider extends CardProvider {
 		super(CardGame.BEDWARS);
 	}
 
+	@Override
+	public JsonElement getInputs(JsonObject stats) {
+		return this.getGameStats(stats, "Bedwars");
+	}
+
 	@Override
 	public void generate(BufferedImage image, JsonObject stats) {
 		Graphics2D g = (Graphics2D) image.getGraphics();
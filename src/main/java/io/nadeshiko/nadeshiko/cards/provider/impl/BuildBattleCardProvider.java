@@ -13,6 +13,8 @@
 
 package io.nadeshiko.nadeshiko.cards.provider.impl;
 
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import io.nadeshiko.nadeshiko.cards.CardGame;
 import io.nadeshiko.nadeshiko.cards.provider.CardProvider;
@@ -31,6 +33,14 @@ public class BuildBattleCardProvider extends CardProvider {
 		super(CardGame.BUILD_BATTLE);
 	}
 
+	@Override
+	public JsonElement getInputs(JsonObject stats) {
+		JsonArray inputs = new JsonArray();
+		inputs.add(this.getGameStats(stats, "BuildBattle"));
+		inputs.add(stats.getAsJsonObject("achievements").get("buildbattle_build_battle_points"));
+		return inputs;
+	}
+
 	@Override
 	public void generate(BufferedImage image, JsonObject stats) {
 		Graphics2D g = (Graphics2D) image.getGraphics();
@@ -13,12 +13,11 @@
 
 package io.nadeshiko.nadeshiko.cards.provider.impl;
 
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import io.nadeshiko.nadeshiko.Nadeshiko;
 import io.nadeshiko.nadeshiko.cards.CardGame;
-import io.nadeshiko.nadeshiko.cards.CardGenerator;
 import io.nadeshiko.nadeshiko.cards.provider.CardProvider;
-import io.nadeshiko.nadeshiko.util.ImageUtil;
 import io.nadeshiko.nadeshiko.util.MinecraftRenderer;
 import io.nadeshiko.nadeshiko.util.RomanNumerals;
 import lombok.AllArgsConstructor;
@@ -27,8 +26,6 @@ import lombok.NonNull;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.IOException;
-import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Locale;
@@ -38,33 +35,30 @@ public class DuelsCardProvider extends CardProvider {
 	public DuelsCardProvider() {
 		super(CardGame.DUELS);
 
-		// Read the duel icons from resources into the cache
+		// Look up the duel icons, decoded at startup
 		for (Duels duel : Duels.values()) {
 
 			if (duel.getTextureName() == null) {
 				continue; // If the duel has no texture, skip it
 			}
 
-			try (InputStream iconStream =  CardGenerator.class.
-				getResourceAsStream("/cards/duels/" + duel.getTextureName() + ".png")) {
-
-				if (iconStream == null) {
-					Nadeshiko.INSTANCE.alert("Missing duel icon for %s!", duel.name());
-					continue;
-				}
-
-				byte[] iconBytes = iconStream.readAllBytes();
-				BufferedImage icon = ImageUtil.createImageFromBytes(iconBytes);
-
-				this.iconMap.put(duel, icon);
-			} catch (IOException e) {
-				Nadeshiko.INSTANCE.alert("Failed reading duel icon for %s!", duel.name());
+			BufferedImage icon = Nadeshiko.INSTANCE.getCardAssets().getDuelIcon(duel.getTextureName());
+			if (icon == null) {
+				Nadeshiko.INSTANCE.alert("Missing duel icon for %s!", duel.name());
+				continue;
 			}
+
+			this.iconMap.put(duel, icon);
 		}
 	}
 
 	private final HashMap<Duels, BufferedImage> iconMap = new HashMap<>();
 
+	@Override
+	public JsonElement getInputs(JsonObject stats) {
+		return this.getGameStats(stats, "Duels");
+	}
+
 	@Override
 	public void generate(BufferedImage image, JsonObject stats) {
 		Graphics2D g = (Graphics2D) image.getGraphics();
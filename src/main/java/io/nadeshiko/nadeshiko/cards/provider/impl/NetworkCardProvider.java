@@ -13,6 +13,8 @@
 
 package io.nadeshiko.nadeshiko.cards.provider.impl;
 
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonNull;
 import com.google.gson.JsonObject;
 import io.nadeshiko.nadeshiko.cards.CardGame;
@@ -32,6 +34,14 @@ public class NetworkCardProvider extends CardProvider {
 		super(CardGame.NETWORK);
 	}
 
+	@Override
+	public JsonElement getInputs(JsonObject stats) {
+		JsonArray inputs = new JsonArray();
+		inputs.add(stats.get("profile"));
+		inputs.add(stats.get("guild"));
+		return inputs;
+	}
+
 	@Override
 	public void generate(BufferedImage image, JsonObject stats) {
 		Graphics2D g = (Graphics2D) image.getGraphics();
@@ -13,6 +13,7 @@
 
 package io.nadeshiko.nadeshiko.cards.provider.impl;
 
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import io.nadeshiko.nadeshiko.Nadeshiko;
 import io.nadeshiko.nadeshiko.cards.CardGame;
@@ -35,6 +36,12 @@ public class SkyBlockGeneralCardProvider extends CardProvider {
 		super(CardGame.SKYBLOCK_GENERAL);
 	}
 
+	@Override
+	public JsonElement getInputs(JsonObject stats) {
+		return Nadeshiko.INSTANCE.getSkyBlockCache().get(stats.get("name").getAsString(), null)
+			.get("skyblock_profile");
+	}
+
 	@Override
 	public void generate(BufferedImage image, JsonObject stats) {
 		Graphics2D g = (Graphics2D) image.getGraphics();
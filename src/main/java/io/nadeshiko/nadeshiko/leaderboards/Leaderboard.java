@@ -14,6 +14,8 @@
 package io.nadeshiko.nadeshiko.leaderboards;
 
 import static io.nadeshiko.nadeshiko.leaderboards.LeaderboardCategory.*;
+import static io.nadeshiko.nadeshiko.leaderboards.LeaderboardDerivation.*;
+import static io.nadeshiko.nadeshiko.leaderboards.LeaderboardDerivation.Type.*;
 
 import com.google.gson.JsonObject;
 import com.google.gson.JsonElement;
@@ -21,10 +23,16 @@ import com.google.gson.JsonArray;
 
 import io.nadeshiko.nadeshiko.util.JsonUtil;
 import lombok.Getter;
+import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
+import org.bson.Document;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Function;
 
 /**
@@ -34,154 +42,154 @@ import java.util.function.Function;
  * @since 0.9.0
  */
 @RequiredArgsConstructor
-public enum Leaderboard {
+public enum Leaderboard implements LeaderboardDefinition {
 
     /**
      * Network leaderboards.
      * Derivation functions of leaderboards in this category take in the /profile object.
      * @see LeaderboardCategory#NETWORK
      */
-    NETWORK_FIRST_LOGIN(NETWORK, profile -> profile.get("first_login").getAsLong(), 1),
-    NETWORK_NETWORK_LEVEL(NETWORK, profile -> profile.get("network_level").getAsFloat()),
-    NETWORK_ACHIEVEMENT_POINTS(NETWORK, profile -> profile.get("achievement_points").getAsInt()),
-    NETWORK_KARMA(NETWORK, profile -> profile.get("karma").getAsInt()),
-    NETWORK_RANKS_GIFTED(NETWORK, profile -> profile.get("ranks_gifted").getAsInt()),
-    NETWORK_QUESTS_COMPLETED(NETWORK, profile -> profile.get("quests_completed").getAsInt()),
+    NETWORK_FIRST_LOGIN(NETWORK, stat("first_login", LONG), 1),
+    NETWORK_NETWORK_LEVEL(NETWORK, stat("network_level", FLOAT)),
+    NETWORK_ACHIEVEMENT_POINTS(NETWORK, stat("achievement_points", INT)),
+    NETWORK_KARMA(NETWORK, stat("karma", INT)),
+    NETWORK_RANKS_GIFTED(NETWORK, stat("ranks_gifted", INT)),
+    NETWORK_QUESTS_COMPLETED(NETWORK, stat("quests_completed", INT)),
 
     /**
      * Bed Wars leaderboards.
      * Derivation functions of leaderboards in this category take in the /stats/Bedwars object.
      * @see LeaderboardCategory#BEDWARS
      */
-    BEDWARS_EXP(BEDWARS, bw -> bw.get("Experience").getAsLong()),
-    BEDWARS_TICKETS_EARNED(BEDWARS, bw -> bw.getAsJsonObject("slumber").get("total_tickets_earned").getAsLong()),
-    BEDWARS_COMPLETED_CHALLENGES(BEDWARS, bw -> bw.get("total_challenges_completed").getAsInt()),
-    BEDWARS_COLLECTED_EMERALDS(BEDWARS, bw -> bw.get("emerald_resources_collected_bedwars").getAsInt()),
-    BEDWARS_COLLECTED_DIAMONDS(BEDWARS, bw -> bw.get("diamond_resources_collected_bedwars").getAsInt()),
-    BEDWARS_WINSTREAK(BEDWARS, bw -> bw.get("winstreak").getAsInt()),
-    BEDWARS_WINS(BEDWARS, bw -> bw.get("wins_bedwars").getAsInt()),
-    BEDWARS_WLR(BEDWARS, bw -> bw.get("wins_bedwars").getAsDouble() / bw.get("losses_bedwars").getAsDouble()),
-    BEDWARS_FINALS(BEDWARS, bw -> bw.get("final_kills_bedwars").getAsInt()),
-    BEDWARS_FKDR(BEDWARS, bw -> bw.get("final_kills_bedwars").getAsDouble() / bw.get("final_deaths_bedwars").getAsDouble()),
-    BEDWARS_KILLS(BEDWARS, bw -> bw.get("kills_bedwars").getAsInt()),
-    BEDWARS_KDR(BEDWARS, bw -> bw.get("kills_bedwars").getAsDouble() / bw.get("deaths_bedwars").getAsDouble()),
-    BEDWARS_BEDS(BEDWARS, bw -> bw.get("beds_broken_bedwars").getAsInt()),
-    BEDWARS_BBLR(BEDWARS, bw -> bw.get("beds_broken_bedwars").getAsDouble() / bw.get("beds_lost_bedwars").getAsDouble()),
-    BEDWARS_SOLO_WINSTREAK(BEDWARS, bw -> bw.get("eight_one_winstreak").getAsInt()),
-    BEDWARS_SOLO_WINS(BEDWARS, bw -> bw.get("eight_one_wins_bedwars").getAsInt()),
-    BEDWARS_SOLO_WLR(BEDWARS, bw -> bw.get("eight_one_wins_bedwars").getAsDouble() / bw.get("eight_one_losses_bedwars").getAsDouble()),
-    BEDWARS_SOLO_FINALS(BEDWARS, bw -> bw.get("eight_one_final_kills_bedwars").getAsInt()),
-    BEDWARS_SOLO_FKDR(BEDWARS, bw -> bw.get("eight_one_final_kills_bedwars").getAsDouble() / bw.get("eight_one_final_deaths_bedwars").getAsDouble()),
-    BEDWARS_DOUBLES_WINSTREAK(BEDWARS, bw -> bw.get("eight_two_winstreak").getAsInt()),
-    BEDWARS_DOUBLES_WINS(BEDWARS, bw -> bw.get("eight_two_wins_bedwars").getAsInt()),
-    BEDWARS_DOUBLES_WLR(BEDWARS, bw -> bw.get("eight_two_wins_bedwars").getAsDouble() / bw.get("eight_two_losses_bedwars").getAsDouble()),
-    BEDWARS_DOUBLES_FINALS(BEDWARS, bw -> bw.get("eight_two_final_kills_bedwars").getAsInt()),
-    BEDWARS_DOUBLES_FKDR(BEDWARS, bw -> bw.get("eight_two_final_kills_bedwars").getAsDouble() / bw.get("eight_two_final_deaths_bedwars").getAsDouble()),
-    BEDWARS_THREES_WINSTREAK(BEDWARS, bw -> bw.get("four_three_winstreak").getAsInt()),
-    BEDWARS_THREES_WINS(BEDWARS, bw -> bw.get("four_three_wins_bedwars").getAsInt()),
-    BEDWARS_THREES_WLR(BEDWARS, bw -> bw.get("four_three_wins_bedwars").getAsDouble() / bw.get("four_three_losses_bedwars").getAsDouble()),
-    BEDWARS_THREES_FINALS(BEDWARS, bw -> bw.get("four_three_final_kills_bedwars").getAsInt()),
-    BEDWARS_THREES_FKDR(BEDWARS, bw -> bw.get("four_three_final_kills_bedwars").getAsDouble() / bw.get("four_three_final_deaths_bedwars").getAsDouble()),
-    BEDWARS_FOURS_WINSTREAK(BEDWARS, bw -> bw.get("four_four_winstreak").getAsInt()),
-    BEDWARS_FOURS_WINS(BEDWARS, bw -> bw.get("four_four_wins_bedwars").getAsInt()),
-    BEDWARS_FOURS_WLR(BEDWARS, bw -> bw.get("four_four_wins_bedwars").getAsDouble() / bw.get("four_four_losses_bedwars").getAsDouble()),
-    BEDWARS_FOURS_FINALS(BEDWARS, bw -> bw.get("four_four_final_kills_bedwars").getAsInt()),
-    BEDWARS_FOURS_FKDR(BEDWARS, bw -> bw.get("four_four_final_kills_bedwars").getAsDouble() / bw.get("four_four_final_deaths_bedwars").getAsDouble()),
-    BEDWARS_FOURVFOUR_WINSTREAK(BEDWARS, bw -> bw.get("two_four_winstreak").getAsInt()),
-    BEDWARS_FOURVFOUR_WINS(BEDWARS, bw -> bw.get("two_four_wins_bedwars").getAsInt()),
-    BEDWARS_FOURVFOUR_WLR(BEDWARS, bw -> bw.get("two_four_wins_bedwars").getAsDouble() / bw.get("two_four_losses_bedwars").getAsDouble()),
-    BEDWARS_FOURVFOUR_FINALS(BEDWARS, bw -> bw.get("two_four_final_kills_bedwars").getAsInt()),
-    BEDWARS_FOURVFOUR_FKDR(BEDWARS, bw -> bw.get("two_four_final_kills_bedwars").getAsDouble() / bw.get("two_four_final_deaths_bedwars").getAsDouble()),
-    BEDWARS_COLLECTED_IRON(BEDWARS, bw -> bw.get("iron_resources_collected_bedwars").getAsInt()),
-    BEDWARS_COLLECTED_GOLD(BEDWARS, bw -> bw.get("gold_resources_collected_bedwars").getAsInt()),
-    BEDWARS_TOKENS(BEDWARS, bw -> bw.get("coins").getAsInt()),
+    BEDWARS_EXP(BEDWARS, stat("Experience", LONG)),
+    BEDWARS_TICKETS_EARNED(BEDWARS, stat("slumber.total_tickets_earned", LONG)),
+    BEDWARS_COMPLETED_CHALLENGES(BEDWARS, stat("total_challenges_completed", INT)),
+    BEDWARS_COLLECTED_EMERALDS(BEDWARS, stat("emerald_resources_collected_bedwars", INT)),
+    BEDWARS_COLLECTED_DIAMONDS(BEDWARS, stat("diamond_resources_collected_bedwars", INT)),
+    BEDWARS_WINSTREAK(BEDWARS, stat("winstreak", INT)),
+    BEDWARS_WINS(BEDWARS, stat("wins_bedwars", INT)),
+    BEDWARS_WLR(BEDWARS, ratio("wins_bedwars", "losses_bedwars")),
+    BEDWARS_FINALS(BEDWARS, stat("final_kills_bedwars", INT)),
+    BEDWARS_FKDR(BEDWARS, ratio("final_kills_bedwars", "final_deaths_bedwars")),
+    BEDWARS_KILLS(BEDWARS, stat("kills_bedwars", INT)),
+    BEDWARS_KDR(BEDWARS, ratio("kills_bedwars", "deaths_bedwars")),
+    BEDWARS_BEDS(BEDWARS, stat("beds_broken_bedwars", INT)),
+    BEDWARS_BBLR(BEDWARS, ratio("beds_broken_bedwars", "beds_lost_bedwars")),
+    BEDWARS_SOLO_WINSTREAK(BEDWARS, stat("eight_one_winstreak", INT)),
+    BEDWARS_SOLO_WINS(BEDWARS, stat("eight_one_wins_bedwars", INT)),
+    BEDWARS_SOLO_WLR(BEDWARS, ratio("eight_one_wins_bedwars", "eight_one_losses_bedwars")),
+    BEDWARS_SOLO_FINALS(BEDWARS, stat("eight_one_final_kills_bedwars", INT)),
+    BEDWARS_SOLO_FKDR(BEDWARS, ratio("eight_one_final_kills_bedwars", "eight_one_final_deaths_bedwars")),
+    BEDWARS_DOUBLES_WINSTREAK(BEDWARS, stat("eight_two_winstreak", INT)),
+    BEDWARS_DOUBLES_WINS(BEDWARS, stat("eight_two_wins_bedwars", INT)),
+    BEDWARS_DOUBLES_WLR(BEDWARS, ratio("eight_two_wins_bedwars", "eight_two_losses_bedwars")),
+    BEDWARS_DOUBLES_FINALS(BEDWARS, stat("eight_two_final_kills_bedwars", INT)),
+    BEDWARS_DOUBLES_FKDR(BEDWARS, ratio("eight_two_final_kills_bedwars", "eight_two_final_deaths_bedwars")),
+    BEDWARS_THREES_WINSTREAK(BEDWARS, stat("four_three_winstreak", INT)),
+    BEDWARS_THREES_WINS(BEDWARS, stat("four_three_wins_bedwars", INT)),
+    BEDWARS_THREES_WLR(BEDWARS, ratio("four_three_wins_bedwars", "four_three_losses_bedwars")),
+    BEDWARS_THREES_FINALS(BEDWARS, stat("four_three_final_kills_bedwars", INT)),
+    BEDWARS_THREES_FKDR(BEDWARS, ratio("four_three_final_kills_bedwars", "four_three_final_deaths_bedwars")),
+    BEDWARS_FOURS_WINSTREAK(BEDWARS, stat("four_four_winstreak", INT)),
+    BEDWARS_FOURS_WINS(BEDWARS, stat("four_four_wins_bedwars", INT)),
+    BEDWARS_FOURS_WLR(BEDWARS, ratio("four_four_wins_bedwars", "four_four_losses_bedwars")),
+    BEDWARS_FOURS_FINALS(BEDWARS, stat("four_four_final_kills_bedwars", INT)),
+    BEDWARS_FOURS_FKDR(BEDWARS, ratio("four_four_final_kills_bedwars", "four_four_final_deaths_bedwars")),
+    BEDWARS_FOURVFOUR_WINSTREAK(BEDWARS, stat("two_four_winstreak", INT)),
+    BEDWARS_FOURVFOUR_WINS(BEDWARS, stat("two_four_wins_bedwars", INT)),
+    BEDWARS_FOURVFOUR_WLR(BEDWARS, ratio("two_four_wins_bedwars", "two_four_losses_bedwars")),
+    BEDWARS_FOURVFOUR_FINALS(BEDWARS, stat("two_four_final_kills_bedwars", INT)),
+    BEDWARS_FOURVFOUR_FKDR(BEDWARS, ratio("two_four_final_kills_bedwars", "two_four_final_deaths_bedwars")),
+    BEDWARS_COLLECTED_IRON(BEDWARS, stat("iron_resources_collected_bedwars", INT)),
+    BEDWARS_COLLECTED_GOLD(BEDWARS, stat("gold_resources_collected_bedwars", INT)),
+    BEDWARS_TOKENS(BEDWARS, stat("coins", INT)),
     /**
      * Duels leaderboards.
      * Derivation functions of leaderboards in this category take in the /stats/Duels object.
      * @see LeaderboardCategory#DUELS
      */
-    DUELS_CLICKS(DUELS, duels -> duels.get("melee_swings").getAsInt()),
-    DUELS_WINS(DUELS, duels -> duels.get("wins").getAsInt()),
-    DUELS_WLR(DUELS, duels -> duels.get("wins").getAsDouble() / duels.get("losses").getAsDouble()),
-    DUELS_KILLS(DUELS, duels -> duels.get("kills").getAsInt()),
-    DUELS_DAMAGE_DEALT(DUELS, duels -> duels.get("damage_dealt").getAsLong()),
-    DUELS_HEALTH_REGENERATED(DUELS, duels -> duels.get("health_regenerated").getAsLong()),
-    DUELS_WINSTREAK(DUELS, duels -> duels.get("current_winstreak").getAsInt()),
-    DUELS_BEST_WINSTREAK(DUELS, duels -> duels.get("best_overall_winstreak").getAsInt()),
-    DUELS_BRIDGE_WINS(DUELS, duels -> duels.get("bridge_duel_wins").getAsInt()),
-    DUELS_BRIDGE_GOALS(DUELS, duels -> duels.get("bridge_duel_goals").getAsInt()),
-    DUELS_SW_WINS(DUELS, duels -> duels.get("sw_duel_wins").getAsInt()),
-    DUELS_CLASSIC_WINS(DUELS, duels -> duels.get("classic_duel_wins").getAsInt()),
-    DUELS_UHC_WINS(DUELS, duels -> duels.get("uhc_duel_wins").getAsInt()),
-    DUELS_SUMO_WINS(DUELS, duels -> duels.get("sumo_duel_wins").getAsInt()),
-    DUELS_PARKOUR_WINS(DUELS, duels -> duels.get("parkour_eight_wins").getAsInt()),
-    DUELS_BLITZ_WINS(DUELS, duels -> duels.get("blitz_duel_wins").getAsInt()),
-    DUELS_BOW_WINS(DUELS, duels -> duels.get("bow_duel_wins").getAsInt()),
-    DUELS_MW_WINS(DUELS, duels -> duels.get("mw_duel_wins").getAsInt()),
-    DUELS_BOWSPLEEF_WINS(DUELS, duels -> duels.get("bowspleef_duel_wins").getAsInt()),
-    DUELS_OP_WINS(DUELS, duels -> duels.get("op_duel_wins").getAsInt()),
-    DUELS_COMBO_WINS(DUELS, duels -> duels.get("combo_duel_wins").getAsInt()),
-    DUELS_BOXING_WINS(DUELS, duels -> duels.get("boxing_duel_wins").getAsInt()),
-    DUELS_NODEBUFF_WINS(DUELS, duels -> duels.get("potion_duel_wins").getAsInt()),
-    DUELS_ARENA_WINS(DUELS, duels -> duels.get("duel_arena_wins").getAsInt()),
-    DUELS_TOKENS(DUELS, duels -> duels.get("coins").getAsInt()),
+    DUELS_CLICKS(DUELS, stat("melee_swings", INT)),
+    DUELS_WINS(DUELS, stat("wins", INT)),
+    DUELS_WLR(DUELS, ratio("wins", "losses")),
+    DUELS_KILLS(DUELS, stat("kills", INT)),
+    DUELS_DAMAGE_DEALT(DUELS, stat("damage_dealt", LONG)),
+    DUELS_HEALTH_REGENERATED(DUELS, stat("health_regenerated", LONG)),
+    DUELS_WINSTREAK(DUELS, stat("current_winstreak", INT)),
+    DUELS_BEST_WINSTREAK(DUELS, stat("best_overall_winstreak", INT)),
+    DUELS_BRIDGE_WINS(DUELS, stat("bridge_duel_wins", INT)),
+    DUELS_BRIDGE_GOALS(DUELS, stat("bridge_duel_goals", INT)),
+    DUELS_SW_WINS(DUELS, stat("sw_duel_wins", INT)),
+    DUELS_CLASSIC_WINS(DUELS, stat("classic_duel_wins", INT)),
+    DUELS_UHC_WINS(DUELS, stat("uhc_duel_wins", INT)),
+    DUELS_SUMO_WINS(DUELS, stat("sumo_duel_wins", INT)),
+    DUELS_PARKOUR_WINS(DUELS, stat("parkour_eight_wins", INT)),
+    DUELS_BLITZ_WINS(DUELS, stat("blitz_duel_wins", INT)),
+    DUELS_BOW_WINS(DUELS, stat("bow_duel_wins", INT)),
+    DUELS_MW_WINS(DUELS, stat("mw_duel_wins", INT)),
+    DUELS_BOWSPLEEF_WINS(DUELS, stat("bowspleef_duel_wins", INT)),
+    DUELS_OP_WINS(DUELS, stat("op_duel_wins", INT)),
+    DUELS_COMBO_WINS(DUELS, stat("combo_duel_wins", INT)),
+    DUELS_BOXING_WINS(DUELS, stat("boxing_duel_wins", INT)),
+    DUELS_NODEBUFF_WINS(DUELS, stat("potion_duel_wins", INT)),
+    DUELS_ARENA_WINS(DUELS, stat("duel_arena_wins", INT)),
+    DUELS_TOKENS(DUELS, stat("coins", INT)),
 
     /**
      * SkyWars leaderboards.
      * Derivation functions of leaderboards in this category take in the /stats/SkyWars object.
      * @see LeaderboardCategory#SKYWARS
      */
-    SKYWARS_EXP(SKYWARS, sw -> sw.get("skywars_experience").getAsInt()),
-    SKYWARS_WINS(SKYWARS, sw -> sw.get("wins").getAsInt()),
-    SKYWARS_WLR(SKYWARS, sw -> sw.get("wins").getAsDouble() / sw.get("losses").getAsDouble()),
-    SKYWARS_KILLS(SKYWARS, sw -> sw.get("kills").getAsInt()),
-    SKYWARS_KDR(SKYWARS, sw -> sw.get("kills").getAsDouble() / sw.get("deaths").getAsDouble()),
-    SKYWARS_SOLO_NORMAL_WINS(SKYWARS, sw -> sw.get("wins_solo_normal").getAsInt()),
-    SKYWARS_SOLO_NORMAL_WLR(SKYWARS, sw -> sw.get("wins_solo_normal").getAsDouble() / Math.max(sw.get("losses_solo_normal").getAsDouble(), 1)),
-    SKYWARS_SOLO_NORMAL_KILLS(SKYWARS, sw -> sw.get("kills_solo_normal").getAsInt()),
-    SKYWARS_SOLO_NORMAL_KDR(SKYWARS, sw -> sw.get("kills_solo_normal").getAsDouble() / Math.max(sw.get("deaths_solo_normal").getAsDouble(), 1)),
-    SKYWARS_SOLO_INSANE_WINS(SKYWARS, sw -> sw.get("wins_solo_insane").getAsInt()),
-    SKYWARS_SOLO_INSANE_WLR(SKYWARS, sw -> sw.get("wins_solo_insane").getAsDouble() / Math.max(sw.get("losses_solo_insane").getAsDouble(), 1)),
-    SKYWARS_SOLO_INSANE_KILLS(SKYWARS, sw -> sw.get("kills_solo_insane").getAsInt()),
-    SKYWARS_SOLO_INSANE_KDR(SKYWARS, sw -> sw.get("kills_solo_insane").getAsDouble() / Math.max(sw.get("deaths_solo_insane").getAsDouble(), 1)),
-    SKYWARS_TEAM_NORMAL_WINS(SKYWARS, sw -> sw.get("wins_team_normal").getAsInt()),
-    SKYWARS_TEAM_NORMAL_WLR(SKYWARS, sw -> sw.get("wins_team_normal").getAsDouble() / Math.max(sw.get("losses_team_normal").getAsDouble(), 1)),
-    SKYWARS_TEAM_NORMAL_KILLS(SKYWARS, sw -> sw.get("kills_team_normal").getAsInt()),
-    SKYWARS_TEAM_NORMAL_KDR(SKYWARS, sw -> sw.get("kills_team_normal").getAsDouble() / Math.max(sw.get("deaths_team_normal").getAsDouble(), 1)),
-    SKYWARS_TEAM_INSANE_WINS(SKYWARS, sw -> sw.get("wins_team_insane").getAsInt()),
-    SKYWARS_TEAM_INSANE_WLR(SKYWARS, sw -> sw.get("wins_team_insane").getAsDouble() / Math.max(sw.get("losses_team_insane").getAsDouble(), 1)),
-    SKYWARS_TEAM_INSANE_KILLS(SKYWARS, sw -> sw.get("kills_team_insane").getAsInt()),
-    SKYWARS_TEAM_INSANE_KDR(SKYWARS, sw -> sw.get("kills_team_insane").getAsDouble() / Math.max(sw.get("deaths_team_insane").getAsDouble(), 1)),
-    SKYWARS_COINS(SKYWARS, sw -> sw.get("coins").getAsInt()),
-    SKYWARS_TOKENS(SKYWARS, sw -> sw.get("cosmetic_tokens").getAsInt()),
-    SKYWARS_LAB_WINS(SKYWARS, sw -> sw.get("wins_lab").getAsInt()),
-    SKYWARS_LAB_WLR(SKYWARS, sw -> sw.get("wins_lab").getAsDouble() / Math.max(sw.get("losses_lab").getAsDouble(), 1)),
-    SKYWARS_LAB_KILLS(SKYWARS, sw -> sw.get("kills_lab").getAsInt()),
-    SKYWARS_LAB_KDR(SKYWARS, sw -> sw.get("kills_lab").getAsDouble() / Math.max(sw.get("deaths_lab").getAsDouble(), 1)),
-    SKYWARS_LUCKY_BLOCK_WINS(SKYWARS, sw -> sw.get("lab_win_lucky_blocks_lab").getAsInt()),
+    SKYWARS_EXP(SKYWARS, stat("skywars_experience", INT)),
+    SKYWARS_WINS(SKYWARS, stat("wins", INT)),
+    SKYWARS_WLR(SKYWARS, ratio("wins", "losses")),
+    SKYWARS_KILLS(SKYWARS, stat("kills", INT)),
+    SKYWARS_KDR(SKYWARS, ratio("kills", "deaths")),
+    SKYWARS_SOLO_NORMAL_WINS(SKYWARS, stat("wins_solo_normal", INT)),
+    SKYWARS_SOLO_NORMAL_WLR(SKYWARS, clampedRatio("wins_solo_normal", "losses_solo_normal")),
+    SKYWARS_SOLO_NORMAL_KILLS(SKYWARS, stat("kills_solo_normal", INT)),
+    SKYWARS_SOLO_NORMAL_KDR(SKYWARS, clampedRatio("kills_solo_normal", "deaths_solo_normal")),
+    SKYWARS_SOLO_INSANE_WINS(SKYWARS, stat("wins_solo_insane", INT)),
+    SKYWARS_SOLO_INSANE_WLR(SKYWARS, clampedRatio("wins_solo_insane", "losses_solo_insane")),
+    SKYWARS_SOLO_INSANE_KILLS(SKYWARS, stat("kills_solo_insane", INT)),
+    SKYWARS_SOLO_INSANE_KDR(SKYWARS, clampedRatio("kills_solo_insane", "deaths_solo_insane")),
+    SKYWARS_TEAM_NORMAL_WINS(SKYWARS, stat("wins_team_normal", INT)),
+    SKYWARS_TEAM_NORMAL_WLR(SKYWARS, clampedRatio("wins_team_normal", "losses_team_normal")),
+    SKYWARS_TEAM_NORMAL_KILLS(SKYWARS, stat("kills_team_normal", INT)),
+    SKYWARS_TEAM_NORMAL_KDR(SKYWARS, clampedRatio("kills_team_normal", "deaths_team_normal")),
+    SKYWARS_TEAM_INSANE_WINS(SKYWARS, stat("wins_team_insane", INT)),
+    SKYWARS_TEAM_INSANE_WLR(SKYWARS, clampedRatio("wins_team_insane", "losses_team_insane")),
+    SKYWARS_TEAM_INSANE_KILLS(SKYWARS, stat("kills_team_insane", INT)),
+    SKYWARS_TEAM_INSANE_KDR(SKYWARS, clampedRatio("kills_team_insane", "deaths_team_insane")),
+    SKYWARS_COINS(SKYWARS, stat("coins", INT)),
+    SKYWARS_TOKENS(SKYWARS, stat("cosmetic_tokens", INT)),
+    SKYWARS_LAB_WINS(SKYWARS, stat("wins_lab", INT)),
+    SKYWARS_LAB_WLR(SKYWARS, clampedRatio("wins_lab", "losses_lab")),
+    SKYWARS_LAB_KILLS(SKYWARS, stat("kills_lab", INT)),
+    SKYWARS_LAB_KDR(SKYWARS, clampedRatio("kills_lab", "deaths_lab")),
+    SKYWARS_LUCKY_BLOCK_WINS(SKYWARS, stat("lab_win_lucky_blocks_lab", INT)),
 
     /**
      * Pit leaderboards.
      * Derivation functions of leaderboards in this category take in the /stats/Pit/pit_stats_ptl object.
      * @see LeaderboardCategory#PIT
      */
-    PIT_EXP(PIT, pit -> pit.getAsJsonObject("profile").get("xp").getAsLong()),
-    PIT_GOLD(PIT, pit -> pit.getAsJsonObject("profile").get("cash").getAsDouble()),
-    PIT_DAMAGE_DEALT(PIT, pit -> pit.getAsJsonObject("pit_stats_ptl").get("damage_dealt").getAsInt()),
-    PIT_JOINS(PIT, pit -> pit.getAsJsonObject("pit_stats_ptl").get("joins").getAsInt()),
-    PIT_PLAYTIME(PIT, pit -> pit.getAsJsonObject("pit_stats_ptl").get("playtime_minutes").getAsInt()),
-    PIT_CHAT_MESSAGES(PIT, pit -> pit.getAsJsonObject("pit_stats_ptl").get("chat_messages").getAsInt()),
-    PIT_CLICKS(PIT, pit -> pit.getAsJsonObject("pit_stats_ptl").get("left_clicks").getAsInt()),
-    PIT_KILLS(PIT, pit -> pit.getAsJsonObject("pit_stats_ptl").get("kills").getAsInt()),
+    PIT_EXP(PIT, stat("profile.xp", LONG)),
+    PIT_GOLD(PIT, stat("profile.cash", DOUBLE)),
+    PIT_DAMAGE_DEALT(PIT, stat("pit_stats_ptl.damage_dealt", INT)),
+    PIT_JOINS(PIT, stat("pit_stats_ptl.joins", INT)),
+    PIT_PLAYTIME(PIT, stat("pit_stats_ptl.playtime_minutes", INT)),
+    PIT_CHAT_MESSAGES(PIT, stat("pit_stats_ptl.chat_messages", INT)),
+    PIT_CLICKS(PIT, stat("pit_stats_ptl.left_clicks", INT)),
+    PIT_KILLS(PIT, stat("pit_stats_ptl.kills", INT)),
     PIT_KDR(PIT, pit -> PIT_KILLS.derive(pit).intValue() /
             Math.max(1, JsonUtil.getNullableDouble(pit.getAsJsonObject("pit_stats_ptl").get("deaths")))),
-    PIT_NIGHT_QUESTS_COMPLETED(PIT, pit -> pit.getAsJsonObject("pit_stats_ptl").get("night_quests_completed").getAsInt()),
-    PIT_WHEAT_FARMED(PIT, pit -> pit.getAsJsonObject("pit_stats_ptl").get("wheat_farmed").getAsInt()),
-    PIT_RENOWN(PIT, pit -> pit.getAsJsonObject("profile").get("renown").getAsInt()),
-    PIT_ITEMS_FISHED(PIT, pit -> pit.getAsJsonObject("pit_stats_ptl").get("fished_anything").getAsInt()),
-    PIT_INGOTS_PICKED_UP(PIT, pit -> pit.getAsJsonObject("pit_stats_ptl").get("ingots_picked_up").getAsInt()),
-    PIT_LAUNCHER_LAUNCHES(PIT, pit -> pit.getAsJsonObject("pit_stats_ptl").get("launched_by_launchers").getAsInt()),
-    PIT_HIGHEST_KILLSTREAK(PIT, pit -> pit.getAsJsonObject("pit_stats_ptl").get("max_streak").getAsInt()),
+    PIT_NIGHT_QUESTS_COMPLETED(PIT, stat("pit_stats_ptl.night_quests_completed", INT)),
+    PIT_WHEAT_FARMED(PIT, stat("pit_stats_ptl.wheat_farmed", INT)),
+    PIT_RENOWN(PIT, stat("profile.renown", INT)),
+    PIT_ITEMS_FISHED(PIT, stat("pit_stats_ptl.fished_anything", INT)),
+    PIT_INGOTS_PICKED_UP(PIT, stat("pit_stats_ptl.ingots_picked_up", INT)),
+    PIT_LAUNCHER_LAUNCHES(PIT, stat("pit_stats_ptl.launched_by_launchers", INT)),
+    PIT_HIGHEST_KILLSTREAK(PIT, stat("pit_stats_ptl.max_streak", INT)),
     PIT_BOUNTY(PIT, pit -> {
         int totalBounty = 0;
 
@@ -192,60 +200,60 @@ public enum Leaderboard {
         }
         return totalBounty;
     }),
-    PIT_ITEMS_ENCHANTED(PIT, pit ->
-        JsonUtil.getNullableInt(pit.getAsJsonObject("pit_stats_ptl").get("enchanted_tier1")) +
-        JsonUtil.getNullableInt(pit.getAsJsonObject("pit_stats_ptl").get("enchanted_tier2")) +
-        JsonUtil.getNullableInt(pit.getAsJsonObject("pit_stats_ptl").get("enchanted_tier3"))
-    ),
-    PIT_CONTRACTS_COMPLETED(PIT, pit -> pit.getAsJsonObject("pit_stats_ptl").get("contracts_completed").getAsInt()),
+    PIT_ITEMS_ENCHANTED(PIT, sum(
+        "pit_stats_ptl.enchanted_tier1",
+        "pit_stats_ptl.enchanted_tier2",
+        "pit_stats_ptl.enchanted_tier3"
+    )),
+    PIT_CONTRACTS_COMPLETED(PIT, stat("pit_stats_ptl.contracts_completed", INT)),
     /**
      * Build Battle leaderboards.
      * Derivation functions of leaderboards in this category take in the /stats/BuildBattle object.
      * @see LeaderboardCategory#BUILD_BATTLE
      */
-    BUILD_BATTLE_WINS(BUILD_BATTLE, bb -> bb.get("wins").getAsInt()),
-    BUILD_BATTLE_SCORE(BUILD_BATTLE, bb -> bb.get("score").getAsInt()),
-    BUILD_BATTLE_VOTES(BUILD_BATTLE, bb -> bb.get("total_votes").getAsInt()),
-    BUILD_BATTLE_GTB_WINS(BUILD_BATTLE, bb -> bb.get("wins_guess_the_build").getAsInt()),
-    BUILD_BATTLE_GTB_CORRECT_GUESSES(BUILD_BATTLE, bb -> bb.get("correct_guesses").getAsInt()),
-    BUILD_BATTLE_SPEED_BUILDERS_WINS(BUILD_BATTLE, bb -> bb.get("wins_speed_builders").getAsInt()),
-    BUILD_BATTLE_TOKENS(BUILD_BATTLE, bb -> bb.get("coins").getAsInt()),
-    BUILD_BATTLE_SOLO_WINS(BUILD_BATTLE, bb -> bb.get("wins_solo_normal").getAsInt()),
-    BUILD_BATTLE_TEAM_WINS(BUILD_BATTLE, bb -> bb.get("wins_teams_normal").getAsInt()),
-    BUILD_BATTLE_PRO_WINS(BUILD_BATTLE, bb -> bb.get("wins_solo_pro").getAsInt()),
+    BUILD_BATTLE_WINS(BUILD_BATTLE, stat("wins", INT)),
+    BUILD_BATTLE_SCORE(BUILD_BATTLE, stat("score", INT)),
+    BUILD_BATTLE_VOTES(BUILD_BATTLE, stat("total_votes", INT)),
+    BUILD_BATTLE_GTB_WINS(BUILD_BATTLE, stat("wins_guess_the_build", INT)),
+    BUILD_BATTLE_GTB_CORRECT_GUESSES(BUILD_BATTLE, stat("correct_guesses", INT)),
+    BUILD_BATTLE_SPEED_BUILDERS_WINS(BUILD_BATTLE, stat("wins_speed_builders", INT)),
+    BUILD_BATTLE_TOKENS(BUILD_BATTLE, stat("coins", INT)),
+    BUILD_BATTLE_SOLO_WINS(BUILD_BATTLE, stat("wins_solo_normal", INT)),
+    BUILD_BATTLE_TEAM_WINS(BUILD_BATTLE, stat("wins_teams_normal", INT)),
+    BUILD_BATTLE_PRO_WINS(BUILD_BATTLE, stat("wins_solo_pro", INT)),
 
     /**
      * Murder Mystery leaderboards.
      * Derivation functions of leaderboards in this category take in the /stats/MurderMystery object.
      * @see LeaderboardCategory#MURDER_MYSTERY
      */
-    MURDER_MYSTERY_KILLS(MURDER_MYSTERY, mm -> mm.get("kills").getAsInt()),
-    MURDER_MYSTERY_WINS(MURDER_MYSTERY, mm -> mm.get("wins").getAsInt()),
-    MURDER_MYSTERY_MURDERER_WINS(MURDER_MYSTERY, mm -> mm.get("murderer_wins").getAsInt()),
-    MURDER_MYSTERY_DETECTIVE_WINS(MURDER_MYSTERY, mm -> mm.get("detective_wins").getAsInt()),
-    MURDER_MYSTERY_CLASSIC_WINS(MURDER_MYSTERY, mm -> mm.get("wins_MURDER_CLASSIC").getAsInt()),
-    MURDER_MYSTERY_DOUBLE_UP_WINS(MURDER_MYSTERY, mm -> mm.get("wins_MURDER_DOUBLE_UP").getAsInt()),
-    MURDER_MYSTERY_ASSASSINS_WINS(MURDER_MYSTERY, mm -> mm.get("wins_MURDER_ASSASSINS").getAsInt()),
-    MURDER_MYSTERY_INFECTION_WINS(MURDER_MYSTERY, mm -> mm.get("wins_MURDER_INFECTION").getAsInt()),
+    MURDER_MYSTERY_KILLS(MURDER_MYSTERY, stat("kills", INT)),
+    MURDER_MYSTERY_WINS(MURDER_MYSTERY, stat("wins", INT)),
+    MURDER_MYSTERY_MURDERER_WINS(MURDER_MYSTERY, stat("murderer_wins", INT)),
+    MURDER_MYSTERY_DETECTIVE_WINS(MURDER_MYSTERY, stat("detective_wins", INT)),
+    MURDER_MYSTERY_CLASSIC_WINS(MURDER_MYSTERY, stat("wins_MURDER_CLASSIC", INT)),
+    MURDER_MYSTERY_DOUBLE_UP_WINS(MURDER_MYSTERY, stat("wins_MURDER_DOUBLE_UP", INT)),
+    MURDER_MYSTERY_ASSASSINS_WINS(MURDER_MYSTERY, stat("wins_MURDER_ASSASSINS", INT)),
+    MURDER_MYSTERY_INFECTION_WINS(MURDER_MYSTERY, stat("wins_MURDER_INFECTION", INT)),
 
     /**
      * TNT Games leaderboards.
      * Derivation functions of leaderboards in this category take in the /stats/TNTGames object.
      * @see LeaderboardCategory#TNT_GAMES
      */
-    TNT_GAMES_WINS(TNT_GAMES, tnt -> tnt.get("wins").getAsInt()),
-    TNT_GAMES_BOWSPLEEF_WINS(TNT_GAMES, tnt -> tnt.get("wins_bowspleef").getAsInt()),
-    TNT_GAMES_PVPRUN_WINS(TNT_GAMES, tnt -> tnt.get("wins_pvprun").getAsInt()),
-    TNT_GAMES_PVPRUN_KILLS(TNT_GAMES, tnt -> tnt.get("kills_pvprun").getAsInt()),
-    TNT_GAMES_PVPRUN_LONGEST(TNT_GAMES, tnt -> tnt.get("record_pvprun").getAsInt()),
-    TNT_GAMES_TNTRUN_WINS(TNT_GAMES, tnt -> tnt.get("wins_tntrun").getAsInt()),
-    TNT_GAMES_TNTRUN_LONGEST(TNT_GAMES, tnt -> tnt.get("record_tntrun").getAsInt()),
-    TNT_GAMES_TNTTAG_WINS(TNT_GAMES, tnt -> tnt.get("wins_tntag").getAsInt()),
-    TNT_GAMES_TNTTAG_KILLS(TNT_GAMES, tnt -> tnt.get("kills_tntag").getAsInt()),
-    TNT_GAMES_WIZARDS_WINS(TNT_GAMES, tnt -> tnt.get("wins_capture").getAsInt()),
-    TNT_GAMES_WIZARDS_KILLS(TNT_GAMES, tnt -> tnt.get("kills_capture").getAsInt()),
-    TNT_GAMES_TOKENS(TNT_GAMES, tnt -> tnt.get("coins").getAsInt()),
-    TNT_GAMES_WIZARDS_POINTS_CAPTURED(TNT_GAMES, tnt -> tnt.get("points_capture").getAsInt()),
+    TNT_GAMES_WINS(TNT_GAMES, stat("wins", INT)),
+    TNT_GAMES_BOWSPLEEF_WINS(TNT_GAMES, stat("wins_bowspleef", INT)),
+    TNT_GAMES_PVPRUN_WINS(TNT_GAMES, stat("wins_pvprun", INT)),
+    TNT_GAMES_PVPRUN_KILLS(TNT_GAMES, stat("kills_pvprun", INT)),
+    TNT_GAMES_PVPRUN_LONGEST(TNT_GAMES, stat("record_pvprun", INT)),
+    TNT_GAMES_TNTRUN_WINS(TNT_GAMES, stat("wins_tntrun", INT)),
+    TNT_GAMES_TNTRUN_LONGEST(TNT_GAMES, stat("record_tntrun", INT)),
+    TNT_GAMES_TNTTAG_WINS(TNT_GAMES, stat("wins_tntag", INT)),
+    TNT_GAMES_TNTTAG_KILLS(TNT_GAMES, stat("kills_tntag", INT)),
+    TNT_GAMES_WIZARDS_WINS(TNT_GAMES, stat("wins_capture", INT)),
+    TNT_GAMES_WIZARDS_KILLS(TNT_GAMES, stat("kills_capture", INT)),
+    TNT_GAMES_TOKENS(TNT_GAMES, stat("coins", INT)),
+    TNT_GAMES_WIZARDS_POINTS_CAPTURED(TNT_GAMES, stat("points_capture", INT)),
 
 
     /**
@@ -253,67 +261,67 @@ public enum Leaderboard {
      * Derivation functions of leaderboards in this category take in the /stats/Arcade object.
      * @see LeaderboardCategory#ARCADE
      */
-    ARCADE_COINS(ARCADE, ar -> ar.get("coins").getAsInt()),
-
-    ARCADE_DROPPER_BEST_TIME(ARCADE, ar -> ar.getAsJsonObject("dropper").get("fastest_game").getAsInt(), 1),
-    ARCADE_DROPPER_WINS(ARCADE, ar -> ar.getAsJsonObject("dropper").get("wins").getAsInt()),
-    ARCADE_HYPIXEL_SAYS_WINS(ARCADE, ar -> ar.get("wins_simon_says").getAsInt()),
-    ARCADE_MINI_WALLS_WINS(ARCADE, ar -> ar.get("wins_mini_walls").getAsInt()),
-    ARCADE_MINI_WALLS_KILLS(ARCADE, ar -> ar.get("kills_mini_walls").getAsInt()),
-    ARCADE_PARTY_WINS(ARCADE, ar -> ar.get("wins_party").getAsInt()),
-    ARCADE_PIXEL_PARTY_WINS(ARCADE, ar -> ar.getAsJsonObject("pixel_party").get("wins").getAsInt()),
-    ARCADE_THROW_OUT_WINS(ARCADE, ar -> ar.get("wins_throw_out").getAsInt()),
-    ARCADE_THROW_OUT_KILLS(ARCADE, ar -> ar.get("kills_throw_out").getAsInt()),
-    ARCADE_ZOMBIES_WINS(ARCADE, ar -> ar.get("wins_zombies").getAsInt()),
-    ARCADE_ZOMBIES_KILLS(ARCADE, ar -> ar.get("zombie_kills_zombies").getAsInt()),
-    ARCADE_ZOMBIES_WINDOWS_REPAIRED(ARCADE, ar -> ar.get("windows_repaired_zombies").getAsInt()),
-    ARCADE_ZOMBIES_PLAYERS_REVIVED(ARCADE, ar -> ar.get("players_revived_zombies").getAsInt()),
-    ARCADE_ZOMBIES_DOORS_OPENED(ARCADE, ar -> ar.get("doors_opened_zombies").getAsInt()),
-    ARCADE_BLOCKING_DEAD_WINS(ARCADE, ar -> ar.get("wins_dayone").getAsInt()),
-    ARCADE_BLOCKING_DEAD_KILLS(ARCADE, ar -> ar.get("kills_dayone").getAsInt()),
-    ARCADE_BOUNTY_HUNTERS_WINS(ARCADE, ar -> ar.get("wins_oneinthequiver").getAsInt()),
-    ARCADE_BOUNTY_HUNTERS_KILLS(ARCADE, ar -> ar.get("kills_oneinthequiver").getAsInt()),
-    ARCADE_CREEPER_ATTACK_MAX_WAVE(ARCADE, ar -> ar.get("max_wave").getAsInt()),
-    ARCADE_DRAGON_WARS_WINS(ARCADE, ar -> ar.get("wins_dragonwars2").getAsInt()),
-    ARCADE_DRAGON_WARS_KILLS(ARCADE, ar -> ar.get("kills_dragonwars2").getAsInt()),
-    ARCADE_ENDER_SPLEEF_WINS(ARCADE, ar -> ar.get("wins_ender").getAsInt()),
-    ARCADE_ENDER_SPLEEF_BLOCKS_DESTROYED(ARCADE, ar -> ar.get("blocks_destroyed_ender").getAsInt()),
-    ARCADE_FARM_HUNT_WINS(ARCADE, ar -> ar.get("wins_farm_hunt").getAsInt()),
-    ARCADE_FARM_HUNT_HUNTER_WINS(ARCADE, ar -> ar.get("hunter_wins_farm_hunt").getAsInt()),
-    ARCADE_FARM_HUNT_ANIMAL_WINS(ARCADE, ar -> ar.get("animal_wins_farm_hunt").getAsInt()),
-    ARCADE_FARM_HUNT_KILLS(ARCADE, ar -> ar.get("kills_farm_hunt").getAsInt()),
-    ARCADE_FARM_HUNT_TAUNTS_USED(ARCADE, ar -> ar.get("taunts_used_farm_hunt").getAsInt()),
-    ARCADE_FARM_HUNT_POOP_COLLECTED(ARCADE, ar -> ar.get("poop_collected_farm_hunt").getAsInt()),
-    ARCADE_FOOTBALL_WINS(ARCADE, ar -> ar.get("wins_soccer").getAsInt()),
-    ARCADE_FOOTBALL_GOALS(ARCADE, ar -> ar.get("goals_soccer").getAsInt()),
-    ARCADE_FOOTBALL_KICKS(ARCADE, ar -> ar.get("kicks_soccer").getAsInt()),
-    ARCADE_FOOTBALL_POWER_KICKS(ARCADE, ar -> ar.get("powerkicks_soccer").getAsInt()),
-    ARCADE_GALAXY_WARS_WINS(ARCADE, ar -> ar.get("sw_game_wins").getAsInt()),
-    ARCADE_GALAXY_WARS_KILLS(ARCADE, ar -> ar.get("sw_kills").getAsInt()),
-    ARCADE_GALAXY_WARS_KDR(ARCADE, ar -> ar.get("sw_kills").getAsDouble() / Math.max(ar.get("sw_deaths").getAsDouble(), 1)),
-    ARCADE_HIDE_AND_SEEK_PARTY_POOPER_WINS(ARCADE, ar ->
-        JsonUtil.getNullableInt(ar.get("party_pooper_hider_wins_hide_and_seek")) +
-        JsonUtil.getNullableInt(ar.get("party_pooper_seeker_wins_hide_and_seek"))
-    ),
-    ARCADE_HIDE_AND_SEEK_PROP_HUNT_WINS(ARCADE, ar ->
-        JsonUtil.getNullableInt(ar.get("prop_hunt_hider_wins_hide_and_seek")) +
-        JsonUtil.getNullableInt(ar.get("prop_hunt_seeker_wins_hide_and_seek"))
-    ),
+    ARCADE_COINS(ARCADE, stat("coins", INT)),
+
+    ARCADE_DROPPER_BEST_TIME(ARCADE, stat("dropper.fastest_game", INT), 1),
+    ARCADE_DROPPER_WINS(ARCADE, stat("dropper.wins", INT)),
+    ARCADE_HYPIXEL_SAYS_WINS(ARCADE, stat("wins_simon_says", INT)),
+    ARCADE_MINI_WALLS_WINS(ARCADE, stat("wins_mini_walls", INT)),
+    ARCADE_MINI_WALLS_KILLS(ARCADE, stat("kills_mini_walls", INT)),
+    ARCADE_PARTY_WINS(ARCADE, stat("wins_party", INT)),
+    ARCADE_PIXEL_PARTY_WINS(ARCADE, stat("pixel_party.wins", INT)),
+    ARCADE_THROW_OUT_WINS(ARCADE, stat("wins_throw_out", INT)),
+    ARCADE_THROW_OUT_KILLS(ARCADE, stat("kills_throw_out", INT)),
+    ARCADE_ZOMBIES_WINS(ARCADE, stat("wins_zombies", INT)),
+    ARCADE_ZOMBIES_KILLS(ARCADE, stat("zombie_kills_zombies", INT)),
+    ARCADE_ZOMBIES_WINDOWS_REPAIRED(ARCADE, stat("windows_repaired_zombies", INT)),
+    ARCADE_ZOMBIES_PLAYERS_REVIVED(ARCADE, stat("players_revived_zombies", INT)),
+    ARCADE_ZOMBIES_DOORS_OPENED(ARCADE, stat("doors_opened_zombies", INT)),
+    ARCADE_BLOCKING_DEAD_WINS(ARCADE, stat("wins_dayone", INT)),
+    ARCADE_BLOCKING_DEAD_KILLS(ARCADE, stat("kills_dayone", INT)),
+    ARCADE_BOUNTY_HUNTERS_WINS(ARCADE, stat("wins_oneinthequiver", INT)),
+    ARCADE_BOUNTY_HUNTERS_KILLS(ARCADE, stat("kills_oneinthequiver", INT)),
+    ARCADE_CREEPER_ATTACK_MAX_WAVE(ARCADE, stat("max_wave", INT)),
+    ARCADE_DRAGON_WARS_WINS(ARCADE, stat("wins_dragonwars2", INT)),
+    ARCADE_DRAGON_WARS_KILLS(ARCADE, stat("kills_dragonwars2", INT)),
+    ARCADE_ENDER_SPLEEF_WINS(ARCADE, stat("wins_ender", INT)),
+    ARCADE_ENDER_SPLEEF_BLOCKS_DESTROYED(ARCADE, stat("blocks_destroyed_ender", INT)),
+    ARCADE_FARM_HUNT_WINS(ARCADE, stat("wins_farm_hunt", INT)),
+    ARCADE_FARM_HUNT_HUNTER_WINS(ARCADE, stat("hunter_wins_farm_hunt", INT)),
+    ARCADE_FARM_HUNT_ANIMAL_WINS(ARCADE, stat("animal_wins_farm_hunt", INT)),
+    ARCADE_FARM_HUNT_KILLS(ARCADE, stat("kills_farm_hunt", INT)),
+    ARCADE_FARM_HUNT_TAUNTS_USED(ARCADE, stat("taunts_used_farm_hunt", INT)),
+    ARCADE_FARM_HUNT_POOP_COLLECTED(ARCADE, stat("poop_collected_farm_hunt", INT)),
+    ARCADE_FOOTBALL_WINS(ARCADE, stat("wins_soccer", INT)),
+    ARCADE_FOOTBALL_GOALS(ARCADE, stat("goals_soccer", INT)),
+    ARCADE_FOOTBALL_KICKS(ARCADE, stat("kicks_soccer", INT)),
+    ARCADE_FOOTBALL_POWER_KICKS(ARCADE, stat("powerkicks_soccer", INT)),
+    ARCADE_GALAXY_WARS_WINS(ARCADE, stat("sw_game_wins", INT)),
+    ARCADE_GALAXY_WARS_KILLS(ARCADE, stat("sw_kills", INT)),
+    ARCADE_GALAXY_WARS_KDR(ARCADE, clampedRatio("sw_kills", "sw_deaths")),
+    ARCADE_HIDE_AND_SEEK_PARTY_POOPER_WINS(ARCADE, sum(
+        "party_pooper_hider_wins_hide_and_seek",
+        "party_pooper_seeker_wins_hide_and_seek"
+    )),
+    ARCADE_HIDE_AND_SEEK_PROP_HUNT_WINS(ARCADE, sum(
+        "prop_hunt_hider_wins_hide_and_seek",
+        "prop_hunt_seeker_wins_hide_and_seek"
+    )),
     ARCADE_HIDE_AND_SEEK_WINS(ARCADE, ar -> ARCADE_HIDE_AND_SEEK_PARTY_POOPER_WINS.derive(ar).intValue() + ARCADE_HIDE_AND_SEEK_PROP_HUNT_WINS.derive(ar).intValue()),
-    ARCADE_HOLE_IN_THE_WALL_WINS(ARCADE, ar -> ar.get("wins_hole_in_the_wall").getAsInt()),
-    ARCADE_HOLE_IN_THE_WALL_QUALIFICATIONS_RECORD(ARCADE, ar -> ar.get("hitw_record_q").getAsInt()),
-    ARCADE_HOLE_IN_THE_WALL_FINALS_RECORD(ARCADE, ar -> ar.get("hitw_record_f").getAsInt()),
-    ARCADE_MINI_WALLS_FINAL_KILLS(ARCADE, ar -> ar.get("final_kills_mini_walls").getAsInt()),
-    ARCADE_PIXEL_PARTY_POWERUPS_COLLECTED(ARCADE, ar -> ar.getAsJsonObject("pixel_party").get("power_ups_collected").getAsInt()),
-    ARCADE_PIXEL_PARTY_NORMAL_WINS(ARCADE, ar -> ar.getAsJsonObject("pixel_party").get("wins_normal").getAsInt()),
-    ARCADE_PIXEL_PARTY_HYPER_WINS(ARCADE, ar -> ar.getAsJsonObject("pixel_party").get("wins_hyper").getAsInt()),
-    ARCADE_PIXEL_PAINTERS_WINS(ARCADE, ar -> ar.get("wins_draw_their_thing").getAsInt()),
-    ARCADE_GRINCH_SIMULATOR_WINS(ARCADE, ar -> ar.get("wins_grinch_simulator_v2").getAsInt()),
-    ARCADE_GRINCH_SIMULATOR_GIFTS_STOLEN(ARCADE, ar -> ar.get("gifts_grinch_simulator_v2").getAsInt()),
-    ARCADE_SCUBA_SIMULATOR_WINS(ARCADE, ar -> ar.get("wins_scuba_simulator").getAsInt()),
-    ARCADE_SANTA_SIMULATOR_WINS(ARCADE, ar -> ar.get("wins_santa_simulator").getAsInt()),
-    ARCADE_HALLOWEEN_SIMULATOR_WINS(ARCADE, ar -> ar.get("wins_halloween_simulator").getAsInt()),
-    ARCADE_EASTER_SIMULATOR_WINS(ARCADE, ar -> ar.get("wins_easter_simulator").getAsInt()),
+    ARCADE_HOLE_IN_THE_WALL_WINS(ARCADE, stat("wins_hole_in_the_wall", INT)),
+    ARCADE_HOLE_IN_THE_WALL_QUALIFICATIONS_RECORD(ARCADE, stat("hitw_record_q", INT)),
+    ARCADE_HOLE_IN_THE_WALL_FINALS_RECORD(ARCADE, stat("hitw_record_f", INT)),
+    ARCADE_MINI_WALLS_FINAL_KILLS(ARCADE, stat("final_kills_mini_walls", INT)),
+    ARCADE_PIXEL_PARTY_POWERUPS_COLLECTED(ARCADE, stat("pixel_party.power_ups_collected", INT)),
+    ARCADE_PIXEL_PARTY_NORMAL_WINS(ARCADE, stat("pixel_party.wins_normal", INT)),
+    ARCADE_PIXEL_PARTY_HYPER_WINS(ARCADE, stat("pixel_party.wins_hyper", INT)),
+    ARCADE_PIXEL_PAINTERS_WINS(ARCADE, stat("wins_draw_their_thing", INT)),
+    ARCADE_GRINCH_SIMULATOR_WINS(ARCADE, stat("wins_grinch_simulator_v2", INT)),
+    ARCADE_GRINCH_SIMULATOR_GIFTS_STOLEN(ARCADE, stat("gifts_grinch_simulator_v2", INT)),
+    ARCADE_SCUBA_SIMULATOR_WINS(ARCADE, stat("wins_scuba_simulator", INT)),
+    ARCADE_SANTA_SIMULATOR_WINS(ARCADE, stat("wins_santa_simulator", INT)),
+    ARCADE_HALLOWEEN_SIMULATOR_WINS(ARCADE, stat("wins_halloween_simulator", INT)),
+    ARCADE_EASTER_SIMULATOR_WINS(ARCADE, stat("wins_easter_simulator", INT)),
 
     ARCADE_WINS(ARCADE, ar ->
         ARCADE_BLOCKING_DEAD_WINS.derive(ar).intValue() +
@@ -345,16 +353,16 @@ public enum Leaderboard {
      * @see LeaderboardCategory#BLITZ
      */
 
-    BLITZ_COINS(BLITZ, bsg -> bsg.get("coins").getAsInt()),
-    BLITZ_SOLO_WINS(BLITZ, bsg -> bsg.get("wins_solo_normal").getAsInt()),
-    BLITZ_TEAM_WINS(BLITZ, bsg -> bsg.get("wins_teams_normal").getAsInt()),
+    BLITZ_COINS(BLITZ, stat("coins", INT)),
+    BLITZ_SOLO_WINS(BLITZ, stat("wins_solo_normal", INT)),
+    BLITZ_TEAM_WINS(BLITZ, stat("wins_teams_normal", INT)),
     BLITZ_WINS(BLITZ, bsg -> BLITZ_SOLO_WINS.derive(bsg).intValue() + BLITZ_TEAM_WINS.derive(bsg).intValue()),
 
-    BLITZ_KILLS(BLITZ, bsg -> bsg.get("kills").getAsInt()),
-    BLITZ_TEAM_KILLS(BLITZ, bsg -> bsg.get("kills_teams_normal").getAsInt()),
+    BLITZ_KILLS(BLITZ, stat("kills", INT)),
+    BLITZ_TEAM_KILLS(BLITZ, stat("kills_teams_normal", INT)),
     BLITZ_SOLO_KILLS(BLITZ, bsg -> BLITZ_KILLS.derive(bsg).intValue() - BLITZ_TEAM_KILLS.derive(bsg).intValue()),
     BLITZ_KDR(BLITZ, bsg -> BLITZ_KILLS.derive(bsg).doubleValue() / Math.max(bsg.get("deaths").getAsDouble(), 1)),
-    BLITZ_DAMAGE_DEALT(BLITZ, bsg -> bsg.get("damage").getAsInt()),
+    BLITZ_DAMAGE_DEALT(BLITZ, stat("damage", INT)),
 
     /**
      * Arena Brawl leaderboards.
@@ -362,12 +370,12 @@ public enum Leaderboard {
      * @see LeaderboardCategory#ARENA_BRAWL
      */
 
-    ARENA_BRAWL_COINS(ARENA_BRAWL, ab -> ab.get("coins").getAsInt()),
-    ARENA_BRAWL_WINS(ARENA_BRAWL, ab -> ab.get("wins").getAsInt()),
-    ARENA_BRAWL_KILLS(ARENA_BRAWL, ab -> JsonUtil.getNullableInt(ab.get("kills_1v1")) + JsonUtil.getNullableInt(ab.get("kills_2v2")) + JsonUtil.getNullableInt(ab.get("kills_4v4"))),
+    ARENA_BRAWL_COINS(ARENA_BRAWL, stat("coins", INT)),
+    ARENA_BRAWL_WINS(ARENA_BRAWL, stat("wins", INT)),
+    ARENA_BRAWL_KILLS(ARENA_BRAWL, sum("kills_1v1", "kills_2v2", "kills_4v4")),
     ARENA_BRAWL_KDR(ARENA_BRAWL, ab -> (JsonUtil.getNullableDouble(ab.get("kills_1v1")) + JsonUtil.getNullableDouble(ab.get("kills_2v2")) + JsonUtil.getNullableDouble(ab.get("kills_4v4"))) / Math.max(1, JsonUtil.getNullableDouble(ab.get("deaths_1v1")) + JsonUtil.getNullableDouble(ab.get("deaths_2v2")) + JsonUtil.getNullableDouble(ab.get("deaths_4v4")))),
     ARENA_BRAWL_WLR(ARENA_BRAWL, ab -> ARENA_BRAWL_WINS.derive(ab).doubleValue() / ((JsonUtil.getNullableInt(ab.get("losses_1v1")) + JsonUtil.getNullableInt(ab.get("losses_2v2")) + JsonUtil.getNullableInt(ab.get("losses_4v4"))))),
-    ARENA_BRAWL_MAGICAL_CHESTS(ARENA_BRAWL, ab -> ab.get("magical_chest").getAsInt()),
+    ARENA_BRAWL_MAGICAL_CHESTS(ARENA_BRAWL, stat("magical_chest", INT)),
 
     /**
      * Paintball leaderboards.
@@ -375,12 +383,12 @@ public enum Leaderboard {
      * @see LeaderboardCategory#PAINTBALL
      */
 
-    PAINTBALL_COINS(PAINTBALL, pb -> pb.get("coins").getAsInt()),
-    PAINTBALL_WINS(PAINTBALL, pb -> pb.get("wins").getAsInt()),
-    PAINTBALL_KILLS(PAINTBALL, pb -> pb.get("kills").getAsInt()),
-    PAINTBALL_KDR(PAINTBALL, pb -> pb.get("kills").getAsDouble() / Math.max(pb.get("deaths").getAsDouble(), 1)),
-    PAINTBALL_KILLSTREAKS(PAINTBALL, pb -> pb.get("killstreaks").getAsInt()),
-    PAINTBALL_SHOTS_FIRED(PAINTBALL, pb -> pb.get("shots_fired").getAsInt()),
+    PAINTBALL_COINS(PAINTBALL, stat("coins", INT)),
+    PAINTBALL_WINS(PAINTBALL, stat("wins", INT)),
+    PAINTBALL_KILLS(PAINTBALL, stat("kills", INT)),
+    PAINTBALL_KDR(PAINTBALL, clampedRatio("kills", "deaths")),
+    PAINTBALL_KILLSTREAKS(PAINTBALL, stat("killstreaks", INT)),
+    PAINTBALL_SHOTS_FIRED(PAINTBALL, stat("shots_fired", INT)),
 
     /**
      * Quakecraft leaderboards.
@@ -388,11 +396,11 @@ public enum Leaderboard {
      * @see LeaderboardCategory#QUAKECRAFT
      */
 
-    QUAKECRAFT_COINS(QUAKECRAFT, qc -> qc.get("coins").getAsInt()),
-    QUAKECRAFT_WINS(QUAKECRAFT, qc -> JsonUtil.getNullableInt(qc.get("wins")) + JsonUtil.getNullableInt(qc.get("wins_teams"))),
-    QUAKECRAFT_KILLS(QUAKECRAFT, qc -> JsonUtil.getNullableInt(qc.get("kills")) + JsonUtil.getNullableInt(qc.get("kills_teams"))),
+    QUAKECRAFT_COINS(QUAKECRAFT, stat("coins", INT)),
+    QUAKECRAFT_WINS(QUAKECRAFT, sum("wins", "wins_teams")),
+    QUAKECRAFT_KILLS(QUAKECRAFT, sum("kills", "kills_teams")),
     QUAKECRAFT_KDR(QUAKECRAFT, qc -> QUAKECRAFT_KILLS.derive(qc).doubleValue() / Math.max(1, JsonUtil.getNullableDouble(qc.get("deaths")) + JsonUtil.getNullableDouble(qc.get("deaths_teams")))),
-    QUAKECRAFT_DISTANCE_TRAVELLED(QUAKECRAFT, qc -> qc.get("distance_travelled").getAsInt()),
+    QUAKECRAFT_DISTANCE_TRAVELLED(QUAKECRAFT, stat("distance_travelled", INT)),
 
     /**
      * Turbo Kart Racers leaderboards.
@@ -400,11 +408,11 @@ public enum Leaderboard {
      * @see LeaderboardCategory#TURBO_KART_RACERS
      */
 
-    TURBO_KART_RACERS_COINS(TURBO_KART_RACERS, tkr -> tkr.get("coins").getAsInt()),
-    TURBO_KART_RACERS_TROPHIES(TURBO_KART_RACERS, tkr -> JsonUtil.getNullableInt(tkr.get("gold_trophy")) + JsonUtil.getNullableInt(tkr.get("silver_trophy")) + JsonUtil.getNullableInt(tkr.get("bronze_trophy"))),
-    TURBO_KART_RACERS_GOLD_TROPHIES(TURBO_KART_RACERS, tkr -> tkr.get("gold_trophy").getAsInt()),
-    TURBO_KART_RACERS_LAPS(TURBO_KART_RACERS, tkr -> tkr.get("laps_completed").getAsInt()),
-    TURBO_KART_RACERS_ITEM_BOX_PICKUPS(TURBO_KART_RACERS, tkr -> tkr.get("box_pickups").getAsInt()),
+    TURBO_KART_RACERS_COINS(TURBO_KART_RACERS, stat("coins", INT)),
+    TURBO_KART_RACERS_TROPHIES(TURBO_KART_RACERS, sum("gold_trophy", "silver_trophy", "bronze_trophy")),
+    TURBO_KART_RACERS_GOLD_TROPHIES(TURBO_KART_RACERS, stat("gold_trophy", INT)),
+    TURBO_KART_RACERS_LAPS(TURBO_KART_RACERS, stat("laps_completed", INT)),
+    TURBO_KART_RACERS_ITEM_BOX_PICKUPS(TURBO_KART_RACERS, stat("box_pickups", INT)),
 
     /**
      * VampireZ leaderboards.
@@ -412,12 +420,12 @@ public enum Leaderboard {
      * @see LeaderboardCategory#VAMPIREZ
      */
 
-    VAMPIREZ_COINS(VAMPIREZ, vz -> vz.get("coins").getAsInt()),
-    VAMPIREZ_HUMAN_WINS(VAMPIREZ, vz -> vz.get("human_wins").getAsInt()),
-    VAMPIREZ_HUMAN_KILLS(VAMPIREZ, vz -> vz.get("human_kills").getAsInt()),
-    VAMPIREZ_VAMPIRE_WINS(VAMPIREZ, vz -> vz.get("vampire_wins").getAsInt()),
-    VAMPIREZ_VAMPIRE_KILLS(VAMPIREZ, vz -> vz.get("vampire_kills").getAsInt()),
-    VAMPIREZ_ZOMBIE_KILLS(VAMPIREZ, vz -> vz.get("zombie_kills").getAsInt()),
+    VAMPIREZ_COINS(VAMPIREZ, stat("coins", INT)),
+    VAMPIREZ_HUMAN_WINS(VAMPIREZ, stat("human_wins", INT)),
+    VAMPIREZ_HUMAN_KILLS(VAMPIREZ, stat("human_kills", INT)),
+    VAMPIREZ_VAMPIRE_WINS(VAMPIREZ, stat("vampire_wins", INT)),
+    VAMPIREZ_VAMPIRE_KILLS(VAMPIREZ, stat("vampire_kills", INT)),
+    VAMPIREZ_ZOMBIE_KILLS(VAMPIREZ, stat("zombie_kills", INT)),
 
 
     /**
@@ -426,11 +434,11 @@ public enum Leaderboard {
      * @see LeaderboardCategory#WALLS
      */
 
-    WALLS_COINS(WALLS, wl -> wl.get("coins").getAsInt()),
-    WALLS_WINS(WALLS, wl -> wl.get("wins").getAsInt()),
-    WALLS_KILLS(WALLS, wl -> wl.get("kills").getAsInt()),
-    WALLS_KDR(WALLS, wl -> wl.get("kills").getAsDouble() / Math.max(wl.get("deaths").getAsDouble(), 1)),
-    WALLS_ASSISTS(WALLS, wl -> wl.get("assists").getAsInt()),
+    WALLS_COINS(WALLS, stat("coins", INT)),
+    WALLS_WINS(WALLS, stat("wins", INT)),
+    WALLS_KILLS(WALLS, stat("kills", INT)),
+    WALLS_KDR(WALLS, clampedRatio("kills", "deaths")),
+    WALLS_ASSISTS(WALLS, stat("assists", INT)),
 
     /**
      * Cops and Crims leaderboards.
@@ -438,22 +446,22 @@ public enum Leaderboard {
      * @see LeaderboardCategory#COPS_AND_CRIMS
      */
 
-    COPS_AND_CRIMS_SCORE(COPS_AND_CRIMS, cc -> cc.get("score").getAsInt()),
-    COPS_AND_CRIMS_COINS(COPS_AND_CRIMS, cc -> cc.get("coins").getAsInt()),
+    COPS_AND_CRIMS_SCORE(COPS_AND_CRIMS, stat("score", INT)),
+    COPS_AND_CRIMS_COINS(COPS_AND_CRIMS, stat("coins", INT)),
 
-    COPS_AND_CRIMS_DEFUSAL_WINS(COPS_AND_CRIMS, cc -> cc.get("game_wins").getAsInt()),
-    COPS_AND_CRIMS_DEFUSAL_KILLS(COPS_AND_CRIMS, cc -> cc.get("kills").getAsInt()),
-    COPS_AND_CRIMS_DEFUSAL_BOMBS_PLANTED(COPS_AND_CRIMS, cc -> cc.get("bombs_planted").getAsInt()),
-    COPS_AND_CRIMS_DEFUSAL_BOMBS_DEFUSED(COPS_AND_CRIMS, cc -> cc.get("bombs_defused").getAsInt()),
-    COPS_AND_CRIMS_DEFUSAL_ROUND_WINS(COPS_AND_CRIMS, cc -> cc.get("round_wins").getAsInt()),
-    COPS_AND_CRIMS_DEFUSAL_KDR(COPS_AND_CRIMS, cc -> cc.get("kills").getAsDouble() / Math.max(cc.get("deaths").getAsDouble(), 1)),
-    COPS_AND_CRIMS_TEAM_DEATHMATCH_WINS(COPS_AND_CRIMS, cc -> cc.get("game_wins_deathmatch").getAsInt()),
-    COPS_AND_CRIMS_TEAM_DEATHMATCH_KILLS(COPS_AND_CRIMS, cc -> cc.get("kills_deathmatch").getAsInt()),
-    COPS_AND_CRIMS_TEAM_DEATHMATCH_KDR(COPS_AND_CRIMS, cc -> cc.get("kills_deathmatch").getAsDouble() / Math.max(cc.get("deaths_deathmatch").getAsDouble(), 1)),
-    COPS_AND_CRIMS_GUN_GAME_WINS(COPS_AND_CRIMS, cc -> cc.get("game_wins_gungame").getAsInt()),
-    COPS_AND_CRIMS_GUN_GAME_KILLS(COPS_AND_CRIMS, cc -> cc.get("kills_gungame").getAsInt()),
-    COPS_AND_CRIMS_GUN_GAME_KDR(COPS_AND_CRIMS, cc -> cc.get("kills_gungame").getAsDouble() / Math.max(cc.get("deaths_gungame").getAsDouble(), 1)),
-    COPS_AND_CRIMS_GUN_GAME_FASTEST_WIN(COPS_AND_CRIMS, cc -> cc.get("fastest_win_gungame").getAsInt(), 1),
+    COPS_AND_CRIMS_DEFUSAL_WINS(COPS_AND_CRIMS, stat("game_wins", INT)),
+    COPS_AND_CRIMS_DEFUSAL_KILLS(COPS_AND_CRIMS, stat("kills", INT)),
+    COPS_AND_CRIMS_DEFUSAL_BOMBS_PLANTED(COPS_AND_CRIMS, stat("bombs_planted", INT)),
+    COPS_AND_CRIMS_DEFUSAL_BOMBS_DEFUSED(COPS_AND_CRIMS, stat("bombs_defused", INT)),
+    COPS_AND_CRIMS_DEFUSAL_ROUND_WINS(COPS_AND_CRIMS, stat("round_wins", INT)),
+    COPS_AND_CRIMS_DEFUSAL_KDR(COPS_AND_CRIMS, clampedRatio("kills", "deaths")),
+    COPS_AND_CRIMS_TEAM_DEATHMATCH_WINS(COPS_AND_CRIMS, stat("game_wins_deathmatch", INT)),
+    COPS_AND_CRIMS_TEAM_DEATHMATCH_KILLS(COPS_AND_CRIMS, stat("kills_deathmatch", INT)),
+    COPS_AND_CRIMS_TEAM_DEATHMATCH_KDR(COPS_AND_CRIMS, clampedRatio("kills_deathmatch", "deaths_deathmatch")),
+    COPS_AND_CRIMS_GUN_GAME_WINS(COPS_AND_CRIMS, stat("game_wins_gungame", INT)),
+    COPS_AND_CRIMS_GUN_GAME_KILLS(COPS_AND_CRIMS, stat("kills_gungame", INT)),
+    COPS_AND_CRIMS_GUN_GAME_KDR(COPS_AND_CRIMS, clampedRatio("kills_gungame", "deaths_gungame")),
+    COPS_AND_CRIMS_GUN_GAME_FASTEST_WIN(COPS_AND_CRIMS, stat("fastest_win_gungame", INT), 1),
 
     COPS_AND_CRIMS_WINS(COPS_AND_CRIMS, cc -> COPS_AND_CRIMS_DEFUSAL_WINS.derive(cc).intValue() + COPS_AND_CRIMS_TEAM_DEATHMATCH_WINS.derive(cc).intValue() + COPS_AND_CRIMS_GUN_GAME_WINS.derive(cc).intValue()),
     COPS_AND_CRIMS_KILLS(COPS_AND_CRIMS, cc -> COPS_AND_CRIMS_DEFUSAL_KILLS.derive(cc).intValue() + COPS_AND_CRIMS_TEAM_DEATHMATCH_KILLS.derive(cc).intValue() + COPS_AND_CRIMS_GUN_GAME_KILLS.derive(cc).intValue()),
@@ -465,33 +473,33 @@ public enum Leaderboard {
      * @see LeaderboardCategory#MEGA_WALLS
      */
 
-    MEGA_WALLS_COINS(MEGA_WALLS, mw -> mw.get("coins").getAsInt()),
-    MEGA_WALLS_CLASS_POINTS(MEGA_WALLS, mw -> mw.get("class_points").getAsInt()),
+    MEGA_WALLS_COINS(MEGA_WALLS, stat("coins", INT)),
+    MEGA_WALLS_CLASS_POINTS(MEGA_WALLS, stat("class_points", INT)),
 
-    MEGA_WALLS_WINS(MEGA_WALLS, mw -> mw.get("wins").getAsInt()),
-    MEGA_WALLS_WITHER_KILLS(MEGA_WALLS, mw -> mw.get("wither_kills").getAsInt()),
-    MEGA_WALLS_WLR(MEGA_WALLS, mw -> mw.get("wins").getAsDouble() / Math.max(mw.get("losses").getAsDouble(), 1)),
-    MEGA_WALLS_FINAL_KILLS(MEGA_WALLS, mw -> JsonUtil.getNullableInt(mw.get("final_kills")) + JsonUtil.getNullableInt(mw.get("finalKills"))),
+    MEGA_WALLS_WINS(MEGA_WALLS, stat("wins", INT)),
+    MEGA_WALLS_WITHER_KILLS(MEGA_WALLS, stat("wither_kills", INT)),
+    MEGA_WALLS_WLR(MEGA_WALLS, clampedRatio("wins", "losses")),
+    MEGA_WALLS_FINAL_KILLS(MEGA_WALLS, sum("final_kills", "finalKills")),
     MEGA_WALLS_FKDR(MEGA_WALLS, mw -> MEGA_WALLS_FINAL_KILLS.derive(mw).doubleValue() / Math.max(1, JsonUtil.getNullableDouble(mw.get("final_deaths")) + JsonUtil.getNullableDouble(mw.get("finalDeaths")))),
-    MEGA_WALLS_KILLS(MEGA_WALLS, mw -> mw.get("kills").getAsInt()),
-    MEGA_WALLS_KDR(MEGA_WALLS, mw -> mw.get("kills").getAsDouble() / Math.max(mw.get("deaths").getAsDouble(), 1)),
-    MEGA_WALLS_MYTHIC_FAVOR(MEGA_WALLS, mw -> mw.get("mythic_favor").getAsInt()),
-
-    MEGA_WALLS_STANDARD_WINS(MEGA_WALLS, mw -> mw.get("wins_standard").getAsInt()),
-    MEGA_WALLS_STANDARD_WITHER_KILLS(MEGA_WALLS, mw -> mw.get("wither_kills_standard").getAsInt()),
-    MEGA_WALLS_STANDARD_WLR(MEGA_WALLS, mw -> mw.get("wins_standard").getAsDouble() / Math.max(mw.get("losses_standard").getAsDouble(), 1)),
-    MEGA_WALLS_STANDARD_FINAL_KILLS(MEGA_WALLS, mw -> mw.get("final_kills_standard").getAsInt()),
-    MEGA_WALLS_STANDARD_FKDR(MEGA_WALLS, mw -> mw.get("final_kills_standard").getAsDouble() / Math.max(mw.get("final_deaths_standard").getAsDouble(), 1)),
-    MEGA_WALLS_STANDARD_KILLS(MEGA_WALLS, mw -> mw.get("kills_standard").getAsInt()),
-    MEGA_WALLS_STANDARD_KDR(MEGA_WALLS, mw -> mw.get("kills_standard").getAsDouble() / Math.max(mw.get("deaths_standard").getAsDouble(), 1)),
-
-    MEGA_WALLS_FACEOFF_WINS(MEGA_WALLS, mw -> mw.get("wins_face_off").getAsInt()),
-    MEGA_WALLS_FACEOFF_WITHER_KILLS(MEGA_WALLS, mw -> mw.get("wither_kills_face_off").getAsInt()),
-    MEGA_WALLS_FACEOFF_WLR(MEGA_WALLS, mw -> mw.get("wins_face_off").getAsDouble() / Math.max(mw.get("losses_face_off").getAsDouble(), 1)),
-    MEGA_WALLS_FACEOFF_FINAL_KILLS(MEGA_WALLS, mw -> mw.get("final_kills_face_off").getAsInt()),
-    MEGA_WALLS_FACEOFF_FKDR(MEGA_WALLS, mw -> mw.get("final_kills_face_off").getAsDouble() / Math.max(mw.get("final_deaths_face_off").getAsDouble(), 1)),
-    MEGA_WALLS_FACEOFF_KILLS(MEGA_WALLS, mw -> mw.get("kills_face_off").getAsInt()),
-    MEGA_WALLS_FACEOFF_KDR(MEGA_WALLS, mw -> mw.get("kills_face_off").getAsDouble() / Math.max(mw.get("deaths_face_off").getAsDouble(), 1)),
+    MEGA_WALLS_KILLS(MEGA_WALLS, stat("kills", INT)),
+    MEGA_WALLS_KDR(MEGA_WALLS, clampedRatio("kills", "deaths")),
+    MEGA_WALLS_MYTHIC_FAVOR(MEGA_WALLS, stat("mythic_favor", INT)),
+
+    MEGA_WALLS_STANDARD_WINS(MEGA_WALLS, stat("wins_standard", INT)),
+    MEGA_WALLS_STANDARD_WITHER_KILLS(MEGA_WALLS, stat("wither_kills_standard", INT)),
+    MEGA_WALLS_STANDARD_WLR(MEGA_WALLS, clampedRatio("wins_standard", "losses_standard")),
+    MEGA_WALLS_STANDARD_FINAL_KILLS(MEGA_WALLS, stat("final_kills_standard", INT)),
+    MEGA_WALLS_STANDARD_FKDR(MEGA_WALLS, clampedRatio("final_kills_standard", "final_deaths_standard")),
+    MEGA_WALLS_STANDARD_KILLS(MEGA_WALLS, stat("kills_standard", INT)),
+    MEGA_WALLS_STANDARD_KDR(MEGA_WALLS, clampedRatio("kills_standard", "deaths_standard")),
+
+    MEGA_WALLS_FACEOFF_WINS(MEGA_WALLS, stat("wins_face_off", INT)),
+    MEGA_WALLS_FACEOFF_WITHER_KILLS(MEGA_WALLS, stat("wither_kills_face_off", INT)),
+    MEGA_WALLS_FACEOFF_WLR(MEGA_WALLS, clampedRatio("wins_face_off", "losses_face_off")),
+    MEGA_WALLS_FACEOFF_FINAL_KILLS(MEGA_WALLS, stat("final_kills_face_off", INT)),
+    MEGA_WALLS_FACEOFF_FKDR(MEGA_WALLS, clampedRatio("final_kills_face_off", "final_deaths_face_off")),
+    MEGA_WALLS_FACEOFF_KILLS(MEGA_WALLS, stat("kills_face_off", INT)),
+    MEGA_WALLS_FACEOFF_KDR(MEGA_WALLS, clampedRatio("kills_face_off", "deaths_face_off")),
 
     /**
      * Smash Heroes leaderboards.
@@ -499,12 +507,12 @@ public enum Leaderboard {
      * @see LeaderboardCategory#SMASH_HEROES
      */
 
-    SMASH_HEROES_COINS(SMASH_HEROES, sh -> sh.get("coins").getAsInt()),
-    SMASH_HEROES_WINS(SMASH_HEROES, sh -> sh.get("wins").getAsInt()),
-    SMASH_HEROES_WLR(SMASH_HEROES, sh -> sh.get("wins").getAsDouble() / Math.max(sh.get("losses").getAsDouble(), 1)),
-    SMASH_HEROES_KILLS(SMASH_HEROES, sh -> sh.get("kills").getAsInt()),
-    SMASH_HEROES_KDR(SMASH_HEROES, sh -> sh.get("kills").getAsDouble() / Math.max(sh.get("deaths").getAsDouble(), 1)),
-    SMASH_HEROES_SMASH_LEVEL(SMASH_HEROES, sh -> sh.get("smashLevel").getAsInt()),
+    SMASH_HEROES_COINS(SMASH_HEROES, stat("coins", INT)),
+    SMASH_HEROES_WINS(SMASH_HEROES, stat("wins", INT)),
+    SMASH_HEROES_WLR(SMASH_HEROES, clampedRatio("wins", "losses")),
+    SMASH_HEROES_KILLS(SMASH_HEROES, stat("kills", INT)),
+    SMASH_HEROES_KDR(SMASH_HEROES, clampedRatio("kills", "deaths")),
+    SMASH_HEROES_SMASH_LEVEL(SMASH_HEROES, stat("smashLevel", INT)),
 
     /**
      * UHC Champions leaderboards.
@@ -512,18 +520,34 @@ public enum Leaderboard {
      * @see LeaderboardCategory#UHC
      */
 
-    UHC_COINS(UHC, uhc -> uhc.get("coins").getAsInt()),
-    UHC_SCORE(UHC, uhc -> uhc.get("score").getAsInt()),
+    UHC_COINS(UHC, stat("coins", INT)),
+    UHC_SCORE(UHC, stat("score", INT)),
     //* wins + wins_solo + wins_no_diamonds + wins_brawl + wins_solo_brawl + wins_duo_brawl + wins_vanilla_doubles
-    UHC_WINS(UHC, uhc -> JsonUtil.getNullableInt(uhc.get("wins")) + JsonUtil.getNullableInt(uhc.get("wins_solo")) + JsonUtil.getNullableInt(uhc.get("wins_no_diamonds")) + JsonUtil.getNullableInt(uhc.get("wins_brawl")) + JsonUtil.getNullableInt(uhc.get("wins_solo_brawl")) + JsonUtil.getNullableInt(uhc.get("wins_duo_brawl")) + JsonUtil.getNullableInt(uhc.get("wins_vanilla_doubles"))),
-    UHC_KILLS(UHC, uhc -> JsonUtil.getNullableInt(uhc.get("kills")) + JsonUtil.getNullableInt(uhc.get("kills_solo")) + JsonUtil.getNullableInt(uhc.get("kills_no_diamonds")) + JsonUtil.getNullableInt(uhc.get("kills_brawl")) + JsonUtil.getNullableInt(uhc.get("kills_solo_brawl")) + JsonUtil.getNullableInt(uhc.get("kills_duo_brawl")) + JsonUtil.getNullableInt(uhc.get("kills_vanilla_doubles"))),
+    UHC_WINS(UHC, sum(
+        "wins",
+        "wins_solo",
+        "wins_no_diamonds",
+        "wins_brawl",
+        "wins_solo_brawl",
+        "wins_duo_brawl",
+        "wins_vanilla_doubles"
+    )),
+    UHC_KILLS(UHC, sum(
+        "kills",
+        "kills_solo",
+        "kills_no_diamonds",
+        "kills_brawl",
+        "kills_solo_brawl",
+        "kills_duo_brawl",
+        "kills_vanilla_doubles"
+    )),
     UHC_KDR(UHC, uhc -> UHC_KILLS.derive(uhc).doubleValue() / Math.max(1, JsonUtil.getNullableDouble(uhc.get("deaths")) + JsonUtil.getNullableDouble(uhc.get("deaths_solo")) + JsonUtil.getNullableDouble(uhc.get("deaths_no_diamonds")) + JsonUtil.getNullableDouble(uhc.get("deaths_brawl")) + JsonUtil.getNullableDouble(uhc.get("deaths_solo_brawl")) + JsonUtil.getNullableDouble(uhc.get("deaths_duo_brawl")) + JsonUtil.getNullableDouble(uhc.get("deaths_vanilla_doubles")))),
-    UHC_TEAMS_WINS(UHC, uhc -> uhc.get("wins").getAsInt()),
-    UHC_TEAMS_KILLS(UHC, uhc -> uhc.get("kills").getAsInt()),
-    UHC_TEAMS_KDR(UHC, uhc -> uhc.get("kills").getAsDouble() / Math.max(uhc.get("deaths").getAsDouble(), 1)),
-    UHC_SOLO_WINS(UHC, uhc -> uhc.get("wins_solo").getAsInt()),
-    UHC_SOLO_KILLS(UHC, uhc -> uhc.get("kills_solo").getAsInt()),
-    UHC_SOLO_KDR(UHC, uhc -> uhc.get("kills_solo").getAsDouble() / Math.max(uhc.get("deaths_solo").getAsDouble(), 1)),
+    UHC_TEAMS_WINS(UHC, stat("wins", INT)),
+    UHC_TEAMS_KILLS(UHC, stat("kills", INT)),
+    UHC_TEAMS_KDR(UHC, clampedRatio("kills", "deaths")),
+    UHC_SOLO_WINS(UHC, stat("wins_solo", INT)),
+    UHC_SOLO_KILLS(UHC, stat("kills_solo", INT)),
+    UHC_SOLO_KDR(UHC, clampedRatio("kills_solo", "deaths_solo")),
 
     /**
      * Speed UHC leaderboards.
@@ -531,11 +555,11 @@ public enum Leaderboard {
      * @see LeaderboardCategory#SPEED_UHC
      */
 
-    SPEED_UHC_SCORE(SPEED_UHC, suhc -> suhc.get("score").getAsInt()),
-    SPEED_UHC_KILLS(SPEED_UHC, suhc -> suhc.get("kills").getAsInt()),
-    SPEED_UHC_WINS(SPEED_UHC, suhc -> suhc.get("wins").getAsInt()),
-    SPEED_UHC_WLR(SPEED_UHC, suhc -> suhc.get("wins").getAsDouble() / Math.max(suhc.get("losses").getAsDouble(), 1)),
-    SPEED_UHC_KDR(SPEED_UHC, suhc -> suhc.get("kills").getAsDouble() / Math.max(suhc.get("deaths").getAsDouble(), 1)),
+    SPEED_UHC_SCORE(SPEED_UHC, stat("score", INT)),
+    SPEED_UHC_KILLS(SPEED_UHC, stat("kills", INT)),
+    SPEED_UHC_WINS(SPEED_UHC, stat("wins", INT)),
+    SPEED_UHC_WLR(SPEED_UHC, clampedRatio("wins", "losses")),
+    SPEED_UHC_KDR(SPEED_UHC, clampedRatio("kills", "deaths")),
 
     /**
      * Warlords leaderboards.
@@ -543,20 +567,20 @@ public enum Leaderboard {
      * @see LeaderboardCategory#WARLORDS
      */
 
-    WARLORDS_COINS(WARLORDS, wl -> wl.get("coins").getAsInt()),
-    WARLORDS_KILLS(WARLORDS, wl -> wl.get("kills").getAsInt()),
-    WARLORDS_WINS(WARLORDS, wl -> wl.get("wins").getAsInt()),
+    WARLORDS_COINS(WARLORDS, stat("coins", INT)),
+    WARLORDS_KILLS(WARLORDS, stat("kills", INT)),
+    WARLORDS_WINS(WARLORDS, stat("wins", INT)),
     WARLORDS_WLR(WARLORDS, wl -> wl.get("wins").getAsDouble() / (JsonUtil.getNullableDouble(wl.get("mage_plays")) + JsonUtil.getNullableDouble(wl.get("warrior_plays")) + JsonUtil.getNullableDouble(wl.get("paladin_plays")) + JsonUtil.getNullableDouble(wl.get("shaman_plays")) - JsonUtil.getNullableDouble(wl.get("losses")))),
-    WARLORDS_KDR(WARLORDS, wl -> wl.get("kills").getAsDouble() / Math.max(wl.get("deaths").getAsDouble(), 1)),
-    WARLORDS_CAPTURE_THE_FLAG_WINS(WARLORDS, wl -> wl.get("wins_capturetheflag").getAsInt()),
-    WARLORDS_CAPTURE_THE_FLAG_KILLS(WARLORDS, wl -> wl.get("kills_capturetheflag").getAsInt()),
-    WARLORDS_CAPTURE_THE_FLAG_CAPTURES(WARLORDS, wl -> wl.get("flag_conquer_self").getAsInt()),
-    WARLORDS_CAPTURE_THE_FLAG_RETURNS(WARLORDS, wl -> wl.get("flag_returns").getAsInt()),
-    WARLORDS_DOMINATION_WINS(WARLORDS, wl -> wl.get("wins_domination").getAsInt()),
-    WARLORDS_DOMINATION_KILLS(WARLORDS, wl -> wl.get("kills_domination").getAsInt()),
-    WARLORDS_DOMINATION_CAPTURES(WARLORDS, wl -> wl.get("dom_point_captures").getAsInt()),
-    WARLORDS_TEAM_DEATHMATCH_WINS(WARLORDS, wl -> wl.get("wins_teamdeathmatch").getAsInt()),
-    WARLORDS_TEAM_DEATHMATCH_KILLS(WARLORDS, wl -> wl.get("kills_teamdeathmatch").getAsInt()),
+    WARLORDS_KDR(WARLORDS, clampedRatio("kills", "deaths")),
+    WARLORDS_CAPTURE_THE_FLAG_WINS(WARLORDS, stat("wins_capturetheflag", INT)),
+    WARLORDS_CAPTURE_THE_FLAG_KILLS(WARLORDS, stat("kills_capturetheflag", INT)),
+    WARLORDS_CAPTURE_THE_FLAG_CAPTURES(WARLORDS, stat("flag_conquer_self", INT)),
+    WARLORDS_CAPTURE_THE_FLAG_RETURNS(WARLORDS, stat("flag_returns", INT)),
+    WARLORDS_DOMINATION_WINS(WARLORDS, stat("wins_domination", INT)),
+    WARLORDS_DOMINATION_KILLS(WARLORDS, stat("kills_domination", INT)),
+    WARLORDS_DOMINATION_CAPTURES(WARLORDS, stat("dom_point_captures", INT)),
+    WARLORDS_TEAM_DEATHMATCH_WINS(WARLORDS, stat("wins_teamdeathmatch", INT)),
+    WARLORDS_TEAM_DEATHMATCH_KILLS(WARLORDS, stat("kills_teamdeathmatch", INT)),
 
     /**
      * Wool Games leaderboards.
@@ -564,23 +588,23 @@ public enum Leaderboard {
      * @see LeaderboardCategory#WOOL_GAMES
      */
 
-    WOOL_GAMES_WOOL(WOOL_GAMES, wg -> wg.get("coins").getAsInt()),
-    WOOL_GAMES_LEVEL(WOOL_GAMES, wg -> wg.getAsJsonObject("progression").get("experience").getAsInt()),
+    WOOL_GAMES_WOOL(WOOL_GAMES, stat("coins", INT)),
+    WOOL_GAMES_LEVEL(WOOL_GAMES, stat("progression.experience", INT)),
 
-    WOOL_GAMES_SHEEP_WARS_WINS(WOOL_GAMES, wg -> wg.getAsJsonObject("sheep_wars").getAsJsonObject("stats").get("wins").getAsInt()),
-    WOOL_GAMES_SHEEP_WARS_KDR(WOOL_GAMES, wg -> wg.getAsJsonObject("sheep_wars").getAsJsonObject("stats").get("kills").getAsDouble() / Math.max(wg.getAsJsonObject("sheep_wars").getAsJsonObject("stats").get("deaths").getAsDouble(), 1)),
-    WOOL_GAMES_SHEEP_WARS_KILLS(WOOL_GAMES, wg -> wg.getAsJsonObject("sheep_wars").getAsJsonObject("stats").get("kills").getAsInt()),
-    WOOL_GAMES_SHEEP_WARS_WLR(WOOL_GAMES, wg -> wg.getAsJsonObject("sheep_wars").getAsJsonObject("stats").get("wins").getAsDouble() / Math.max(wg.getAsJsonObject("sheep_wars").getAsJsonObject("stats").get("losses").getAsDouble(), 1)),
+    WOOL_GAMES_SHEEP_WARS_WINS(WOOL_GAMES, stat("sheep_wars.stats.wins", INT)),
+    WOOL_GAMES_SHEEP_WARS_KDR(WOOL_GAMES, clampedRatio("sheep_wars.stats.kills", "sheep_wars.stats.deaths")),
+    WOOL_GAMES_SHEEP_WARS_KILLS(WOOL_GAMES, stat("sheep_wars.stats.kills", INT)),
+    WOOL_GAMES_SHEEP_WARS_WLR(WOOL_GAMES, clampedRatio("sheep_wars.stats.wins", "sheep_wars.stats.losses")),
 
-    WOOL_GAMES_WOOL_WARS_WINS(WOOL_GAMES, wg -> wg.getAsJsonObject("wool_wars").getAsJsonObject("stats").get("wins").getAsInt()),
-    WOOL_GAMES_WOOL_WARS_KDR(WOOL_GAMES, wg -> wg.getAsJsonObject("wool_wars").getAsJsonObject("stats").get("kills").getAsDouble() / Math.max(wg.getAsJsonObject("wool_wars").getAsJsonObject("stats").get("deaths").getAsDouble(), 1)),
-    WOOL_GAMES_WOOL_WARS_KILLS(WOOL_GAMES, wg -> wg.getAsJsonObject("wool_wars").getAsJsonObject("stats").get("kills").getAsInt()),
+    WOOL_GAMES_WOOL_WARS_WINS(WOOL_GAMES, stat("wool_wars.stats.wins", INT)),
+    WOOL_GAMES_WOOL_WARS_KDR(WOOL_GAMES, clampedRatio("wool_wars.stats.kills", "wool_wars.stats.deaths")),
+    WOOL_GAMES_WOOL_WARS_KILLS(WOOL_GAMES, stat("wool_wars.stats.kills", INT)),
     WOOL_GAMES_WOOL_WARS_WLR(WOOL_GAMES, wg -> wg.getAsJsonObject("wool_wars").getAsJsonObject("stats").get("wins").getAsDouble() / Math.max(JsonUtil.getNullableInt(wg.getAsJsonObject("wool_wars").getAsJsonObject("stats").get("games_played")) - JsonUtil.getNullableInt(wg.getAsJsonObject("wool_wars").getAsJsonObject("stats").get("wins")), 1)),
 
-    WOOL_GAMES_CAPTURE_THE_WOOL_WINS(WOOL_GAMES, wg -> wg.getAsJsonObject("capture_the_wool").getAsJsonObject("stats").get("participated_wins").getAsInt()),
-    WOOL_GAMES_CAPTURE_THE_WOOL_KDR(WOOL_GAMES, wg -> wg.getAsJsonObject("capture_the_wool").getAsJsonObject("stats").get("kills").getAsDouble() / Math.max(wg.getAsJsonObject("capture_the_wool").getAsJsonObject("stats").get("deaths").getAsDouble(), 1)),
-    WOOL_GAMES_CAPTURE_THE_WOOL_KILLS(WOOL_GAMES, wg -> wg.getAsJsonObject("capture_the_wool").getAsJsonObject("stats").get("kills").getAsInt()),
-    WOOL_GAMES_CAPTURE_THE_WOOL_WLR(WOOL_GAMES, wg -> wg.getAsJsonObject("capture_the_wool").getAsJsonObject("stats").get("participated_wins").getAsDouble() / Math.max(wg.getAsJsonObject("capture_the_wool").getAsJsonObject("stats").get("participated_losses").getAsDouble(), 1)),
+    WOOL_GAMES_CAPTURE_THE_WOOL_WINS(WOOL_GAMES, stat("capture_the_wool.stats.participated_wins", INT)),
+    WOOL_GAMES_CAPTURE_THE_WOOL_KDR(WOOL_GAMES, clampedRatio("capture_the_wool.stats.kills", "capture_the_wool.stats.deaths")),
+    WOOL_GAMES_CAPTURE_THE_WOOL_KILLS(WOOL_GAMES, stat("capture_the_wool.stats.kills", INT)),
+    WOOL_GAMES_CAPTURE_THE_WOOL_WLR(WOOL_GAMES, clampedRatio("capture_the_wool.stats.participated_wins", "capture_the_wool.stats.participated_losses")),
 
     WOOL_GAMES_WINS(WOOL_GAMES, wg -> WOOL_GAMES_SHEEP_WARS_WINS.derive(wg).intValue() + WOOL_GAMES_WOOL_WARS_WINS.derive(wg).intValue() + WOOL_GAMES_CAPTURE_THE_WOOL_WINS.derive(wg).intValue()),
     WOOL_GAMES_KILLS(WOOL_GAMES, wg -> WOOL_GAMES_SHEEP_WARS_KILLS.derive(wg).intValue() + WOOL_GAMES_WOOL_WARS_KILLS.derive(wg).intValue() + WOOL_GAMES_CAPTURE_THE_WOOL_KILLS.derive(wg).intValue()),
@@ -596,10 +620,30 @@ public enum Leaderboard {
      * @see LeaderboardCategory#FISHING
      */
 
-    FISHING_FISH_CAUGHT(FISHING, fish -> JsonUtil.getNullableInt(fish.getAsJsonObject("stats").getAsJsonObject("permanent").getAsJsonObject("water").get("fish")) + JsonUtil.getNullableInt(fish.getAsJsonObject("stats").getAsJsonObject("permanent").getAsJsonObject("lava").get("fish")) + JsonUtil.getNullableInt(fish.getAsJsonObject("stats").getAsJsonObject("permanent").getAsJsonObject("ice").get("fish"))),
-    FISHING_TREASURE_CAUGHT(FISHING, fish -> JsonUtil.getNullableInt(fish.getAsJsonObject("stats").getAsJsonObject("permanent").getAsJsonObject("water").get("treasure")) + JsonUtil.getNullableInt(fish.getAsJsonObject("stats").getAsJsonObject("permanent").getAsJsonObject("lava").get("treasure")) + JsonUtil.getNullableInt(fish.getAsJsonObject("stats").getAsJsonObject("permanent").getAsJsonObject("ice").get("treasure"))),
-    FISHING_JUNK_CAUGHT(FISHING, fish -> JsonUtil.getNullableInt(fish.getAsJsonObject("stats").getAsJsonObject("permanent").getAsJsonObject("water").get("junk")) + JsonUtil.getNullableInt(fish.getAsJsonObject("stats").getAsJsonObject("permanent").getAsJsonObject("lava").get("junk")) + JsonUtil.getNullableInt(fish.getAsJsonObject("stats").getAsJsonObject("permanent").getAsJsonObject("ice").get("junk"))),
-    FISHING_MYTHICAL_FISH_CAUGHT(FISHING, fish -> JsonUtil.getNullableInt(fish.getAsJsonObject("orbs").get("selene")) + JsonUtil.getNullableInt(fish.getAsJsonObject("orbs").get("helios")) + JsonUtil.getNullableInt(fish.getAsJsonObject("orbs").get("nyx")) + JsonUtil.getNullableInt(fish.getAsJsonObject("orbs").get("zeus")) + JsonUtil.getNullableInt(fish.getAsJsonObject("orbs").get("aphrodite")) + JsonUtil.getNullableInt(fish.getAsJsonObject("orbs").get("archimedes")) + JsonUtil.getNullableInt(fish.getAsJsonObject("orbs").get("hades"))),
+    FISHING_FISH_CAUGHT(FISHING, sum(
+        "stats.permanent.water.fish",
+        "stats.permanent.lava.fish",
+        "stats.permanent.ice.fish"
+    )),
+    FISHING_TREASURE_CAUGHT(FISHING, sum(
+        "stats.permanent.water.treasure",
+        "stats.permanent.lava.treasure",
+        "stats.permanent.ice.treasure"
+    )),
+    FISHING_JUNK_CAUGHT(FISHING, sum(
+        "stats.permanent.water.junk",
+        "stats.permanent.lava.junk",
+        "stats.permanent.ice.junk"
+    )),
+    FISHING_MYTHICAL_FISH_CAUGHT(FISHING, sum(
+        "orbs.selene",
+        "orbs.helios",
+        "orbs.nyx",
+        "orbs.zeus",
+        "orbs.aphrodite",
+        "orbs.archimedes",
+        "orbs.hades"
+    )),
     FISHING_TOTAL_CAUGHT(FISHING, fish -> FISHING_FISH_CAUGHT.derive(fish).intValue() + FISHING_TREASURE_CAUGHT.derive(fish).intValue() + FISHING_JUNK_CAUGHT.derive(fish).intValue() + FISHING_MYTHICAL_FISH_CAUGHT.derive(fish).intValue()),
 
 //    /**
@@ -624,9 +668,21 @@ public enum Leaderboard {
     ;
 
     /**
-     * Dynamically generated leaderboards
+     * Dynamically generated leaderboards, registered from the configuration at startup
+     */
+    private static final List<DynamicLeaderboard> DYNAMIC_LEADERBOARDS = new CopyOnWriteArrayList<>();
+
+    /**
+     * The leaderboards of each category, so that each category's input only has to be resolved once per player
      */
-    private static final List<DynamicLeaderboard> DYNAMIC_LEADERBOARDS = new ArrayList<>();
+    private static final Map<LeaderboardCategory, List<Leaderboard>> BY_CATEGORY =
+        new EnumMap<>(LeaderboardCategory.class);
+
+    static {
+        for (Leaderboard leaderboard : values()) {
+            BY_CATEGORY.computeIfAbsent(leaderboard.category, category -> new ArrayList<>()).add(leaderboard);
+        }
+    }
 
     /**
      * Create a new leaderboard with a default sort direction of descending
@@ -649,6 +705,11 @@ public enum Leaderboard {
      * The exact JsonObject which this function takes in depends on the leaderboard category.
      * For example, network leaderboards take in the {@code profile} object, whereas BedWars leaderboards take in the
      * {@code stats/Bedwars} object.
+     * <p>
+     * Leaderboards reading a single stat, a ratio of two, or a sum of several, use a {@link LeaderboardDerivation}, which
+     * never throws. The rest add up other leaderboards (such as {@link #ARCADE_WINS}), divide by sums or differences
+     * of stats (such as {@link #UHC_KDR} and {@link #WARLORDS_WLR}), or add up a list ({@link #PIT_BOUNTY}), counting
+     * missing stats as 0 in some places but not others. No derivation expresses that, so they stay lambdas.
      */
     private final Function<JsonObject, Number> derive;
 
@@ -671,6 +732,22 @@ public enum Leaderboard {
         }
     }
 
+    /**
+     * @return A description of how this leaderboard is derived: its category, sort direction and derivation. Lambdas
+     *         can't be described, so only the version of nadeshiko tells when they change.
+     */
+    String describe() {
+        return this.category + ":" + this.sortDirection + ":" +
+            (this.derive instanceof LeaderboardDerivation derivation ? derivation : "lambda");
+    }
+
+    /**
+     * @return The leaderboards of each category, in enum order
+     */
+    public static Map<LeaderboardCategory, List<Leaderboard>> byCategory() {
+        return Collections.unmodifiableMap(BY_CATEGORY);
+    }
+
     /**
      * Get a leaderboard by name
      * @param name The name of the leaderboard to look up
@@ -685,6 +762,11 @@ public enum Leaderboard {
         return null;
     }
 
+    /**
+     * Get a dynamic leaderboard by name
+     * @param name The name of the dynamic leaderboard to look up
+     * @return The dynamic leaderboard matching the provided name, or null if none exists
+     */
     public static DynamicLeaderboard getDynamic(String name) {
         for (DynamicLeaderboard leaderboard : DYNAMIC_LEADERBOARDS) {
             if (leaderboard.name().equals(name)) {
@@ -695,15 +777,73 @@ public enum Leaderboard {
     }
 
     /**
-     * @param category      The {@link LeaderboardCategory} this leaderboard belongs to
-     * @param derive        Function that takes in a JsonObject of stats, and outputs the stat appropriate to the leaderboard.
-     *                      <p>
-     *                      The exact JsonObject which this function takes in depends on the leaderboard category.
-     *                      For example, network leaderboards take in the {@code profile} object, whereas BedWars leaderboards take in the
-     *                      {@code stats/Bedwars} object.
-     * @param sortDirection The direction this leaderboard sorts in: -1 is descending, 1 is ascending. Defaults to descending.
+     * Get a leaderboard by name, whether built in or dynamic
+     * @param name The name of the leaderboard to look up
+     * @return The leaderboard matching the provided name, or null if none exists
+     */
+    public static LeaderboardDefinition resolve(String name) {
+        Leaderboard leaderboard = get(name);
+        return leaderboard != null ? leaderboard : getDynamic(name);
+    }
+
+    /**
+     * @return The dynamic leaderboards, in the order they were registered
+     */
+    public static List<DynamicLeaderboard> getDynamicLeaderboards() {
+        return Collections.unmodifiableList(DYNAMIC_LEADERBOARDS);
+    }
+
+    /**
+     * @return Every leaderboard: the built in ones in enum order, followed by the dynamic ones
+     */
+    public static List<LeaderboardDefinition> definitions() {
+        List<LeaderboardDefinition> definitions = new ArrayList<>(values().length + DYNAMIC_LEADERBOARDS.size());
+        definitions.addAll(List.of(values()));
+        definitions.addAll(DYNAMIC_LEADERBOARDS);
+        return definitions;
+    }
+
+    /**
+     * Register a dynamic leaderboard
+     * @param leaderboard The dynamic leaderboard to register
+     * @throws IllegalArgumentException If a leaderboard of the same name already exists
      */
-    public record DynamicLeaderboard(String name, LeaderboardCategory category, Function<JsonObject, Object> derive,
-                                     int sortDirection) {
+    public static void registerDynamic(@NonNull DynamicLeaderboard leaderboard) {
+        if (resolve(leaderboard.name()) != null) {
+            throw new IllegalArgumentException("Leaderboard " + leaderboard.name() + " already exists");
+        }
+
+        DYNAMIC_LEADERBOARDS.add(leaderboard);
+    }
+
+    /**
+     * A leaderboard configured at startup, deriving its stat from a {@link LeaderboardExpression}
+     * @param name          The name of this leaderboard, in upper snake case like the built in ones
+     * @param category      The {@link LeaderboardCategory} this leaderboard belongs to, whose input the expression reads
+     * @param expression    The expression deriving the stat of this leaderboard
+     * @param sortDirection The direction this leaderboard sorts in: -1 is descending, 1 is ascending.
+     */
+    public record DynamicLeaderboard(String name, LeaderboardCategory category, LeaderboardExpression expression,
+                                     int sortDirection) implements LeaderboardDefinition {
+
+        @Override
+        public LeaderboardCategory getCategory() {
+            return this.category;
+        }
+
+        @Override
+        public int getSortDirection() {
+            return this.sortDirection;
+        }
+
+        /**
+         * Derive a stat. Never throws.
+         * @param input The category's input, as returned by {@link LeaderboardCategory#getDeriveInput(JsonObject)}
+         * @param document The player's document in the stat database, holding their built in leaderboard values
+         * @return The player's stat, or 0 if none exists.
+         */
+        public double derive(JsonObject input, @NonNull Document document) {
+            return this.expression.evaluate(input, document);
+        }
     }
 }
@@ -0,0 +1,382 @@
+/*
+ * This file is a part of the Nadeshiko project. Nadeshiko is free software, licensed under the MIT license.
+ *
+ * Usage of these works (including, yet not limited to, reuse, modification, copying, distribution, and selling) is
+ * permitted, provided that the relevant copyright notice and permission notice (as specified in LICENSE) shall be
+ * included in all copies or substantial portions of this software.
+ *
+ * These works are provided "AS IS" with absolutely no warranty of any kind, either expressed or implied.
+ *
+ * You should have received a copy of the MIT License alongside this software; refer to LICENSE for information.
+ * If not, refer to https://mit-license.org.
+ */
+
+package io.nadeshiko.nadeshiko.leaderboards;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.mongodb.MongoException;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.WriteModel;
+import io.nadeshiko.nadeshiko.Nadeshiko;
+import io.nadeshiko.nadeshiko.util.ExecutorUtil;
+import io.nadeshiko.nadeshiko.util.GzipUtil;
+import lombok.NonNull;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Resumable job deriving every leaderboard again for every player in the stat database.
+ * <p>
+ * The stat database only holds derived values, so a new leaderboard, or a changed derivation, would otherwise only
+ * reach players as they are searched again. Instead, every player document is accompanied by a compressed snapshot of
+ * the raw stats it was derived from (see {@link LeaderboardIngestion}), and this job streams those snapshots, derives
+ * the player documents again in parallel, and writes them back in bulk - without a single Hypixel request.
+ * <p>
+ * The job runs whenever the set of leaderboards, their derivations or the version of nadeshiko differ from the last
+ * completed run. Its progress is checkpointed to the {@code jobs} collection after every batch, so a restart resumes
+ * where it left off. Writes are paced to a configurable number of players per second, to leave Mongo room for live
+ * traffic. Players whose document was replaced since their snapshot was taken are skipped, as their document is
+ * already up to date.
+ *
+ * @see LeaderboardService#toDocument(JsonObject, long)
+ * @author chloe
+ */
+public class LeaderboardBackfill {
+
+    /**
+     * The name of the collection holding the raw stats snapshot of each player
+     */
+    static final String SNAPSHOTS = "snapshots";
+
+    /**
+     * The ID of this job's checkpoint in the {@code jobs} collection
+     */
+    private static final String JOB_ID = "leaderboard_backfill";
+
+    /**
+     * The number of players derived and written per batch
+     */
+    private static final int BATCH_SIZE = 500;
+
+    /**
+     * This job's logger
+     */
+    private final Logger logger = LoggerFactory.getLogger("Leaderboard Backfill");
+
+    /**
+     * The service deriving player documents
+     */
+    private final LeaderboardService service;
+
+    /**
+     * The stat database
+     */
+    private final MongoCollection<Document> stats;
+
+    /**
+     * The collection holding the raw stats snapshot of each player
+     */
+    private final MongoCollection<Document> snapshots;
+
+    /**
+     * The collection holding the checkpoints of background jobs
+     */
+    private final MongoCollection<Document> jobs;
+
+    /**
+     * The maximum number of players written per second, or zero for no limit
+     */
+    private final int rate;
+
+    /**
+     * The pool deriving the players of each batch in parallel
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * The thread streaming snapshots and writing batches
+     */
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(
+        ExecutorUtil.newThreadFactory("leaderboard-backfill"));
+
+    /**
+     * Whether a run is in progress
+     */
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /**
+     * The progress of the current or last run, as last checkpointed
+     */
+    private volatile Document checkpoint = new Document("state", "idle");
+
+    /**
+     * The number of players in the snapshot collection when the current run started
+     */
+    private volatile long total = 0;
+
+    /**
+     * Create a new backfill job
+     * @param service The service deriving player documents
+     * @param database The nadeshiko database
+     * @param rate The maximum number of players written per second, or zero for no limit
+     * @param threads The number of threads deriving players in parallel
+     */
+    public LeaderboardBackfill(@NonNull LeaderboardService service, @NonNull MongoDatabase database, int rate,
+                               int threads) {
+        this.service = service;
+        this.stats = database.getCollection("stats");
+        this.snapshots = database.getCollection(SNAPSHOTS);
+        this.jobs = database.getCollection("jobs");
+        this.rate = Math.max(0, rate);
+        this.pool = new ForkJoinPool(Math.max(1, threads), pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("leaderboard-backfill-worker-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * Start or resume a run in the background, unless the last completed run already covered the current leaderboards,
+     * or a run is already in progress
+     */
+    public void start() {
+        if (this.running.compareAndSet(false, true)) {
+            this.runner.execute(() -> {
+                try {
+                    this.run();
+                } catch (InterruptedException e) {
+                    this.logger.info("Leaderboard backfill stopped, it will resume on the next startup");
+                } catch (Exception e) {
+                    this.logger.error("Leaderboard backfill failed! It will resume on the next startup.", e);
+                    this.checkpoint = new Document(this.checkpoint).append("state", "failed");
+                } finally {
+                    this.running.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * Stop the current run, if any. Its last checkpoint is kept, so the next run resumes from it.
+     */
+    public void close() {
+        this.runner.shutdownNow();
+        this.pool.shutdownNow();
+    }
+
+    /**
+     * @return The progress of the current or last run, as a JsonObject
+     */
+    public JsonObject getStatistics() {
+        Document checkpoint = this.checkpoint;
+        long processed = checkpoint.get("processed", 0L);
+        long elapsed = checkpoint.containsKey("started_at") ?
+            checkpoint.get("updated_at", 0L) - checkpoint.get("started_at", 0L) : 0;
+
+        JsonObject statistics = new JsonObject();
+        statistics.addProperty("state", checkpoint.getString("state"));
+        statistics.addProperty("fingerprint", checkpoint.getString("fingerprint"));
+        statistics.addProperty("total", this.total);
+        statistics.addProperty("processed", processed);
+        statistics.addProperty("updated", checkpoint.get("updated", 0L));
+        statistics.addProperty("skipped", checkpoint.get("skipped", 0L));
+        statistics.addProperty("failed", checkpoint.get("failed", 0L));
+        statistics.addProperty("progress", this.total > 0 ? Math.min(100, processed * 100.0 / this.total) : 0);
+        statistics.addProperty("rate_limit", this.rate);
+        statistics.addProperty("elapsed_ms", elapsed);
+        statistics.addProperty("players_per_second", elapsed > 0 ? processed * 1000.0 / elapsed : 0);
+        return statistics;
+    }
+
+    /**
+     * Create the raw stats snapshot of a player
+     * @param player The player data, as passed to {@link LeaderboardService#insertPlayer(JsonObject)}
+     * @param time The time at which the player's document was derived
+     * @return The snapshot, holding the parts of the player data that leaderboards are derived from
+     */
+    static Document snapshot(@NonNull JsonObject player, long time) {
+        JsonObject raw = new JsonObject();
+        raw.add("uuid", player.get("uuid"));
+        raw.add("badge", player.get("badge"));
+        raw.add("profile", player.get("profile"));
+        raw.add("stats", player.get("stats"));
+
+        try {
+            return new Document("uuid", player.get("uuid").getAsString())
+                .append("time", time)
+                .append("data", new Binary(GzipUtil.compress(raw.toString().getBytes(StandardCharsets.UTF_8))));
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // in-memory streams don't throw
+        }
+    }
+
+    /**
+     * A single run: stream the snapshots after the last checkpoint, in UUID order, and derive them batch by batch
+     */
+    private void run() throws InterruptedException {
+        String fingerprint = fingerprint();
+        Document checkpoint = this.jobs.find(Filters.eq("_id", JOB_ID)).first();
+
+        if (checkpoint != null && fingerprint.equals(checkpoint.getString("fingerprint"))) {
+            if ("complete".equals(checkpoint.getString("state"))) {
+                this.checkpoint = checkpoint;
+                this.logger.info("Leaderboards are up to date, skipping backfill");
+                return;
+            }
+
+            this.logger.info("Resuming leaderboard backfill after {} players", checkpoint.get("processed", 0L));
+        } else {
+            long now = System.currentTimeMillis();
+            checkpoint = new Document("_id", JOB_ID)
+                .append("fingerprint", fingerprint)
+                .append("processed", 0L).append("updated", 0L).append("skipped", 0L).append("failed", 0L)
+                .append("started_at", now).append("updated_at", now);
+
+            this.logger.info("Leaderboards changed, starting leaderboard backfill");
+        }
+
+        checkpoint.append("state", "running");
+        this.checkpoint = checkpoint;
+        this.total = this.snapshots.estimatedDocumentCount();
+
+        String last = checkpoint.getString("last_uuid");
+        long start = System.nanoTime();
+        long written = 0;
+
+        try (MongoCursor<Document> cursor = this.snapshots
+                .find(last != null ? Filters.gt("uuid", last) : new Document())
+                .sort(Sorts.ascending("uuid"))
+                .batchSize(BATCH_SIZE)
+                .iterator()) {
+
+            List<Document> batch = new ArrayList<>(BATCH_SIZE);
+            while (cursor.hasNext()) {
+                batch.add(cursor.next());
+
+                if (batch.size() >= BATCH_SIZE || !cursor.hasNext()) {
+                    this.process(batch, checkpoint);
+                    written += batch.size();
+                    batch.clear();
+
+                    // Pace the writes, so that live traffic keeps most of Mongo to itself
+                    if (this.rate > 0) {
+                        long ahead = TimeUnit.SECONDS.toNanos(written) / this.rate - (System.nanoTime() - start);
+                        if (ahead > 0) {
+                            TimeUnit.NANOSECONDS.sleep(ahead);
+                        }
+                    }
+                }
+            }
+        }
+
+        checkpoint.append("state", "complete").append("updated_at", System.currentTimeMillis());
+        this.save(checkpoint);
+
+        this.logger.info("Backfilled {} players ({} updated, {} skipped, {} failed) in {} ms",
+            checkpoint.get("processed", 0L), checkpoint.get("updated", 0L), checkpoint.get("skipped", 0L),
+            checkpoint.get("failed", 0L), checkpoint.get("updated_at", 0L) - checkpoint.get("started_at", 0L));
+    }
+
+    /**
+     * Derive a batch of snapshots in parallel, write the player documents, and checkpoint the progress
+     * @param batch The snapshots, in UUID order
+     * @param checkpoint The checkpoint of the current run
+     */
+    private void process(@NonNull List<Document> batch, @NonNull Document checkpoint) {
+        List<WriteModel<Document>> writes = this.pool.submit(() -> batch.parallelStream()
+            .map(this::derive)
+            .filter(Objects::nonNull)
+            .toList()).join();
+
+        long matched = 0;
+        if (!writes.isEmpty()) {
+            try {
+                BulkWriteResult result = this.stats.bulkWrite(writes, new BulkWriteOptions().ordered(false));
+                matched = result.getMatchedCount();
+            } catch (MongoException e) {
+                // Retried on the next run, as this batch isn't checkpointed
+                throw new IllegalStateException("Failed to write " + writes.size() + " players", e);
+            }
+        }
+
+        checkpoint
+            .append("last_uuid", batch.getLast().getString("uuid"))
+            .append("processed", checkpoint.get("processed", 0L) + batch.size())
+            .append("updated", checkpoint.get("updated", 0L) + matched)
+            .append("skipped", checkpoint.get("skipped", 0L) + writes.size() - matched)
+            .append("failed", checkpoint.get("failed", 0L) + batch.size() - writes.size())
+            .append("updated_at", System.currentTimeMillis());
+        this.save(checkpoint);
+    }
+
+    /**
+     * Derive the player document of a snapshot again
+     * @param snapshot The snapshot
+     * @return The write replacing the player's document, as long as it is still the one the snapshot was taken with,
+     *         or {@code null} if the snapshot is corrupt
+     */
+    private WriteModel<Document> derive(@NonNull Document snapshot) {
+        try {
+            byte[] data = GzipUtil.decompress(snapshot.get("data", Binary.class).getData());
+            JsonObject player = JsonParser.parseString(new String(data, StandardCharsets.UTF_8)).getAsJsonObject();
+            long time = snapshot.get("time", Number.class).longValue();
+
+            return new ReplaceOneModel<>(
+                Filters.and(Filters.eq("uuid", snapshot.getString("uuid")), Filters.eq("time", time)),
+                this.service.toDocument(player, time), new ReplaceOptions().upsert(false));
+        } catch (Exception e) {
+            this.logger.warn("Skipping corrupt snapshot of {}", snapshot.getString("uuid"), e);
+            return null;
+        }
+    }
+
+    /**
+     * Save a checkpoint, and publish it to the statistics
+     */
+    private void save(@NonNull Document checkpoint) {
+        this.jobs.replaceOne(Filters.eq("_id", JOB_ID), checkpoint, new ReplaceOptions().upsert(true));
+        this.checkpoint = new Document(checkpoint);
+    }
+
+    /**
+     * @return A fingerprint of everything player documents are derived with: the version of nadeshiko, the names of
+     *         all leaderboards, the derivations of the built in ones and the expressions of the dynamic ones. A run is
+     *         needed whenever it changes.
+     */
+    private static String fingerprint() {
+        StringBuilder builder = new StringBuilder(Nadeshiko.VERSION);
+        for (LeaderboardDefinition leaderboard : Leaderboard.definitions()) {
+            builder.append('|').append(leaderboard.name());
+            if (leaderboard instanceof Leaderboard builtIn) {
+                builder.append('=').append(builtIn.describe());
+            } else if (leaderboard instanceof Leaderboard.DynamicLeaderboard dynamic) {
+                builder.append('=').append(dynamic.expression().getSource());
+            }
+        }
+
+        return Nadeshiko.VERSION + "/" + Integer.toHexString(builder.toString().hashCode());
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * This file is a part of the Nadeshiko project. Nadeshiko is free software, licensed under the MIT license.
+ *
+ * Usage of these works (including, yet not limited to, reuse, modification, copying, distribution, and selling) is
+ * permitted, provided that the relevant copyright notice and permission notice (as specified in LICENSE) shall be
+ * included in all copies or substantial portions of this software.
+ *
+ * These works are provided "AS IS" with absolutely no warranty of any kind, either expressed or implied.
+ *
+ * You should have received a copy of the MIT License alongside this software; refer to LICENSE for information.
+ * If not, refer to https://mit-license.org.
+ */
+
+package io.nadeshiko.nadeshiko.leaderboards;
+
+import com.google.gson.JsonObject;
+import io.nadeshiko.nadeshiko.Nadeshiko;
+import io.nadeshiko.nadeshiko.api.LeaderboardController;
+import io.nadeshiko.nadeshiko.util.JsonCache;
+import lombok.NonNull;
+
+import java.time.Duration;
+
+/**
+ * Cache of leaderboard pages, and of the number of players on each leaderboard.
+ * <p>
+ *
+ * The /leaderboard endpoint controller ({@link LeaderboardController}) utilizes the
+ * {@link LeaderboardCache#get(LeaderboardDefinition, int)} method to fetch a page of a leaderboard. If the page is not in the
+ * cache, it relies upon the {@link LeaderboardService} to query the page from the stat database, which is then cached
+ * and returned.
+ * <p>
+ *
+ * The top pages of each leaderboard see by far the most traffic, so they are served stale and refreshed in the
+ * background. Deeper pages, and pages following a cursor, simply expire, and are queried again on the next request.
+ *
+ * @see LeaderboardService
+ * @author chloe
+ */
+public class LeaderboardCache extends JsonCache {
+
+    /**
+     * The number of pages of each leaderboard that are served stale while they are refreshed
+     */
+    private static final int TOP_PAGES = 5;
+
+    public LeaderboardCache() {
+        super("leaderboards", 2000, 64L * 1024 * 1024, Duration.ofMinutes(1), Duration.ofMinutes(10));
+    }
+
+    /**
+     * Gets a page of a leaderboard
+     * @param leaderboard The leaderboard to get the page of
+     * @param page The page to get, starting at 1
+     * @return The response for the given page
+     */
+    public JsonObject get(@NonNull LeaderboardDefinition leaderboard, int page) {
+        final String key = leaderboard.name() + "/" + page;
+
+        // Only the top pages are kept around while stale, so any cached page is either fresh or one of those
+        final JsonObject cached = this.lookup(key, () -> this.buildPage(leaderboard, page));
+        if (cached != null) {
+            return cached;
+        }
+
+        return this.load(key, () -> this.buildPage(leaderboard, page));
+    }
+
+    /**
+     * Gets the page of a leaderboard following a cursor. Such pages are only cached until they become stale.
+     * @param leaderboard The leaderboard to get the page of
+     * @param cursor The cursor after which the page starts
+     * @return The response for the given page
+     */
+    public JsonObject get(@NonNull LeaderboardDefinition leaderboard, @NonNull LeaderboardCursor cursor) {
+        final String key = leaderboard.name() + "/" + cursor.encode();
+
+        final JsonObject cached = this.lookup(key, () -> this.buildPageAfter(leaderboard, cursor));
+        if (cached != null) {
+            return cached;
+        }
+
+        return this.load(key, () -> this.buildPageAfter(leaderboard, cursor));
+    }
+
+    /**
+     * Gets the placements of a player on every leaderboard they're on
+     * @param uuid The dashed UUID of the player
+     * @return The response for the given player
+     */
+    public JsonObject getPlayer(@NonNull String uuid) {
+        final String key = "player/" + uuid;
+
+        final JsonObject cached = this.lookup(key, () -> this.buildPlayer(uuid));
+        if (cached != null) {
+            return cached;
+        }
+
+        return this.load(key, () -> this.buildPlayer(uuid));
+    }
+
+    /**
+     * Drop the cached placements of a player, as their stats have changed
+     * @param uuid The dashed UUID of the player
+     */
+    public void invalidatePlayer(@NonNull String uuid) {
+        this.invalidate("player/" + uuid);
+    }
+
+    /**
+     * Gets the number of players on a leaderboard. Counting is expensive, so counts are cached like pages are.
+     * @param leaderboard The leaderboard to count the players of
+     * @return The number of players on the given leaderboard
+     */
+    public long getCount(@NonNull LeaderboardDefinition leaderboard) {
+        final String key = "count/" + leaderboard.name();
+
+        JsonObject cached = this.lookup(key, () -> this.buildCount(leaderboard));
+        if (cached == null) {
+            cached = this.coalesce(key, () -> this.buildCount(leaderboard));
+        }
+
+        return cached.get("count").getAsLong();
+    }
+
+    /**
+     * Query a page of a leaderboard, and cache it if it could be queried
+     * @param leaderboard The leaderboard to query the page of
+     * @param page The page to query
+     * @return The response for the given page
+     */
+    private JsonObject buildPage(@NonNull LeaderboardDefinition leaderboard, int page) {
+        final String key = leaderboard.name() + "/" + page;
+        final JsonObject data = Nadeshiko.INSTANCE.getLeaderboardService()
+            .getPage(leaderboard, page, this.getCount(leaderboard));
+
+        if (!data.get("success").getAsBoolean()) {
+            return data;
+        }
+
+        if (page <= TOP_PAGES) {
+            this.put(key, data);
+        } else {
+            this.put(key, data, this.getSoftTtl());
+        }
+
+        return data;
+    }
+
+    /**
+     * Query the page of a leaderboard following a cursor, and cache it if it could be queried
+     * @param leaderboard The leaderboard to query the page of
+     * @param cursor The cursor after which the page starts
+     * @return The response for the given page
+     */
+    private JsonObject buildPageAfter(@NonNull LeaderboardDefinition leaderboard, @NonNull LeaderboardCursor cursor) {
+        final JsonObject data = Nadeshiko.INSTANCE.getLeaderboardService()
+            .getPageAfter(leaderboard, cursor, this.getCount(leaderboard));
+
+        if (!data.get("success").getAsBoolean()) {
+            return data;
+        }
+
+        this.put(leaderboard.name() + "/" + cursor.encode(), data, this.getSoftTtl());
+        return data;
+    }
+
+    /**
+     * Look up the placements of a player, and cache them if the player was found
+     * @param uuid The dashed UUID of the player
+     * @return The response for the given player
+     */
+    private JsonObject buildPlayer(@NonNull String uuid) {
+        final JsonObject data = Nadeshiko.INSTANCE.getLeaderboardService().getPlayerPlacements(uuid, this::getCount);
+
+        if (data.get("success").getAsBoolean()) {
+            this.put("player/" + uuid, data);
+        }
+
+        return data;
+    }
+
+    /**
+     * Count the players on a leaderboard, and cache the count
+     * @param leaderboard The leaderboard to count the players of
+     * @return An object containing the count
+     */
+    private JsonObject buildCount(@NonNull LeaderboardDefinition leaderboard) {
+        final JsonObject data = new JsonObject();
+        data.addProperty("count", Nadeshiko.INSTANCE.getLeaderboardService().count(leaderboard));
+
+        this.put("count/" + leaderboard.name(), data);
+        return data;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * This file is a part of the Nadeshiko project. Nadeshiko is free software, licensed under the MIT license.
+ *
+ * Usage of these works (including, yet not limited to, reuse, modification, copying, distribution, and selling) is
+ * permitted, provided that the relevant copyright notice and permission notice (as specified in LICENSE) shall be
+ * included in all copies or substantial portions of this software.
+ *
+ * These works are provided "AS IS" with absolutely no warranty of any kind, either expressed or implied.
+ *
+ * You should have received a copy of the MIT License alongside this software; refer to LICENSE for information.
+ * If not, refer to https://mit-license.org.
+ */
+
+package io.nadeshiko.nadeshiko.leaderboards;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import lombok.NonNull;
+import org.bson.Document;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Position on a leaderboard after which the next page starts, handed to clients as an opaque continuation token.
+ * <p>
+ * Pages are sorted by value, then by UUID, so the last value and UUID of a page uniquely identify where the next page
+ * starts. The next page can then be queried directly over the leaderboard's index, rather than skipping every entry
+ * before it.
+ *
+ * @param value The value of the last entry of the previous page
+ * @param uuid The UUID of the last entry of the previous page
+ * @param position The position of the last entry of the previous page. Unlike ranks, positions aren't shared by tied
+ *                 entries.
+ * @author chloe
+ */
+public record LeaderboardCursor(Number value, String uuid, long position) {
+
+    /**
+     * @return This cursor, as a URL-safe continuation token
+     */
+    public String encode() {
+        JsonObject object = new JsonObject();
+        object.addProperty("v", this.value.toString()); // Ratios may be infinite, which JSON numbers can't express
+        object.addProperty("u", this.uuid);
+        object.addProperty("r", this.position);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(
+            object.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param leaderboard The leaderboard to get the filter for
+     * @return The Mongo filter matching all entries of the leaderboard after this cursor, in its sort order
+     */
+    public Document after(@NonNull LeaderboardDefinition leaderboard) {
+        String field = leaderboard.name();
+        String operator = leaderboard.getSortDirection() < 0 ? "$lt" : "$gt";
+
+        // field beyond value OR (field == value AND uuid < lastUuid), as UUIDs are always sorted descending
+        return new Document("$or", List.of(
+            new Document(field, new Document(operator, this.value)),
+            new Document(field, this.value).append("uuid", new Document("$lt", this.uuid))
+        ));
+    }
+
+    /**
+     * Parse a continuation token
+     * @param token The token, as created by {@link #encode()}
+     * @return The cursor, or {@code null} if the token is malformed
+     */
+    public static LeaderboardCursor decode(@NonNull String token) {
+        try {
+            JsonObject object = JsonParser.parseString(new String(Base64.getUrlDecoder().decode(token),
+                StandardCharsets.UTF_8)).getAsJsonObject();
+
+            // Keep integral values integral, so that they compare exactly against the stored values
+            String value = object.get("v").getAsString();
+            Number parsed = value.matches("-?\\d+") ? Long.parseLong(value) : Double.parseDouble(value);
+
+            return new LeaderboardCursor(parsed, object.get("u").getAsString(), object.get("r").getAsLong());
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Create the cursor after a document of the stat or placement database
+     * @param leaderboard The leaderboard the document was queried from
+     * @param document The document
+     * @param position The position of the document
+     * @return The cursor after the document
+     */
+    static LeaderboardCursor of(@NonNull LeaderboardDefinition leaderboard, @NonNull Document document,
+                                long position) {
+        Object value = document.containsKey("value") ? document.get("value") : document.get(leaderboard.name());
+        return new LeaderboardCursor((Number) value, document.getString("uuid"), position);
+    }
+}
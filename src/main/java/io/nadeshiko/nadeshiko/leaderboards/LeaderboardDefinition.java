@@ -0,0 +1,40 @@
+/*
+ * This file is a part of the Nadeshiko project. Nadeshiko is free software, licensed under the MIT license.
+ *
+ * Usage of these works (including, yet not limited to, reuse, modification, copying, distribution, and selling) is
+ * permitted, provided that the relevant copyright notice and permission notice (as specified in LICENSE) shall be
+ * included in all copies or substantial portions of this software.
+ *
+ * These works are provided "AS IS" with absolutely no warranty of any kind, either expressed or implied.
+ *
+ * You should have received a copy of the MIT License alongside this software; refer to LICENSE for information.
+ * If not, refer to https://mit-license.org.
+ */
+
+package io.nadeshiko.nadeshiko.leaderboards;
+
+/**
+ * A leaderboard, either built in (a {@link Leaderboard}) or configured at startup (a
+ * {@link Leaderboard.DynamicLeaderboard}). The leaderboard system only needs to know where a leaderboard's values are
+ * stored, and in which direction they are sorted.
+ *
+ * @author chloe
+ * @see Leaderboard#resolve(String)
+ */
+public interface LeaderboardDefinition {
+
+    /**
+     * @return The name of this leaderboard, which is also the field holding its values in the stat database
+     */
+    String name();
+
+    /**
+     * @return The {@link LeaderboardCategory} this leaderboard belongs to
+     */
+    LeaderboardCategory getCategory();
+
+    /**
+     * @return The direction this leaderboard sorts in: -1 is descending, 1 is ascending
+     */
+    int getSortDirection();
+}
@@ -0,0 +1,254 @@
+/*
+ * This file is a part of the Nadeshiko project. Nadeshiko is free software, licensed under the MIT license.
+ *
+ * Usage of these works (including, yet not limited to, reuse, modification, copying, distribution, and selling) is
+ * permitted, provided that the relevant copyright notice and permission notice (as specified in LICENSE) shall be
+ * included in all copies or substantial portions of this software.
+ *
+ * These works are provided "AS IS" with absolutely no warranty of any kind, either expressed or implied.
+ *
+ * You should have received a copy of the MIT License alongside this software; refer to LICENSE for information.
+ * If not, refer to https://mit-license.org.
+ */
+
+package io.nadeshiko.nadeshiko.leaderboards;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import lombok.NonNull;
+
+import java.util.StringJoiner;
+import java.util.function.Function;
+
+/**
+ * Declarative derivation of a leaderboard stat: a single stat, the ratio of two stats, or the sum of several stats.
+ * <p>
+ * Most leaderboards simply read one stat, divide one stat by another, or add up a few stats. Written as lambdas, such
+ * derivations throw (and {@link Leaderboard#derive(JsonObject)} catches) an exception for every stat a player is
+ * missing, which is most stats for most players. These derivations resolve their paths up front, and handle missing
+ * stats without throwing, while otherwise deriving exactly the same values as the lambdas they replace.
+ *
+ * @author chloe
+ * @see Leaderboard
+ */
+public final class LeaderboardDerivation implements Function<JsonObject, Number> {
+
+    /**
+     * The numeric type a stat is read as
+     */
+    public enum Type {
+        INT, LONG, FLOAT, DOUBLE
+    }
+
+    /**
+     * The path to the stat, or to the numerator of the ratio, or {@code null} if this derivation is a sum
+     */
+    private final String[] numerator;
+
+    /**
+     * The path to the denominator of the ratio, or {@code null} if this derivation reads a single stat
+     */
+    private final String[] denominator;
+
+    /**
+     * The paths to the stats of the sum, or {@code null} if this derivation is not a sum
+     */
+    private final String[][] terms;
+
+    /**
+     * The type the stat is read as. Ratios are always read as doubles, and sums as ints.
+     */
+    private final Type type;
+
+    /**
+     * Whether the denominator of the ratio is raised to at least one
+     */
+    private final boolean clamped;
+
+    private LeaderboardDerivation(String numerator, String denominator, Type type, boolean clamped) {
+        this.numerator = numerator.split("\\.");
+        this.denominator = denominator != null ? denominator.split("\\.") : null;
+        this.terms = null;
+        this.type = type;
+        this.clamped = clamped;
+    }
+
+    private LeaderboardDerivation(String[] terms) {
+        this.numerator = null;
+        this.denominator = null;
+        this.terms = new String[terms.length][];
+        for (int i = 0; i < terms.length; i++) {
+            this.terms[i] = terms[i].split("\\.");
+        }
+        this.type = Type.INT;
+        this.clamped = false;
+    }
+
+    /**
+     * @param path The path to the stat within the category's input, with nested objects separated by dots
+     * @param type The numeric type to read the stat as
+     * @return A derivation reading a single stat
+     */
+    public static LeaderboardDerivation stat(@NonNull String path, @NonNull Type type) {
+        return new LeaderboardDerivation(path, null, type, false);
+    }
+
+    /**
+     * @param numerator The path to the numerator within the category's input
+     * @param denominator The path to the denominator within the category's input
+     * @return A derivation dividing one stat by another. Dividing by zero results in infinity or NaN.
+     */
+    public static LeaderboardDerivation ratio(@NonNull String numerator, @NonNull String denominator) {
+        return new LeaderboardDerivation(numerator, denominator, Type.DOUBLE, false);
+    }
+
+    /**
+     * @param numerator The path to the numerator within the category's input
+     * @param denominator The path to the denominator within the category's input
+     * @return A derivation dividing one stat by another, raising the denominator to at least one
+     */
+    public static LeaderboardDerivation clampedRatio(@NonNull String numerator, @NonNull String denominator) {
+        return new LeaderboardDerivation(numerator, denominator, Type.DOUBLE, true);
+    }
+
+    /**
+     * Sums add stats the way {@link io.nadeshiko.nadeshiko.util.JsonUtil#getNullableInt(JsonElement)} does: a missing
+     * stat counts as 0, but the whole sum is 0 if an object on the way to a stat is missing, or a stat isn't a number.
+     * @param paths The paths to the stats within the category's input
+     * @return A derivation adding up several stats, as ints
+     */
+    public static LeaderboardDerivation sum(@NonNull String... paths) {
+        if (paths.length == 0) {
+            throw new IllegalArgumentException("A sum needs at least one stat");
+        }
+
+        return new LeaderboardDerivation(paths);
+    }
+
+    /**
+     * Derive the stat. Never throws.
+     * @param input The category's input, as returned by {@link LeaderboardCategory#getDeriveInput(JsonObject)}
+     * @return The derived stat, or 0 if the player is missing any stat it is derived from (other than the stats of a
+     *         sum, which count as 0)
+     */
+    @Override
+    public Number apply(JsonObject input) {
+        if (this.terms != null) {
+            return this.sum(input);
+        }
+
+        JsonElement numerator = resolve(input, this.numerator);
+        if (numerator == null) {
+            return 0;
+        }
+
+        try {
+            if (this.denominator == null) {
+                return switch (this.type) {
+                    case INT -> numerator.getAsInt();
+                    case LONG -> numerator.getAsLong();
+                    case FLOAT -> numerator.getAsFloat();
+                    case DOUBLE -> numerator.getAsDouble();
+                };
+            }
+
+            JsonElement denominator = resolve(input, this.denominator);
+            if (denominator == null) {
+                return 0;
+            }
+
+            double divisor = denominator.getAsDouble();
+            return numerator.getAsDouble() / (this.clamped ? Math.max(divisor, 1) : divisor);
+        } catch (NumberFormatException e) {
+            return 0; // not a number, which the API should never return
+        }
+    }
+
+    /**
+     * Add up the stats of a sum
+     */
+    private int sum(JsonObject input) {
+        int sum = 0;
+
+        for (String[] term : this.terms) {
+            JsonObject parent = parent(input, term);
+            if (parent == null) {
+                return 0;
+            }
+
+            JsonElement element = parent.get(term[term.length - 1]);
+            if (element == null) {
+                continue;
+            }
+            if (!element.isJsonPrimitive()) {
+                return 0;
+            }
+
+            try {
+                sum += element.getAsInt();
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+
+        return sum;
+    }
+
+    /**
+     * @return A description of this derivation, such as {@code ratio(wins/losses)}, which changes whenever the values it
+     *         derives could change
+     */
+    @Override
+    public String toString() {
+        if (this.terms != null) {
+            StringJoiner terms = new StringJoiner("+", "sum(", ")");
+            for (String[] term : this.terms) {
+                terms.add(String.join(".", term));
+            }
+            return terms.toString();
+        }
+
+        String numerator = String.join(".", this.numerator);
+        if (this.denominator == null) {
+            return "stat(" + numerator + ":" + this.type + ")";
+        }
+
+        return (this.clamped ? "clamped_ratio(" : "ratio(") + numerator + "/" + String.join(".", this.denominator) + ")";
+    }
+
+    /**
+     * Walk a path through nested objects. Also used by {@link LeaderboardExpression} to read stats.
+     * @param input The object to start at, or {@code null}
+     * @param path The keys to follow
+     * @return The primitive at the end of the path, or {@code null} if there is none
+     */
+    static JsonElement resolve(JsonObject input, String[] path) {
+        JsonObject object = parent(input, path);
+        if (object == null) {
+            return null;
+        }
+
+        JsonElement element = object.get(path[path.length - 1]);
+        return element != null && element.isJsonPrimitive() ? element : null;
+    }
+
+    /**
+     * Walk a path through nested objects, up to the object holding its last key
+     * @param input The object to start at, or {@code null}
+     * @param path The keys to follow
+     * @return The object holding the last key of the path, or {@code null} if there is none
+     */
+    private static JsonObject parent(JsonObject input, String[] path) {
+        JsonObject object = input;
+
+        for (int i = 0; i < path.length - 1; i++) {
+            if (object == null || !(object.get(path[i]) instanceof JsonObject child)) {
+                return null;
+            }
+
+            object = child;
+        }
+
+        return object;
+    }
+}
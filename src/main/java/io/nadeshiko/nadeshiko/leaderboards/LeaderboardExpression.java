@@ -0,0 +1,299 @@
+/*
+ * This file is a part of the Nadeshiko project. Nadeshiko is free software, licensed under the MIT license.
+ *
+ * Usage of these works (including, yet not limited to, reuse, modification, copying, distribution, and selling) is
+ * permitted, provided that the relevant copyright notice and permission notice (as specified in LICENSE) shall be
+ * included in all copies or substantial portions of this software.
+ *
+ * These works are provided "AS IS" with absolutely no warranty of any kind, either expressed or implied.
+ *
+ * You should have received a copy of the MIT License alongside this software; refer to LICENSE for information.
+ * If not, refer to https://mit-license.org.
+ */
+
+package io.nadeshiko.nadeshiko.leaderboards;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import lombok.Getter;
+import lombok.NonNull;
+import org.bson.Document;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Arithmetic expression deriving the stat of a dynamic leaderboard, such as {@code wins_bedwars / max(losses_bedwars, 1)}.
+ * <p>
+ * Expressions support numbers, {@code + - * /}, parentheses, and the functions {@code min}, {@code max} and
+ * {@code abs}. Identifiers in lower case are paths into the input of the leaderboard's {@link LeaderboardCategory},
+ * with nested objects separated by dots. Identifiers naming a {@link Leaderboard} refer to the player's value on that
+ * leaderboard instead. Missing stats count as 0, as do undefined or infinite results, such as divisions by zero.
+ * <p>
+ * Expressions are parsed once, into a tree of evaluators, so evaluating them for a player never touches the source.
+ *
+ * @author chloe
+ * @see Leaderboard.DynamicLeaderboard
+ */
+public final class LeaderboardExpression {
+
+    /**
+     * The source of this expression
+     */
+    @Getter
+    private final String source;
+
+    /**
+     * The root of the compiled expression
+     */
+    private final Node root;
+
+    /**
+     * Whether this expression only refers to other leaderboards, so it can be evaluated from a stored player document
+     * alone, without the player's stats
+     */
+    @Getter
+    private final boolean backfillable;
+
+    private LeaderboardExpression(String source, Node root, boolean backfillable) {
+        this.source = source;
+        this.root = root;
+        this.backfillable = backfillable;
+    }
+
+    /**
+     * Compile an expression
+     * @param source The expression
+     * @return The compiled expression
+     * @throws IllegalArgumentException If the expression is malformed
+     */
+    public static LeaderboardExpression compile(@NonNull String source) {
+        Parser parser = new Parser(source);
+        Node root = parser.parseExpression();
+        parser.skipWhitespace();
+
+        if (parser.position < source.length()) {
+            throw parser.error("Unexpected '" + source.charAt(parser.position) + "'");
+        }
+
+        return new LeaderboardExpression(source, root, !parser.readsInput);
+    }
+
+    /**
+     * Evaluate this expression for a player
+     * @param input The input of the leaderboard's category, as returned by
+     *              {@link LeaderboardCategory#getDeriveInput(JsonObject)}
+     * @param document The player's document in the stat database, holding their values on other leaderboards
+     * @return The derived stat. Undefined and infinite results, such as 0 / 0 and 1 / 0, are 0.
+     */
+    public double evaluate(JsonObject input, @NonNull Document document) {
+        double value = this.root.evaluate(input, document);
+        return Double.isFinite(value) ? value : 0;
+    }
+
+    /**
+     * A node of a compiled expression
+     */
+    @FunctionalInterface
+    private interface Node {
+        double evaluate(JsonObject input, Document document);
+    }
+
+    /**
+     * Recursive descent parser compiling expressions into nodes
+     */
+    private static class Parser {
+
+        private final String source;
+        private int position = 0;
+
+        /**
+         * Whether any identifier refers to the category's input, rather than to another leaderboard
+         */
+        private boolean readsInput = false;
+
+        private Parser(String source) {
+            this.source = source;
+        }
+
+        /**
+         * expression := term (('+' | '-') term)*
+         */
+        private Node parseExpression() {
+            Node left = this.parseTerm();
+
+            while (true) {
+                if (this.accept('+')) {
+                    Node l = left, r = this.parseTerm();
+                    left = (input, document) -> l.evaluate(input, document) + r.evaluate(input, document);
+                } else if (this.accept('-')) {
+                    Node l = left, r = this.parseTerm();
+                    left = (input, document) -> l.evaluate(input, document) - r.evaluate(input, document);
+                } else {
+                    return left;
+                }
+            }
+        }
+
+        /**
+         * term := factor (('*' | '/') factor)*
+         */
+        private Node parseTerm() {
+            Node left = this.parseFactor();
+
+            while (true) {
+                if (this.accept('*')) {
+                    Node l = left, r = this.parseFactor();
+                    left = (input, document) -> l.evaluate(input, document) * r.evaluate(input, document);
+                } else if (this.accept('/')) {
+                    Node l = left, r = this.parseFactor();
+                    left = (input, document) -> l.evaluate(input, document) / r.evaluate(input, document);
+                } else {
+                    return left;
+                }
+            }
+        }
+
+        /**
+         * factor := '-' factor | '(' expression ')' | number | function '(' arguments ')' | identifier
+         */
+        private Node parseFactor() {
+            if (this.accept('-')) {
+                Node operand = this.parseFactor();
+                return (input, document) -> -operand.evaluate(input, document);
+            }
+
+            if (this.accept('(')) {
+                Node inner = this.parseExpression();
+                this.expect(')');
+                return inner;
+            }
+
+            this.skipWhitespace();
+            if (this.position >= this.source.length()) {
+                throw this.error("Unexpected end of expression");
+            }
+
+            char c = this.source.charAt(this.position);
+            if (Character.isDigit(c) || c == '.') {
+                return this.parseNumber();
+            }
+
+            if (Character.isLetter(c) || c == '_') {
+                String identifier = this.parseIdentifier();
+
+                if (this.accept('(')) {
+                    return this.parseFunction(identifier);
+                }
+
+                return this.compileIdentifier(identifier);
+            }
+
+            throw this.error("Unexpected '" + c + "'");
+        }
+
+        private Node parseNumber() {
+            int start = this.position;
+            while (this.position < this.source.length() &&
+                (Character.isDigit(this.source.charAt(this.position)) || this.source.charAt(this.position) == '.')) {
+                this.position++;
+            }
+
+            try {
+                double value = Double.parseDouble(this.source.substring(start, this.position));
+                return (input, document) -> value;
+            } catch (NumberFormatException e) {
+                throw this.error("Malformed number");
+            }
+        }
+
+        private String parseIdentifier() {
+            int start = this.position;
+            while (this.position < this.source.length()) {
+                char c = this.source.charAt(this.position);
+                if (!Character.isLetterOrDigit(c) && c != '_' && c != '.') {
+                    break;
+                }
+                this.position++;
+            }
+
+            return this.source.substring(start, this.position);
+        }
+
+        private Node parseFunction(String name) {
+            List<Node> arguments = new ArrayList<>();
+            if (!this.accept(')')) {
+                do {
+                    arguments.add(this.parseExpression());
+                } while (this.accept(','));
+                this.expect(')');
+            }
+
+            switch (name) {
+                case "min", "max" -> {
+                    if (arguments.size() != 2) {
+                        throw this.error(name + " takes two arguments");
+                    }
+
+                    Node a = arguments.get(0), b = arguments.get(1);
+                    return name.equals("min") ?
+                        (input, document) -> Math.min(a.evaluate(input, document), b.evaluate(input, document)) :
+                        (input, document) -> Math.max(a.evaluate(input, document), b.evaluate(input, document));
+                }
+                case "abs" -> {
+                    if (arguments.size() != 1) {
+                        throw this.error("abs takes one argument");
+                    }
+
+                    Node a = arguments.getFirst();
+                    return (input, document) -> Math.abs(a.evaluate(input, document));
+                }
+                default -> throw this.error("Unknown function " + name);
+            }
+        }
+
+        /**
+         * Compile an identifier into a node reading either another leaderboard's value, or a path into the input
+         */
+        private Node compileIdentifier(String identifier) {
+            if (Leaderboard.get(identifier) != null) {
+                return (input, document) -> document.get(identifier) instanceof Number value ?
+                    value.doubleValue() : 0;
+            }
+
+            this.readsInput = true;
+            String[] path = identifier.split("\\.");
+
+            return (input, document) -> {
+                JsonElement element = LeaderboardDerivation.resolve(input, path);
+                return element != null && element.getAsJsonPrimitive().isNumber() ? element.getAsDouble() : 0;
+            };
+        }
+
+        private boolean accept(char c) {
+            this.skipWhitespace();
+            if (this.position < this.source.length() && this.source.charAt(this.position) == c) {
+                this.position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(char c) {
+            if (!this.accept(c)) {
+                throw this.error("Expected '" + c + "'");
+            }
+        }
+
+        private void skipWhitespace() {
+            while (this.position < this.source.length() && Character.isWhitespace(this.source.charAt(this.position))) {
+                this.position++;
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at position " + this.position + " of \"" +
+                this.source + "\"");
+        }
+    }
+}
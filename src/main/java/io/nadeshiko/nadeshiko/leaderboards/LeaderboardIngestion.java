@@ -0,0 +1,408 @@
+/*
+ * This file is a part of the Nadeshiko project. Nadeshiko is free software, licensed under the MIT license.
+ *
+ * Usage of these works (including, yet not limited to, reuse, modification, copying, distribution, and selling) is
+ * permitted, provided that the relevant copyright notice and permission notice (as specified in LICENSE) shall be
+ * included in all copies or substantial portions of this software.
+ *
+ * These works are provided "AS IS" with absolutely no warranty of any kind, either expressed or implied.
+ *
+ * You should have received a copy of the MIT License alongside this software; refer to LICENSE for information.
+ * If not, refer to https://mit-license.org.
+ */
+
+package io.nadeshiko.nadeshiko.leaderboards;
+
+import com.google.gson.JsonObject;
+import com.mongodb.MongoException;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.WriteModel;
+import io.nadeshiko.nadeshiko.util.ExecutorUtil;
+import lombok.NonNull;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+/**
+ * Write-behind queue of players headed for the stat database, along with the raw stats snapshots their documents are
+ * derived from.
+ * <p>
+ * Players are queued as they are searched, as the raw responses of the search, and derived and written by a single
+ * background thread in batches, using one bulk write of upserts per batch. Searches therefore never derive leaderboards
+ * or compress snapshots themselves. A batch is flushed as soon as it is full, or once its oldest player has waited for
+ * the flush interval. Players queued again before they were written simply replace their queued response, so popular
+ * players cost one derivation and one write per batch at most. If the queue is full, players are dropped right away
+ * rather than holding up the search, as they will be queued again on their next search anyway.
+ * <p>
+ * Snapshots are written to their own collection right after the batch's player documents, so that the
+ * {@link LeaderboardBackfill} can derive leaderboards again without requesting each player from Hypixel.
+ *
+ * @see LeaderboardService#insertPlayer(JsonObject)
+ * @author chloe
+ */
+public class LeaderboardIngestion {
+
+    /**
+     * The maximum number of players written per batch
+     */
+    private static final int BATCH_SIZE = 500;
+
+    /**
+     * The maximum number of players queued at once
+     */
+    private static final int MAXIMUM_QUEUE = 5000;
+
+    /**
+     * The maximum time a player waits in the queue before being flushed, in milliseconds
+     */
+    private static final long FLUSH_INTERVAL = 1000;
+
+    /**
+     * This queue's logger
+     */
+    private final Logger logger = LoggerFactory.getLogger("Leaderboard Ingestion");
+
+    /**
+     * The stat database
+     */
+    private final MongoCollection<Document> collection;
+
+    /**
+     * The collection holding the raw stats snapshot of each player
+     */
+    private final MongoCollection<Document> snapshots;
+
+    /**
+     * Derives the document of a player from their response, and the time at which it was queued
+     */
+    private final BiFunction<JsonObject, Long, Document> deriver;
+
+    /**
+     * Called with the document of each player once it has been written, and whether it was the player's first
+     */
+    private final BiConsumer<Document, Boolean> onWritten;
+
+    /**
+     * The queued players, keyed by UUID, in the order they were first queued. Guarded by {@link #lock}.
+     */
+    private final LinkedHashMap<String, Pending> pending = new LinkedHashMap<>();
+
+    /**
+     * The time at which the oldest queued player was queued, in milliseconds. Guarded by {@link #lock}.
+     */
+    private long oldest = 0;
+
+    /**
+     * Whether this queue has been closed. Guarded by {@link #lock}.
+     */
+    private boolean closed = false;
+
+    /**
+     * Guards {@link #pending}, {@link #oldest} and {@link #closed}
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Signalled when players are queued, waking the writer
+     */
+    private final Condition queued = this.lock.newCondition();
+
+    /**
+     * The thread writing batches
+     */
+    private final Thread writer;
+
+    /**
+     * Counters reported in this queue's statistics
+     */
+    private final LongAdder offered = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder underivable = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder snapshotFailures = new LongAdder();
+    private final LongAdder flushTime = new LongAdder();
+    private volatile long lastFlushTime = 0;
+    private volatile long maximumFlushTime = 0;
+
+    /**
+     * Create a new queue writing to the provided collections, and start its writer
+     * @param collection The stat database
+     * @param snapshots The collection holding the raw stats snapshot of each player
+     * @param deriver Derives the document of a player from their response, and the time at which it was queued
+     * @param onWritten Called with the document of each player once it has been written, and whether it was the
+     *                  player's first document rather than a replacement
+     */
+    public LeaderboardIngestion(@NonNull MongoCollection<Document> collection,
+                                @NonNull MongoCollection<Document> snapshots,
+                                @NonNull BiFunction<JsonObject, Long, Document> deriver,
+                                @NonNull BiConsumer<Document, Boolean> onWritten) {
+        this.collection = collection;
+        this.snapshots = snapshots;
+        this.deriver = deriver;
+        this.onWritten = onWritten;
+
+        this.writer = ExecutorUtil.newThreadFactory("leaderboard-writer").newThread(this::run);
+        this.writer.start();
+    }
+
+    /**
+     * Queue a player to be derived and written, replacing any queued response of the same player. Never blocks.
+     * @param uuid The UUID of the player
+     * @param player The player's response, which must not be modified afterwards
+     * @param time The time at which the player's stats were retrieved
+     * @return Whether the player was queued, rather than dropped because the queue is full
+     */
+    public boolean offer(@NonNull String uuid, @NonNull JsonObject player, long time) {
+        this.offered.increment();
+
+        this.lock.lock();
+        try {
+            // Replacing a queued player takes no room
+            if (this.pending.containsKey(uuid)) {
+                this.pending.put(uuid, new Pending(player, time));
+                this.coalesced.increment();
+                return true;
+            }
+
+            if (this.pending.size() >= MAXIMUM_QUEUE || this.closed) {
+                this.dropped.increment();
+                return false;
+            }
+
+            if (this.pending.isEmpty()) {
+                this.oldest = System.currentTimeMillis();
+            }
+
+            this.pending.put(uuid, new Pending(player, time));
+            this.queued.signal();
+            return true;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Stop accepting players, and wait for the queued ones to be written
+     */
+    public void close() {
+        this.lock.lock();
+        try {
+            this.closed = true;
+            this.queued.signal();
+        } finally {
+            this.lock.unlock();
+        }
+
+        try {
+            this.writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return The state and counters of this queue, as a JsonObject
+     */
+    public JsonObject getStatistics() {
+        long batches = this.batches.sum();
+
+        JsonObject statistics = new JsonObject();
+        statistics.addProperty("queued", this.size());
+        statistics.addProperty("offered", this.offered.sum());
+        statistics.addProperty("coalesced", this.coalesced.sum());
+        statistics.addProperty("dropped", this.dropped.sum());
+        statistics.addProperty("underivable", this.underivable.sum());
+        statistics.addProperty("written", this.written.sum());
+        statistics.addProperty("batches", batches);
+        statistics.addProperty("failures", this.failures.sum());
+        statistics.addProperty("snapshot_failures", this.snapshotFailures.sum());
+        statistics.addProperty("last_flush_ms", this.lastFlushTime);
+        statistics.addProperty("average_flush_ms", batches > 0 ? this.flushTime.sum() / (double) batches : 0);
+        statistics.addProperty("maximum_flush_ms", this.maximumFlushTime);
+        return statistics;
+    }
+
+    /**
+     * @return The number of players currently queued
+     */
+    private int size() {
+        this.lock.lock();
+        try {
+            return this.pending.size();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * The writer loop - wait for a full batch or the flush interval, and write the batch
+     */
+    private void run() {
+        while (true) {
+            List<Pending> batch = this.take();
+            if (batch == null) {
+                return;
+            }
+
+            // Nothing may kill the only writer, or no player would be written again until a restart
+            try {
+                this.flush(batch);
+            } catch (RuntimeException e) {
+                this.failures.increment();
+                this.logger.error("Failed to flush {} players", batch.size(), e);
+            }
+        }
+    }
+
+    /**
+     * Wait until a batch is due, and take it off the queue
+     * @return The batch, or {@code null} if this queue has been closed and fully drained
+     */
+    private List<Pending> take() {
+        this.lock.lock();
+        try {
+            while (true) {
+                if (this.pending.isEmpty()) {
+                    if (this.closed) {
+                        return null;
+                    }
+
+                    this.queued.await();
+                    continue;
+                }
+
+                long wait = this.oldest + FLUSH_INTERVAL - System.currentTimeMillis();
+                if (this.pending.size() >= BATCH_SIZE || wait <= 0 || this.closed) {
+                    break;
+                }
+
+                this.queued.await(wait, TimeUnit.MILLISECONDS);
+            }
+
+            // Take up to one batch, oldest first
+            List<Pending> batch = new ArrayList<>(Math.min(BATCH_SIZE, this.pending.size()));
+            var iterator = this.pending.values().iterator();
+            while (iterator.hasNext() && batch.size() < BATCH_SIZE) {
+                batch.add(iterator.next());
+                iterator.remove();
+            }
+
+            // Whatever is left is flushed within another interval at most, or right away if it fills a batch
+            this.oldest = System.currentTimeMillis();
+            return batch;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Derive the documents and snapshots of a batch, and write them to the stat database, replacing each player's
+     * previous document and snapshot
+     * @param batch The players to write
+     */
+    private void flush(@NonNull List<Pending> batch) {
+        long start = System.currentTimeMillis();
+
+        List<Document> documents = new ArrayList<>(batch.size());
+        List<WriteModel<Document>> writes = new ArrayList<>(batch.size());
+        List<WriteModel<Document>> snapshots = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            Document document;
+            Document snapshot;
+            try {
+                document = this.deriver.apply(pending.player(), pending.time());
+                snapshot = LeaderboardBackfill.snapshot(pending.player(), pending.time());
+            } catch (RuntimeException e) {
+                this.underivable.increment();
+                this.logger.warn("Failed to derive the leaderboards of {}", pending.player().get("uuid"), e);
+                continue;
+            }
+
+            String uuid = document.getString("uuid");
+            documents.add(document);
+            writes.add(new ReplaceOneModel<>(Filters.eq("uuid", uuid), document, new ReplaceOptions().upsert(true)));
+            snapshots.add(new ReplaceOneModel<>(Filters.eq("uuid", uuid), snapshot, new ReplaceOptions().upsert(true)));
+        }
+
+        try {
+            if (!writes.isEmpty()) {
+                this.write(documents, writes, snapshots);
+            }
+        } finally {
+            long time = System.currentTimeMillis() - start;
+            this.batches.increment();
+            this.flushTime.add(time);
+            this.lastFlushTime = time;
+            this.maximumFlushTime = Math.max(this.maximumFlushTime, time);
+        }
+    }
+
+    /**
+     * Write the documents and snapshots of a batch, and pass on the written documents
+     * @param documents The derived documents
+     * @param writes The writes of the documents, in the same order
+     * @param snapshots The writes of the snapshots
+     */
+    private void write(List<Document> documents, List<WriteModel<Document>> writes,
+                       List<WriteModel<Document>> snapshots) {
+
+        BulkWriteResult result;
+        try {
+            result = this.collection.bulkWrite(writes, new BulkWriteOptions().ordered(false));
+            this.written.add(writes.size());
+        } catch (MongoException e) {
+            this.failures.increment();
+            this.logger.warn("Failed to write {} players to the stat database", writes.size(), e);
+            return;
+        }
+
+        Set<Integer> inserted = new HashSet<>();
+        for (BulkWriteUpsert upsert : result.getUpserts()) {
+            inserted.add(upsert.getIndex());
+        }
+
+        for (int i = 0; i < documents.size(); i++) {
+            this.onWritten.accept(documents.get(i), inserted.contains(i));
+        }
+
+        // The players are written either way, only their next backfill reads older stats
+        try {
+            this.snapshots.bulkWrite(snapshots, new BulkWriteOptions().ordered(false));
+        } catch (MongoException e) {
+            this.snapshotFailures.increment();
+            this.logger.warn("Failed to write the snapshots of {} players to the stat database", snapshots.size(), e);
+        }
+    }
+
+    /**
+     * A queued player
+     * @param player The player's response
+     * @param time The time at which the player's stats were retrieved
+     */
+    private record Pending(JsonObject player, long time) {
+    }
+}
@@ -19,14 +19,46 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import com.mongodb.*;
 import com.mongodb.client.*;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.RenameCollectionOptions;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import io.nadeshiko.nadeshiko.Nadeshiko;
+import io.nadeshiko.nadeshiko.util.ExecutorUtil;
+import lombok.Getter;
 import org.bson.Document;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.nio.file.Files;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
 
 /**
  * Service to manage leaderboards.
@@ -41,6 +73,13 @@ import java.util.List;
  * interval by the {@link LeaderboardService#update()} method.
  * <p>
  * While referred to as "databases", the two databases exist as collections within the "nadeshiko" Mongo database.
+ * <p>
+ * The placement database holds one document per player per leaderboard, holding the player's position and their
+ * competition rank (players tied on a value share the rank of the first of them, as when ranking players live), and
+ * one header document per leaderboard (with position and rank 0) holding the number of ranked players. It is built
+ * into a separate collection, which then atomically replaces the previous one, so readers never see a half-built
+ * placement database. Pages are simple range reads over positions, and a player's placement is a single indexed
+ * lookup.
  *
  * @author chloe
  * @since 0.9.0
@@ -52,6 +91,98 @@ public class LeaderboardService {
      */
     private final Logger logger = LoggerFactory.getLogger("Leaderboard Service");
 
+    /**
+     * The name of the collection holding the placement database
+     */
+    private static final String PLACEMENTS = "placements";
+
+    /**
+     * The name of the collection the next placement database is built into, before it replaces the current one
+     */
+    private static final String PLACEMENTS_BUILDING = "placements_building";
+
+    /**
+     * The number of placements inserted per batch while building the placement database
+     */
+    private static final int BATCH_SIZE = 1000;
+
+    /**
+     * The prefix of the names of the per-leaderboard indexes of the stat database, used to find stale ones
+     */
+    private static final String INDEX_PREFIX = "leaderboard_";
+
+    /**
+     * The maximum number of per-leaderboard indexes on the stat database. Mongo allows 64 indexes per collection,
+     * two of which are taken by {@code _id} and {@code uuid}.
+     */
+    private int indexLimit = 62;
+
+    /**
+     * The names of the leaderboards to index before any other, as configured, most important first
+     */
+    private List<String> indexPriority = List.of();
+
+    /**
+     * The names of the leaderboards indexed on the stat database, as of the last {@link #ensureIndexes()}
+     */
+    private volatile Set<String> indexed = Set.of();
+
+    /**
+     * The number of updates over which the rebuilds of the unindexed leaderboards are spread. Sorting a leaderboard
+     * without an index sorts the whole stat database with the help of disk space, so each update only rebuilds a
+     * slice of them, and carries over the placements of the rest.
+     */
+    private static final int UNINDEXED_STAGGER = 12;
+
+    /**
+     * The number of times the placement database was regenerated since startup, selecting the slice of unindexed
+     * leaderboards to rebuild
+     */
+    private long updates = 0;
+
+    /**
+     * The most entries skipped to reach a page of a leaderboard without placements. Deeper pages must be reached by
+     * following cursors, or from the anchor of a page close enough before them.
+     */
+    private static final long MAXIMUM_SKIP = 1000;
+
+    /**
+     * The maximum number of anchors kept per leaderboard
+     */
+    private static final int MAXIMUM_ANCHORS = 1000;
+
+    /**
+     * The cursors at the end of the pages queried from the stat database so far, used to seek to later pages
+     */
+    private final Map<LeaderboardDefinition, NavigableMap<Integer, LeaderboardCursor>> anchors = new ConcurrentHashMap<>();
+
+    /**
+     * The name of the collection holding the saved distribution sketch of each leaderboard
+     */
+    private static final String SKETCHES = "sketches";
+
+    /**
+     * The interval at which the distribution sketches are saved, in minutes
+     */
+    private static final long SKETCH_SAVE_INTERVAL = 5;
+
+    /**
+     * The distribution sketch of each leaderboard, keyed by name. Values are added as players are first searched, and
+     * each sketch is rebuilt from scratch whenever the placement database is regenerated.
+     */
+    private final Map<String, LeaderboardSketch> sketches = new ConcurrentHashMap<>();
+
+    /**
+     * The interval at which the placement database is regenerated, or zero to never regenerate it
+     */
+    private Duration updateInterval = Duration.ofMinutes(30);
+
+    /**
+     * The thread regenerating the placement database
+     */
+    private final ScheduledExecutorService updater = Executors.newSingleThreadScheduledExecutor(
+        ExecutorUtil.newThreadFactory("leaderboard-updater"));
+
     /**
      * The {@link MongoClient} used to connect to the nadeshiko database
      */
@@ -60,10 +191,133 @@ public class LeaderboardService {
     /**
      * A {@link MongoDatabase} reference to the nadeshiko database
      */
+    @Getter
     private MongoDatabase nadeshikoDatabase;
 
     /**
-     * Called on server startup - connect the service to Mongo, creating the database and collections if required
+     * The queue of players headed for the stat database
+     */
+    private LeaderboardIngestion ingestion;
+
+    /**
+     * Whether to derive every leaderboard again from the stored snapshots on startup, when the leaderboards changed
+     */
+    private boolean backfillEnabled = true;
+
+    /**
+     * The maximum number of players backfilled per second, or zero for no limit
+     */
+    private int backfillRate = 1000;
+
+    /**
+     * The number of threads deriving backfilled players in parallel
+     */
+    private int backfillThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+    /**
+     * The job deriving every leaderboard again from the stored snapshots
+     */
+    private LeaderboardBackfill backfill;
+
+    /**
+     * The pool ranking players live on indexed leaderboards in parallel, when the placement database is out of date
+     */
+    private final ExecutorService rankPool = ExecutorUtil.newFixedPool("leaderboard-rank", 8);
+
+    /**
+     * Reads the {@code leaderboards} section of the configuration, if present. Example:
+     * <pre>{@code
+     * "leaderboards": {
+     *     "update_interval": 1800,
+     *     "index_limit": 62,
+     *     "indexed": [ "BEDWARS_EXP", "BEDWARS_FINALS", "BEDWARS_FKDR" ],
+     *     "backfill": { "enabled": true, "rate": 1000, "threads": 4 },
+     *     "dynamic": [
+     *         {
+     *             "name": "BEDWARS_WINS_PER_LOSS",
+     *             "category": "BEDWARS",
+     *             "expression": "wins_bedwars / max(losses_bedwars, 1)"
+     *         }
+     *     ]
+     * }
+     * }</pre>
+     * The interval is given in seconds. An interval of zero disables regenerating the placement database. The backfill
+     * rate is given in players per second, zero meaning no limit; see {@link LeaderboardBackfill}. The leaderboards
+     * listed in {@code indexed} are indexed first, see {@link #ensureIndexes()}.
+     * <p>
+     * Each dynamic leaderboard is registered with {@link Leaderboard#registerDynamic(Leaderboard.DynamicLeaderboard)},
+     * and may also set {@code "sort": 1} to sort ascending. Malformed dynamic leaderboards are logged and skipped.
+     * @param config The parsed configuration file
+     */
+    public void configure(Map<?, ?> config) {
+        if (!(config.get("leaderboards") instanceof Map<?, ?> section)) {
+            return;
+        }
+
+        if (section.containsKey("update_interval")) {
+            this.updateInterval = Duration.ofSeconds(((Double) section.get("update_interval")).longValue());
+        }
+
+        if (section.containsKey("index_limit")) {
+            this.indexLimit = Math.min(62, ((Double) section.get("index_limit")).intValue());
+        }
+
+        if (section.get("indexed") instanceof List<?> indexed) {
+            this.indexPriority = indexed.stream().map(String::valueOf).toList();
+        }
+
+        if (section.get("backfill") instanceof Map<?, ?> backfill) {
+            if (backfill.containsKey("enabled")) {
+                this.backfillEnabled = (Boolean) backfill.get("enabled");
+            }
+
+            if (backfill.containsKey("rate")) {
+                this.backfillRate = ((Double) backfill.get("rate")).intValue();
+            }
+
+            if (backfill.containsKey("threads")) {
+                this.backfillThreads = ((Double) backfill.get("threads")).intValue();
+            }
+        }
+
+        if (section.get("dynamic") instanceof List<?> dynamic) {
+            for (Object entry : dynamic) {
+                try {
+                    Leaderboard.registerDynamic(this.parseDynamic((Map<?, ?>) entry));
+                } catch (RuntimeException e) {
+                    this.logger.error("Skipping malformed dynamic leaderboard {}: {}", entry, e.getMessage());
+                }
+            }
+
+            this.logger.info("Registered {} dynamic leaderboards", Leaderboard.getDynamicLeaderboards().size());
+        }
+    }
+
+    /**
+     * Parse a dynamic leaderboard from the configuration, compiling its expression
+     * @param entry The entry of the {@code dynamic} list
+     * @return The dynamic leaderboard
+     * @throws IllegalArgumentException If the entry is malformed
+     */
+    private Leaderboard.DynamicLeaderboard parseDynamic(Map<?, ?> entry) {
+        if (!(entry.get("name") instanceof String name) || !name.matches("[A-Z0-9_]+")) {
+            throw new IllegalArgumentException("name must be upper snake case");
+        }
+
+        if (!(entry.get("expression") instanceof String expression)) {
+            throw new IllegalArgumentException("missing expression");
+        }
+
+        LeaderboardCategory category = LeaderboardCategory.valueOf((String) entry.get("category"));
+        int sortDirection = entry.containsKey("sort") && ((Double) entry.get("sort")) > 0 ? 1 : -1;
+
+        return new Leaderboard.DynamicLeaderboard(name, category, LeaderboardExpression.compile(expression),
+            sortDirection);
+    }
+
+    /**
+     * Called on server startup - connect the service to Mongo, creating the database and collections if required,
+     * and schedule the placement database to be regenerated
      * @param uri The URI of the Mongo instance to connect to
      */
     public void connect(String uri) {
@@ -72,6 +326,33 @@ public class LeaderboardService {
         this.mongoClient = MongoClients.create(new ConnectionString(uri));
         this.nadeshikoDatabase = this.mongoClient.getDatabase("nadeshiko");
 
+        // Snapshots are upserted by UUID as soon as players are searched, so their index must exist before then
+        this.ensureSnapshotIndex();
+
+        this.ingestion = new LeaderboardIngestion(this.nadeshikoDatabase.getCollection("stats"),
+            this.nadeshikoDatabase.getCollection(LeaderboardBackfill.SNAPSHOTS), this::toDocument, this::onWritten);
+        this.backfill = new LeaderboardBackfill(this, this.nadeshikoDatabase, this.backfillRate,
+            this.backfillThreads);
+
+        // Restore the distribution sketches, and save them periodically
+        this.loadSketches();
+        this.updater.scheduleWithFixedDelay(this::saveSketches, SKETCH_SAVE_INTERVAL, SKETCH_SAVE_INTERVAL,
+            TimeUnit.MINUTES);
+
+        // Build any missing indexes and dynamic leaderboards in the background, before the placement database is
+        // first regenerated
+        this.updater.execute(this::ensureIndexes);
+        this.updater.execute(this::backfillDynamic);
+
+        // Derive every leaderboard again from the stored snapshots, if they changed since the last run
+        if (this.backfillEnabled) {
+            this.backfill.start();
+        }
+
+        if (!this.updateInterval.isZero()) {
+            this.updater.scheduleWithFixedDelay(this::update, 0, this.updateInterval.toSeconds(), TimeUnit.SECONDS);
+        }
+
         // Dump leaderboards
 //        this.dumpLeaderboards();
     }
@@ -80,14 +361,51 @@ public class LeaderboardService {
      * Called on server shutdown - cleanly disconnect from Mongo
      */
     public void disconnect() {
+        this.updater.shutdownNow();
+        this.saveSketches();
+        this.backfill.close();
+        this.ingestion.close();
         this.mongoClient.close();
     }
 
     /**
-     * Called when a player is searched on nadeshiko. Insert them into the stat database.
-     * @param player The JsonObject containing the player's stats.
+     * Called when a player is searched on nadeshiko. Queue them to be inserted into the stat database, replacing their
+     * previous entry, if any. Their leaderboards are derived on the writer of the queue, not on the calling thread.
+     * @param player The JsonObject containing the player's stats, which must not be modified afterwards
+     * @see LeaderboardIngestion
      */
-    public synchronized void insertPlayer(JsonObject player) {
+    public void insertPlayer(JsonObject player) {
+        this.ingestion.offer(player.get("uuid").getAsString(), player, System.currentTimeMillis());
+    }
+
+    /**
+     * Called on the writer of the ingestion queue once a player's document has been written to the stat database
+     * @param playerDocument The player's document
+     * @param inserted Whether the player is new to the stat database, rather than searched again
+     */
+    private void onWritten(Document playerDocument, boolean inserted) {
+        Nadeshiko.INSTANCE.getLeaderboardCache().invalidatePlayer(playerDocument.getString("uuid"));
+
+        // Add new players to the distributions until they are next rebuilt. Players searched again are already
+        // counted, and adding them again would count them once per search.
+        if (!inserted) {
+            return;
+        }
+
+        for (LeaderboardDefinition leaderboard : definitions()) {
+            if (playerDocument.get(leaderboard.name()) instanceof Number value) {
+                this.getSketch(leaderboard).add(value.doubleValue());
+            }
+        }
+    }
+
+    /**
+     * Derive the document of a player in the stat database
+     * @param player The JsonObject containing the player's stats
+     * @param time The time at which the player's stats were retrieved
+     * @return The player's document, holding their value on every leaderboard
+     */
+    Document toDocument(JsonObject player, long time) {
 
         Document playerDocument = new Document();
 
@@ -97,76 +415,381 @@ public class LeaderboardService {
             .append("uuid", player.get("uuid").getAsString())
             .append("badge", player.get("badge").getAsString())
             .append("tagged_name", profile.get("tagged_name").getAsString())
-            .append("time", System.currentTimeMillis());
+            .append("time", time);
 
-        // Populate leaderboards
-        for (Leaderboard leaderboard : values()) {
+        // Populate leaderboards, resolving the input of each category only once
+        Map<LeaderboardCategory, JsonObject> inputs = new EnumMap<>(LeaderboardCategory.class);
+        for (Map.Entry<LeaderboardCategory, List<Leaderboard>> category : Leaderboard.byCategory().entrySet()) {
 
             // Handle SkyBlock separately
-//            if (leaderboard.getCategory().equals(LeaderboardCategory.SKYBLOCK)) {
+//            if (category.getKey().equals(LeaderboardCategory.SKYBLOCK)) {
 //                insertSkyBlock(player.get("uuid").getAsString(), playerDocument);
 //                continue;
 //            }
 
-            JsonObject leaderboardInput = leaderboard.getCategory().getDeriveInput(player);
-            playerDocument.append(leaderboard.name(), leaderboard.derive(leaderboardInput));
+            JsonObject leaderboardInput = category.getKey().getDeriveInput(player);
+            inputs.put(category.getKey(), leaderboardInput);
+            for (Leaderboard leaderboard : category.getValue()) {
+                playerDocument.append(leaderboard.name(), leaderboard.derive(leaderboardInput));
+            }
+        }
+
+        // Dynamic leaderboards may refer to the built in ones, so they are derived last
+        for (Leaderboard.DynamicLeaderboard leaderboard : Leaderboard.getDynamicLeaderboards()) {
+            JsonObject leaderboardInput = inputs.computeIfAbsent(leaderboard.category(),
+                category -> category.getDeriveInput(player));
+            playerDocument.append(leaderboard.name(), leaderboard.derive(leaderboardInput, playerDocument));
         }
 
-        // Delete old player stats, if present
-        this.nadeshikoDatabase.getCollection("stats")
-            .deleteMany(new Document("uuid", player.get("uuid").getAsString()));
+        return playerDocument;
+    }
 
-        // Insert new stats
-        this.nadeshikoDatabase.getCollection("stats").insertOne(playerDocument);
+    /**
+     * @return The state and counters of the ingestion queue, as a JsonObject
+     */
+    public JsonObject getIngestionStatistics() {
+        return this.ingestion.getStatistics();
+    }
+
+    /**
+     * Describe the distribution of the values on a leaderboard, from its sketch alone. Values are given as strings, as
+     * they may be infinite, like the values of leaderboard entries.
+     *
+     * @param leaderboard The leaderboard to describe
+     * @param buckets The number of histogram buckets, spanning the finite values of the leaderboard
+     * @param logarithmic Whether the buckets are spaced logarithmically rather than linearly. Only possible if every
+     *                    value is positive, and ignored otherwise.
+     * @param value A value to estimate the percentile of, or {@code null}
+     * @param percentile A percentile to estimate the value at, or {@code null}
+     * @return The response for the given leaderboard
+     * @see LeaderboardSketch
+     */
+    public JsonObject getDistribution(LeaderboardDefinition leaderboard, int buckets, boolean logarithmic,
+                                      Double value, Double percentile) {
+        LeaderboardSketch sketch = this.getSketch(leaderboard);
+        long count = sketch.count();
+        int direction = leaderboard.getSortDirection();
+
+        JsonObject response = new JsonObject();
+        response.addProperty("success", true);
+        response.addProperty("leaderboard", leaderboard.name());
+        response.addProperty("count", count);
+
+        if (count == 0) {
+            response.add("buckets", new JsonArray());
+            return response;
+        }
+
+        double min = sketch.min();
+        double max = sketch.max();
+        response.addProperty("min", formatValue(min));
+        response.addProperty("max", formatValue(max));
+        response.addProperty("infinite", sketch.infinite());
+
+        JsonObject percentiles = new JsonObject();
+        for (double p : new double[] {50, 75, 90, 99, 99.9}) {
+            percentiles.addProperty(formatValue(p), formatValue(sketch.valueAt(p, direction)));
+        }
+        response.add("percentiles", percentiles);
+
+        // Spread the buckets over the finite values, and count each by the difference of the distribution at its edges
+        JsonArray array = new JsonArray();
+        if (!Double.isNaN(min)) {
+            logarithmic &= min > 0;
+
+            double previous = sketch.cdf(Math.nextDown(min));
+            for (int i = 0; i < buckets; i++) {
+                double from = edge(min, max, i / (double) buckets, logarithmic);
+                double to = i == buckets - 1 ? max : edge(min, max, (i + 1) / (double) buckets, logarithmic);
+                double cumulative = sketch.cdf(to);
+
+                JsonObject bucket = new JsonObject();
+                bucket.addProperty("from", formatValue(from));
+                bucket.addProperty("to", formatValue(to));
+                bucket.addProperty("count", Math.round((cumulative - previous) * count));
+                array.add(bucket);
+
+                previous = cumulative;
+            }
+        }
+        response.add("buckets", array);
+
+        if (value != null) {
+            response.addProperty("percentile_of_value", sketch.percentileOf(value, direction));
+        }
+
+        if (percentile != null) {
+            response.addProperty("value_at_percentile", formatValue(sketch.valueAt(percentile, direction)));
+        }
+
+        return response;
+    }
+
+    /**
+     * @param leaderboard The leaderboard to get the sketch of
+     * @return The distribution sketch of the leaderboard, created empty if there is none yet
+     */
+    private LeaderboardSketch getSketch(LeaderboardDefinition leaderboard) {
+        return this.sketches.computeIfAbsent(leaderboard.name(), name -> new LeaderboardSketch());
+    }
+
+    /**
+     * @return The value at a fraction of the way from min to max, on a linear or logarithmic scale
+     */
+    private static double edge(double min, double max, double fraction, boolean logarithmic) {
+        return logarithmic ? min * Math.pow(max / min, fraction) : min + (max - min) * fraction;
+    }
+
+    /**
+     * @return A value as a string, without a fraction if it is integral
+     */
+    private static String formatValue(double value) {
+        return value == Math.rint(value) && Math.abs(value) < 1e15 ? Long.toString((long) value) :
+            Double.toString(value);
+    }
+
+    /**
+     * Restore the distribution sketches saved by {@link #saveSketches()}, if any
+     */
+    private void loadSketches() {
+        try {
+            for (Document document : this.nadeshikoDatabase.getCollection(SKETCHES).find()) {
+                this.sketches.put(document.getString("_id"), LeaderboardSketch.fromDocument(document));
+            }
+
+            this.logger.info("Restored {} leaderboard distributions", this.sketches.size());
+        } catch (MongoException e) {
+            this.logger.error("Failed to restore the leaderboard distributions!", e);
+        }
+    }
+
+    /**
+     * Save the distribution sketches, so that they survive restarts
+     */
+    private void saveSketches() {
+        List<WriteModel<Document>> writes = new ArrayList<>(this.sketches.size());
+        for (Map.Entry<String, LeaderboardSketch> sketch : this.sketches.entrySet()) {
+            writes.add(new ReplaceOneModel<>(Filters.eq("_id", sketch.getKey()),
+                sketch.getValue().toDocument().append("_id", sketch.getKey()), new ReplaceOptions().upsert(true)));
+        }
+
+        if (writes.isEmpty()) {
+            return;
+        }
+
+        try {
+            this.nadeshikoDatabase.getCollection(SKETCHES).bulkWrite(writes, new BulkWriteOptions().ordered(false));
+        } catch (MongoException e) {
+            this.logger.error("Failed to save the leaderboard distributions!", e);
+        }
+    }
+
+    /**
+     * @return The progress of the current or last backfill, as a JsonObject
+     */
+    public JsonObject getBackfillStatistics() {
+        return this.backfill.getStatistics();
     }
 
     private void insertSkyBlock(String uuid, Document playerDocument) {
         // TODO: request SkyBlock API
     }
 
-    // TODO: THIS NEEDS CACHING!
-    public synchronized JsonObject get(Leaderboard leaderboard, int page) {
-        JsonObject object = new JsonObject();
-        JsonArray array = new JsonArray();
+    /**
+     * Count the players on a leaderboard, that is, the players with a non-zero value for it
+     * @param leaderboard The leaderboard to count the players of
+     * @return The number of players on the given leaderboard
+     * @see LeaderboardCache
+     */
+    public long count(LeaderboardDefinition leaderboard) {
 
-        long entries = this.nadeshikoDatabase.getCollection("stats").countDocuments(
+        // Use the count of the placement database, if it has been generated
+        Document header = this.getPlacementHeader(leaderboard);
+        if (header != null) {
+            return header.get("count", Number.class).longValue();
+        }
+
+        return this.nadeshikoDatabase.getCollection("stats").countDocuments(
             new Document(leaderboard.name(), new Document("$exists", true).append("$ne", 0))
         );
+    }
+
+    /**
+     * Query a page of a leaderboard. This is expensive, so pages are served through the {@link LeaderboardCache}.
+     * <p>
+     * Pages are read from the placement database if it has been generated. Otherwise, they are sorted from the stat
+     * database, seeking from the end of the closest earlier page queried so far rather than skipping every entry. Pages
+     * more than {@link #MAXIMUM_SKIP} entries past that page are refused.
+     *
+     * @param leaderboard The leaderboard to query the page of
+     * @param page The page to query, starting at 1
+     * @param entries The number of players on the leaderboard, used to derive percentiles
+     * @return The response for the given page, or a failure with a 400 status if it is too deep to reach
+     * @see LeaderboardCache
+     */
+    public JsonObject getPage(LeaderboardDefinition leaderboard, int page, long entries) {
+        long firstPosition = (page - 1) * 100L + 1;
+
+        if (this.getPlacementHeader(leaderboard) != null) {
+            return this.toPage(leaderboard, this.getPlacements(leaderboard, firstPosition), firstPosition, entries);
+        }
+
+        // Seek from the closest anchor before the page, skipping only the pages in between
+        NavigableMap<Integer, LeaderboardCursor> anchors = this.getAnchors(leaderboard);
+        Map.Entry<Integer, LeaderboardCursor> anchor = anchors.floorEntry(page - 1);
+        long skip = (page - 1L - (anchor != null ? anchor.getKey() : 0)) * 100;
+
+        if (skip > MAXIMUM_SKIP) {
+            return failure(400, "This page can't be reached directly yet, follow the cursors of earlier pages " +
+                "instead!");
+        }
+
+        List<Document> documents = this.getDocuments(leaderboard, anchor != null ? anchor.getValue() : null,
+            (int) skip);
+
+        JsonObject response = this.toPage(leaderboard, documents, firstPosition, entries);
+
+        // Remember where this page ends, so that the next one can seek from it
+        if (!documents.isEmpty()) {
+            anchors.put(page, LeaderboardCursor.of(leaderboard, documents.getLast(),
+                firstPosition + documents.size() - 1));
+        }
+
+        return response;
+    }
+
+    /**
+     * Query the page of a leaderboard following a cursor. This is expensive, so pages are served through the
+     * {@link LeaderboardCache}.
+     * <p>
+     * When reading from the placement database, the position of the cursor is only trusted if the player it names is
+     * placed there, with the same value.
+     *
+     * @param leaderboard The leaderboard to query the page of
+     * @param cursor The cursor after which the page starts
+     * @param entries The number of players on the leaderboard, used to derive percentiles
+     * @return The response for the given page, or a failure with a 400 status if the cursor doesn't match the
+     *         placement database
+     * @see LeaderboardCache
+     */
+    public JsonObject getPageAfter(LeaderboardDefinition leaderboard, LeaderboardCursor cursor, long entries) {
+        long firstPosition = cursor.position() + 1;
+
+        if (this.getPlacementHeader(leaderboard) != null) {
+            Document placement = this.getPlacement(leaderboard, cursor.uuid());
+
+            if (placement == null || !(placement.get("position") instanceof Number position) ||
+                position.longValue() != cursor.position() || !isTied(placement.get("value"), cursor.value())) {
+                return failure(400, "Outdated cursor! Start over from the first page.");
+            }
+
+            return this.toPage(leaderboard, this.getPlacements(leaderboard, firstPosition), firstPosition, entries);
+        }
+
+        return this.toPage(leaderboard, this.getDocuments(leaderboard, cursor, 0), firstPosition, entries);
+    }
+
+    /**
+     * Build the response for a page of a leaderboard. Placements carry their rank, while players read from the stat
+     * database are ranked by their position, sharing the rank of the player before them when tied with them.
+     * @param leaderboard The leaderboard the page belongs to
+     * @param documents The documents on the page, in order, from either the stat or the placement database
+     * @param firstPosition The position of the first document on the page
+     * @param entries The number of players on the leaderboard, used to derive percentiles
+     * @return The response for the given page, including the continuation token of the next page, if any
+     */
+    private JsonObject toPage(LeaderboardDefinition leaderboard, List<Document> documents, long firstPosition,
+                              long entries) {
+        JsonObject object = new JsonObject();
+        JsonArray array = new JsonArray();
+        Object previous = null;
+        long rank = 0;
 
-        List<Document> documents = this.getDocuments(leaderboard, page);
         for (int i = 0; i < documents.size(); i++) {
 
             Document document = documents.get(i);
-            int start = (page - 1) * 100 + 1;
 
-            if (document.get(leaderboard.name()) == null) {
+            Object value = document.containsKey("value") ? document.get("value") : document.get(leaderboard.name());
+            if (value == null) {
                 continue;
             }
 
+            if (document.get("rank") instanceof Number placed) {
+                rank = placed.longValue();
+            } else if (previous == null || !isTied(previous, value)) {
+                rank = firstPosition + i;
+            }
+            previous = value;
+
             JsonObject entry = new JsonObject();
             entry.addProperty("uuid", document.getString("uuid"));
             entry.addProperty("badge", document.getString("badge"));
             entry.addProperty("tagged_name", document.getString("tagged_name"));
-            entry.addProperty("ranking", start + i);
-            entry.addProperty("percentile", 100 - ((start + i) / (double) entries) * 100);
-            entry.addProperty("value", document.get(leaderboard.name()).toString());
+            entry.addProperty("ranking", rank);
+            entry.addProperty("percentile", 100 - (rank / (double) entries) * 100);
+            entry.addProperty("value", value.toString());
             array.add(entry);
         }
 
+        object.addProperty("success", true);
         object.addProperty("count", entries);
         object.add("data", array);
+
+        // Only full pages can be followed by another page
+        if (documents.size() == 100) {
+            object.addProperty("next", LeaderboardCursor.of(leaderboard, documents.getLast(),
+                firstPosition + documents.size() - 1).encode());
+        }
+
         return object;
     }
 
-    private List<Document> getDocuments(Leaderboard leaderboard, int page) {
+    /**
+     * @return A failed response, with the status it should be served with
+     */
+    private static JsonObject failure(int status, String cause) {
+        JsonObject response = new JsonObject();
+        response.addProperty("success", false);
+        response.addProperty("status", status);
+        response.addProperty("cause", cause);
+        return response;
+    }
+
+    /**
+     * @return Whether two values of a leaderboard are equal, and so share a rank, whatever their numeric types
+     */
+    private static boolean isTied(Object a, Object b) {
+        if (!(a instanceof Number x) || !(b instanceof Number y)) {
+            return false;
+        }
+
+        if ((x instanceof Integer || x instanceof Long) && (y instanceof Integer || y instanceof Long)) {
+            return x.longValue() == y.longValue();
+        }
+
+        return x.doubleValue() == y.doubleValue();
+    }
+
+    /**
+     * Query a page of a leaderboard from the stat database
+     * @param leaderboard The leaderboard to query the page of
+     * @param after The cursor to seek past before the page, or {@code null} to start at the top
+     * @param skip The number of entries to skip after seeking
+     * @return The documents on the page, in order
+     */
+    private List<Document> getDocuments(LeaderboardDefinition leaderboard, LeaderboardCursor after, int skip) {
         Document filter = new Document(leaderboard.name(), new Document("$exists", true).append("$ne", 0));
         Document sort = new Document(leaderboard.name(), leaderboard.getSortDirection()).append("uuid", -1);
 
+        if (after != null) {
+            filter = new Document("$and", List.of(filter, after.after(leaderboard)));
+        }
+
         // Query the stats collection, apply the filter, sort and limit the results
         try (MongoCursor<Document> cursor = this.nadeshikoDatabase.getCollection("stats")
                 .find(filter)
                 .sort(sort)
-                .skip((page - 1) * 100)
+                .skip(skip)
                 .limit(100)
                 .iterator()) {
 
@@ -178,11 +801,470 @@ public class LeaderboardService {
         }
     }
 
+    /**
+     * @param leaderboard The leaderboard to get the anchors of
+     * @return The cursors at the end of the pages of the leaderboard queried so far, keyed by page
+     */
+    private NavigableMap<Integer, LeaderboardCursor> getAnchors(LeaderboardDefinition leaderboard) {
+        NavigableMap<Integer, LeaderboardCursor> anchors =
+            this.anchors.computeIfAbsent(leaderboard, key -> new ConcurrentSkipListMap<>());
+
+        // Anchors are only a shortcut, so rather than tracking their use, simply start over once there are many
+        if (anchors.size() > MAXIMUM_ANCHORS) {
+            anchors.clear();
+        }
+
+        return anchors;
+    }
+
+    /**
+     * Look up the placement of a player on a leaderboard
+     * @param leaderboard The leaderboard to look up the placement on
+     * @param uuid The UUID of the player, as stored in the stat database
+     * @return The placement, containing the player's rank, value and percentile, or {@code null} if the player isn't
+     *         placed on the leaderboard, or the placement database hasn't been generated yet
+     */
+    public Document getPlacement(LeaderboardDefinition leaderboard, String uuid) {
+        return this.nadeshikoDatabase.getCollection(PLACEMENTS)
+            .find(Filters.and(Filters.eq("leaderboard", leaderboard.name()), Filters.eq("uuid", uuid)))
+            .first();
+    }
+
+    /**
+     * Look up the placements of a player on every leaderboard they have a non-zero value on. Placements are read from
+     * the placement database where it holds the player's current value. Otherwise, the player is ranked live by
+     * counting the players ahead of them, in parallel, on indexed leaderboards only, where counting is an index scan.
+     * On the other leaderboards, where counting would scan the whole stat database, their rank is estimated from the
+     * leaderboard's distribution sketch instead, and marked as such. This is expensive, so placements are served
+     * through the {@link LeaderboardCache}.
+     *
+     * @param uuid The dashed UUID of the player
+     * @param counts Supplies the number of players on each leaderboard, used to derive percentiles
+     * @return The response for the given player
+     * @see LeaderboardCache
+     */
+    public JsonObject getPlayerPlacements(String uuid, ToLongFunction<LeaderboardDefinition> counts) {
+        Document player = this.nadeshikoDatabase.getCollection("stats").find(Filters.eq("uuid", uuid)).first();
+
+        if (player == null) {
+            return failure(404, "This player isn't on any leaderboards yet.");
+        }
+
+        Map<String, Document> placed = new HashMap<>();
+        for (Document placement : this.nadeshikoDatabase.getCollection(PLACEMENTS)
+                .find(Filters.and(Filters.eq("uuid", uuid), Filters.gt("rank", 0)))) {
+            placed.put(placement.getString("leaderboard"), placement);
+        }
+
+        Map<String, JsonObject> resolved = new HashMap<>();
+        Map<String, CompletableFuture<JsonObject>> ranked = new HashMap<>();
+        Set<String> indexed = this.indexed;
+
+        for (LeaderboardDefinition leaderboard : definitions()) {
+            if (!(player.get(leaderboard.name()) instanceof Number value) || value.doubleValue() == 0) {
+                continue;
+            }
+
+            Document placement = placed.get(leaderboard.name());
+            if (placement != null && isTied(placement.get("value"), value)) {
+
+                // The placement database already reflects the player's current value
+                resolved.put(leaderboard.name(), this.toPlacement(value, placement.get("rank", Number.class)
+                    .longValue(), placement.getDouble("percentile")));
+            } else if (indexed.contains(leaderboard.name())) {
+                ranked.put(leaderboard.name(), CompletableFuture.supplyAsync(() -> {
+                    long ranking = this.rank(leaderboard, value);
+                    long entries = counts.applyAsLong(leaderboard);
+                    return this.toPlacement(value, ranking, 100 - (ranking / (double) entries) * 100);
+                }, this.rankPool));
+            } else {
+                JsonObject estimate = this.estimatePlacement(leaderboard, value);
+                if (estimate != null) {
+                    resolved.put(leaderboard.name(), estimate);
+                }
+            }
+        }
+
+        ranked.forEach((name, placement) -> resolved.put(name, placement.join()));
+
+        // Keep the order of the leaderboards
+        JsonObject placements = new JsonObject();
+        for (LeaderboardDefinition leaderboard : definitions()) {
+            if (resolved.containsKey(leaderboard.name())) {
+                placements.add(leaderboard.name(), resolved.get(leaderboard.name()));
+            }
+        }
+
+        JsonObject response = new JsonObject();
+        response.addProperty("success", true);
+        response.addProperty("uuid", uuid);
+        response.add("leaderboards", placements);
+        return response;
+    }
+
+    /**
+     * Estimate the placement of a value on a leaderboard from its distribution sketch
+     * @param leaderboard The leaderboard to place the value on
+     * @param value The value to place
+     * @return The estimated placement, marked as estimated, or {@code null} if the sketch is still empty
+     */
+    private JsonObject estimatePlacement(LeaderboardDefinition leaderboard, Number value) {
+        LeaderboardSketch sketch = this.getSketch(leaderboard);
+        double percentile = sketch.percentileOf(value.doubleValue(), leaderboard.getSortDirection());
+        if (Double.isNaN(percentile)) {
+            return null;
+        }
+
+        JsonObject placement = this.toPlacement(value,
+            Math.max(1, Math.round((1 - percentile / 100) * sketch.count())), percentile);
+        placement.addProperty("estimated", true);
+        return placement;
+    }
+
+    /**
+     * Rank a value on a leaderboard, by counting the players ahead of it
+     * @param leaderboard The leaderboard to rank the value on
+     * @param value The value to rank
+     * @return The rank of the value. Players tied with others share their rank.
+     */
+    private long rank(LeaderboardDefinition leaderboard, Number value) {
+        String operator = leaderboard.getSortDirection() < 0 ? "$gt" : "$lt";
+
+        return this.nadeshikoDatabase.getCollection("stats").countDocuments(
+            new Document(leaderboard.name(), new Document(operator, value).append("$ne", 0))) + 1;
+    }
+
+    /**
+     * @return The placement of a player on a single leaderboard, as a JsonObject
+     */
+    private JsonObject toPlacement(Object value, long ranking, double percentile) {
+        JsonObject placement = new JsonObject();
+        placement.addProperty("value", value.toString());
+        placement.addProperty("ranking", ranking);
+        placement.addProperty("percentile", percentile);
+        return placement;
+    }
+
+    /**
+     * @param leaderboard The leaderboard to get the header of
+     * @return The header of the leaderboard in the placement database, holding its count, or {@code null} if the
+     *         placement database hasn't been generated yet
+     */
+    private Document getPlacementHeader(LeaderboardDefinition leaderboard) {
+        return this.nadeshikoDatabase.getCollection(PLACEMENTS)
+            .find(Filters.and(Filters.eq("leaderboard", leaderboard.name()), Filters.eq("position", 0)))
+            .first();
+    }
+
+    /**
+     * Read a page of a leaderboard from the placement database
+     * @param leaderboard The leaderboard to read the page of
+     * @param start The position of the first placement on the page
+     * @return The placements on the page, in order
+     */
+    private List<Document> getPlacements(LeaderboardDefinition leaderboard, long start) {
+        return this.nadeshikoDatabase.getCollection(PLACEMENTS)
+            .find(Filters.and(Filters.eq("leaderboard", leaderboard.name()),
+                Filters.gte("position", start), Filters.lt("position", start + 100)))
+            .sort(Sorts.ascending("position"))
+            .into(new ArrayList<>());
+    }
+
+    /**
+     * Create the indexes of the stat database, as derived from the {@link Leaderboard} enum: a unique index on
+     * {@code uuid}, and a partial index per leaderboard matching the filter and sort of its queries. Indexes of
+     * leaderboards that no longer exist are dropped.
+     * <p>
+     * Mongo allows no more than 64 indexes per collection, so only the first {@link #indexLimit} leaderboards are
+     * indexed: those listed in the {@code indexed} section of the configuration, as they see the most traffic, then the
+     * dynamic ones, as they were configured explicitly, followed by the built in ones in enum order. The rest are
+     * sorted with the help of disk space when the placement database is regenerated, a slice at a time, and are
+     * logged on startup.
+     */
+    private void ensureIndexes() {
+        MongoCollection<Document> stats = this.nadeshikoDatabase.getCollection("stats");
+
+        try {
+            stats.createIndex(Indexes.ascending("uuid"), new IndexOptions().name("uuid").unique(true));
+        } catch (MongoException e) {
+            // Duplicates left behind by concurrent inserts prevent a unique index, fall back to a regular one
+            this.logger.warn("Failed to create unique uuid index, creating a non-unique one instead", e);
+
+            try {
+                stats.createIndex(Indexes.ascending("uuid"), new IndexOptions().name("uuid"));
+            } catch (MongoException e2) {
+                this.logger.error("Failed to create uuid index!", e2);
+            }
+        }
+
+        // Find the indexes that should exist, and those that do
+        Set<LeaderboardDefinition> candidates = new LinkedHashSet<>();
+        for (String name : this.indexPriority) {
+            LeaderboardDefinition leaderboard = Leaderboard.resolve(name);
+            if (leaderboard != null) {
+                candidates.add(leaderboard);
+            } else {
+                this.logger.warn("Not indexing unknown leaderboard {}", name);
+            }
+        }
+        candidates.addAll(Leaderboard.getDynamicLeaderboards());
+        candidates.addAll(List.of(values()));
+
+        List<LeaderboardDefinition> ordered = new ArrayList<>(candidates);
+        int limit = Math.min(Math.max(0, this.indexLimit), ordered.size());
+        List<LeaderboardDefinition> indexed = ordered.subList(0, limit);
+
+        if (limit < ordered.size()) {
+            this.logger.info("Leaving {} leaderboards unindexed: {}", ordered.size() - limit,
+                ordered.subList(limit, ordered.size()).stream().map(LeaderboardDefinition::name).toList());
+        }
+        Set<String> wanted = new HashSet<>();
+        Set<String> indexedNames = new HashSet<>();
+        for (LeaderboardDefinition leaderboard : indexed) {
+            wanted.add(INDEX_PREFIX + leaderboard.name());
+            indexedNames.add(leaderboard.name());
+        }
+        this.indexed = indexedNames;
+
+        Set<String> existing = new HashSet<>();
+        for (Document index : stats.listIndexes()) {
+            existing.add(index.getString("name"));
+        }
+
+        // Drop the indexes of removed leaderboards first, to make room for new ones
+        for (String name : existing) {
+            if (name.startsWith(INDEX_PREFIX) && !wanted.contains(name)) {
+                this.logger.info("Dropping index {}", name);
+                stats.dropIndex(name);
+            }
+        }
+
+        int built = 0;
+        int missing = (int) wanted.stream().filter(name -> !existing.contains(name)).count();
+
+        for (LeaderboardDefinition leaderboard : indexed) {
+            String name = INDEX_PREFIX + leaderboard.name();
+            if (existing.contains(name)) {
+                continue;
+            }
+
+            long start = System.currentTimeMillis();
+
+            try {
+                // Matches the sort of leaderboard queries, and only covers players that can be on the leaderboard
+                stats.createIndex(new Document(leaderboard.name(), leaderboard.getSortDirection()).append("uuid", -1),
+                    new IndexOptions().name(name)
+                        .partialFilterExpression(Filters.exists(leaderboard.name())));
+            } catch (MongoException e) {
+                this.logger.error("Failed to build index {}!", name, e);
+                continue;
+            }
+
+            this.logger.info("Built index {} ({}/{}) in {} ms", name, ++built, missing,
+                System.currentTimeMillis() - start);
+        }
+    }
+
+    /**
+     * Create the unique index on {@code uuid} of the snapshot collection, which both the upserts of the
+     * {@link LeaderboardIngestion} and the UUID ordered reads of the {@link LeaderboardBackfill} rely on
+     */
+    private void ensureSnapshotIndex() {
+        try {
+            this.nadeshikoDatabase.getCollection(LeaderboardBackfill.SNAPSHOTS).createIndex(Indexes.ascending("uuid"),
+                new IndexOptions().name("uuid").unique(true));
+        } catch (MongoException e) {
+            this.logger.error("Failed to create the snapshot uuid index!", e);
+        }
+    }
+
+    /**
+     * Derive the values of dynamic leaderboards for the players already in the stat database, who would otherwise
+     * only appear on them once they are searched again.
+     * <p>
+     * The stat database only holds the values of leaderboards, not the stats they were derived from, so only dynamic
+     * leaderboards whose expressions refer to other leaderboards alone can be backfilled here. Players with a raw stats
+     * snapshot are covered by the {@link LeaderboardBackfill} either way. Players whose documents are replaced while
+     * they are backfilled keep their new document, which already holds every dynamic value.
+     */
+    private void backfillDynamic() {
+        MongoCollection<Document> stats = this.nadeshikoDatabase.getCollection("stats");
+
+        for (Leaderboard.DynamicLeaderboard leaderboard : Leaderboard.getDynamicLeaderboards()) {
+            if (!leaderboard.expression().isBackfillable()) {
+                this.logger.info("Dynamic leaderboard {} reads stats that aren't stored, so it fills up as players " +
+                    "are searched", leaderboard.name());
+                continue;
+            }
+
+            long start = System.currentTimeMillis();
+            long backfilled = 0;
+
+            try (MongoCursor<Document> cursor = stats.find(Filters.exists(leaderboard.name(), false)).iterator()) {
+                List<WriteModel<Document>> batch = new ArrayList<>(BATCH_SIZE);
+
+                while (cursor.hasNext()) {
+                    Document document = cursor.next();
+
+                    // Only update the document this value was derived from, not a newer one
+                    batch.add(new UpdateOneModel<>(
+                        Filters.and(Filters.eq("_id", document.get("_id")), Filters.eq("time", document.get("time"))),
+                        Updates.set(leaderboard.name(), leaderboard.derive(null, document))));
+
+                    if (batch.size() >= BATCH_SIZE) {
+                        backfilled += stats.bulkWrite(batch, new BulkWriteOptions().ordered(false)).getModifiedCount();
+                        batch.clear();
+                    }
+                }
+
+                if (!batch.isEmpty()) {
+                    backfilled += stats.bulkWrite(batch, new BulkWriteOptions().ordered(false)).getModifiedCount();
+                }
+            } catch (MongoException e) {
+                this.logger.error("Failed to backfill dynamic leaderboard {}!", leaderboard.name(), e);
+                continue;
+            }
+
+            this.logger.info("Backfilled {} players on dynamic leaderboard {} in {} ms", backfilled, leaderboard.name(),
+                System.currentTimeMillis() - start);
+        }
+    }
+
     /**
      * Called at a regular interval. Regenerate the placement database from the stat database.
+     * <p>
+     * The new placement database is built into a separate collection, which then replaces the current placement
+     * database in a single rename, so readers only ever see a complete placement database. Indexed leaderboards are
+     * rebuilt every time. Unindexed leaderboards are rebuilt one slice at a time, over {@link #UNINDEXED_STAGGER}
+     * updates, and the placements of the others are carried over from the current placement database, along with
+     * their header and its generation time.
      */
     private void update() {
+        long start = System.currentTimeMillis();
+
+        try {
+            MongoCollection<Document> current = this.nadeshikoDatabase.getCollection(PLACEMENTS);
+            MongoCollection<Document> building = this.nadeshikoDatabase.getCollection(PLACEMENTS_BUILDING);
+            building.drop(); // Left over from an interrupted update, if present
+
+            // Pick the unindexed leaderboards to rebuild this time, along with any that were never built
+            List<LeaderboardDefinition> leaderboards = definitions();
+            List<LeaderboardDefinition> unindexed = leaderboards.stream()
+                .filter(leaderboard -> !this.indexed.contains(leaderboard.name()))
+                .toList();
+            int slice = (int) (this.updates++ % UNINDEXED_STAGGER);
+
+            long placements = 0;
+            int rebuilt = 0;
+            List<String> carried = new ArrayList<>();
+            Map<String, LeaderboardSketch> sketches = new HashMap<>();
+
+            for (LeaderboardDefinition leaderboard : leaderboards) {
+                int index = unindexed.indexOf(leaderboard);
+                if (index >= 0 && index % UNINDEXED_STAGGER != slice && this.getPlacementHeader(leaderboard) != null) {
+                    carried.add(leaderboard.name());
+                    continue;
+                }
+
+                LeaderboardSketch sketch = new LeaderboardSketch();
+                placements += this.materialize(leaderboard, building, start, sketch);
+                sketches.put(leaderboard.name(), sketch);
+                rebuilt++;
+            }
+
+            // Copy the placements of the other leaderboards over, without leaving the server
+            if (!carried.isEmpty()) {
+                current.aggregate(List.of(
+                    new Document("$match", new Document("leaderboard", new Document("$in", carried))),
+                    new Document("$project", new Document("_id", 0)),
+                    new Document("$merge", new Document("into", PLACEMENTS_BUILDING).append("whenMatched", "fail"))
+                )).allowDiskUse(true).toCollection();
+            }
+
+            // Index the new placement database before it goes live
+            building.createIndex(Indexes.ascending("leaderboard", "position"));
+            building.createIndex(Indexes.ascending("uuid", "leaderboard"));
+
+            building.renameCollection(new MongoNamespace(this.nadeshikoDatabase.getName(), PLACEMENTS),
+                new RenameCollectionOptions().dropTarget(true));
+
+            // The rebuilt sketches hold each player's current values, where the current ones hold their first values
+            this.sketches.putAll(sketches);
+            this.saveSketches();
+
+            this.logger.info("Regenerated {} placements on {} leaderboards in {} ms, carrying over {} unindexed " +
+                "leaderboards", placements, rebuilt, System.currentTimeMillis() - start, carried.size());
+        } catch (Exception e) {
+            this.logger.error("Failed to regenerate the placement database!", e);
+        }
+    }
+
+    /**
+     * Rank every player on a leaderboard, and write the placements into the provided collection. Players tied on a
+     * value share the rank of the first of them, and the next player is ranked by their position, as when ranking
+     * players live with {@link #rank(LeaderboardDefinition, Number)}.
+     * @param leaderboard The leaderboard to rank the players of
+     * @param building The collection the placement database is being built into
+     * @param generatedAt The time at which regenerating the placement database started
+     * @param sketch The sketch to add the value of every ranked player to
+     * @return The number of placements written
+     */
+    private long materialize(LeaderboardDefinition leaderboard, MongoCollection<Document> building, long generatedAt,
+                             LeaderboardSketch sketch) {
+        Document filter = new Document(leaderboard.name(), new Document("$exists", true).append("$ne", 0));
+        Document sort = new Document(leaderboard.name(), leaderboard.getSortDirection()).append("uuid", -1);
+
+        long count = this.nadeshikoDatabase.getCollection("stats").countDocuments(filter);
+        long position = 0;
+        long rank = 0;
+        Object previous = null;
+
+        List<Document> batch = new ArrayList<>(BATCH_SIZE);
+        batch.add(new Document("leaderboard", leaderboard.name()).append("position", 0).append("rank", 0)
+            .append("count", count).append("generated_at", generatedAt));
+
+        try (MongoCursor<Document> cursor = this.nadeshikoDatabase.getCollection("stats")
+                .find(filter)
+                .projection(Projections.include("uuid", "badge", "tagged_name", leaderboard.name()))
+                .sort(sort)
+                .allowDiskUse(true)
+                .iterator()) {
+
+            while (cursor.hasNext()) {
+                Document document = cursor.next();
+                Object value = document.get(leaderboard.name());
+                position++;
+
+                if (previous == null || !isTied(previous, value)) {
+                    rank = position;
+                }
+                previous = value;
+
+                if (value instanceof Number number) {
+                    sketch.add(number.doubleValue());
+                }
+
+                batch.add(new Document("leaderboard", leaderboard.name())
+                    .append("position", position)
+                    .append("rank", rank)
+                    .append("uuid", document.getString("uuid"))
+                    .append("badge", document.getString("badge"))
+                    .append("tagged_name", document.getString("tagged_name"))
+                    .append("value", value)
+                    .append("percentile", 100 - (rank / (double) count) * 100));
+
+                if (batch.size() >= BATCH_SIZE) {
+                    building.insertMany(batch, new InsertManyOptions().ordered(false));
+                    batch.clear();
+                }
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            building.insertMany(batch, new InsertManyOptions().ordered(false));
+        }
 
+        return position;
     }
 
     private void dumpLeaderboards() {
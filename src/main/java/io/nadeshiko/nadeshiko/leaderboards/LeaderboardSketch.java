@@ -0,0 +1,374 @@
+/*
+ * This file is a part of the Nadeshiko project. Nadeshiko is free software, licensed under the MIT license.
+ *
+ * Usage of these works (including, yet not limited to, reuse, modification, copying, distribution, and selling) is
+ * permitted, provided that the relevant copyright notice and permission notice (as specified in LICENSE) shall be
+ * included in all copies or substantial portions of this software.
+ *
+ * These works are provided "AS IS" with absolutely no warranty of any kind, either expressed or implied.
+ *
+ * You should have received a copy of the MIT License alongside this software; refer to LICENSE for information.
+ * If not, refer to https://mit-license.org.
+ */
+
+package io.nadeshiko.nadeshiko.leaderboards;
+
+import lombok.NonNull;
+import org.bson.Document;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Streaming sketch of the distribution of the values on a leaderboard, answering percentile queries without touching
+ * the stat database.
+ * <p>
+ * The sketch is a merging t-digest: values are buffered, and periodically merged into a sorted list of centroids, each
+ * holding the mean and weight of a run of neighbouring values. Centroids near the extremes are kept small, and those in
+ * the middle are allowed to grow, so that the tails of the distribution - where the interesting players are - stay
+ * accurate, while the whole sketch stays within a few hundred centroids regardless of the number of players.
+ * <p>
+ * Like leaderboards, the sketch ignores zero values. Infinite values, such as ratios with a zero denominator, can't be
+ * interpolated, so they are only counted.
+ *
+ * @author chloe
+ * @see LeaderboardService#getDistribution(LeaderboardDefinition, int, boolean, Double, Double)
+ */
+public class LeaderboardSketch {
+
+    /**
+     * The compression of the digest. The digest holds about {@code COMPRESSION / 2} centroids, plus a few small ones at
+     * either end.
+     */
+    private static final double COMPRESSION = 200;
+
+    /**
+     * The number of values buffered before they are merged into the centroids
+     */
+    private static final int BUFFER_SIZE = 500;
+
+    /**
+     * The means of the centroids, in ascending order
+     */
+    private double[] means = new double[0];
+
+    /**
+     * The weights of the centroids
+     */
+    private double[] weights = new double[0];
+
+    /**
+     * The total weight of the centroids
+     */
+    private double weight = 0;
+
+    /**
+     * The values added since the last merge
+     */
+    private final double[] buffer = new double[BUFFER_SIZE];
+    private int buffered = 0;
+
+    /**
+     * The extremes of the finite values added
+     */
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * The numbers of infinite values added
+     */
+    private long negativeInfinite = 0;
+    private long positiveInfinite = 0;
+
+    /**
+     * Add a value to the sketch. Zero and NaN values are ignored, as they aren't placed on leaderboards.
+     * @param value The value to add
+     */
+    public synchronized void add(double value) {
+        if (value == 0 || Double.isNaN(value)) {
+            return;
+        }
+
+        if (Double.isInfinite(value)) {
+            if (value > 0) {
+                this.positiveInfinite++;
+            } else {
+                this.negativeInfinite++;
+            }
+            return;
+        }
+
+        this.min = Math.min(this.min, value);
+        this.max = Math.max(this.max, value);
+
+        this.buffer[this.buffered++] = value;
+        if (this.buffered == BUFFER_SIZE) {
+            this.merge();
+        }
+    }
+
+    /**
+     * @return The number of values added
+     */
+    public synchronized long count() {
+        return Math.round(this.weight) + this.buffered + this.negativeInfinite + this.positiveInfinite;
+    }
+
+    /**
+     * @return The number of infinite values added
+     */
+    public synchronized long infinite() {
+        return this.negativeInfinite + this.positiveInfinite;
+    }
+
+    /**
+     * @return The smallest finite value added, or NaN if none were
+     */
+    public synchronized double min() {
+        return this.min <= this.max ? this.min : Double.NaN;
+    }
+
+    /**
+     * @return The largest finite value added, or NaN if none were
+     */
+    public synchronized double max() {
+        return this.min <= this.max ? this.max : Double.NaN;
+    }
+
+    /**
+     * Estimate the cumulative distribution at a value
+     * @param value The value
+     * @return The estimated fraction of values less than or equal to the value, or NaN if the sketch is empty
+     */
+    public synchronized double cdf(double value) {
+        long count = this.count();
+        if (count == 0) {
+            return Double.NaN;
+        }
+
+        this.merge();
+
+        double below = this.negativeInfinite;
+        if (value == Double.POSITIVE_INFINITY) {
+            below = count;
+        } else if (value != Double.NEGATIVE_INFINITY) {
+            below += this.finiteCdf(value) * this.weight;
+        }
+
+        return below / count;
+    }
+
+    /**
+     * Estimate the value at a quantile
+     * @param quantile The quantile, between 0 and 1
+     * @return The estimated value at the quantile, or NaN if the sketch is empty
+     */
+    public synchronized double quantile(double quantile) {
+        long count = this.count();
+        if (count == 0) {
+            return Double.NaN;
+        }
+
+        this.merge();
+
+        double rank = Math.max(0, Math.min(1, quantile)) * count;
+        if (rank < this.negativeInfinite || (this.weight == 0 && this.positiveInfinite == 0)) {
+            return Double.NEGATIVE_INFINITY;
+        }
+
+        if (rank > this.negativeInfinite + this.weight || this.weight == 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+
+        return this.finiteQuantile(rank - this.negativeInfinite);
+    }
+
+    /**
+     * Estimate the percentile of a value on a leaderboard, as the {@code percentile} of leaderboard entries is defined:
+     * the percentage of players ranked below the value
+     * @param value The value
+     * @param sortDirection The direction the leaderboard sorts in: -1 is descending, 1 is ascending
+     * @return The estimated percentile, or NaN if the sketch is empty
+     */
+    public double percentileOf(double value, int sortDirection) {
+        double cdf = this.cdf(value);
+        return sortDirection < 0 ? cdf * 100 : (1 - cdf) * 100;
+    }
+
+    /**
+     * Estimate the value at a percentile of a leaderboard
+     * @param percentile The percentile, between 0 and 100
+     * @param sortDirection The direction the leaderboard sorts in: -1 is descending, 1 is ascending
+     * @return The estimated value, or NaN if the sketch is empty
+     */
+    public double valueAt(double percentile, int sortDirection) {
+        return this.quantile(sortDirection < 0 ? percentile / 100 : 1 - percentile / 100);
+    }
+
+    /**
+     * @return This sketch, as a document of the {@code sketches} collection
+     */
+    public synchronized Document toDocument() {
+        this.merge();
+
+        List<Double> means = new ArrayList<>(this.means.length);
+        List<Double> weights = new ArrayList<>(this.weights.length);
+        for (int i = 0; i < this.means.length; i++) {
+            means.add(this.means[i]);
+            weights.add(this.weights[i]);
+        }
+
+        return new Document("means", means)
+            .append("weights", weights)
+            .append("min", this.min)
+            .append("max", this.max)
+            .append("negative_infinite", this.negativeInfinite)
+            .append("positive_infinite", this.positiveInfinite);
+    }
+
+    /**
+     * Restore a sketch saved with {@link #toDocument()}
+     * @param document The document
+     * @return The sketch
+     */
+    public static LeaderboardSketch fromDocument(@NonNull Document document) {
+        List<Double> means = document.getList("means", Double.class);
+        List<Double> weights = document.getList("weights", Double.class);
+
+        LeaderboardSketch sketch = new LeaderboardSketch();
+        sketch.means = new double[means.size()];
+        sketch.weights = new double[weights.size()];
+        for (int i = 0; i < means.size(); i++) {
+            sketch.means[i] = means.get(i);
+            sketch.weights[i] = weights.get(i);
+            sketch.weight += weights.get(i);
+        }
+
+        sketch.min = document.getDouble("min");
+        sketch.max = document.getDouble("max");
+        sketch.negativeInfinite = document.get("negative_infinite", Number.class).longValue();
+        sketch.positiveInfinite = document.get("positive_infinite", Number.class).longValue();
+        return sketch;
+    }
+
+    /**
+     * Merge the buffered values into the centroids, combining neighbouring centroids as far as the scale function
+     * allows
+     */
+    private void merge() {
+        if (this.buffered == 0) {
+            return;
+        }
+
+        Arrays.sort(this.buffer, 0, this.buffered);
+
+        // Merge the sorted buffer with the sorted centroids
+        int size = this.means.length + this.buffered;
+        double[] means = new double[size];
+        double[] weights = new double[size];
+        for (int i = 0, c = 0, b = 0; i < size; i++) {
+            if (b >= this.buffered || (c < this.means.length && this.means[c] <= this.buffer[b])) {
+                means[i] = this.means[c];
+                weights[i] = this.weights[c++];
+            } else {
+                means[i] = this.buffer[b++];
+                weights[i] = 1;
+            }
+        }
+
+        double total = this.weight + this.buffered;
+        this.buffered = 0;
+
+        // Sweep over the merged centroids, growing each as long as it fits the maximum size at both of its edges
+        int count = 0;
+        double sofar = 0;
+
+        for (int i = 1; i < size; i++) {
+            double combined = weights[count] + weights[i];
+            double limit = total * Math.min(maximumSize(sofar / total), maximumSize((sofar + combined) / total));
+
+            if (combined <= limit) {
+                means[count] += (means[i] - means[count]) * weights[i] / combined;
+                weights[count] = combined;
+            } else {
+                sofar += weights[count];
+
+                count++;
+                means[count] = means[i];
+                weights[count] = weights[i];
+            }
+        }
+
+        this.means = Arrays.copyOf(means, count + 1);
+        this.weights = Arrays.copyOf(weights, count + 1);
+        this.weight = total;
+    }
+
+    /**
+     * @return The estimated fraction of the finite values less than or equal to the value
+     */
+    private double finiteCdf(double value) {
+        int n = this.means.length;
+        if (n == 0 || value < this.min) {
+            return 0;
+        }
+
+        if (value >= this.max) {
+            return 1;
+        }
+
+        // Interpolate between the centers of the centroids, and the extremes at either end
+        double center = this.weights[0] / 2;
+        if (value < this.means[0]) {
+            return interpolate(value, this.min, this.means[0], 0, center) / this.weight;
+        }
+
+        for (int i = 0; i < n - 1; i++) {
+            double next = center + (this.weights[i] + this.weights[i + 1]) / 2;
+            if (value < this.means[i + 1]) {
+                return interpolate(value, this.means[i], this.means[i + 1], center, next) / this.weight;
+            }
+            center = next;
+        }
+
+        return interpolate(value, this.means[n - 1], this.max, center, this.weight) / this.weight;
+    }
+
+    /**
+     * @return The estimated finite value with the given number of finite values below it
+     */
+    private double finiteQuantile(double rank) {
+        int n = this.means.length;
+
+        double center = this.weights[0] / 2;
+        if (rank < center) {
+            return interpolate(rank, 0, center, this.min, this.means[0]);
+        }
+
+        for (int i = 0; i < n - 1; i++) {
+            double next = center + (this.weights[i] + this.weights[i + 1]) / 2;
+            if (rank < next) {
+                return interpolate(rank, center, next, this.means[i], this.means[i + 1]);
+            }
+            center = next;
+        }
+
+        return interpolate(rank, center, this.weight, this.means[n - 1], this.max);
+    }
+
+    /**
+     * Linearly map x from [x0, x1] to [y0, y1]
+     */
+    private static double interpolate(double x, double x0, double x1, double y0, double y1) {
+        return x1 > x0 ? y0 + (y1 - y0) * (x - x0) / (x1 - x0) : (y0 + y1) / 2;
+    }
+
+    /**
+     * The maximum size of a centroid at a quantile, as a fraction of the total weight. This is the reciprocal of the
+     * derivative of the k1 scale function of the t-digest, so centroids shrink to single values at either end.
+     */
+    private static double maximumSize(double quantile) {
+        return 2 * Math.PI * Math.sqrt(Math.max(0, quantile * (1 - quantile))) / COMPRESSION;
+    }
+}
@@ -21,7 +21,10 @@ import dev.dewy.nbt.Nbt;
 import dev.dewy.nbt.tags.collection.CompoundTag;
 import io.nadeshiko.nadeshiko.BaseBuilder;
 import io.nadeshiko.nadeshiko.Nadeshiko;
+import io.nadeshiko.nadeshiko.util.ExecutorUtil;
 import io.nadeshiko.nadeshiko.util.HTTPUtil;
+import io.nadeshiko.nadeshiko.util.OverloadedException;
+import io.nadeshiko.nadeshiko.util.RateLimitedException;
 import io.nadeshiko.nadeshiko.util.hypixel.SkyBlockUtil;
 import io.nadeshiko.networth.item.Item;
 import lombok.NonNull;
@@ -30,6 +33,7 @@ import java.io.ByteArrayInputStream;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.zip.GZIPInputStream;
 
 /**
@@ -156,6 +160,8 @@ public class SkyBlockBuilder extends BaseBuilder {
 				Nadeshiko.logger.error("Failed to request SkyBlock profiles for {}", uuid);
 				return new JsonArray();
 			}
+		} catch (RateLimitedException e) {
+			throw e; // Surface as a 503, rather than as a player without profiles
 		} catch (Exception e) {
             Nadeshiko.logger.error("Failed to fetch SkyBlock profiles for {}", uuid, e);
 			return new JsonArray();
@@ -255,7 +261,10 @@ public class SkyBlockBuilder extends BaseBuilder {
 
 		// Add networth
 		try {
-			profile.add("networth", Nadeshiko.INSTANCE.getNetworthCalculator().calculatePlayer(profile, uuid).serialize());
+			profile.add("networth", ExecutorUtil.callOn(Nadeshiko.INSTANCE.getNetworthPool(),
+				() -> Nadeshiko.INSTANCE.getNetworthCalculator().calculatePlayer(profile, uuid).serialize()));
+		} catch (RejectedExecutionException e) {
+			throw new OverloadedException("networth"); // Surface as a 503, rather than as a profile without networth
 		} catch (Exception e) {
 			Nadeshiko.logger.error("Failed to calculate networth for {}!", uuid, e);
 		}
@@ -16,10 +16,10 @@ package io.nadeshiko.nadeshiko.skyblock;
 import com.google.gson.JsonObject;
 import io.nadeshiko.nadeshiko.api.StatsController;
 import io.nadeshiko.nadeshiko.stats.StatsBuilder;
-import io.nadeshiko.nadeshiko.util.Cache;
-import lombok.Getter;
+import io.nadeshiko.nadeshiko.util.JsonCache;
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
+
+import java.time.Duration;
 
 /**
  * Simple cache implementation to save API responses for five minutes before invalidating them.
@@ -36,7 +36,11 @@ import lombok.RequiredArgsConstructor;
  * @see SkyBlockBuilder
  * @author chloe
  */
-public class SkyBlockCache extends Cache<String, SkyBlockCache.CacheEntry> {
+public class SkyBlockCache extends JsonCache {
+
+	public SkyBlockCache() {
+		super("skyblock", 500, 128L * 1024 * 1024, Duration.ofMinutes(5), Duration.ofMinutes(30));
+	}
 
 	/**
 	 * The Builder instance used to generate responses
@@ -48,63 +52,42 @@ public class SkyBlockCache extends Cache<String, SkyBlockCache.CacheEntry> {
 	 * Gets the response for the provided player.
 	 * <p>
 	 *
-	 * If the player is already in the cache, return the cached version. If the player is not in the cache, or
-	 * the cached response is over five minutes old, generate a new response, update the cache, and return
-	 * that instead.
+	 * If the player is already in the cache, return the cached version. If the cached response is over five minutes
+	 * old, it is still returned, but refreshed in the background. If the player is not in the cache, or the cached
+	 * response has expired, generate a new response, update the cache, and return that instead.
 	 *
 	 * @param name The name of the player to look up
 	 * @param profile The optional profile ID to use. If none is provided, the player's current profile is used.
 	 * @return The response for the given player
 	 */
 	public JsonObject get(@NonNull String name, String profile) {
-
-		// Take this opportunity to remove all outdated cache entries to save memory
-		this.cache.entrySet().removeIf(entry -> entry.getValue().isExpired());
+		final String key = name.toLowerCase() + "/" + profile; // names are case-insensitive
 
 		// If the player/profile combo is already in the cache, and the cache isn't outdated, use that instead
-		if (this.cache.containsKey(name.toLowerCase() + "/" + profile)) { // names are case-insensitive
-			return this.cache.get(name.toLowerCase() + "/" + profile).data;
-		}
-
-		// The player either isn't in the cache, or the cache is outdated. Build a new response
-		final JsonObject data = this.builder.build(name, profile);
-
-		// Only cache the response if it was successful
-		if (data.get("success").getAsBoolean()) {
-			this.cache.put(data.get("name").getAsString().toLowerCase() + "/" + profile, new CacheEntry(data));
+		final JsonObject cached = this.lookup(key, () -> this.build(name, profile));
+		if (cached != null) {
+			return cached;
 		}
 
-		return data;
+		// The player either isn't in the cache, or the cache is outdated. Build a new response, sharing it with any
+		// concurrent requests for the same player/profile combo
+		return this.load(key, () -> this.build(name, profile));
 	}
 
 	/**
-	 * An entry within the cache, mapped to in {@link SkyBlockCache#cache} using player names as keys. Stores the time
-	 * the entry was generated at, along with the data itself.
+	 * Build a new response for the provided player, caching it if it was successful
+	 * @param name The name of the player to look up
+	 * @param profile The optional profile ID to use
+	 * @return The response for the given player
 	 */
-	@Getter
-	@RequiredArgsConstructor
-	public static class CacheEntry {
-
-		/**
-		 * The time at which this cache entry was generated
-		 */
-		private final long cacheTime = System.currentTimeMillis();
-
-		private final JsonObject data;
+	private JsonObject build(@NonNull String name, String profile) {
+		final JsonObject data = this.builder.build(name, profile);
 
-		/**
-		 * Gets the time at which this cache entry expires - five minutes after it was created
-		 * @return The timestamp five minutes after this cache was created
-		 */
-		public long getExpiryTime() {
-			return this.cacheTime + (5 * 60 * 1000);
+		// Only cache the response if it was successful
+		if (data.get("success").getAsBoolean()) {
+			this.put(data.get("name").getAsString().toLowerCase() + "/" + profile, data);
 		}
 
-		/**
-		 * @return Whether this cache entry should be considered outdated
-		 */
-		public boolean isExpired() {
-			return this.getExpiryTime() <= System.currentTimeMillis();
-		}
+		return data;
 	}
 }
@@ -19,16 +19,26 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import io.nadeshiko.nadeshiko.BaseBuilder;
 import io.nadeshiko.nadeshiko.Nadeshiko;
+import io.nadeshiko.nadeshiko.util.ExecutorUtil;
 import io.nadeshiko.nadeshiko.util.HTTPUtil;
 import io.nadeshiko.nadeshiko.util.MinecraftColors;
+import io.nadeshiko.nadeshiko.util.RateLimitGovernor;
+import io.nadeshiko.nadeshiko.util.RateLimitedException;
 import io.nadeshiko.nadeshiko.util.hypixel.GuildLevel;
 import lombok.NonNull;
 
-import java.util.concurrent.Executors;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * @author chloe
@@ -36,6 +46,39 @@ import java.util.concurrent.locks.ReentrantLock;
  */
 public class GuildBuilder extends BaseBuilder {
 
+    /**
+     * The total time a guild response may spend resolving its members. Members that aren't resolved by then are left
+     * out, and the response is marked as partial. Their lookups keep running, so a retry picks them up from the cache.
+     */
+    private static final Duration MEMBER_DEADLINE = Duration.ofSeconds(20);
+
+    /**
+     * The longest a guild response waits for the next member to resolve. Once no member resolves for this long, the
+     * remaining lookups are most likely waiting on the rate limit, so the members resolved so far are returned rather
+     * than waiting out the whole deadline.
+     */
+    private static final Duration MEMBER_IDLE_TIMEOUT = Duration.ofSeconds(3);
+
+    /**
+     * The pool resolving guild members, shared by all guilds so that a few large guilds can't flood the Hypixel API
+     * with hundreds of concurrent lookups
+     */
+    private final ThreadPoolExecutor memberExecutor = new ThreadPoolExecutor(16, 16, 30, TimeUnit.SECONDS,
+        new ArrayBlockingQueue<>(2000), ExecutorUtil.newThreadFactory("guild-member"));
+
+    /**
+     * Counters reported in the member resolution statistics
+     */
+    private final LongAdder membersCached = new LongAdder();
+    private final LongAdder membersResolved = new LongAdder();
+    private final LongAdder membersFailed = new LongAdder();
+    private final LongAdder membersRejected = new LongAdder();
+    private final LongAdder membersTimedOut = new LongAdder();
+
+    public GuildBuilder() {
+        this.memberExecutor.allowCoreThreadTimeOut(true);
+    }
+
     public JsonObject buildFromName(@NonNull String name) {
         return this.build(this.fetchGuildFromName(name));
     }
@@ -88,35 +131,138 @@ public class GuildBuilder extends BaseBuilder {
         response.add("achievements", guildData.getAsJsonObject("achievements"));
         response.add("ranks", guildData.getAsJsonArray("ranks"));
 
-        JsonArray members = new JsonArray();
+        this.addMembers(response, guildData.getAsJsonArray("members"));
+
+        return response;
+    }
 
-        ThreadPoolExecutor service = (ThreadPoolExecutor) Executors.newCachedThreadPool();
-        Lock lock = new ReentrantLock();
+    /**
+     * Resolve the badge and profile of every member of a guild, and add the members to the response. Members already
+     * in the member cache are resolved right away, and the rest are looked up on the shared member pool.
+     * @param response The guild response to add the members to
+     * @param rawMembers The members array of the guild, as returned by the Hypixel API
+     */
+    private void addMembers(@NonNull JsonObject response, @NonNull JsonArray rawMembers) {
+        final long deadline = System.nanoTime() + MEMBER_DEADLINE.toNanos();
+        final List<JsonObject> players = new ArrayList<>();
+        final List<CompletableFuture<MemberCache.MemberSummary>> lookups = new ArrayList<>();
+
+        for (JsonElement rawPlayer : rawMembers) {
+            final JsonObject player = rawPlayer.getAsJsonObject();
+            final String uuid = player.get("uuid").getAsString();
+            players.add(player);
+
+            // Skip the lookup entirely for members that are already cached
+            final MemberCache.MemberSummary cached = Nadeshiko.INSTANCE.getMemberCache().getCached(uuid);
+            if (cached != null) {
+                this.membersCached.increment();
+                lookups.add(CompletableFuture.completedFuture(cached));
+                continue;
+            }
 
-        for (JsonElement rawPlayer : guildData.getAsJsonArray("members")) {
-            service.submit(() -> {
-                JsonObject player = rawPlayer.getAsJsonObject();
-                JsonObject playerStats = Nadeshiko.INSTANCE.getStatsCache().get(player.get("uuid").getAsString(), false);
+            try {
+                // Member lookups must not eat into the budget reserved for interactive requests
+                lookups.add(CompletableFuture.supplyAsync(() -> RateLimitGovernor.withPriority(
+                    RateLimitGovernor.Priority.BACKGROUND,
+                    () -> Nadeshiko.INSTANCE.getMemberCache().get(uuid)), this.memberExecutor));
+            } catch (RejectedExecutionException e) {
+                this.membersRejected.increment();
+                lookups.add(CompletableFuture.completedFuture(null));
+            }
+        }
 
-                lock.lock(); // Prevent multiple writes to the members array at once
-                player.addProperty("badge", playerStats.get("badge").getAsString());
-                player.add("profile", playerStats.getAsJsonObject("profile"));
-                members.add(player);
-                lock.unlock();
-            });
+        // Wait for the lookups, but no longer than the deadline, nor for long after the last one completed
+        final Semaphore completed = new Semaphore(0);
+        int pending = 0;
+        for (CompletableFuture<MemberCache.MemberSummary> lookup : lookups) {
+            if (!lookup.isDone()) {
+                pending++;
+                lookup.whenComplete((summary, throwable) -> completed.release());
+            }
         }
 
         try {
-            service.shutdown();
-            if (!service.awaitTermination(30, TimeUnit.SECONDS)) {
-                return error("Timed out", 500);
+            while (pending > 0) {
+                final long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    Nadeshiko.logger.warn("Timed out resolving members of guild {}, returning partial results",
+                        response.get("name").getAsString());
+                    break;
+                }
+
+                if (!completed.tryAcquire(Math.min(remaining, MEMBER_IDLE_TIMEOUT.toNanos()), TimeUnit.NANOSECONDS)) {
+                    Nadeshiko.logger.warn("Members of guild {} stopped resolving, returning partial results",
+                        response.get("name").getAsString());
+                    break;
+                }
+
+                pending--;
             }
-            response.add("members", members);
-        } catch (Exception e) {
-            return error("Internal threading error", 500);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
 
-        return response;
+        // Add the resolved members, in their original order
+        final JsonArray members = new JsonArray();
+        int unresolved = 0;
+
+        for (int i = 0; i < players.size(); i++) {
+            final MemberCache.MemberSummary summary = this.getResolved(lookups.get(i));
+
+            if (summary == null) {
+                unresolved++;
+                continue;
+            }
+
+            final JsonObject player = players.get(i);
+            player.addProperty("badge", summary.badge());
+            player.add("profile", summary.toProfile());
+            members.add(player);
+        }
+
+        response.add("members", members);
+        response.addProperty("partial", unresolved > 0);
+        response.addProperty("unresolved_members", unresolved);
+    }
+
+    /**
+     * @param lookup The lookup of a member
+     * @return The member's summary, or {@code null} if the lookup failed or hasn't completed yet
+     */
+    private MemberCache.MemberSummary getResolved(@NonNull CompletableFuture<MemberCache.MemberSummary> lookup) {
+        if (!lookup.isDone()) {
+            this.membersTimedOut.increment();
+            return null;
+        }
+
+        try {
+            final MemberCache.MemberSummary summary = lookup.join();
+
+            if (summary != null) {
+                this.membersResolved.increment();
+                return summary;
+            }
+        } catch (CompletionException | CancellationException e) {
+            // Counted as a failure below
+        }
+
+        this.membersFailed.increment();
+        return null;
+    }
+
+    /**
+     * @return The state and counters of the member pool, as a JsonObject
+     */
+    public JsonObject getMemberStatistics() {
+        final JsonObject statistics = new JsonObject();
+        statistics.addProperty("active", this.memberExecutor.getActiveCount());
+        statistics.addProperty("queued", this.memberExecutor.getQueue().size());
+        statistics.addProperty("cached", this.membersCached.sum());
+        statistics.addProperty("resolved", this.membersResolved.sum());
+        statistics.addProperty("failed", this.membersFailed.sum());
+        statistics.addProperty("rejected", this.membersRejected.sum());
+        statistics.addProperty("timed_out", this.membersTimedOut.sum());
+        return statistics;
     }
 
     /**
@@ -139,6 +285,8 @@ public class GuildBuilder extends BaseBuilder {
 
             return jsonResponse.getAsJsonObject("guild");
 
+        } catch (RateLimitedException e) {
+            throw e; // Surface as a 503, rather than as a missing guild
         } catch (Exception e) {
             Nadeshiko.logger.error("Encountered error while looking up Hypixel guild \"{}\"", name, e);
             Nadeshiko.INSTANCE.getDiscordMonitor().alertException(e,
@@ -169,6 +317,8 @@ public class GuildBuilder extends BaseBuilder {
 
             return jsonResponse.getAsJsonObject("guild");
 
+        } catch (RateLimitedException e) {
+            throw e; // Surface as a 503, rather than as a missing guild
         } catch (Exception e) {
             Nadeshiko.logger.error("Encountered error while looking up {}'s Hypixel guild", player, e);
             Nadeshiko.INSTANCE.getDiscordMonitor().alertException(e,
@@ -176,5 +326,4 @@ public class GuildBuilder extends BaseBuilder {
 
             return null;
         }
-    }
-}
+    }}
@@ -15,10 +15,10 @@ package io.nadeshiko.nadeshiko.stats;
 
 import com.google.gson.JsonObject;
 import io.nadeshiko.nadeshiko.api.GuildController;
-import io.nadeshiko.nadeshiko.util.Cache;
-import lombok.Getter;
+import io.nadeshiko.nadeshiko.util.JsonCache;
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
+
+import java.time.Duration;
 
 /**
  * Simple cache implementation to save API responses for an hour before invalidating them.
@@ -37,7 +37,11 @@ import lombok.RequiredArgsConstructor;
  * @since 0.6.0
  * @author chloe
  */
-public class GuildCache extends Cache<String, GuildCache.CacheEntry> {
+public class GuildCache extends JsonCache {
+
+    public GuildCache() {
+        super("guilds", 1000, 64L * 1024 * 1024, Duration.ofHours(1), Duration.ofHours(6));
+    }
 
     /**
      * The Builder instance used to generate responses
@@ -49,95 +53,100 @@ public class GuildCache extends Cache<String, GuildCache.CacheEntry> {
      * Gets the response for the provided guild by name.
      * <p>
      *
-     * If the guild is already in the cache, return the cached version. If the player is not in the cache, or the
-     * cached response is over an hour old, generate a new response, update the cache, and return that instead.
+     * If the guild is already in the cache, return the cached version. If the cached response is over an hour old,
+     * it is still returned, but refreshed in the background. If the guild is not in the cache, or the cached
+     * response has expired, generate a new response, update the cache, and return that instead.
      *
      * @param name The name of the guild to look up
      * @return The response for the given player
      */
     public JsonObject getByName(@NonNull String name) {
 
-        // Take this opportunity to remove all outdated cache entries to save memory
-        this.cache.entrySet().removeIf(entry -> entry.getValue().isExpired());
-
         // If the guild is already in the cache, and the cache isn't outdated, use that instead
-        if (this.cache.containsKey(name)) {
-            return this.cache.get(name).data;
+        final JsonObject cached = this.lookup(name, () -> this.buildFromName(name));
+        if (cached != null) {
+            return cached;
         }
 
-        // The guild either isn't in the cache, or the cache is outdated. Build a new response
-        final JsonObject data = this.builder.buildFromName(name);
-
-        // Only cache the response if it was successful
-        if (data.get("success").getAsBoolean()) {
-            this.cache.put(name, new GuildCache.CacheEntry(data));
-        }
-
-        return data;
+        // The guild either isn't in the cache, or the cache is outdated. Build a new response, sharing it with any
+        // concurrent requests for the same guild
+        return this.load(name, () -> this.buildFromName(name));
     }
 
     /**
      * Gets the response for the provided guild by a member's UUID.
      * <p>
      *
-     * If the guild is already in the cache, return the cached version. If the player is not in the cache, or the
-     * cached response is over an hour old, generate a new response, update the cache, and return that instead.
+     * If the guild is already in the cache, return the cached version. If the cached response is over an hour old,
+     * it is still returned, but refreshed in the background. If the guild is not in the cache, or the cached
+     * response has expired, generate a new response, update the cache, and return that instead.
      *
      * @param player The UUID of the player to look up
      * @return The response for the given player
      */
     public JsonObject getByPlayer(@NonNull String player) {
 
-        // Take this opportunity to remove all outdated cache entries to save memory
-        this.cache.entrySet().removeIf(entry -> entry.getValue().isExpired());
-
         // Get guild
         JsonObject guild = this.builder.fetchGuildFromPlayer(player);
 
         // If the guild is already in the cache, and the cache isn't outdated, use that instead
-        if (guild != null && this.cache.containsKey(guild.get("name").getAsString())) {
-            return this.cache.get(guild.get("name").getAsString()).data;
+        if (guild != null) {
+            final String name = guild.get("name").getAsString();
+            final JsonObject cached = this.lookup(name, () -> this.buildFromName(name));
+            if (cached != null) {
+                return cached;
+            }
         }
 
-        // The guild either isn't in the cache, or the cache is outdated. Build a new response
-        final JsonObject data = this.builder.buildFromPlayer(player);
+        // The guild either isn't in the cache, or the cache is outdated. Build a new response, sharing it with any
+        // concurrent requests for the same guild
+        return this.load(guild != null ? guild.get("name").getAsString() : player, () -> {
+            final JsonObject data = this.builder.buildFromPlayer(player);
+
+            // Only cache the response if it was successful
+            if (guild != null && data.get("success").getAsBoolean()) {
+                this.store(guild.get("name").getAsString(), data);
+            }
+
+            return data;
+        });
+    }
+
+    /**
+     * Build a new response for the provided guild by name, caching it if it was successful
+     * @param name The name of the guild to look up
+     * @return The response for the given guild
+     */
+    private JsonObject buildFromName(@NonNull String name) {
+        final JsonObject data = this.builder.buildFromName(name);
 
         // Only cache the response if it was successful
-        if (guild != null && data.get("success").getAsBoolean()) {
-            this.cache.put(guild.get("name").getAsString(), new GuildCache.CacheEntry(data));
+        if (data.get("success").getAsBoolean()) {
+            this.store(name, data);
         }
 
         return data;
     }
 
     /**
-     * An entry within the cache, mapped to in {@link StatsCache#cache} using player names as keys. Stores the time
-     * the entry was generated at, along with the data itself.
+     * Cache a successful response. Partial responses, missing members that couldn't be resolved in time, are only
+     * kept briefly, so that the missing members are filled in once their lookups complete.
+     * @param name The name of the guild
+     * @param data The response to cache
      */
-    @Getter
-    @RequiredArgsConstructor
-    public static class CacheEntry {
-
-        /**
-         * The time at which this cache entry was generated
-         */
-        private final long cacheTime = System.currentTimeMillis();
-
-        private final JsonObject data;
-
-        /**
-         * Gets the time at which this cache entry expires - one hour after it was created
-         * @return The timestamp one hour after this cache was created
-         */
-        public long getExpiryTime() {
-            return this.cacheTime + (60 * 60 * 1000);
+    private void store(@NonNull String name, @NonNull JsonObject data) {
+        if (data.has("partial") && data.get("partial").getAsBoolean()) {
+            this.put(name, data, Duration.ofMinutes(1));
+        } else {
+            this.put(name, data);
         }
+    }
 
-        /**
-         * @return Whether this cache entry should be considered outdated
-         */
-        public boolean isExpired() {
-            return this.getExpiryTime() <= System.currentTimeMillis();
-        }
+    /**
+     * @return The state and counters of the guild member pool, as a JsonObject
+     * @see GuildBuilder#getMemberStatistics()
+     */
+    public JsonObject getMemberStatistics() {
+        return this.builder.getMemberStatistics();
     }
 }
@@ -0,0 +1,181 @@
+/*
+ * This file is a part of the Nadeshiko project. Nadeshiko is free software, licensed under the MIT license.
+ *
+ * Usage of these works (including, yet not limited to, reuse, modification, copying, distribution, and selling) is
+ * permitted, provided that the relevant copyright notice and permission notice (as specified in LICENSE) shall be
+ * included in all copies or substantial portions of this software.
+ *
+ * These works are provided "AS IS" with absolutely no warranty of any kind, either expressed or implied.
+ *
+ * You should have received a copy of the MIT License alongside this software; refer to LICENSE for information.
+ * If not, refer to https://mit-license.org.
+ */
+
+package io.nadeshiko.nadeshiko.stats;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.nadeshiko.nadeshiko.Nadeshiko;
+import io.nadeshiko.nadeshiko.util.Cache;
+import lombok.NonNull;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Cache of the few details of a player shown on guild rosters, keyed by UUID.
+ * <p>
+ *
+ * Rosters only need each member's badge, tagged name and network level, so rather than keeping each member's full
+ * stats response around, this cache keeps a small {@link MemberSummary} for a long time. Summaries are taken from
+ * full stats responses whenever those are built, and are otherwise built from the member's Hypixel stats alone.
+ * Stale summaries are still served, and refreshed in the background.
+ *
+ * @see GuildBuilder
+ * @author chloe
+ */
+public class MemberCache extends Cache<String, MemberCache.MemberSummary> {
+
+	public MemberCache() {
+		super("members", 50000, 16L * 1024 * 1024, Duration.ofHours(6), Duration.ofDays(3));
+	}
+
+	/**
+	 * Gets the summary of the provided player, building it if needed
+	 * @param uuid The UUID of the player to look up, with or without dashes
+	 * @return The summary of the given player, or {@code null} if the player couldn't be found
+	 */
+	public MemberSummary get(@NonNull String uuid) {
+		final MemberSummary cached = this.getCached(uuid);
+		if (cached != null) {
+			return cached;
+		}
+
+		final String key = normalize(uuid);
+		return this.coalesce(key, () -> this.build(key));
+	}
+
+	/**
+	 * Gets the summary of the provided player, if there is one. Never builds a new summary, though stale summaries
+	 * are refreshed in the background.
+	 * @param uuid The UUID of the player to look up, with or without dashes
+	 * @return The summary of the given player, or {@code null} if the player isn't in the cache
+	 */
+	public MemberSummary getCached(@NonNull String uuid) {
+		final String key = normalize(uuid);
+		final Entry<MemberSummary> entry = this.getEntry(key);
+
+		if (entry == null) {
+			return null;
+		}
+
+		if (entry.isStale(System.currentTimeMillis())) {
+			this.refresh(key, () -> this.build(key));
+		}
+
+		return entry.getValue();
+	}
+
+	/**
+	 * Update the summary of a player from a freshly built stats response
+	 * @param data The stats response of the player
+	 */
+	public void update(@NonNull JsonObject data) {
+		final MemberSummary summary = MemberSummary.fromResponse(data);
+
+		if (summary != null) {
+			this.put(normalize(data.get("uuid").getAsString()), summary);
+		}
+	}
+
+	/**
+	 * Build the summary of a player from their stats, preferring a cached stats response over fetching new stats
+	 * @param key The normalized UUID of the player
+	 * @return The summary of the given player, or {@code null} if the player couldn't be found
+	 */
+	private MemberSummary build(@NonNull String key) {
+		final MemberSummary summary = MemberSummary.fromResponse(Nadeshiko.INSTANCE.getStatsCache().getMember(key));
+
+		if (summary != null) {
+			this.put(key, summary);
+		}
+
+		return summary;
+	}
+
+	@Override
+	protected String serializeKey(@NonNull String key) {
+		return key;
+	}
+
+	@Override
+	protected String deserializeKey(@NonNull String key) {
+		return key;
+	}
+
+	@Override
+	protected byte[] serialize(@NonNull MemberSummary value) {
+		final JsonObject object = new JsonObject();
+		object.addProperty("badge", value.badge());
+		object.addProperty("tagged_name", value.taggedName());
+		object.addProperty("network_level", value.networkLevel());
+		return object.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Override
+	protected MemberSummary deserialize(byte @NonNull [] bytes) {
+		final JsonObject object = JsonParser.parseString(new String(bytes, StandardCharsets.UTF_8)).getAsJsonObject();
+		return new MemberSummary(object.get("badge").getAsString(), object.get("tagged_name").getAsString(),
+			object.get("network_level").getAsDouble());
+	}
+
+	/**
+	 * Weigh summaries by the rough size of their strings in memory, plus a fixed overhead for the objects
+	 */
+	@Override
+	protected long weigh(@NonNull MemberSummary value) {
+		return 96 + 2L * (value.badge().length() + value.taggedName().length());
+	}
+
+	/**
+	 * @param uuid The UUID of a player, with or without dashes
+	 * @return The UUID without dashes, in lower case
+	 */
+	private static String normalize(@NonNull String uuid) {
+		return uuid.replace("-", "").toLowerCase();
+	}
+
+	/**
+	 * The details of a player shown on guild rosters
+	 * @param badge The player's nadeshiko badge, or {@code NONE}
+	 * @param taggedName The player's name, prefixed with their rank tag
+	 * @param networkLevel The player's exact network level
+	 */
+	public record MemberSummary(String badge, String taggedName, double networkLevel) {
+
+		/**
+		 * @param data A stats response
+		 * @return The summary of the player in the response, or {@code null} if the response wasn't successful
+		 */
+		private static MemberSummary fromResponse(JsonObject data) {
+			if (data == null || !data.get("success").getAsBoolean() || !data.has("profile")
+				|| !data.get("profile").isJsonObject()) {
+				return null;
+			}
+
+			final JsonObject profile = data.getAsJsonObject("profile");
+			return new MemberSummary(data.get("badge").getAsString(), profile.get("tagged_name").getAsString(),
+				profile.get("network_level").getAsDouble());
+		}
+
+		/**
+		 * @return The profile of the player, as shown on guild rosters
+		 */
+		public JsonObject toProfile() {
+			final JsonObject profile = new JsonObject();
+			profile.addProperty("tagged_name", this.taggedName);
+			profile.addProperty("network_level", this.networkLevel);
+			return profile;
+		}
+	}
+}
@@ -15,11 +15,10 @@ package io.nadeshiko.nadeshiko.stats;
 
 import com.google.gson.*;
 import io.nadeshiko.nadeshiko.BaseBuilder;
-import io.nadeshiko.nadeshiko.Nadeshiko;
-import io.nadeshiko.nadeshiko.util.HTTPUtil;
 import lombok.NonNull;
 
-import java.util.Base64;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * @since 0.0.1
@@ -27,6 +26,12 @@ import java.util.Base64;
  */
 public class StatsBuilder extends BaseBuilder {
 
+	/**
+	 * The total time a response may spend waiting on its upstream lookups. All lookups run concurrently once the
+	 * UUID is known, so this bounds the slowest of them rather than their sum.
+	 */
+	private static final Duration FETCH_DEADLINE = Duration.ofSeconds(20);
+
 	public JsonObject build(@NonNull String name, boolean full) {
 
 		// Update the badges cache if needed
@@ -60,9 +65,27 @@ public class StatsBuilder extends BaseBuilder {
 			response.addProperty("badge", "NONE");
 		}
 
+		final String uuid = playerData.get("id").getAsString();
+		final long deadline = System.nanoTime() + FETCH_DEADLINE.toNanos();
+
+		// Everything below only depends on the UUID, so fire off all lookups at once
+		CompletableFuture<JsonObject> texturesFuture = null;
+		CompletableFuture<String> capeFuture = null;
+		CompletableFuture<JsonObject> statusFuture = null;
+		CompletableFuture<JsonObject> guildFuture = null;
+
+		if (full) {
+			texturesFuture = this.fetchTexturesAsync(uuid);
+			capeFuture = this.fetchCapeAsync(response.get("name").getAsString(), texturesFuture);
+			statusFuture = this.fetchHypixelStatusAsync(uuid);
+			guildFuture = this.fetchHypixelGuildAsync(uuid);
+		}
+
+		final CompletableFuture<JsonObject> statsFuture = this.fetchHypixelStatsAsync(uuid);
+
 		if (full) {
 
-			textures = this.fetchTextures(playerData.get("id").getAsString());
+			textures = this.await(texturesFuture, deadline, null, "textures of " + uuid);
 
 			// Add the skin and model
 			if (textures != null && textures.has("SKIN")) {
@@ -84,77 +107,101 @@ public class StatsBuilder extends BaseBuilder {
 			}
 
 			// Add cape
-			try {
-				// Try OF first
-				HTTPUtil.RawResponse ofResponse = HTTPUtil.getRaw("http://s.optifine.net/capes/" +
-					response.get("name").getAsString() + ".png");
-
-				// Check if the cape exists
-				if (ofResponse.status() == 200) {
-					response.addProperty("cape", Base64.getEncoder().encodeToString(ofResponse.response()));
-				}
-
-				// Add vanilla cape, if it exists
-				else if (textures != null && textures.has("CAPE")) {
-					final JsonObject capeObject = textures.getAsJsonObject("CAPE");
-
-					if (capeObject.has("url")) {
-						HTTPUtil.RawResponse mojangResponse = HTTPUtil.getRaw(capeObject.get("url").getAsString());
-						response.addProperty("cape", Base64.getEncoder().encodeToString(mojangResponse.response()));
-					}
-				}
-
-				// Final fallback
-				else {
-					response.addProperty("cape", "");
-				}
-			} catch (Exception e) {
-				Nadeshiko.logger.error("Encountered error while looking up cape for {}",
-					response.get("name").getAsString(), e);
-				Nadeshiko.INSTANCE.getDiscordMonitor().alertException(e,
-					"Encountered error while looking up cape for %s", response.get("name").getAsString());
+			final String cape = this.await(capeFuture, deadline, null, "cape of " + uuid);
+			if (cape != null) {
+				response.addProperty("cape", cape);
 			}
 
 			// Add the Hypixel status
-			final JsonObject hypixelStatus = this.fetchHypixelStatus(response.get("uuid").getAsString());
+			final JsonObject hypixelStatus = this.await(statusFuture, deadline, new JsonObject(), "status of " + uuid);
 			response.add("status", hypixelStatus);
 
 			// Add the Hypixel guild
-			final JsonObject hypixelGuild = this.fetchHypixelGuild(response.get("uuid").getAsString());
+			final JsonObject hypixelGuild = this.await(guildFuture, deadline, null, "guild of " + uuid);
 			response.add("guild", hypixelGuild);
 		}
 
 		// Add the Hypixel stats and achievements
-		final JsonObject hypixelStats = this.fetchHypixelStats(response.get("uuid").getAsString());
+		final JsonObject hypixelStats = this.await(statsFuture, deadline, null, "stats of " + uuid);
 		if (hypixelStats != null) { // Null if the player has no stats (never logged in)
-			response.add("profile", this.buildHypixelProfile(hypixelStats));
+			this.addHypixelStats(response, hypixelStats);
+		}
 
-			// Some staff members have their stats disabled
-			if (hypixelStats.has("stats")) {
-				response.add("stats", hypixelStats.get("stats").getAsJsonObject());
-			} else {
-				response.add("stats", new JsonObject()); // Fallback if stats are off/missing
-			}
+		return response;
+	}
 
-			if (hypixelStats.has("achievements")) {
-				response.add("achievements", hypixelStats.get("achievements").getAsJsonObject());
-			} else {
-				response.add("achievements", new JsonObject()); // Fallback if achievements are missing
-			}
+	/**
+	 * Build a response for a player whose UUID is already known, from their Hypixel stats alone. PlayerDB is
+	 * skipped, so the name is taken from Hypixel, and the response never includes textures, status or guild.
+	 * <p>
+	 * Used to resolve guild members, where the UUID comes from the guild itself.
+	 *
+	 * @param uuid The UUID of the player to look up, with or without dashes
+	 * @return The response for the given player
+	 */
+	public JsonObject buildLite(@NonNull String uuid) {
 
-			if (hypixelStats.has("achievementsOneTime")) {
-				response.add("achievements_one_time", hypixelStats.get("achievementsOneTime").getAsJsonArray());
-			} else {
-				response.add("achievements_one_time", new JsonArray()); // Fallback if achievements are missing
-			}
+		// Update the badges cache if needed
+		this.updateBadges();
 
-			if (hypixelStats.has("quests")) {
-				response.add("quests", hypixelStats.get("quests").getAsJsonObject());
-			} else {
-				response.add("quests", new JsonObject()); // Fallback if quests are missing
-			}
+		final String dashedUuid = toDashedUuid(uuid);
+		final long deadline = System.nanoTime() + FETCH_DEADLINE.toNanos();
+		final JsonObject hypixelStats = this.await(this.fetchHypixelStatsAsync(dashedUuid), deadline, null,
+			"stats of " + dashedUuid);
+
+		// Without PlayerDB, the Hypixel stats are the only source of the player's name
+		if (hypixelStats == null || !hypixelStats.has("displayname")) {
+			return error("No Hypixel player by the UUID \"" + uuid + "\" could be found.", 404);
+		}
+
+		JsonObject response = new JsonObject();
+		response.addProperty("success", true);
+		response.addProperty("name", hypixelStats.get("displayname").getAsString());
+		response.addProperty("uuid", dashedUuid);
+
+		// Add badge
+		if (playerBadges.has(dashedUuid)) {
+			response.addProperty("badge", playerBadges.get(dashedUuid).getAsString());
+		} else {
+			response.addProperty("badge", "NONE");
 		}
 
+		this.addHypixelStats(response, hypixelStats);
+
 		return response;
 	}
+
+	/**
+	 * Add the profile, stats, achievements and quests of a player to a response
+	 * @param response The response to add to
+	 * @param hypixelStats The player's object as returned by the /player endpoint of the Hypixel API
+	 */
+	private void addHypixelStats(@NonNull JsonObject response, @NonNull JsonObject hypixelStats) {
+		response.add("profile", this.buildHypixelProfile(hypixelStats));
+
+		// Some staff members have their stats disabled
+		if (hypixelStats.has("stats")) {
+			response.add("stats", hypixelStats.get("stats").getAsJsonObject());
+		} else {
+			response.add("stats", new JsonObject()); // Fallback if stats are off/missing
+		}
+
+		if (hypixelStats.has("achievements")) {
+			response.add("achievements", hypixelStats.get("achievements").getAsJsonObject());
+		} else {
+			response.add("achievements", new JsonObject()); // Fallback if achievements are missing
+		}
+
+		if (hypixelStats.has("achievementsOneTime")) {
+			response.add("achievements_one_time", hypixelStats.get("achievementsOneTime").getAsJsonArray());
+		} else {
+			response.add("achievements_one_time", new JsonArray()); // Fallback if achievements are missing
+		}
+
+		if (hypixelStats.has("quests")) {
+			response.add("quests", hypixelStats.get("quests").getAsJsonObject());
+		} else {
+			response.add("quests", new JsonObject()); // Fallback if quests are missing
+		}
+	}
 }
@@ -16,10 +16,11 @@ package io.nadeshiko.nadeshiko.stats;
 import com.google.gson.JsonObject;
 import io.nadeshiko.nadeshiko.Nadeshiko;
 import io.nadeshiko.nadeshiko.api.StatsController;
-import io.nadeshiko.nadeshiko.util.Cache;
-import lombok.Getter;
+import io.nadeshiko.nadeshiko.util.JsonCache;
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
+
+import java.time.Duration;
+import java.util.regex.Pattern;
 
 /**
  * Simple cache implementation to save API responses for five minutes before invalidating them.
@@ -36,7 +37,11 @@ import lombok.RequiredArgsConstructor;
  * @see StatsBuilder
  * @author chloe
  */
-public class StatsCache extends Cache<String, StatsCache.CacheEntry> {
+public class StatsCache extends JsonCache {
+
+	public StatsCache() {
+		super("stats", 2000, 128L * 1024 * 1024, Duration.ofMinutes(5), Duration.ofMinutes(30));
+	}
 
 	/**
 	 * The Builder instance used to generate responses
@@ -44,13 +49,19 @@ public class StatsCache extends Cache<String, StatsCache.CacheEntry> {
 	 */
 	private final StatsBuilder builder = new StatsBuilder();
 
+	/**
+	 * Matches UUIDs, with or without dashes
+	 */
+	private static final Pattern UUID_PATTERN =
+		Pattern.compile("[0-9a-fA-F]{8}-?[0-9a-fA-F]{4}-?[0-9a-fA-F]{4}-?[0-9a-fA-F]{4}-?[0-9a-fA-F]{12}");
+
 	/**
 	 * Gets the response for the provided player.
 	 * <p>
 	 *
-	 * If the player is already in the cache, return the cached version. If the player is not in the cache, or
-	 * the cached response is over five minutes old, generate a new response, update the cache, and return
-	 * that instead.
+	 * If the player is already in the cache, return the cached version. If the cached response is over five minutes
+	 * old, it is still returned, but refreshed in the background. If the player is not in the cache, or the cached
+	 * response has expired, generate a new response, update the cache, and return that instead.
 	 *
 	 * @param name The name of the player to look up
 	 * @param full Whether the response should include extra information on the player's status and guild. This is
@@ -58,59 +69,116 @@ public class StatsCache extends Cache<String, StatsCache.CacheEntry> {
 	 * @return The response for the given player
 	 */
 	public JsonObject get(@NonNull String name, boolean full) {
+		final String key = this.resolveKey(name);
+
+		// If the player is already in the cache, and the cache isn't outdated, use that instead. Only full responses
+		// are cached, so a stale response is always refreshed with a full one.
+		final JsonObject cached = this.lookup(key, () -> this.build(name, true));
+		if (cached != null) {
+			return cached;
+		}
+
+		// The player either isn't in the cache, or the cache is outdated. Build a new response, sharing it with any
+		// concurrent requests for the same player. Full and lite responses differ, so they are built separately.
+		return this.load(key + (full ? "" : "/lite"), () -> this.build(name, full));
+	}
 
-		// Take this opportunity to remove all outdated cache entries to save memory
-		this.cache.entrySet().removeIf(entry -> entry.getValue().isExpired());
+	/**
+	 * Gets the cached response for the provided player by UUID, if there is one. Never builds a new response.
+	 * @param uuid The UUID of the player to look up, with or without dashes
+	 * @return The cached response for the given player, or {@code null} if the player isn't in the cache
+	 */
+	public JsonObject getCached(@NonNull String uuid) {
+		final JsonObject alias = this.getIfPresent(aliasKey(uuid));
+		if (alias == null) {
+			return null;
+		}
+
+		final String name = alias.get("alias").getAsString();
+		return this.lookup(name, () -> this.build(name, true));
+	}
 
-		// If the player is already in the cache, and the cache isn't outdated, use that instead
-		if (this.cache.containsKey(name.toLowerCase())) { // names are case-insensitive
-			return this.cache.get(name.toLowerCase()).data;
+	/**
+	 * Gets the response for the provided guild member, containing at least their name, badge and profile. Uses the
+	 * cached response if there is one, and otherwise builds a response from their Hypixel stats alone, skipping
+	 * PlayerDB since the UUID is already known. Such responses aren't cached here, as only their summary is kept.
+	 *
+	 * @see MemberCache
+	 * @param uuid The UUID of the player to look up, with or without dashes
+	 * @return The response for the given player
+	 */
+	public JsonObject getMember(@NonNull String uuid) {
+		final JsonObject cached = this.getCached(uuid);
+		if (cached != null) {
+			return cached;
 		}
 
-		// The player either isn't in the cache, or the cache is outdated. Build a new response
+		return this.load(aliasKey(uuid) + "/member", () -> {
+			final JsonObject data = this.builder.buildLite(uuid);
+			this.saveToLeaderboards(data);
+			return data;
+		});
+	}
+
+	/**
+	 * Build a new response for the provided player, caching it if appropriate
+	 * @param name The name of the player to look up
+	 * @param full Whether the response should include extra information on the player's status and guild
+	 * @return The response for the given player
+	 */
+	private JsonObject build(@NonNull String name, boolean full) {
 		final JsonObject data = this.builder.build(name, full);
 
-		// Only cache the response if it was successful, and it was a full request
+		// Only cache the response if it was successful, and it was a full request. Responses are cached by name, and
+		// aliased by UUID so that they can also be found by UUID.
 		if (full && data.get("success").getAsBoolean()) {
-			this.cache.put(data.get("name").getAsString().toLowerCase(), new CacheEntry(data));
-		}
+			final String key = data.get("name").getAsString().toLowerCase();
+			final JsonObject alias = new JsonObject();
+			alias.addProperty("alias", key);
 
-		// Save the player data into the leaderboard database
-		if (data.get("success").getAsBoolean() && data.has("profile")) {
-			new Thread(() -> Nadeshiko.INSTANCE.getLeaderboardService().insertPlayer(data.deepCopy())).start();
+			this.put(key, data);
+			this.put(aliasKey(data.get("uuid").getAsString()), alias);
+
+			// Keep the player's guild roster summary up to date for free
+			Nadeshiko.INSTANCE.getMemberCache().update(data);
 		}
 
+		this.saveToLeaderboards(data);
+
 		return data;
 	}
 
 	/**
-	 * An entry within the cache, mapped to in {@link StatsCache#cache} using player names as keys. Stores the time
-	 * the entry was generated at, along with the data itself.
+	 * Queue the player data of a successful response to be saved into the leaderboard database
+	 * @param data The response to save
 	 */
-	@Getter
-	@RequiredArgsConstructor
-	public static class CacheEntry {
-
-		/**
-		 * The time at which this cache entry was generated
-		 */
-		private final long cacheTime = System.currentTimeMillis();
-
-		private final JsonObject data;
-
-		/**
-		 * Gets the time at which this cache entry expires - five minutes after it was created
-		 * @return The timestamp five minutes after this cache was created
-		 */
-		public long getExpiryTime() {
-			return this.cacheTime + (5 * 60 * 1000);
+	private void saveToLeaderboards(@NonNull JsonObject data) {
+		if (data.get("success").getAsBoolean() && data.has("profile")) {
+			Nadeshiko.INSTANCE.getLeaderboardService().insertPlayer(data);
 		}
+	}
 
-		/**
-		 * @return Whether this cache entry should be considered outdated
-		 */
-		public boolean isExpired() {
-			return this.getExpiryTime() <= System.currentTimeMillis();
+	/**
+	 * @param name The name or UUID of a player, as requested
+	 * @return The key the player's response is cached under
+	 */
+	private String resolveKey(@NonNull String name) {
+		if (UUID_PATTERN.matcher(name).matches()) {
+			final JsonObject alias = this.getIfPresent(aliasKey(name));
+
+			if (alias != null) {
+				return alias.get("alias").getAsString();
+			}
 		}
+
+		return name.toLowerCase(); // names are case-insensitive
+	}
+
+	/**
+	 * @param uuid The UUID of a player, with or without dashes
+	 * @return The key of the alias from the player's UUID to the key their response is cached under
+	 */
+	private static String aliasKey(@NonNull String uuid) {
+		return "uuid:" + uuid.replace("-", "").toLowerCase();
 	}
 }
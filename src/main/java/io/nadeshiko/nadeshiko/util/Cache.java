@@ -13,10 +13,47 @@
 
 package io.nadeshiko.nadeshiko.util;
 
-import java.util.HashMap;
+import com.google.gson.JsonObject;
+import io.nadeshiko.nadeshiko.Nadeshiko;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
- * An abstract cache
+ * An abstract, thread-safe cache, bounded by both entry count and total weight.
+ * <p>
+ * Entries are kept in least-recently-used order, and the least recently used entries are evicted first once either
+ * bound is exceeded. Every entry carries its own expiry time. Expired entries are dropped lazily: either when they
+ * are looked up, or when they reach the least recently used end of the cache during a write. Neither requires a scan
+ * over the whole cache, so every operation is O(1).
+ * <p>
+ * Entries have two times to live. Past the soft time to live an entry is stale: it is still served, but should be
+ * refreshed in the background through {@link #refresh(Object, Callable)}. Past the hard time to live it is expired, and
+ * no longer served at all. Both, along with the bounds of the cache, can be overridden in config.json.
+ * <p>
+ * A cache can be backed by a persistent {@link CacheStore}, which every entry is written through to, and which is
+ * read from on misses. Subclasses define how their keys and values are serialized for the store.
+ * <p>
+ * Concurrent misses on the same key can be coalesced through {@link #coalesce(Object, Callable)}, so that only one
+ * of them builds the value while the others wait for and share its result.
+ *
  * @param <K> The type of keys used to cache objects
  * @param <V> The type of objects being cached
  * @author chloe
@@ -24,7 +61,594 @@ import java.util.HashMap;
 public abstract class Cache<K, V> {
 
 	/**
-	 * The cache itself, using type {@code K} as keys and type {@code V} as values
+	 * The name of this cache, as reported in its statistics
+	 */
+	@Getter
+	private final String name;
+
+	/**
+	 * The executor shared by all caches to refresh stale entries. Bounded, so that a burst of stale hits can never
+	 * pile up refreshes - any refresh that doesn't fit is dropped, and simply retried by the next stale hit.
+	 */
+	private static final ThreadPoolExecutor REFRESH_EXECUTOR = new ThreadPoolExecutor(4, 4, 30, TimeUnit.SECONDS,
+		new ArrayBlockingQueue<>(64), ExecutorUtil.newThreadFactory("cache-refresh"), new ThreadPoolExecutor.DiscardPolicy());
+
+	static {
+		REFRESH_EXECUTOR.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * The maximum number of entries this cache holds before evicting
+	 */
+	private volatile long maximumSize;
+
+	/**
+	 * The maximum total weight, as determined by {@link #weigh(Object)}, this cache holds before evicting
+	 */
+	private volatile long maximumWeight;
+
+	/**
+	 * The time after which entries that are put without an explicit time to live become stale
+	 */
+	@Getter(AccessLevel.PROTECTED)
+	private volatile Duration softTtl;
+
+	/**
+	 * The time after which entries that are put without an explicit time to live expire
+	 */
+	@Getter(AccessLevel.PROTECTED)
+	private volatile Duration hardTtl;
+
+	/**
+	 * The cache itself, in access order, using type {@code K} as keys. Guarded by {@link #lock}.
+	 */
+	private final LinkedHashMap<K, Entry<V>> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+	/**
+	 * Guards {@link #cache} and {@link #weight}. Access-ordered maps reorder on reads, so reads need the lock too.
+	 */
+	private final ReentrantLock lock = new ReentrantLock();
+
+	/**
+	 * The total weight of all entries currently in the cache. Guarded by {@link #lock}.
+	 */
+	private long weight = 0;
+
+	/**
+	 * The persistent store backing this cache, if any
+	 */
+	private volatile CacheStore store;
+
+	/**
+	 * Values currently being built, keyed by the key passed to {@link #coalesce(Object, Callable)}
+	 */
+	private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+	/**
+	 * Counters reported in this cache's statistics
+	 */
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	private final LongAdder expirations = new LongAdder();
+	private final LongAdder coalesced = new LongAdder();
+	private final LongAdder staleHits = new LongAdder();
+	private final LongAdder refreshes = new LongAdder();
+	private final LongAdder storeHits = new LongAdder();
+
+	/**
+	 * Create a new cache
+	 * @param name The name of this cache, as reported in its statistics, and as configured in config.json
+	 * @param maximumSize The default maximum number of entries to hold before evicting
+	 * @param maximumWeight The default maximum total weight to hold before evicting
+	 * @param softTtl The default time after which entries become stale
+	 * @param hardTtl The default time after which entries expire
 	 */
-	protected final HashMap<K, V> cache = new HashMap<>();
-}
+	protected Cache(@NonNull String name, long maximumSize, long maximumWeight, @NonNull Duration softTtl,
+	                @NonNull Duration hardTtl) {
+		this.name = name;
+		this.maximumSize = maximumSize;
+		this.maximumWeight = maximumWeight;
+		this.softTtl = softTtl;
+		this.hardTtl = hardTtl;
+	}
+
+	/**
+	 * Reads the section of the {@code cache} configuration named after this cache, if present. Example:
+	 * <pre>{@code
+	 * "cache": {
+	 *     "stats": { "soft_ttl": 300, "hard_ttl": 1800, "maximum_size": 2000, "maximum_weight": 134217728 }
+	 * }
+	 * }</pre>
+	 * Times to live are in seconds. Any value that is missing keeps its default. Only affects entries put afterwards.
+	 *
+	 * @param config The whole configuration, as loaded from config.json
+	 */
+	public void configure(@NonNull Map<?, ?> config) {
+		Map<?, ?> cacheConfig = (Map<?, ?>) config.get("cache");
+		Map<?, ?> section = cacheConfig != null ? (Map<?, ?>) cacheConfig.get(this.name) : null;
+
+		if (section == null) {
+			return; // Keep the defaults
+		}
+
+		if (section.get("soft_ttl") != null) {
+			this.softTtl = Duration.ofMillis((long) ((double) section.get("soft_ttl") * 1000));
+		}
+		if (section.get("hard_ttl") != null) {
+			this.hardTtl = Duration.ofMillis((long) ((double) section.get("hard_ttl") * 1000));
+		}
+		if (section.get("maximum_size") != null) {
+			this.maximumSize = (long) ((double) section.get("maximum_size"));
+		}
+		if (section.get("maximum_weight") != null) {
+			this.maximumWeight = (long) ((double) section.get("maximum_weight"));
+		}
+
+		// A soft time to live past the hard one would never be reached
+		if (this.softTtl.compareTo(this.hardTtl) > 0) {
+			Nadeshiko.logger.warn("Soft TTL of cache {} exceeds its hard TTL, capping it", this.name);
+			this.softTtl = this.hardTtl;
+		}
+	}
+
+	/**
+	 * Look up a value in the cache, regardless of whether it is stale
+	 * @param key The key to look up
+	 * @return The cached value, or {@code null} if it is missing or expired
+	 */
+	protected V getIfPresent(@NonNull K key) {
+		Entry<V> entry = this.getEntry(key);
+		return entry != null ? entry.getValue() : null;
+	}
+
+	/**
+	 * Back this cache by a persistent store
+	 * @param store The store to write entries through to, and to read from on misses
+	 */
+	public void attach(@NonNull CacheStore store) {
+		this.store = store;
+	}
+
+	/**
+	 * Load the most recently written entries of the backing store into the cache. Entries already in the cache are
+	 * kept, since they can only be fresher than the stored ones.
+	 * @param limit The maximum number of entries to load
+	 * @return The number of entries loaded
+	 */
+	public int warmUp(int limit) {
+		CacheStore store = this.store;
+		if (store == null) {
+			return 0;
+		}
+
+		// Oldest first, so that the most recently written entries end up as the most recently used
+		List<CacheStore.StoredEntry> stored = store.readRecent(this.name, limit);
+		Collections.reverse(stored);
+
+		int loaded = 0;
+		for (CacheStore.StoredEntry storedEntry : stored) {
+			try {
+				K key = this.deserializeKey(storedEntry.key());
+				V value = this.deserialize(storedEntry.value());
+
+				if (this.insert(key, this.toEntry(value, storedEntry), false)) {
+					loaded++;
+				}
+			} catch (Exception e) {
+				Nadeshiko.logger.warn("Skipping unreadable entry {} of cache {}", storedEntry.key(), this.name, e);
+			}
+		}
+
+		return loaded;
+	}
+
+	/**
+	 * Look up an entry in the cache, regardless of whether it is stale, falling back to the backing store if needed
+	 * @param key The key to look up
+	 * @return The cached entry, or {@code null} if it is missing or expired
+	 */
+	protected Entry<V> getEntry(@NonNull K key) {
+		long now = System.currentTimeMillis();
+		Entry<V> entry = null;
+
+		this.lock.lock();
+		try {
+			entry = this.cache.get(key);
+
+			if (entry != null && entry.isExpired(now)) {
+				this.remove(key, entry);
+				this.expirations.increment();
+				entry = null;
+			}
+		} finally {
+			this.lock.unlock();
+		}
+
+		if (entry != null) {
+			this.hits.increment();
+		} else {
+			this.misses.increment();
+			entry = this.readThrough(key, now);
+		}
+
+		if (entry != null && entry.isStale(now)) {
+			this.staleHits.increment();
+		}
+
+		return entry;
+	}
+
+	/**
+	 * Build a value, unless the same key is already being built by another thread, in which case wait for that build
+	 * and share its result (or its failure) instead. The loader runs on the calling thread, and is responsible for
+	 * putting the value into the cache if it should be cached.
+	 * <p>
+	 * Callers sharing a result share the same instance, so it must not be modified by any of them.
+	 *
+	 * @param key The key identifying the build. This does not have to be the key the value is cached under.
+	 * @param loader The loader used to build the value
+	 * @return The value built by the loader, either on this thread or on the thread that was already building it
+	 */
+	@SneakyThrows
+	protected V coalesce(@NonNull K key, @NonNull Callable<V> loader) {
+		CompletableFuture<V> future = new CompletableFuture<>();
+		CompletableFuture<V> existing = this.inFlight.putIfAbsent(key, future);
+
+		// Someone else is already building this value, wait for them to finish
+		if (existing != null) {
+			this.coalesced.increment();
+
+			try {
+				return existing.join();
+			} catch (CompletionException e) {
+				throw e.getCause();
+			}
+		}
+
+		try {
+			V value = loader.call();
+			future.complete(value);
+			return value;
+		} catch (Throwable t) {
+			future.completeExceptionally(t);
+			throw t;
+		} finally {
+			this.inFlight.remove(key, future);
+		}
+	}
+
+	/**
+	 * Rebuild a value in the background, unless it is already being built. Meant to be called on stale hits, which
+	 * are served right away while the refresh runs. Refreshes are dropped if the refresh executor is saturated.
+	 *
+	 * @param key The key identifying the build, as passed to {@link #coalesce(Object, Callable)}
+	 * @param loader The loader used to build the value, which is responsible for putting it into the cache
+	 */
+	protected void refresh(@NonNull K key, @NonNull Callable<V> loader) {
+		if (this.inFlight.containsKey(key)) {
+			return;
+		}
+
+		REFRESH_EXECUTOR.execute(() -> {
+			try {
+				this.refreshes.increment();
+
+				// Refreshes must not eat into the budget reserved for interactive requests
+				RateLimitGovernor.withPriority(RateLimitGovernor.Priority.BACKGROUND,
+					() -> this.coalesce(key, loader));
+			} catch (RateLimitedException e) {
+				Nadeshiko.logger.debug("Skipped refreshing {} in cache {}, rate limited", key, this.name);
+			} catch (Exception e) {
+				Nadeshiko.logger.warn("Failed to refresh {} in cache {}", key, this.name, e);
+			}
+		});
+	}
+
+	/**
+	 * Cache a value using this cache's default times to live
+	 * @param key The key to cache the value under
+	 * @param value The value to cache
+	 */
+	protected void put(@NonNull K key, @NonNull V value) {
+		this.put(key, value, this.softTtl, this.hardTtl);
+	}
+
+	/**
+	 * Cache a value with its own time to live, without a stale period
+	 * @param key The key to cache the value under
+	 * @param value The value to cache
+	 * @param timeToLive How long the value should be served from the cache for
+	 */
+	protected void put(@NonNull K key, @NonNull V value, @NonNull Duration timeToLive) {
+		this.put(key, value, timeToLive, timeToLive);
+	}
+
+	/**
+	 * Cache a value with its own times to live
+	 * @param key The key to cache the value under
+	 * @param value The value to cache
+	 * @param softTtl How long the value should be served from the cache for before it becomes stale
+	 * @param hardTtl How long the value should be served from the cache for at all
+	 */
+	protected void put(@NonNull K key, @NonNull V value, @NonNull Duration softTtl, @NonNull Duration hardTtl) {
+		long now = System.currentTimeMillis();
+		Entry<V> entry = new Entry<>(value, this.weigh(value), now, now + softTtl.toMillis(),
+			now + hardTtl.toMillis());
+
+		this.insert(key, entry, true);
+
+		// Write the entry through to the backing store, if any. Serialization happens on the store's writer thread.
+		CacheStore store = this.store;
+		if (store != null) {
+			store.write(this.name, this.serializeKey(key), () -> this.serialize(value), entry.cacheTime,
+				entry.staleTime, entry.expiryTime);
+		}
+	}
+
+	/**
+	 * Remove a value from the cache, if present, and from the backing store, if any, so that it isn't read back on the
+	 * next miss
+	 * @param key The key of the value to remove
+	 */
+	protected void invalidate(@NonNull K key) {
+		this.lock.lock();
+		try {
+			Entry<V> entry = this.cache.remove(key);
+
+			if (entry != null) {
+				this.weight -= entry.weight;
+			}
+		} finally {
+			this.lock.unlock();
+		}
+
+		CacheStore store = this.store;
+		if (store != null) {
+			store.delete(this.name, this.serializeKey(key));
+		}
+	}
+
+	/**
+	 * Serialize a key for the backing store
+	 * @param key The key to serialize
+	 * @return The key as a string, unique within this cache
+	 */
+	protected abstract String serializeKey(@NonNull K key);
+
+	/**
+	 * @param key A key as serialized by {@link #serializeKey(Object)}
+	 * @return The deserialized key
+	 */
+	protected abstract K deserializeKey(@NonNull String key);
+
+	/**
+	 * Serialize a value for the backing store
+	 * @param value The value to serialize
+	 * @return The serialized value. The store compresses it, so it doesn't need to be compact.
+	 */
+	protected abstract byte[] serialize(@NonNull V value);
+
+	/**
+	 * @param bytes A value as serialized by {@link #serialize(Object)}
+	 * @return The deserialized value
+	 */
+	protected abstract V deserialize(byte @NonNull [] bytes);
+
+	/**
+	 * Determine the weight of a value, counted against the maximum weight of this cache. Defaults to one per
+	 * entry, making the maximum weight another bound on the number of entries.
+	 * @param value The value to weigh
+	 * @return The weight of the value
+	 */
+	protected long weigh(@NonNull V value) {
+		return 1;
+	}
+
+	/**
+	 * @return The number of entries currently in the cache, including any expired entries not yet dropped
+	 */
+	public int size() {
+		this.lock.lock();
+		try {
+			return this.cache.size();
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * @return The counters and current size of this cache, as a JsonObject
+	 */
+	public JsonObject getStatistics() {
+		JsonObject statistics = new JsonObject();
+
+		this.lock.lock();
+		try {
+			statistics.addProperty("size", this.cache.size());
+			statistics.addProperty("weight", this.weight);
+		} finally {
+			this.lock.unlock();
+		}
+
+		statistics.addProperty("maximum_size", this.maximumSize);
+		statistics.addProperty("maximum_weight", this.maximumWeight);
+		statistics.addProperty("soft_ttl", this.softTtl.toSeconds());
+		statistics.addProperty("hard_ttl", this.hardTtl.toSeconds());
+		statistics.addProperty("hits", this.hits.sum());
+		statistics.addProperty("stale_hits", this.staleHits.sum());
+		statistics.addProperty("misses", this.misses.sum());
+		statistics.addProperty("evictions", this.evictions.sum());
+		statistics.addProperty("expirations", this.expirations.sum());
+		statistics.addProperty("coalesced", this.coalesced.sum());
+		statistics.addProperty("in_flight", this.inFlight.size());
+		statistics.addProperty("refreshes", this.refreshes.sum());
+		statistics.addProperty("store_hits", this.storeHits.sum());
+
+		return statistics;
+	}
+
+	/**
+	 * Fall back to the backing store on a miss, loading the stored entry into the cache if there is one
+	 * @param key The key that missed
+	 * @param now The current time
+	 * @return The stored entry, or {@code null} if there is no backing store, or it doesn't hold the key either
+	 */
+	private Entry<V> readThrough(K key, long now) {
+		CacheStore store = this.store;
+		if (store == null) {
+			return null;
+		}
+
+		CacheStore.StoredEntry stored = store.read(this.name, this.serializeKey(key));
+		if (stored == null || stored.expiresAt() <= now) {
+			return null;
+		}
+
+		try {
+			Entry<V> entry = this.toEntry(this.deserialize(stored.value()), stored);
+			this.insert(key, entry, false); // Don't clobber a fresher entry put in the meantime
+			this.storeHits.increment();
+			return entry;
+		} catch (Exception e) {
+			Nadeshiko.logger.warn("Ignoring unreadable entry {} of cache {}", stored.key(), this.name, e);
+			return null;
+		}
+	}
+
+	/**
+	 * Recreate an entry read from the backing store, keeping its original times
+	 * @param value The deserialized value of the entry
+	 * @param stored The entry as read from the store
+	 * @return The entry
+	 */
+	private Entry<V> toEntry(V value, CacheStore.StoredEntry stored) {
+		return new Entry<>(value, this.weigh(value), stored.cachedAt(), stored.staleAt(), stored.expiresAt());
+	}
+
+	/**
+	 * Insert an entry into the cache, evicting other entries if needed
+	 * @param key The key to insert the entry under
+	 * @param entry The entry to insert
+	 * @param replace Whether to replace an entry that is already present under the same key
+	 * @return Whether the entry was inserted
+	 */
+	private boolean insert(K key, Entry<V> entry, boolean replace) {
+		this.lock.lock();
+		try {
+			if (!replace && this.cache.containsKey(key)) {
+				return false;
+			}
+
+			Entry<V> previous = this.cache.put(key, entry);
+			this.weight += entry.weight;
+
+			if (previous != null) {
+				this.weight -= previous.weight;
+			}
+
+			this.evict(System.currentTimeMillis());
+			return true;
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Drop expired entries from the least recently used end of the cache, and then evict the least recently used
+	 * entries until the cache is back within its bounds. Must be called while holding {@link #lock}.
+	 * @param now The current time
+	 */
+	private void evict(long now) {
+		Iterator<Map.Entry<K, Entry<V>>> iterator = this.cache.entrySet().iterator();
+
+		while (iterator.hasNext()) {
+			Entry<V> eldest = iterator.next().getValue();
+			boolean expired = eldest.isExpired(now);
+
+			if (!expired && this.cache.size() <= this.maximumSize && this.weight <= this.maximumWeight) {
+				break;
+			}
+
+			// Never evict the only entry, even if it alone exceeds the maximum weight
+			if (!expired && this.cache.size() == 1) {
+				break;
+			}
+
+			iterator.remove();
+			this.weight -= eldest.weight;
+
+			if (expired) {
+				this.expirations.increment();
+			} else {
+				this.evictions.increment();
+			}
+		}
+	}
+
+	/**
+	 * Remove an entry from the cache. Must be called while holding {@link #lock}.
+	 * @param key The key of the entry
+	 * @param entry The entry being removed
+	 */
+	private void remove(K key, Entry<V> entry) {
+		this.cache.remove(key);
+		this.weight -= entry.weight;
+	}
+
+	/**
+	 * An entry within the cache. Stores the time the entry was generated at, and the times it becomes stale and
+	 * expires at, along with the data itself.
+	 */
+	@Getter
+	protected static class Entry<V> {
+
+		/**
+		 * The cached value
+		 */
+		private final V value;
+
+		/**
+		 * The weight of the cached value, as determined by {@link Cache#weigh(Object)}
+		 */
+		private final long weight;
+
+		/**
+		 * The time at which this cache entry was generated
+		 */
+		private final long cacheTime;
+
+		/**
+		 * The time at which this cache entry becomes stale
+		 */
+		private final long staleTime;
+
+		/**
+		 * The time at which this cache entry expires
+		 */
+		private final long expiryTime;
+
+		private Entry(V value, long weight, long cacheTime, long staleTime, long expiryTime) {
+			this.value = value;
+			this.weight = weight;
+			this.cacheTime = cacheTime;
+			this.staleTime = staleTime;
+			this.expiryTime = expiryTime;
+		}
+
+		/**
+		 * @param now The current time
+		 * @return Whether this cache entry should be refreshed
+		 */
+		public boolean isStale(long now) {
+			return this.staleTime <= now;
+		}
+
+		/**
+		 * @param now The current time
+		 * @return Whether this cache entry should be considered outdated
+		 */
+		public boolean isExpired(long now) {
+			return this.expiryTime <= now;
+		}
+	}}
@@ -0,0 +1,230 @@
+/*
+ * This file is a part of the Nadeshiko project. Nadeshiko is free software, licensed under the MIT license.
+ *
+ * Usage of these works (including, yet not limited to, reuse, modification, copying, distribution, and selling) is
+ * permitted, provided that the relevant copyright notice and permission notice (as specified in LICENSE) shall be
+ * included in all copies or substantial portions of this software.
+ *
+ * These works are provided "AS IS" with absolutely no warranty of any kind, either expressed or implied.
+ *
+ * You should have received a copy of the MIT License alongside this software; refer to LICENSE for information.
+ * If not, refer to https://mit-license.org.
+ */
+
+package io.nadeshiko.nadeshiko.util;
+
+import com.google.gson.JsonObject;
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.Sorts;
+import lombok.NonNull;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Persistent second-level store below the in-memory {@link Cache}s, so that a restart doesn't start with cold caches.
+ * <p>
+ * Entries are kept gzipped in the "cache" collection of the nadeshiko database, alongside their times to live. A TTL
+ * index has Mongo drop entries once they expire. Writes are write-behind: they are queued and performed by a single
+ * background thread, and dropped if the queue is full, so that a slow database never slows down a request.
+ *
+ * @author chloe
+ */
+public class CacheStore {
+
+	/**
+	 * This store's logger
+	 */
+	private final Logger logger = LoggerFactory.getLogger("Cache Store");
+
+	/**
+	 * The collection holding the entries of all caches
+	 */
+	private final MongoCollection<Document> collection;
+
+	/**
+	 * The single thread performing queued writes
+	 */
+	private final ThreadPoolExecutor writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS,
+		new ArrayBlockingQueue<>(1024), ExecutorUtil.newThreadFactory("cache-store-writer"),
+		new ThreadPoolExecutor.DiscardPolicy());
+
+	/**
+	 * Counters reported in this store's statistics
+	 */
+	private final LongAdder writes = new LongAdder();
+	private final LongAdder failures = new LongAdder();
+
+	/**
+	 * Create a new store in the provided database, creating its indexes if required
+	 * @param database The database to keep the entries in
+	 */
+	public CacheStore(@NonNull MongoDatabase database) {
+		this.collection = database.getCollection("cache");
+
+		this.collection.createIndex(Indexes.ascending("expires_at"),
+			new IndexOptions().expireAfter(0L, TimeUnit.SECONDS));
+		this.collection.createIndex(Indexes.compoundIndex(Indexes.ascending("cache"),
+			Indexes.descending("written_at")));
+	}
+
+	/**
+	 * Queue an entry to be written to the store, replacing any previous entry under the same key
+	 * @param cache The name of the cache the entry belongs to
+	 * @param key The key of the entry
+	 * @param value Supplies the serialized value of the entry. Only called on the writer thread.
+	 * @param cachedAt The time at which the entry was generated
+	 * @param staleAt The time at which the entry becomes stale
+	 * @param expiresAt The time at which the entry expires
+	 */
+	public void write(@NonNull String cache, @NonNull String key, @NonNull Supplier<byte[]> value, long cachedAt,
+	                  long staleAt, long expiresAt) {
+		this.writer.execute(() -> {
+			try {
+				Document document = new Document("_id", cache + "/" + key)
+					.append("cache", cache)
+					.append("key", key)
+					.append("value", new Binary(GzipUtil.compress(value.get())))
+					.append("cached_at", cachedAt)
+					.append("stale_at", staleAt)
+					.append("expires_at", new Date(expiresAt))
+					.append("written_at", System.currentTimeMillis());
+
+				this.collection.replaceOne(Filters.eq("_id", document.get("_id")), document,
+					new ReplaceOptions().upsert(true));
+				this.writes.increment();
+			} catch (MongoException | IOException e) {
+				this.failures.increment();
+				this.logger.warn("Failed to write {}/{} to the cache store", cache, key, e);
+			}
+		});
+	}
+
+	/**
+	 * Queue an entry to be deleted from the store. Deletes are queued behind the writes already queued, so an earlier
+	 * write of the same key can't bring the entry back.
+	 * @param cache The name of the cache the entry belongs to
+	 * @param key The key of the entry
+	 */
+	public void delete(@NonNull String cache, @NonNull String key) {
+		this.writer.execute(() -> {
+			try {
+				this.collection.deleteOne(Filters.eq("_id", cache + "/" + key));
+			} catch (MongoException e) {
+				this.failures.increment();
+				this.logger.warn("Failed to delete {}/{} from the cache store", cache, key, e);
+			}
+		});
+	}
+
+	/**
+	 * Read an entry from the store
+	 * @param cache The name of the cache the entry belongs to
+	 * @param key The key of the entry
+	 * @return The entry, or {@code null} if it is missing, expired, or couldn't be read
+	 */
+	public StoredEntry read(@NonNull String cache, @NonNull String key) {
+		try {
+			Document document = this.collection.find(Filters.eq("_id", cache + "/" + key)).first();
+			return document != null ? this.toEntry(document) : null;
+		} catch (MongoException | IOException e) {
+			this.failures.increment();
+			this.logger.warn("Failed to read {}/{} from the cache store", cache, key, e);
+			return null;
+		}
+	}
+
+	/**
+	 * Read the most recently written entries of a cache that haven't expired yet
+	 * @param cache The name of the cache to read the entries of
+	 * @param limit The maximum number of entries to read
+	 * @return The entries, most recently written first
+	 */
+	public List<StoredEntry> readRecent(@NonNull String cache, int limit) {
+		List<StoredEntry> entries = new ArrayList<>();
+
+		try {
+			for (Document document : this.collection
+				.find(Filters.and(Filters.eq("cache", cache), Filters.gt("expires_at", new Date())))
+				.sort(Sorts.descending("written_at"))
+				.limit(limit)) {
+
+				entries.add(this.toEntry(document));
+			}
+		} catch (MongoException | IOException e) {
+			this.failures.increment();
+			this.logger.warn("Failed to read recent entries of {} from the cache store", cache, e);
+		}
+
+		return entries;
+	}
+
+	/**
+	 * @return The number of writes performed and failed, and the number of writes queued
+	 */
+	public JsonObject getStatistics() {
+		JsonObject statistics = new JsonObject();
+		statistics.addProperty("writes", this.writes.sum());
+		statistics.addProperty("failures", this.failures.sum());
+		statistics.addProperty("queued", this.writer.getQueue().size());
+		return statistics;
+	}
+
+	/**
+	 * Called on server shutdown - give queued writes a few seconds to finish
+	 */
+	public void close() {
+		this.writer.shutdown();
+
+		try {
+			if (!this.writer.awaitTermination(5, TimeUnit.SECONDS)) {
+				this.logger.warn("Dropping {} queued cache store writes", this.writer.getQueue().size());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Parse a stored document back into an entry
+	 * @param document The document to parse
+	 * @return The entry
+	 * @throws IOException If the value couldn't be decompressed
+	 */
+	private StoredEntry toEntry(Document document) throws IOException {
+		return new StoredEntry(
+			document.getString("key"),
+			GzipUtil.decompress(document.get("value", Binary.class).getData()),
+			document.getLong("cached_at"),
+			document.getLong("stale_at"),
+			document.getDate("expires_at").getTime());
+	}
+
+	/**
+	 * Record representation of an entry read from the store
+	 * @param key The key of the entry
+	 * @param value The serialized value of the entry
+	 * @param cachedAt The time at which the entry was generated
+	 * @param staleAt The time at which the entry becomes stale
+	 * @param expiresAt The time at which the entry expires
+	 */
+	public record StoredEntry(String key, byte[] value, long cachedAt, long staleAt, long expiresAt) {
+	}
+}
@@ -0,0 +1,100 @@
+/*
+ * This file is a part of the Nadeshiko project. Nadeshiko is free software, licensed under the MIT license.
+ *
+ * Usage of these works (including, yet not limited to, reuse, modification, copying, distribution, and selling) is
+ * permitted, provided that the relevant copyright notice and permission notice (as specified in LICENSE) shall be
+ * included in all copies or substantial portions of this software.
+ *
+ * These works are provided "AS IS" with absolutely no warranty of any kind, either expressed or implied.
+ *
+ * You should have received a copy of the MIT License alongside this software; refer to LICENSE for information.
+ * If not, refer to https://mit-license.org.
+ */
+
+package io.nadeshiko.nadeshiko.util;
+
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import lombok.experimental.UtilityClass;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Utility class for the fixed worker pools that isolate CPU-heavy work from request threads, and for the daemon threads
+ * of background work
+ *
+ * @author chloe
+ */
+@UtilityClass
+public class ExecutorUtil {
+
+	/**
+	 * Create a fixed pool of daemon platform threads
+	 * @param name The name of the pool, used to name its threads
+	 * @param threads The number of threads in the pool
+	 * @return The pool
+	 */
+	public ExecutorService newFixedPool(@NonNull String name, int threads) {
+		return Executors.newFixedThreadPool(threads, newThreadFactory(name));
+	}
+
+	/**
+	 * Create a fixed pool of daemon platform threads with a bounded queue. Tasks submitted while the queue is full are
+	 * rejected with a {@link RejectedExecutionException}, rather than waiting behind more work than the pool can
+	 * finish in reasonable time.
+	 * @param name The name of the pool, used to name its threads
+	 * @param threads The number of threads in the pool
+	 * @param maximumQueue The maximum number of tasks waiting for a thread
+	 * @return The pool
+	 */
+	public ThreadPoolExecutor newBoundedPool(@NonNull String name, int threads, int maximumQueue) {
+		return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+			new ArrayBlockingQueue<>(maximumQueue), newThreadFactory(name));
+	}
+
+	/**
+	 * @param name The name of the pool, used to name its threads
+	 * @return A factory of daemon platform threads, numbered from 1, so that they never hold up a shutdown
+	 */
+	public ThreadFactory newThreadFactory(@NonNull String name) {
+		AtomicInteger count = new AtomicInteger();
+
+		return runnable -> {
+			Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+
+	/**
+	 * Run a task on a pool, blocking the calling thread until it completes. Failures of the task are rethrown as-is,
+	 * as is the {@link RejectedExecutionException} of a pool refusing the task.
+	 * @param executor The pool to run the task on
+	 * @param task The task to run
+	 * @return The result of the task
+	 */
+	@SneakyThrows
+	public <T> T callOn(@NonNull ExecutorService executor, @NonNull Callable<T> task) {
+		Future<T> future = executor.submit(task);
+
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw e;
+		} catch (ExecutionException e) {
+			throw e.getCause();
+		}
+	}
+}
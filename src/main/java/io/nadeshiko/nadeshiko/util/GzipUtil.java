@@ -0,0 +1,58 @@
+/*
+ * This file is a part of the Nadeshiko project. Nadeshiko is free software, licensed under the MIT license.
+ *
+ * Usage of these works (including, yet not limited to, reuse, modification, copying, distribution, and selling) is
+ * permitted, provided that the relevant copyright notice and permission notice (as specified in LICENSE) shall be
+ * included in all copies or substantial portions of this software.
+ *
+ * These works are provided "AS IS" with absolutely no warranty of any kind, either expressed or implied.
+ *
+ * You should have received a copy of the MIT License alongside this software; refer to LICENSE for information.
+ * If not, refer to https://mit-license.org.
+ */
+
+package io.nadeshiko.nadeshiko.util;
+
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Utility class for the gzipped blobs kept in Mongo, such as cache store entries and leaderboard snapshots
+ *
+ * @author chloe
+ */
+@UtilityClass
+public class GzipUtil {
+
+	/**
+	 * Compress bytes
+	 * @param bytes The bytes to compress
+	 * @return The gzipped bytes
+	 * @throws IOException Never, in practice, as the streams are in memory
+	 */
+	public byte[] compress(byte @NonNull [] bytes) throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream(bytes.length / 4 + 64);
+		try (GZIPOutputStream gzip = new GZIPOutputStream(output)) {
+			gzip.write(bytes);
+		}
+		return output.toByteArray();
+	}
+
+	/**
+	 * Decompress bytes
+	 * @param bytes The gzipped bytes
+	 * @return The decompressed bytes
+	 * @throws IOException If the bytes aren't valid gzip
+	 */
+	public byte[] decompress(byte @NonNull [] bytes) throws IOException {
+		try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+			return gzip.readAllBytes();
+		}
+	}
+}
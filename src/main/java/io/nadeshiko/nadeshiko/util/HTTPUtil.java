@@ -13,21 +13,127 @@
 
 package io.nadeshiko.nadeshiko.util;
 
+import com.google.gson.JsonObject;
 import lombok.NonNull;
 import lombok.experimental.UtilityClass;
 
-import java.io.*;
-import java.net.HttpURLConnection;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
 import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 
 /**
+ * Shared HTTP transport of the backend.
+ * <p>
+ * All requests go through a small set of shared {@link HttpClient}s, which keep connections to each host alive
+ * between requests and multiplex concurrent requests over HTTP/2 where the host supports it. Connect and read
+ * timeouts can be set per host in the {@code http} section of config.json.
+ * <p>
+ * Requests to rate limited hosts (the Hypixel API) first take a token from the host's {@link RateLimitGovernor}, and
+ * fail with a {@link RateLimitedException} if the governor sheds them.
+ *
  * @author chloe
  * @since March 11, 2024
  */
 @UtilityClass
 public class HTTPUtil {
 
+	/**
+	 * Timeouts used for hosts without their own entry in the configuration, if none are configured either
+	 */
+	private final HostSettings FALLBACK_SETTINGS = new HostSettings(Duration.ofSeconds(30), Duration.ofSeconds(30));
+
+	/**
+	 * Timeouts used for hosts without their own entry in the configuration
+	 */
+	private HostSettings defaultSettings = FALLBACK_SETTINGS;
+
+	/**
+	 * Timeouts of specific hosts, keyed by host name
+	 */
+	private final Map<String, HostSettings> hostSettings = new ConcurrentHashMap<>();
+
+	/**
+	 * The shared clients, keyed by their connect timeout. The connect timeout is a property of the client rather than
+	 * of the request, so hosts with different connect timeouts need different clients - each with its own pool.
+	 */
+	private final Map<Duration, HttpClient> clients = new ConcurrentHashMap<>();
+
+	/**
+	 * The governors of rate limited hosts, keyed by host name
+	 */
+	private final Map<String, RateLimitGovernor> governors = Map.of(
+		"api.hypixel.net", new RateLimitGovernor("api.hypixel.net", 300, Duration.ofMinutes(5)));
+
+	/**
+	 * Reads the {@code http} section of the configuration, if present. Example:
+	 * <pre>{@code
+	 * "http": {
+	 *     "connect_timeout": 10,
+	 *     "read_timeout": 30,
+	 *     "hosts": {
+	 *         "api.hypixel.net": { "connect_timeout": 5, "read_timeout": 15 }
+	 *     },
+	 *     "rate_limits": {
+	 *         "api.hypixel.net": { "limit": 300, "reserve": 0.2, "maximum_wait": 10, "maximum_queue": 250 }
+	 *     }
+	 * }
+	 * }</pre>
+	 * All timeouts are in seconds. Any value that is missing falls back to the value one level up.
+	 *
+	 * @param config The whole configuration, as loaded from config.json
+	 */
+	public void configure(@NonNull Map<?, ?> config) {
+		Map<?, ?> httpConfig = (Map<?, ?>) config.get("http");
+
+		if (httpConfig == null) {
+			return; // Keep the fallback timeouts
+		}
+
+		defaultSettings = readSettings(httpConfig, FALLBACK_SETTINGS);
+
+		Map<?, ?> hosts = (Map<?, ?>) httpConfig.get("hosts");
+		if (hosts != null) {
+			for (Map.Entry<?, ?> host : hosts.entrySet()) {
+				hostSettings.put(host.getKey().toString().toLowerCase(),
+					readSettings((Map<?, ?>) host.getValue(), defaultSettings));
+			}
+		}
+
+		Map<?, ?> rateLimits = (Map<?, ?>) httpConfig.get("rate_limits");
+		if (rateLimits != null) {
+			for (Map.Entry<?, ?> host : rateLimits.entrySet()) {
+				RateLimitGovernor governor = governors.get(host.getKey().toString().toLowerCase());
+
+				if (governor != null) {
+					governor.configure((Map<?, ?>) host.getValue());
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return The state of the rate limit governor of each rate limited host, as a JsonObject
+	 */
+	public JsonObject getRateLimitStatistics() {
+		JsonObject statistics = new JsonObject();
+
+		for (RateLimitGovernor governor : governors.values()) {
+			statistics.add(governor.getHost(), governor.getStatistics());
+		}
+
+		return statistics;
+	}
+
 	/**
 	 * Launch a GET request to a given URL
 	 *
@@ -48,40 +154,31 @@ public class HTTPUtil {
 	 * @throws IOException If the request failed for some reason
 	 */
 	public Response get(@NonNull String urlString, Map<String, String> headers) throws IOException {
+		return await(getAsync(urlString, headers));
+	}
 
-		URL url = new URL(urlString);
-		HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-		connection.setRequestMethod("GET");
-		connection.setConnectTimeout(30000);
-		connection.setReadTimeout(30000);
-
-		// Add the headers to the request, if any were provided
-		if (headers != null) {
-			for (Map.Entry<String, String> header : headers.entrySet()) {
-				connection.setRequestProperty(header.getKey(), header.getValue());
-			}
-		}
-
-		// Read the status of the response and pick the appropriate stream to read from
-		int status = connection.getResponseCode();
-		Reader streamReader = new InputStreamReader(
-			status > 299 ? connection.getErrorStream() : connection.getInputStream());
-
-		BufferedReader bufferedReader = new BufferedReader(streamReader);
-
-		// Read the response from the stream
-		String line;
-		StringBuilder content = new StringBuilder();
-		while ((line = bufferedReader.readLine()) != null) {
-			content.append(line);
-		}
-
-		// Close the streams and the connection
-		streamReader.close();
-		bufferedReader.close();
-		connection.disconnect();
+	/**
+	 * Launch a GET request to a given URL without blocking the calling thread
+	 *
+	 * @param urlString The URL to request.
+	 * @return A future completing with a {@link Response} representing the response of the request, or
+	 *         exceptionally with an {@link IOException} if the request failed for some reason
+	 */
+	public CompletableFuture<Response> getAsync(@NonNull String urlString) {
+		return getAsync(urlString, null);
+	}
 
-		return new Response(status, content.toString());
+	/**
+	 * Launch a GET request to a given URL with the provided headers without blocking the calling thread
+	 *
+	 * @param urlString The URL to request.
+	 * @param headers A {@code Map<String, String>} of headers - key and value - to include in the request
+	 * @return A future completing with a {@link Response} representing the response of the request, or
+	 *         exceptionally with an {@link IOException} if the request failed for some reason
+	 */
+	public CompletableFuture<Response> getAsync(@NonNull String urlString, Map<String, String> headers) {
+		return send(urlString, headers, HttpResponse.BodyHandlers.ofString())
+			.thenApply(response -> new Response(response.statusCode(), response.body()));
 	}
 
 	/**
@@ -104,29 +201,186 @@ public class HTTPUtil {
 	 * @throws IOException If the request failed for some reason
 	 */
 	public RawResponse getRaw(@NonNull String urlString, Map<String, String> headers) throws IOException {
+		return await(getRawAsync(urlString, headers));
+	}
 
-		URL url = new URL(urlString);
-		HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-		connection.setRequestMethod("GET");
-		connection.setConnectTimeout(30000);
-		connection.setReadTimeout(30000);
+	/**
+	 * Launch a GET request to a given URL without blocking the calling thread
+	 *
+	 * @param urlString The URL to request.
+	 * @return A future completing with a {@link RawResponse} representing the response of the request, or
+	 *         exceptionally with an {@link IOException} if the request failed for some reason
+	 */
+	public CompletableFuture<RawResponse> getRawAsync(@NonNull String urlString) {
+		return getRawAsync(urlString, null);
+	}
+
+	/**
+	 * Launch a GET request to a given URL with the provided headers without blocking the calling thread
+	 *
+	 * @param urlString The URL to request.
+	 * @param headers A {@code Map<String, String>} of headers - key and value - to include in the request
+	 * @return A future completing with a {@link RawResponse} representing the response of the request, or
+	 *         exceptionally with an {@link IOException} if the request failed for some reason
+	 */
+	public CompletableFuture<RawResponse> getRawAsync(@NonNull String urlString, Map<String, String> headers) {
+		return send(urlString, headers, HttpResponse.BodyHandlers.ofByteArray())
+			.thenApply(response -> new RawResponse(response.statusCode(), response.body()));
+	}
+
+	/**
+	 * Send a GET request through the shared client appropriate for the host of the URL
+	 *
+	 * @param urlString The URL to request
+	 * @param headers The headers to include in the request, or {@code null}
+	 * @param bodyHandler The handler used to read the body of the response
+	 * @return A future completing with the response
+	 */
+	private <T> CompletableFuture<HttpResponse<T>> send(String urlString, Map<String, String> headers,
+	                                                    HttpResponse.BodyHandler<T> bodyHandler) {
+		URI uri;
+		try {
+			uri = toUri(urlString);
+		} catch (IOException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+
+		HostSettings settings = getSettings(uri.getHost());
+		HttpRequest.Builder request = HttpRequest.newBuilder(uri).GET().timeout(settings.readTimeout());
+
+		// Plain HTTP hosts (such as OptiFine) rarely handle an h2c upgrade gracefully, so stick to HTTP/1.1 there
+		if ("http".equalsIgnoreCase(uri.getScheme())) {
+			request.version(HttpClient.Version.HTTP_1_1);
+		}
 
 		// Add the headers to the request, if any were provided
 		if (headers != null) {
 			for (Map.Entry<String, String> header : headers.entrySet()) {
-				connection.setRequestProperty(header.getKey(), header.getValue());
+				request.header(header.getKey(), header.getValue());
 			}
 		}
 
-		// Read the status of the response and pick the appropriate stream to read from
-		int status = connection.getResponseCode();
-		InputStream inputStream = status > 299 ? connection.getErrorStream() : connection.getInputStream();
-		byte[] data = inputStream.readAllBytes();
+		HttpClient client = getClient(settings.connectTimeout());
+		RateLimitGovernor governor = uri.getHost() != null ? governors.get(uri.getHost().toLowerCase()) : null;
+
+		if (governor == null) {
+			return client.sendAsync(request.build(), bodyHandler);
+		}
+
+		// Take a token before sending, and keep the governor in sync with the budget reported by the host
+		return governor.acquire(RateLimitGovernor.getPriority())
+			.thenCompose(ignored -> client.sendAsync(request.build(), bodyHandler))
+			.thenApply(response -> {
+				governor.update(response.headers(), response.statusCode());
 
-		// Close the connection
-		connection.disconnect();
+				// A refused request has no data in its body, so fail it like a shed one rather than have it parsed
+				if (response.statusCode() == 429) {
+					throw governor.refused();
+				}
+
+				return response;
+			});
+	}
 
-		return new RawResponse(status, data);
+	/**
+	 * Parse a URL string into a {@link URI}, quoting any characters that are not legal in a URI (such as the spaces
+	 * in a guild name passed through as a query parameter)
+	 *
+	 * @param urlString The URL to parse
+	 * @return The parsed URI
+	 * @throws IOException If the URL is malformed beyond repair
+	 */
+	private URI toUri(String urlString) throws IOException {
+		try {
+			return URI.create(urlString);
+		} catch (IllegalArgumentException ignored) {
+			// Fall through and let the multi-argument constructor quote the illegal characters
+		}
+
+		try {
+			URL url = new URL(urlString);
+			return new URI(url.getProtocol(), url.getUserInfo(), url.getHost(), url.getPort(), url.getPath(),
+				url.getQuery(), url.getRef());
+		} catch (URISyntaxException e) {
+			throw new IOException("Malformed URL " + urlString, e);
+		}
+	}
+
+	/**
+	 * @param host The host to look up
+	 * @return The timeouts to use for the provided host
+	 */
+	private HostSettings getSettings(String host) {
+		if (host == null) {
+			return defaultSettings;
+		}
+
+		return hostSettings.getOrDefault(host.toLowerCase(), defaultSettings);
+	}
+
+	/**
+	 * @param connectTimeout The connect timeout of the client
+	 * @return The shared client using the provided connect timeout, creating it if needed
+	 */
+	private HttpClient getClient(Duration connectTimeout) {
+		return clients.computeIfAbsent(connectTimeout, timeout -> HttpClient.newBuilder()
+			.version(HttpClient.Version.HTTP_2)
+			.followRedirects(HttpClient.Redirect.NORMAL)
+			.connectTimeout(timeout)
+			.build());
+	}
+
+	/**
+	 * Block until the provided request completes, unwrapping any failure back into an {@link IOException}
+	 *
+	 * @param future The request to wait on
+	 * @return The response of the request
+	 * @throws IOException If the request failed for some reason
+	 */
+	private <T> T await(CompletableFuture<T> future) throws IOException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for a response");
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException cause) {
+				throw cause;
+			}
+			if (e.getCause() instanceof RateLimitedException cause) {
+				throw cause;
+			}
+			throw new IOException(e.getCause());
+		}
+	}
+
+	/**
+	 * Read a set of timeouts from a section of the configuration
+	 *
+	 * @param section The configuration section to read
+	 * @param parent The timeouts to fall back to for any missing values
+	 * @return The timeouts described by the section
+	 */
+	private HostSettings readSettings(Map<?, ?> section, HostSettings parent) {
+		if (section == null) {
+			return parent;
+		}
+
+		Duration connectTimeout = section.get("connect_timeout") != null ?
+			Duration.ofMillis((long) ((double) section.get("connect_timeout") * 1000)) : parent.connectTimeout();
+		Duration readTimeout = section.get("read_timeout") != null ?
+			Duration.ofMillis((long) ((double) section.get("read_timeout") * 1000)) : parent.readTimeout();
+
+		return new HostSettings(connectTimeout, readTimeout);
+	}
+
+	/**
+	 * Record representation of the timeouts used for a host
+	 * @param connectTimeout The maximum time to wait for a connection to be established
+	 * @param readTimeout The maximum time to wait for a response once the request is sent
+	 */
+	private record HostSettings(Duration connectTimeout, Duration readTimeout) {
 	}
 
 	/**
@@ -0,0 +1,129 @@
+/*
+ * This file is a part of the Nadeshiko project. Nadeshiko is free software, licensed under the MIT license.
+ *
+ * Usage of these works (including, yet not limited to, reuse, modification, copying, distribution, and selling) is
+ * permitted, provided that the relevant copyright notice and permission notice (as specified in LICENSE) shall be
+ * included in all copies or substantial portions of this software.
+ *
+ * These works are provided "AS IS" with absolutely no warranty of any kind, either expressed or implied.
+ *
+ * You should have received a copy of the MIT License alongside this software; refer to LICENSE for information.
+ * If not, refer to https://mit-license.org.
+ */
+
+package io.nadeshiko.nadeshiko.util;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import lombok.NonNull;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * A {@link Cache} of JSON API responses, which are served stale while they are refreshed in the background.
+ * <p>
+ * Successful responses served through this cache are marked with {@code cached_at}, the time at which they were
+ * built, and {@code stale}, whether a newer response is being built.
+ *
+ * @author chloe
+ */
+public abstract class JsonCache extends Cache<String, JsonObject> {
+
+	protected JsonCache(@NonNull String name, long maximumSize, long maximumWeight, @NonNull Duration softTtl,
+	                    @NonNull Duration hardTtl) {
+		super(name, maximumSize, maximumWeight, softTtl, hardTtl);
+	}
+
+	/**
+	 * Look up a response in the cache. If it is stale, it is still returned, and refreshed in the background.
+	 *
+	 * @param key The key to look up, which is also used to identify the refresh
+	 * @param loader The loader used to refresh the response, which is responsible for putting it into the cache
+	 * @return The marked cached response, or {@code null} if it is missing or expired
+	 */
+	protected JsonObject lookup(@NonNull String key, @NonNull Callable<JsonObject> loader) {
+		Entry<JsonObject> entry = this.getEntry(key);
+
+		if (entry == null) {
+			return null;
+		}
+
+		boolean stale = entry.isStale(System.currentTimeMillis());
+		if (stale) {
+			this.refresh(key, loader);
+		}
+
+		return mark(entry.getValue(), entry.getCacheTime(), stale);
+	}
+
+	/**
+	 * Build a response, sharing it with any concurrent builds of the same key
+	 *
+	 * @param key The key identifying the build
+	 * @param loader The loader used to build the response, which is responsible for putting it into the cache
+	 * @return The built response, marked if it was successful
+	 * @see #coalesce(Object, Callable)
+	 */
+	protected JsonObject load(@NonNull String key, @NonNull Callable<JsonObject> loader) {
+		JsonObject data = this.coalesce(key, loader);
+
+		if (!data.has("success") || !data.get("success").getAsBoolean()) {
+			return data;
+		}
+
+		return mark(data, System.currentTimeMillis(), false);
+	}
+
+	@Override
+	protected String serializeKey(@NonNull String key) {
+		return key;
+	}
+
+	@Override
+	protected String deserializeKey(@NonNull String key) {
+		return key;
+	}
+
+	@Override
+	protected byte[] serialize(@NonNull JsonObject value) {
+		return value.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Override
+	protected JsonObject deserialize(byte @NonNull [] bytes) {
+		return JsonParser.parseString(new String(bytes, StandardCharsets.UTF_8)).getAsJsonObject();
+	}
+
+	/**
+	 * Weigh responses by their serialized length, as a rough measure of their size in memory
+	 */
+	@Override
+	protected long weigh(@NonNull JsonObject value) {
+		return value.toString().length();
+	}
+
+	/**
+	 * Mark a response with the time it was built at, and whether it is stale. The cached response is shared, so
+	 * the markers are added to a shallow copy of it.
+	 *
+	 * @param data The response to mark
+	 * @param cachedAt The time at which the response was built
+	 * @param stale Whether the response is stale
+	 * @return A shallow copy of the response, with the markers added
+	 */
+	private static JsonObject mark(JsonObject data, long cachedAt, boolean stale) {
+		JsonObject marked = new JsonObject();
+
+		for (Map.Entry<String, JsonElement> member : data.entrySet()) {
+			marked.add(member.getKey(), member.getValue());
+		}
+
+		marked.addProperty("cached_at", cachedAt);
+		marked.addProperty("stale", stale);
+		return marked;
+	}
+}
@@ -14,8 +14,14 @@
 package io.nadeshiko.nadeshiko.util;
 
 import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
 import lombok.experimental.UtilityClass;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Map;
+import java.util.TreeMap;
+
 @UtilityClass
 public class JsonUtil {
 
@@ -34,4 +40,38 @@ public class JsonUtil {
     public boolean getNullableBoolean(JsonElement object) {
         return object != null && object.getAsBoolean();
     }
+
+    /**
+     * Feed a JSON element into a digest, with the keys of every object sorted, so that equal elements update the
+     * digest equally regardless of the order of their keys
+     * @param digest The digest to update
+     * @param element The element to feed into the digest, or {@code null}, which is fed as JSON null
+     */
+    public void digest(MessageDigest digest, JsonElement element) {
+        if (element == null || element.isJsonNull()) {
+            digest.update((byte) 'n');
+        } else if (element.isJsonPrimitive()) {
+            // The JSON form of a primitive is unambiguous, as strings are quoted and escaped
+            digest.update((byte) 'p');
+            digest.update(element.toString().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        } else if (element.isJsonArray()) {
+            digest.update((byte) '[');
+            for (JsonElement child : element.getAsJsonArray()) {
+                digest(digest, child);
+            }
+            digest.update((byte) ']');
+        } else {
+            JsonObject object = element.getAsJsonObject();
+            Map<String, JsonElement> sorted = new TreeMap<>(object.asMap());
+
+            digest.update((byte) '{');
+            for (Map.Entry<String, JsonElement> entry : sorted.entrySet()) {
+                digest.update(entry.getKey().getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+                digest(digest, entry.getValue());
+            }
+            digest.update((byte) '}');
+        }
+    }
 }
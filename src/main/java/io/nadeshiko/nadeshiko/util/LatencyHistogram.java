@@ -0,0 +1,130 @@
+/*
+ * This file is a part of the Nadeshiko project. Nadeshiko is free software, licensed under the MIT license.
+ *
+ * Usage of these works (including, yet not limited to, reuse, modification, copying, distribution, and selling) is
+ * permitted, provided that the relevant copyright notice and permission notice (as specified in LICENSE) shall be
+ * included in all copies or substantial portions of this software.
+ *
+ * These works are provided "AS IS" with absolutely no warranty of any kind, either expressed or implied.
+ *
+ * You should have received a copy of the MIT License alongside this software; refer to LICENSE for information.
+ * If not, refer to https://mit-license.org.
+ */
+
+package io.nadeshiko.nadeshiko.util;
+
+import com.google.gson.JsonObject;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of durations, in fixed buckets from one millisecond to ten seconds. Recording is lock-free, so it can be
+ * done on every request.
+ * <p>
+ * Percentiles are reported as the upper bound of the bucket they fall in, so they overestimate by at most one bucket.
+ *
+ * @author chloe
+ */
+public class LatencyHistogram {
+
+	/**
+	 * The upper bounds of the buckets, in milliseconds. Durations above the last bound fall in an overflow bucket.
+	 */
+	private static final long[] BOUNDS = {1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+
+	/**
+	 * The number of durations in each bucket, the last being the overflow bucket
+	 */
+	private final LongAdder[] buckets = new LongAdder[BOUNDS.length + 1];
+
+	/**
+	 * The sum of all durations, in nanoseconds
+	 */
+	private final LongAdder sum = new LongAdder();
+
+	/**
+	 * The longest duration, in nanoseconds
+	 */
+	private final LongAccumulator maximum = new LongAccumulator(Math::max, 0);
+
+	public LatencyHistogram() {
+		for (int i = 0; i < this.buckets.length; i++) {
+			this.buckets[i] = new LongAdder();
+		}
+	}
+
+	/**
+	 * Record a duration
+	 * @param nanos The duration, in nanoseconds
+	 */
+	public void record(long nanos) {
+		long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+
+		int bucket = 0;
+		while (bucket < BOUNDS.length && millis >= BOUNDS[bucket]) {
+			bucket++;
+		}
+
+		this.buckets[bucket].increment();
+		this.sum.add(nanos);
+		this.maximum.accumulate(nanos);
+	}
+
+	/**
+	 * @return The count, mean, maximum and percentiles of the recorded durations in milliseconds, along with the count
+	 * of each bucket, keyed by its upper bound, as a JsonObject
+	 */
+	public JsonObject getStatistics() {
+		long[] counts = new long[this.buckets.length];
+		long count = 0;
+		for (int i = 0; i < counts.length; i++) {
+			counts[i] = this.buckets[i].sum();
+			count += counts[i];
+		}
+
+		double maximum = this.maximum.get() / 1e6;
+
+		JsonObject statistics = new JsonObject();
+		statistics.addProperty("count", count);
+		statistics.addProperty("mean_ms", count > 0 ? this.sum.sum() / 1e6 / count : 0);
+		statistics.addProperty("max_ms", maximum);
+		statistics.addProperty("p50_ms", percentile(counts, count, 0.5, maximum));
+		statistics.addProperty("p90_ms", percentile(counts, count, 0.9, maximum));
+		statistics.addProperty("p99_ms", percentile(counts, count, 0.99, maximum));
+
+		JsonObject buckets = new JsonObject();
+		for (int i = 0; i < counts.length; i++) {
+			buckets.addProperty(i < BOUNDS.length ? "<" + BOUNDS[i] : ">=" + BOUNDS[BOUNDS.length - 1], counts[i]);
+		}
+		statistics.add("buckets", buckets);
+
+		return statistics;
+	}
+
+	/**
+	 * Estimate a percentile as the upper bound of the bucket it falls in
+	 * @param counts The count of each bucket
+	 * @param count The total count
+	 * @param fraction The percentile, as a fraction
+	 * @param maximum The longest duration, in milliseconds, which bounds every bucket
+	 * @return The estimated percentile, in milliseconds
+	 */
+	private static double percentile(long[] counts, long count, double fraction, double maximum) {
+		if (count == 0) {
+			return 0;
+		}
+
+		long rank = (long) Math.ceil(fraction * count);
+		long seen = 0;
+		for (int i = 0; i < BOUNDS.length; i++) {
+			seen += counts[i];
+			if (seen >= rank) {
+				return Math.min(BOUNDS[i], maximum);
+			}
+		}
+
+		return maximum;
+	}
+}
@@ -16,14 +16,38 @@ package io.nadeshiko.nadeshiko.util;
 import lombok.experimental.UtilityClass;
 
 import java.awt.*;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A basic Minecraft font text renderer
+ * <p>
+ * Strings are laid out into runs of characters sharing a font and color, and each run is drawn with a single
+ * {@link GlyphVector}, rather than one {@code drawString} call per character. Glyphs are still placed at the integer
+ * advances the fonts report, so the output matches drawing character by character. Fonts are created once per size,
+ * and the advances of ASCII characters are looked up once per font, so measuring a string is mostly array lookups.
  * @author chloe
  */
 @UtilityClass
 public class MinecraftRenderer {
 
+	/**
+	 * Fonts created so far, by family, style and size
+	 */
+	private final Map<FontKey, Font> FONTS = new ConcurrentHashMap<>();
+
+	/**
+	 * The advances of the ASCII characters, by font and render context
+	 */
+	private final Map<AdvanceKey, int[]> ADVANCES = new ConcurrentHashMap<>();
+
 	/**
 	 * Draw a centered string in a custom font, using {@code graphics}' current font
 	 * @param graphics The {@link Graphics} instance to draw to
@@ -32,8 +56,8 @@ public class MinecraftRenderer {
 	 * @param y The y-position to draw the text at
 	 */
 	public void drawCenterCustomString(Graphics graphics, String string, int x, int y) {
-		int width = customWidth(graphics, string);
-		drawCustomString(graphics, string, x - (width / 2), y);
+		Layout layout = layoutCustom((Graphics2D) graphics, string);
+		draw((Graphics2D) graphics, layout, x - (layout.width() / 2), y, 0);
 	}
 
 	/**
@@ -45,8 +69,8 @@ public class MinecraftRenderer {
 	 * @param size The size to draw the text at
 	 */
 	public void drawCenterMinecraftString(Graphics graphics, String string, int x, int y, int size) {
-		int width = minecraftWidth(graphics, string, size);
-		drawMinecraftString(graphics, string, x - (width / 2), y, size);
+		Layout layout = layoutMinecraft((Graphics2D) graphics, string, size);
+		draw((Graphics2D) graphics, layout, x - (layout.width() / 2), y, size / 8 - 1);
 	}
 
 	/**
@@ -57,45 +81,7 @@ public class MinecraftRenderer {
 	 * @param y The y-position to draw the text at
 	 */
 	public void drawCustomString(Graphics graphics, String string, int x, int y) {
-
-		Font unifont = new Font("Unifont", Font.PLAIN, graphics.getFont().getSize());
-
-		char[] array = string.toCharArray();
-
-		Color currentColor = graphics.getColor();
-
-		// Iterate over characters in the string
-		for (int character = 0; character < string.length(); character++) {
-
-			while (array[character] == MinecraftColors.SECTION) {
-				char nextChar = array[character + 1];
-
-				currentColor = MinecraftColors.getColorFromCode(nextChar);
-				character += 2;
-			}
-
-			// Custom font
-			if (array[character] < 128) {
-
-				// Draw the character
-				graphics.setColor(currentColor);
-				graphics.drawString(Character.toString(array[character]), x, y);
-				x += graphics.getFontMetrics().charWidth(array[character]);
-			}
-
-			// Unifont fallback
-			else {
-				Font currentFont = graphics.getFont();
-
-				// Draw the character
-				graphics.setFont(unifont);
-				graphics.setColor(currentColor);
-				graphics.drawString(Character.toString(array[character]), x, y + 2);
-				x += graphics.getFontMetrics().charWidth(array[character]);
-
-				graphics.setFont(currentFont);
-			}
-		}
+		draw((Graphics2D) graphics, layoutCustom((Graphics2D) graphics, string), x, y, 0);
 	}
 
 	/**
@@ -107,124 +93,233 @@ public class MinecraftRenderer {
 	 * @param size The size to draw the text at
 	 */
 	public void drawMinecraftString(Graphics graphics, String string, int x, int y, int size) {
+		draw((Graphics2D) graphics, layoutMinecraft((Graphics2D) graphics, string, size), x, y, size / 8 - 1);
+	}
+
+	/**
+	 * Calculate the pixel width of the provided string
+	 * @param graphics The {@link Graphics} instance
+	 * @param string The string to calculate the width of
+	 * @return The pixel width of {@code string} in {@code graphics}' current font
+	 */
+	public int customWidth(Graphics graphics, String string) {
+		return layoutCustom((Graphics2D) graphics, string).width();
+	}
+
+	/**
+	 * Calculate the pixel width of the provided string in the Minecraft font
+	 * @param graphics The {@link Graphics} instance
+	 * @param string The string to calculate the width of
+	 * @param size The size of the font to consider
+	 * @return The pixel width of {@code string} in the Minecraft font at the provided size
+	 */
+	public int minecraftWidth(Graphics graphics, String string, int size) {
+		return layoutMinecraft((Graphics2D) graphics, string, size).width();
+	}
+
+	/**
+	 * Lay out a string in {@code graphics}' current font, with a Unifont fallback. Color codes change the color, and
+	 * the string starts in {@code graphics}' current color.
+	 */
+	private Layout layoutCustom(Graphics2D graphics, String string) {
+		Font font = graphics.getFont();
+		return layout(graphics, string, font, font, font("Unifont", Font.PLAIN, font.getSize()),
+			graphics.getColor(), null, false);
+	}
 
-		Font minecraftFont = new Font("Minecraft Regular", Font.PLAIN, size);
-		Font minecraftBold = new Font("Minecraft Bold", Font.BOLD, size);
-		Font unifont = new Font("Unifont", Font.PLAIN, size);
-		graphics.setFont(minecraftFont);
+	/**
+	 * Lay out a string in the Minecraft font, with a Unifont fallback. The string starts in white, {@code §l} switches
+	 * to bold, color codes remove bold, and {@code §r} resets both.
+	 */
+	private Layout layoutMinecraft(Graphics2D graphics, String string, int size) {
+		return layout(graphics, string,
+			font("Minecraft Regular", Font.PLAIN, size),
+			font("Minecraft Bold", Font.BOLD, size),
+			font("Unifont", Font.PLAIN, size),
+			MinecraftColors.getColorFromCode('f'), MinecraftColors.getShadowColorFromCode('f'), true);
+	}
+
+	/**
+	 * Split a string into runs of characters sharing a font and color, placing each character at the advance of the
+	 * characters before it
+	 * @param graphics The {@link Graphics2D} instance the string will be drawn to
+	 * @param string The string, including color codes
+	 * @param regular The font of ASCII characters
+	 * @param bold The font of ASCII characters after {@code §l}
+	 * @param fallback The font of every other character
+	 * @param color The initial color
+	 * @param shadow The initial shadow color, or {@code null} for no shadow
+	 * @param minecraft Whether formatting codes follow Minecraft's rules, rather than only changing the color
+	 * @return The runs, and the width of the whole string
+	 */
+	private Layout layout(Graphics2D graphics, String string, Font regular, Font bold, Font fallback,
+	                      Color color, Color shadow, boolean minecraft) {
 
+		FontRenderContext context = graphics.getFontRenderContext();
 		char[] array = string.toCharArray();
 
-		Color currentColor = MinecraftColors.getColorFromCode('f');
-		Color currentShadowColor = MinecraftColors.getShadowColorFromCode('f');
-
-		// Iterate over characters in the string
-		for (int character = 0; character < string.length(); character++) {
-
-			while (array[character] == MinecraftColors.SECTION) {
-				char nextChar = array[character + 1];
-
-				if (nextChar == 'l') {
-					graphics.setFont(minecraftBold);
-				} else if (nextChar == 'r') {
-					graphics.setFont(minecraftFont);
-					currentColor = MinecraftColors.getColorFromCode('f');
-					currentShadowColor = MinecraftColors.getShadowColorFromCode('f');
-				} else if ((nextChar >= '0' && nextChar <= '9') || (nextChar >= 'a' && nextChar <= 'f')) {
-					graphics.setFont(minecraftFont); // Color codes remove bold
-					currentColor = MinecraftColors.getColorFromCode(nextChar);
-					currentShadowColor = MinecraftColors.getShadowColorFromCode(nextChar);
-				}
+		List<Run> runs = new ArrayList<>();
+		StringBuilder text = new StringBuilder(array.length);
+		int[] offsets = new int[array.length];
+		int width = 0;
 
-				character += 2;
-			}
+		Font font = regular;
+		int[] advances = advances(graphics, font);
+		FontMetrics fallbackMetrics = null;
+
+		Font runFont = null;
+		Color runColor = null;
+		Color runShadow = null;
+		int runX = 0;
 
-			// Minecraft font
-			if (array[character] < 128) {
+		for (int character = 0; character < array.length; character++) {
+			char c = array[character];
 
-				// Draw the character's shadow
-				graphics.setColor(currentShadowColor);
-				graphics.drawString(Character.toString(array[character]),
-					x + size / 8 - 1, y + size / 8 - 1);
+			// Apply formatting codes. A trailing section symbol has no code, and is skipped.
+			if (c == MinecraftColors.SECTION) {
+				if (++character >= array.length) {
+					break;
+				}
+
+				char code = array[character];
+				if (!minecraft) {
+					color = Objects.requireNonNullElse(MinecraftColors.getColorFromCode(code), color);
+				} else if (code == 'l') {
+					font = bold;
+				} else if (code == 'r') {
+					font = regular;
+					color = MinecraftColors.getColorFromCode('f');
+					shadow = MinecraftColors.getShadowColorFromCode('f');
+				} else if ((code >= '0' && code <= '9') || (code >= 'a' && code <= 'f')) {
+					font = regular; // Color codes remove bold
+					color = MinecraftColors.getColorFromCode(code);
+					shadow = MinecraftColors.getShadowColorFromCode(code);
+				}
 
-				// Draw the character
-				graphics.setColor(currentColor);
-				graphics.drawString(Character.toString(array[character]), x, y);
-				x += graphics.getFontMetrics().charWidth(array[character]);
+				advances = advances(graphics, font);
+				continue;
 			}
 
-			// Unifont fallback
-			else {
-				Font currentFont = graphics.getFont();
+			Font glyphFont = c < 128 ? font : fallback;
 
-				// Draw the character's shadow
-				graphics.setFont(unifont);
-				graphics.setColor(currentShadowColor);
-				graphics.drawString(Character.toString(array[character]),
-					x + size / 8 - 1, y + size / 8 + 1);
+			// Start a new run whenever the font or color changes
+			if (glyphFont != runFont || color != runColor || shadow != runShadow) {
+				if (!text.isEmpty()) {
+					runs.add(run(context, runFont, runColor, runShadow, text, offsets, runX, runFont == fallback));
+				}
+
+				text.setLength(0);
+				runFont = glyphFont;
+				runColor = color;
+				runShadow = shadow;
+				runX = width;
+			}
 
-				// Draw the character
-				graphics.setColor(currentColor);
-				graphics.drawString(Character.toString(array[character]), x, y + 2);
-				x += graphics.getFontMetrics().charWidth(array[character]);
+			offsets[text.length()] = width - runX;
+			text.append(c);
 
-				graphics.setFont(currentFont);
+			if (c < 128) {
+				width += advances[c];
+			} else {
+				if (fallbackMetrics == null) {
+					fallbackMetrics = graphics.getFontMetrics(fallback);
+				}
+				width += fallbackMetrics.charWidth(c);
 			}
 		}
+
+		if (!text.isEmpty()) {
+			runs.add(run(context, runFont, runColor, runShadow, text, offsets, runX, runFont == fallback));
+		}
+
+		return new Layout(runs, width, minecraft ? font : null);
 	}
 
 	/**
-	 * Calculate the pixel width of the provided string
-	 * @param graphics The {@link Graphics} instance
-	 * @param string The string to calculate the width of
-	 * @return The pixel width of {@code string} in {@code graphics}' current font
+	 * Create a run, with its glyphs placed at the provided offsets
 	 */
-	public int customWidth(Graphics graphics, String string) {
+	private Run run(FontRenderContext context, Font font, Color color, Color shadow, StringBuilder text,
+	                int[] offsets, int x, boolean fallback) {
 
-		int width = 0;
-		char[] array = string.toCharArray();
+		char[] chars = new char[text.length()];
+		text.getChars(0, chars.length, chars, 0);
+
+		GlyphVector glyphs = font.createGlyphVector(context, chars);
+		for (int glyph = 0; glyph < glyphs.getNumGlyphs(); glyph++) {
+			glyphs.setGlyphPosition(glyph, new Point2D.Float(offsets[glyphs.getGlyphCharIndex(glyph)], 0));
+		}
 
-		// Iterate over characters in the string
-		for (int character = 0; character < string.length(); character++) {
+		return new Run(glyphs, color, shadow, x, fallback ? 2 : 0);
+	}
 
-			// Skip the next two characters if we find a section symbol
-			if (array[character] == MinecraftColors.SECTION) {
-				character += 2;
+	/**
+	 * Draw a laid out string, each run's shadow first, then the run itself
+	 * @param graphics The {@link Graphics2D} instance to draw to
+	 * @param layout The laid out string
+	 * @param x The x-position to draw the text at
+	 * @param y The y-position to draw the text at
+	 * @param shadowOffset The offset of the shadow from the text, on both axes
+	 */
+	private void draw(Graphics2D graphics, Layout layout, int x, int y, int shadowOffset) {
+		for (Run run : layout.runs()) {
+			if (run.shadow() != null) {
+				graphics.setColor(run.shadow());
+				graphics.drawGlyphVector(run.glyphs(), x + run.x() + shadowOffset, y + run.offsetY() + shadowOffset);
 			}
 
-			// Add this character's width
-			width += graphics.getFontMetrics().charWidth(array[character]);
+			graphics.setColor(run.color());
+			graphics.drawGlyphVector(run.glyphs(), x + run.x(), y + run.offsetY());
 		}
 
-		return width;
+		// Leave the graphics with the font drawing character by character used to
+		if (layout.font() != null) {
+			graphics.setFont(layout.font());
+		}
 	}
 
 	/**
-	 * Calculate the pixel width of the provided string in the Minecraft font
-	 * @param graphics The {@link Graphics} instance
-	 * @param string The string to calculate the width of
-	 * @param size The size of the font to consider
-	 * @return The pixel width of {@code string} in the Minecraft font at the provided size
+	 * Fetch a font, creating it on first use
 	 */
-	public int minecraftWidth(Graphics graphics, String string, int size) {
-
-		Font minecraftFont = new Font("Minecraft Regular", Font.PLAIN, size);
-		int width = 0;
-		char[] array = string.toCharArray();
+	private Font font(String name, int style, int size) {
+		return FONTS.computeIfAbsent(new FontKey(name, style, size), key -> new Font(name, style, size));
+	}
 
-		// Iterate over characters in the string
-		for (int character = 0; character < string.length(); character++) {
+	/**
+	 * Fetch the advances of the ASCII characters in a font, measuring them on first use
+	 */
+	private int[] advances(Graphics2D graphics, Font font) {
+		return ADVANCES.computeIfAbsent(new AdvanceKey(font, graphics.getFontRenderContext()), key -> {
+			FontMetrics metrics = graphics.getFontMetrics(font);
+
+			int[] advances = new int[128];
+			Arrays.setAll(advances, c -> metrics.charWidth((char) c));
+			return advances;
+		});
+	}
 
-			// Skip the next two characters if we find a section symbol
-			if (array[character] == MinecraftColors.SECTION) {
-				character += 2;
-			}
+	private record FontKey(String name, int style, int size) {
+	}
 
-			// Add this character's width
-			width += graphics.getFontMetrics(minecraftFont).charWidth(array[character]);
-		}
+	private record AdvanceKey(Font font, FontRenderContext context) {
+	}
 
-		return width;
+	/**
+	 * A laid out string
+	 * @param runs The runs of the string, in order
+	 * @param width The width of the string, in pixels
+	 * @param font The Minecraft font in effect at the end of the string, or {@code null} for custom strings
+	 */
+	private record Layout(List<Run> runs, int width, Font font) {
 	}
 
+	/**
+	 * Characters sharing a font and color
+	 * @param glyphs The glyphs, positioned relative to the start of the run
+	 * @param color The color of the glyphs
+	 * @param shadow The color of the glyphs' shadow, or {@code null} for no shadow
+	 * @param x The offset of the run from the start of the string
+	 * @param offsetY The vertical offset of the run, as fallback glyphs are drawn slightly lower
+	 */
+	private record Run(GlyphVector glyphs, Color color, Color shadow, int x, int offsetY) {
+	}
 }
@@ -0,0 +1,32 @@
+/*
+ * This file is a part of the Nadeshiko project. Nadeshiko is free software, licensed under the MIT license.
+ *
+ * Usage of these works (including, yet not limited to, reuse, modification, copying, distribution, and selling) is
+ * permitted, provided that the relevant copyright notice and permission notice (as specified in LICENSE) shall be
+ * included in all copies or substantial portions of this software.
+ *
+ * These works are provided "AS IS" with absolutely no warranty of any kind, either expressed or implied.
+ *
+ * You should have received a copy of the MIT License alongside this software; refer to LICENSE for information.
+ * If not, refer to https://mit-license.org.
+ */
+
+package io.nadeshiko.nadeshiko.util;
+
+import java.io.Serial;
+
+/**
+ * Thrown when work is refused by a worker pool whose queue is full, rather than queued behind more work than it could
+ * finish in reasonable time. Mapped to a 503 response with a Retry-After header.
+ *
+ * @author chloe
+ */
+public class OverloadedException extends RuntimeException {
+
+	@Serial
+	private static final long serialVersionUID = 1L;
+
+	public OverloadedException(String pool) {
+		super("The " + pool + " pool is overloaded");
+	}
+}
@@ -0,0 +1,403 @@
+/*
+ * This file is a part of the Nadeshiko project. Nadeshiko is free software, licensed under the MIT license.
+ *
+ * Usage of these works (including, yet not limited to, reuse, modification, copying, distribution, and selling) is
+ * permitted, provided that the relevant copyright notice and permission notice (as specified in LICENSE) shall be
+ * included in all copies or substantial portions of this software.
+ *
+ * These works are provided "AS IS" with absolutely no warranty of any kind, either expressed or implied.
+ *
+ * You should have received a copy of the MIT License alongside this software; refer to LICENSE for information.
+ * If not, refer to https://mit-license.org.
+ */
+
+package io.nadeshiko.nadeshiko.util;
+
+import com.google.gson.JsonObject;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+
+import java.net.http.HttpHeaders;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token bucket guarding the request budget of an API key on a rate limited host, such as the Hypixel API.
+ * <p>
+ * The bucket is kept in sync with the host through the {@code RateLimit-Limit}, {@code RateLimit-Remaining} and
+ * {@code RateLimit-Reset} headers of its responses. Every request takes a token before it is sent. Requests that find
+ * the bucket empty wait for it to refill, in order of {@link Priority}, unless the wait would be too long - in which
+ * case they are shed with a {@link RateLimitedException} instead. Background requests can't take the last tokens of
+ * the bucket, which are reserved for interactive requests.
+ * <p>
+ * The priority of requests is taken from the thread sending them, see {@link #withPriority(Priority, Callable)}.
+ *
+ * @author chloe
+ */
+public class RateLimitGovernor {
+
+	/**
+	 * The priority of requests made on the current thread
+	 */
+	private static final ThreadLocal<Priority> PRIORITY = ThreadLocal.withInitial(() -> Priority.INTERACTIVE);
+
+	/**
+	 * Releases waiting requests once buckets refill
+	 */
+	private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(
+		ExecutorUtil.newThreadFactory("rate-limit-governor"));
+
+	/**
+	 * The host whose budget this governor guards
+	 */
+	@Getter
+	private final String host;
+
+	/**
+	 * The length of the rate limit window of the host, used until the host reports when the window resets
+	 */
+	private final Duration window;
+
+	/**
+	 * The number of requests allowed per window. Updated from the RateLimit-Limit header.
+	 */
+	private int limit;
+
+	/**
+	 * The fraction of the limit reserved for interactive requests
+	 */
+	private double reserve = 0.2;
+
+	/**
+	 * The longest a request may wait for the bucket to refill before it is shed
+	 */
+	private Duration maximumWait = Duration.ofSeconds(10);
+
+	/**
+	 * The most requests that may wait for the bucket to refill at once before further requests are shed
+	 */
+	private int maximumQueue = 250;
+
+	/**
+	 * The number of tokens left in the bucket
+	 */
+	private int remaining;
+
+	/**
+	 * The time at which the bucket refills
+	 */
+	private long resetAt;
+
+	/**
+	 * Requests waiting for the bucket to refill, most important and then oldest first
+	 */
+	private final PriorityQueue<Waiter> waiting = new PriorityQueue<>(
+		Comparator.comparing(Waiter::priority).thenComparingLong(Waiter::sequence));
+
+	/**
+	 * Sequence number of the next waiting request, to keep requests of the same priority in order
+	 */
+	private long sequence = 0;
+
+	/**
+	 * Whether a release of waiting requests is already scheduled
+	 */
+	private boolean releaseScheduled = false;
+
+	/**
+	 * Counters reported in this governor's statistics
+	 */
+	private final LongAdder granted = new LongAdder();
+	private final LongAdder queued = new LongAdder();
+	private final LongAdder shed = new LongAdder();
+	private final LongAdder throttled = new LongAdder();
+
+	/**
+	 * Create a new governor with a full bucket
+	 * @param host The host whose budget this governor guards
+	 * @param limit The number of requests allowed per window, until the host reports its actual limit
+	 * @param window The length of the rate limit window, until the host reports when the window resets
+	 */
+	public RateLimitGovernor(@NonNull String host, int limit, @NonNull Duration window) {
+		this.host = host;
+		this.limit = limit;
+		this.window = window;
+		this.remaining = limit;
+		this.resetAt = System.currentTimeMillis() + window.toMillis();
+	}
+
+	/**
+	 * @return The priority of requests made on the current thread
+	 */
+	public static Priority getPriority() {
+		return PRIORITY.get();
+	}
+
+	/**
+	 * Run a task with a different priority for all requests it makes on the current thread
+	 * @param priority The priority of the requests
+	 * @param task The task to run
+	 * @return The result of the task
+	 */
+	@SneakyThrows
+	public static <T> T withPriority(@NonNull Priority priority, @NonNull Callable<T> task) {
+		Priority previous = PRIORITY.get();
+		PRIORITY.set(priority);
+
+		try {
+			return task.call();
+		} finally {
+			PRIORITY.set(previous);
+		}
+	}
+
+	/**
+	 * Reads a rate limit section of the configuration. Example:
+	 * <pre>{@code
+	 * { "limit": 300, "reserve": 0.2, "maximum_wait": 10, "maximum_queue": 250 }
+	 * }</pre>
+	 * The maximum wait is in seconds. Any value that is missing keeps its default.
+	 *
+	 * @param section The section of the configuration for this governor's host
+	 */
+	public synchronized void configure(@NonNull Map<?, ?> section) {
+		if (section.get("limit") != null) {
+			this.limit = (int) ((double) section.get("limit"));
+			this.remaining = Math.min(this.remaining, this.limit);
+		}
+		if (section.get("reserve") != null) {
+			this.reserve = (double) section.get("reserve");
+		}
+		if (section.get("maximum_wait") != null) {
+			this.maximumWait = Duration.ofMillis((long) ((double) section.get("maximum_wait") * 1000));
+		}
+		if (section.get("maximum_queue") != null) {
+			this.maximumQueue = (int) ((double) section.get("maximum_queue"));
+		}
+	}
+
+	/**
+	 * Take a token for a request, waiting for the bucket to refill if needed
+	 * @param priority The priority of the request
+	 * @return A future completing once the request may be sent, or exceptionally with a {@link RateLimitedException}
+	 *         if the request was shed
+	 */
+	public synchronized CompletableFuture<Void> acquire(@NonNull Priority priority) {
+		long now = System.currentTimeMillis();
+		this.refill(now);
+
+		// Go ahead if there's a token to spare, and no request at least as important is already waiting for one
+		Waiter head = this.waiting.peek();
+		if ((head == null || head.priority().compareTo(priority) > 0) && this.remaining > this.getReserve(priority)) {
+			this.remaining--;
+			this.granted.increment();
+			return CompletableFuture.completedFuture(null);
+		}
+
+		// Shed the request if it would have to wait too long, or too many requests are already waiting
+		long wait = this.resetAt - now;
+		if (wait > this.maximumWait.toMillis() || this.waiting.size() >= this.maximumQueue) {
+			this.shed.increment();
+			return CompletableFuture.failedFuture(new RateLimitedException(this.host, wait));
+		}
+
+		Waiter waiter = new Waiter(priority, this.sequence++, now + this.maximumWait.toMillis(),
+			new CompletableFuture<>());
+		this.waiting.add(waiter);
+		this.queued.increment();
+		this.scheduleRelease(now);
+
+		return waiter.future();
+	}
+
+	/**
+	 * Update the bucket from the headers of a response of the host
+	 * @param headers The headers of the response
+	 * @param status The status code of the response
+	 */
+	public void update(@NonNull HttpHeaders headers, int status) {
+		OptionalLong limitHeader = headers.firstValueAsLong("RateLimit-Limit");
+		OptionalLong remainingHeader = headers.firstValueAsLong("RateLimit-Remaining");
+		OptionalLong resetHeader = headers.firstValueAsLong("RateLimit-Reset");
+		OptionalLong retryAfterHeader = headers.firstValueAsLong("Retry-After");
+
+		List<Runnable> released;
+
+		synchronized (this) {
+			long now = System.currentTimeMillis();
+
+			if (limitHeader.isPresent()) {
+				this.limit = (int) limitHeader.getAsLong();
+			}
+
+			if (resetHeader.isPresent()) {
+				long reportedResetAt = now + resetHeader.getAsLong() * 1000;
+
+				// A later reset than expected means a new window has started since, so trust the reported budget.
+				// Otherwise, other requests may have been sent since this response was generated, so only ever
+				// lower the budget.
+				if (remainingHeader.isPresent()) {
+					int reportedRemaining = (int) remainingHeader.getAsLong();
+					this.remaining = reportedResetAt > this.resetAt + 1000 ? reportedRemaining :
+						Math.min(this.remaining, reportedRemaining);
+				}
+
+				this.resetAt = reportedResetAt;
+			}
+
+			// The bucket ran dry without us noticing - back off until the host says otherwise
+			if (status == 429) {
+				this.throttled.increment();
+				this.remaining = 0;
+
+				if (retryAfterHeader.isPresent()) {
+					this.resetAt = Math.max(this.resetAt, now + retryAfterHeader.getAsLong() * 1000);
+				}
+			}
+
+			released = this.release(now);
+		}
+
+		released.forEach(Runnable::run);
+	}
+
+	/**
+	 * @return The exception to fail a request the host refused with a 429 with, to be retried once the budget is
+	 *         expected to have been replenished
+	 */
+	public synchronized RateLimitedException refused() {
+		return new RateLimitedException(this.host, Math.max(0, this.resetAt - System.currentTimeMillis()));
+	}
+
+	/**
+	 * @return The current state of the bucket and the counters of this governor, as a JsonObject
+	 */
+	public synchronized JsonObject getStatistics() {
+		long now = System.currentTimeMillis();
+		this.refill(now);
+
+		JsonObject statistics = new JsonObject();
+		statistics.addProperty("limit", this.limit);
+		statistics.addProperty("remaining", this.remaining);
+		statistics.addProperty("reserve", this.getReserve(Priority.BACKGROUND));
+		statistics.addProperty("reset_in", Math.max(0, this.resetAt - now) / 1000);
+		statistics.addProperty("waiting", this.waiting.size());
+		statistics.addProperty("granted", this.granted.sum());
+		statistics.addProperty("queued", this.queued.sum());
+		statistics.addProperty("shed", this.shed.sum());
+		statistics.addProperty("throttled", this.throttled.sum());
+		return statistics;
+	}
+
+	/**
+	 * @param priority The priority of a request
+	 * @return The number of tokens that must be left in the bucket after the request
+	 */
+	private int getReserve(Priority priority) {
+		return priority == Priority.INTERACTIVE ? 0 : (int) Math.ceil(this.limit * this.reserve);
+	}
+
+	/**
+	 * Refill the bucket if its window has reset. Must be called while holding the monitor of this governor.
+	 * @param now The current time
+	 */
+	private void refill(long now) {
+		if (now >= this.resetAt) {
+			this.remaining = this.limit;
+			this.resetAt = now + this.window.toMillis();
+		}
+	}
+
+	/**
+	 * Hand out tokens to waiting requests, most important first, and shed the requests that have waited too long.
+	 * Must be called while holding the monitor of this governor.
+	 * @param now The current time
+	 * @return The completions of the released and shed requests, to be run once the monitor is released
+	 */
+	private List<Runnable> release(long now) {
+		this.refill(now);
+		List<Runnable> released = new ArrayList<>();
+
+		while (!this.waiting.isEmpty() && this.remaining > this.getReserve(this.waiting.peek().priority())) {
+			this.remaining--;
+			this.granted.increment();
+			CompletableFuture<Void> future = this.waiting.poll().future();
+			released.add(() -> future.complete(null));
+		}
+
+		for (Iterator<Waiter> iterator = this.waiting.iterator(); iterator.hasNext(); ) {
+			Waiter waiter = iterator.next();
+
+			if (waiter.deadline() <= now) {
+				iterator.remove();
+				this.shed.increment();
+				RateLimitedException exception = new RateLimitedException(this.host, this.resetAt - now);
+				released.add(() -> waiter.future().completeExceptionally(exception));
+			}
+		}
+
+		if (!this.waiting.isEmpty()) {
+			this.scheduleRelease(now);
+		}
+
+		return released;
+	}
+
+	/**
+	 * Schedule waiting requests to be released once the bucket refills, or the oldest of them has waited too long.
+	 * Must be called while holding the monitor of this governor.
+	 * @param now The current time
+	 */
+	private void scheduleRelease(long now) {
+		if (this.releaseScheduled) {
+			return;
+		}
+
+		long deadline = this.waiting.stream().mapToLong(Waiter::deadline).min().orElse(this.resetAt);
+		long delay = Math.max(10, Math.min(this.resetAt, deadline) - now);
+
+		this.releaseScheduled = true;
+		SCHEDULER.schedule(() -> {
+			List<Runnable> released;
+
+			synchronized (this) {
+				this.releaseScheduled = false;
+				released = this.release(System.currentTimeMillis());
+			}
+
+			released.forEach(Runnable::run);
+		}, delay, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * The priority of a request. Interactive requests are made on behalf of a user waiting on the response, while
+	 * background requests - such as guild member lookups and cache refreshes - are not.
+	 */
+	public enum Priority {
+		INTERACTIVE,
+		BACKGROUND
+	}
+
+	/**
+	 * Record representation of a request waiting for a token
+	 * @param priority The priority of the request
+	 * @param sequence The order in which the request started waiting
+	 * @param deadline The time after which the request is shed
+	 * @param future Completed once the request may be sent
+	 */
+	private record Waiter(Priority priority, long sequence, long deadline, CompletableFuture<Void> future) {
+	}
+}
@@ -0,0 +1,41 @@
+/*
+ * This file is a part of the Nadeshiko project. Nadeshiko is free software, licensed under the MIT license.
+ *
+ * Usage of these works (including, yet not limited to, reuse, modification, copying, distribution, and selling) is
+ * permitted, provided that the relevant copyright notice and permission notice (as specified in LICENSE) shall be
+ * included in all copies or substantial portions of this software.
+ *
+ * These works are provided "AS IS" with absolutely no warranty of any kind, either expressed or implied.
+ *
+ * You should have received a copy of the MIT License alongside this software; refer to LICENSE for information.
+ * If not, refer to https://mit-license.org.
+ */
+
+package io.nadeshiko.nadeshiko.util;
+
+import lombok.Getter;
+
+import java.io.Serial;
+
+/**
+ * Thrown when a request to a rate limited host is shed by its {@link RateLimitGovernor}, rather than sent and risk
+ * exhausting the budget of the API key. Mapped to a 503 response with a Retry-After header.
+ *
+ * @author chloe
+ */
+@Getter
+public class RateLimitedException extends RuntimeException {
+
+	@Serial
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The number of seconds after which the budget is expected to have been replenished
+	 */
+	private final long retryAfter;
+
+	public RateLimitedException(String host, long retryAfterMillis) {
+		super("The request budget for " + host + " is exhausted");
+		this.retryAfter = Math.max(1, (retryAfterMillis + 999) / 1000);
+	}
+}
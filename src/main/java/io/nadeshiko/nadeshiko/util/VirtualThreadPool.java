@@ -0,0 +1,95 @@
+/*
+ * This file is a part of the Nadeshiko project. Nadeshiko is free software, licensed under the MIT license.
+ *
+ * Usage of these works (including, yet not limited to, reuse, modification, copying, distribution, and selling) is
+ * permitted, provided that the relevant copyright notice and permission notice (as specified in LICENSE) shall be
+ * included in all copies or substantial portions of this software.
+ *
+ * These works are provided "AS IS" with absolutely no warranty of any kind, either expressed or implied.
+ *
+ * You should have received a copy of the MIT License alongside this software; refer to LICENSE for information.
+ * If not, refer to https://mit-license.org.
+ */
+
+package io.nadeshiko.nadeshiko.util;
+
+import lombok.NonNull;
+import org.eclipse.jetty.util.component.AbstractLifeCycle;
+import org.eclipse.jetty.util.thread.ThreadPool;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Jetty {@link ThreadPool} running every task on a new virtual thread.
+ * <p>
+ * Routes block on upstream HTTP and Mongo for most of their lifetime, which ties up a platform thread of Jetty's
+ * default pool each. Under a burst of slow upstream responses, that pool runs dry and even trivial routes stall. A
+ * virtual thread releases its carrier while blocked, so slow routes no longer hold up others. CPU-heavy work should
+ * still be handed off to a fixed pool, see {@link ExecutorUtil#callOn}, so that it can't monopolize the carriers.
+ *
+ * @author chloe
+ */
+public class VirtualThreadPool extends AbstractLifeCycle implements ThreadPool {
+
+	/**
+	 * Creates the virtual threads tasks run on
+	 */
+	private final ThreadFactory factory = Thread.ofVirtual().name("http-", 0).factory();
+
+	/**
+	 * The number of threads currently running a task
+	 */
+	private final AtomicInteger threads = new AtomicInteger();
+
+	@Override
+	public void execute(@NonNull Runnable task) {
+		Thread thread = this.factory.newThread(() -> {
+			try {
+				task.run();
+			} finally {
+				this.threads.decrementAndGet();
+			}
+		});
+
+		this.threads.incrementAndGet();
+		thread.start();
+	}
+
+	/**
+	 * Block until this pool is stopped
+	 */
+	@Override
+	public synchronized void join() throws InterruptedException {
+		while (!this.isStopped()) {
+			this.wait();
+		}
+	}
+
+	@Override
+	protected synchronized void doStop() throws Exception {
+		super.doStop();
+		this.notifyAll();
+	}
+
+	@Override
+	public int getThreads() {
+		return this.threads.get();
+	}
+
+	/**
+	 * Virtual threads are created on demand, so none are ever idle
+	 */
+	@Override
+	public int getIdleThreads() {
+		return 0;
+	}
+
+	/**
+	 * Virtual threads are created on demand, so this pool never runs low
+	 */
+	@Override
+	public boolean isLowOnThreads() {
+		return false;
+	}
+}
@@ -0,0 +1,81 @@
+/*
+ * This file is a part of the Nadeshiko project. Nadeshiko is free software, licensed under the MIT license.
+ *
+ * Usage of these works (including, yet not limited to, reuse, modification, copying, distribution, and selling) is
+ * permitted, provided that the relevant copyright notice and permission notice (as specified in LICENSE) shall be
+ * included in all copies or substantial portions of this software.
+ *
+ * These works are provided "AS IS" with absolutely no warranty of any kind, either expressed or implied.
+ *
+ * You should have received a copy of the MIT License alongside this software; refer to LICENSE for information.
+ * If not, refer to https://mit-license.org.
+ */
+
+package io.nadeshiko.nadeshiko.leaderboards;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Checks {@link LeaderboardDerivation}s against the lambdas they replaced
+ *
+ * @author chloe
+ */
+class LeaderboardDerivationTest {
+
+    /**
+     * The number of random players each category is checked with
+     */
+    private static final int PLAYERS = 2_000;
+
+    @Test
+    void everyDerivationIsChecked() {
+        for (Leaderboard leaderboard : Leaderboard.values()) {
+            boolean declarative = !leaderboard.describe().endsWith(":lambda");
+            assertEquals(declarative, LegacyDerivations.LAMBDAS.containsKey(leaderboard), leaderboard.name());
+        }
+    }
+
+    @Test
+    void derivesTheSameStatsAsTheLambdas() {
+        Random random = new Random(16);
+
+        Leaderboard.byCategory().forEach((category, leaderboards) -> {
+            List<Leaderboard> declarative = leaderboards.stream()
+                .filter(LegacyDerivations.LAMBDAS::containsKey)
+                .toList();
+            Set<String> paths = RandomPlayers.paths(declarative);
+
+            for (int player = 0; player < PLAYERS; player++) {
+                JsonObject generated = RandomPlayers.generate(random, paths, random.nextDouble(), true);
+
+                // Numbers parsed from the API are lazily parsed, and convert differently from the generated ones
+                JsonObject input = random.nextBoolean() ? generated :
+                    JsonParser.parseString(generated.toString()).getAsJsonObject();
+
+                for (Leaderboard leaderboard : declarative) {
+                    assertEquals(LegacyDerivations.derive(leaderboard, input), leaderboard.derive(input),
+                        () -> leaderboard + " of " + input);
+                }
+            }
+        });
+    }
+
+    @Test
+    void sumsCountMissingStatsAsZero() {
+        LeaderboardDerivation sum = LeaderboardDerivation.sum("a.b", "a.c", "d");
+        JsonObject input = JsonParser.parseString("{\"a\": {\"b\": 2}, \"d\": 3}").getAsJsonObject();
+
+        assertEquals(5, sum.apply(input));
+        assertEquals(0, sum.apply(JsonParser.parseString("{\"d\": 3}").getAsJsonObject()));
+        assertEquals(0, sum.apply(JsonParser.parseString("{\"a\": {\"b\": \"x\"}, \"d\": 3}").getAsJsonObject()));
+        assertEquals("sum(a.b+a.c+d)", sum.toString());
+    }
+}
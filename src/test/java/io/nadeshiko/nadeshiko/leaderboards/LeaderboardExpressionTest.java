@@ -0,0 +1,127 @@
+/*
+ * This file is a part of the Nadeshiko project. Nadeshiko is free software, licensed under the MIT license.
+ *
+ * Usage of these works (including, yet not limited to, reuse, modification, copying, distribution, and selling) is
+ * permitted, provided that the relevant copyright notice and permission notice (as specified in LICENSE) shall be
+ * included in all copies or substantial portions of this software.
+ *
+ * These works are provided "AS IS" with absolutely no warranty of any kind, either expressed or implied.
+ *
+ * You should have received a copy of the MIT License alongside this software; refer to LICENSE for information.
+ * If not, refer to https://mit-license.org.
+ */
+
+package io.nadeshiko.nadeshiko.leaderboards;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the parsing and evaluation of {@link LeaderboardExpression}s
+ *
+ * @author chloe
+ */
+class LeaderboardExpressionTest {
+
+    private static final JsonObject INPUT = JsonParser.parseString(
+        "{\"wins\": 30, \"losses\": 10, \"mode\": \"solo\", \"bedwars\": {\"kills\": 12, \"deaths\": 0}}"
+    ).getAsJsonObject();
+
+    private static final Document DOCUMENT = new Document("NETWORK_KARMA", 500L)
+        .append("NETWORK_ACHIEVEMENT_POINTS", 250);
+
+    @Test
+    void respectsPrecedence() {
+        assertEquals(14, evaluate("2 + 3 * 4"));
+        assertEquals(20, evaluate("(2 + 3) * 4"));
+        assertEquals(3, evaluate("10 - 4 - 3"));
+        assertEquals(2, evaluate("12 / 3 / 2"));
+        assertEquals(7, evaluate("1 + 12 / 2"));
+        assertEquals(0.5, evaluate("1.5 - .5 * 2 / 2 - .5"));
+    }
+
+    @Test
+    void negatesOperands() {
+        assertEquals(-6, evaluate("-2 * 3"));
+        assertEquals(2, evaluate("--2"));
+        assertEquals(5, evaluate("2 - -3"));
+        assertEquals(-3, evaluate("-(1 + 2)"));
+        assertEquals(-20, evaluate("-wins + losses"));
+    }
+
+    @Test
+    void callsFunctions() {
+        assertEquals(1, evaluate("min(1, 2)"));
+        assertEquals(2, evaluate("max(1, 2)"));
+        assertEquals(3, evaluate("abs(-3)"));
+        assertEquals(3, evaluate("wins / max(losses, 1)"));
+        assertEquals(12, evaluate("bedwars.kills / max(bedwars.deaths, 1)"));
+        assertEquals(4, evaluate("max(min(4, 5), abs(-3))"));
+    }
+
+    @Test
+    void rejectsWrongArities() {
+        assertError("min takes two arguments at position 6 of \"min(1)\"", "min(1)");
+        assertError("max takes two arguments at position 12 of \"max(1, 2, 3)\"", "max(1, 2, 3)");
+        assertError("abs takes one argument at position 5 of \"abs()\"", "abs()");
+        assertError("abs takes one argument at position 9 of \"abs(1, 2)\"", "abs(1, 2)");
+        assertError("Unknown function sqrt at position 7 of \"sqrt(4)\"", "sqrt(4)");
+    }
+
+    @Test
+    void readsLeaderboardsAndInputs() {
+        assertEquals(40, evaluate("wins + losses"));
+        assertEquals(2, evaluate("NETWORK_KARMA / NETWORK_ACHIEVEMENT_POINTS"));
+
+        // Missing stats, leaderboards the player isn't on, and stats that aren't numbers all count as 0
+        assertEquals(0, evaluate("draws + bedwars.beds + mode"));
+        assertEquals(0, evaluate("NETWORK_RANKS_GIFTED"));
+
+        assertTrue(LeaderboardExpression.compile("NETWORK_KARMA / max(NETWORK_RANKS_GIFTED, 1)").isBackfillable());
+        assertTrue(LeaderboardExpression.compile("2 * 3").isBackfillable());
+        assertFalse(LeaderboardExpression.compile("NETWORK_KARMA + wins").isBackfillable());
+        assertFalse(LeaderboardExpression.compile("network_karma").isBackfillable());
+    }
+
+    @Test
+    void clampsNonFiniteResultsToZero() {
+        assertEquals(0, evaluate("1 / 0"));
+        assertEquals(0, evaluate("-1 / 0"));
+        assertEquals(0, evaluate("0 / 0"));
+        assertEquals(0, evaluate("wins / bedwars.deaths"));
+
+        // Only the result is clamped, so infinities can still cancel out within the expression
+        assertEquals(0, evaluate("1 / (1 / 0)"));
+        assertEquals(2, evaluate("min(1 / 0, 2)"));
+    }
+
+    @Test
+    void reportsErrorPositions() {
+        assertError("Unexpected end of expression at position 3 of \"1 +\"", "1 +");
+        assertError("Unexpected '$' at position 2 of \"1 $\"", "1 $");
+        assertError("Unexpected ')' at position 4 of \"1 + )\"", "1 + )");
+        assertError("Expected ')' at position 6 of \"(1 + 2\"", "(1 + 2");
+        assertError("Unexpected '2' at position 2 of \"1 2\"", "1 2");
+        assertError("Malformed number at position 4 of \"1..2\"", "1..2");
+        assertError("Unexpected end of expression at position 0 of \"\"", "");
+    }
+
+    private static double evaluate(String source) {
+        LeaderboardExpression expression = LeaderboardExpression.compile(source);
+        assertEquals(source, expression.getSource());
+        return expression.evaluate(INPUT, DOCUMENT);
+    }
+
+    private static void assertError(String message, String source) {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> LeaderboardExpression.compile(source), source);
+        assertEquals(message, e.getMessage());
+    }
+}
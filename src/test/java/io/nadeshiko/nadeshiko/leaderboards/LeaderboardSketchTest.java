@@ -0,0 +1,215 @@
+/*
+ * This file is a part of the Nadeshiko project. Nadeshiko is free software, licensed under the MIT license.
+ *
+ * Usage of these works (including, yet not limited to, reuse, modification, copying, distribution, and selling) is
+ * permitted, provided that the relevant copyright notice and permission notice (as specified in LICENSE) shall be
+ * included in all copies or substantial portions of this software.
+ *
+ * These works are provided "AS IS" with absolutely no warranty of any kind, either expressed or implied.
+ *
+ * You should have received a copy of the MIT License alongside this software; refer to LICENSE for information.
+ * If not, refer to https://mit-license.org.
+ */
+
+package io.nadeshiko.nadeshiko.leaderboards;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Checks the estimates of {@link LeaderboardSketch} against the exact distribution of a random sample
+ *
+ * @author chloe
+ */
+class LeaderboardSketchTest {
+
+    /**
+     * The number of values in the sample, enough for dozens of merges of the buffer
+     */
+    private static final int VALUES = 20_000;
+
+    /**
+     * The quantiles checked, weighted towards the tails
+     */
+    private static final double[] QUANTILES = {0.001, 0.01, 0.05, 0.1, 0.25, 0.5, 0.75, 0.9, 0.95, 0.99, 0.999};
+
+    /**
+     * The largest error allowed in the rank of an estimate, as a fraction of the sample
+     */
+    private static final double TOLERANCE = 0.005;
+
+    @Test
+    void estimatesQuantilesAndPercentiles() {
+        double[] sample = sample(new Random(20));
+        LeaderboardSketch sketch = sketchOf(sample);
+        Arrays.sort(sample);
+
+        assertEquals(VALUES, sketch.count());
+        assertEquals(sample[0], sketch.min());
+        assertEquals(sample[VALUES - 1], sketch.max());
+        assertEquals(sample[0], sketch.quantile(0));
+        assertEquals(sample[VALUES - 1], sketch.quantile(1));
+
+        for (double quantile : QUANTILES) {
+            double exact = sample[(int) (quantile * VALUES)];
+            double estimate = sketch.quantile(quantile);
+
+            assertEquals(quantile, rank(sample, estimate), TOLERANCE, () -> "rank of quantile " + quantile);
+            assertEquals(rank(sample, exact), sketch.cdf(exact), TOLERANCE, () -> "cdf at quantile " + quantile);
+        }
+
+        // The digest should stay small, however many values it has seen
+        int centroids = sketch.toDocument().getList("means", Double.class).size();
+        assertTrue(centroids < 200, () -> centroids + " centroids");
+    }
+
+    @Test
+    void interpolatesBetweenCentroids() {
+        LeaderboardSketch sketch = new LeaderboardSketch();
+        for (int i = 1; i <= 1000; i++) {
+            sketch.add(i);
+        }
+
+        double previous = 0;
+        for (int i = 2; i <= 2000; i++) {
+            double value = i / 2.0;
+            double cdf = sketch.cdf(value);
+            assertTrue(cdf >= previous, () -> "cdf decreases at " + value);
+            assertEquals(value / 1000, cdf, TOLERANCE);
+            previous = cdf;
+        }
+
+        assertEquals(0, sketch.cdf(0.5));
+        assertEquals(1, sketch.cdf(1000));
+        assertEquals(500, sketch.quantile(0.5), 1000 * TOLERANCE);
+    }
+
+    @Test
+    void findsPercentilesInTheDirectionOfTheLeaderboard() {
+        LeaderboardSketch sketch = new LeaderboardSketch();
+        for (int i = 1; i <= 1000; i++) {
+            sketch.add(i);
+        }
+
+        // On descending leaderboards, such as wins, high values beat most players
+        assertEquals(90, sketch.percentileOf(900, -1), 100 * TOLERANCE);
+        assertEquals(900, sketch.valueAt(90, -1), 1000 * TOLERANCE);
+
+        // On ascending leaderboards, such as first login, low values do
+        assertEquals(10, sketch.percentileOf(900, 1), 100 * TOLERANCE);
+        assertEquals(100, sketch.valueAt(90, 1), 1000 * TOLERANCE);
+    }
+
+    @Test
+    void countsInfiniteValuesAtTheExtremes() {
+        LeaderboardSketch sketch = new LeaderboardSketch();
+        for (int i = 1; i <= 70; i++) {
+            sketch.add(i);
+        }
+        for (int i = 0; i < 10; i++) {
+            sketch.add(Double.NEGATIVE_INFINITY);
+        }
+        for (int i = 0; i < 20; i++) {
+            sketch.add(Double.POSITIVE_INFINITY);
+        }
+
+        // Zeros and NaN aren't placed on leaderboards
+        sketch.add(0);
+        sketch.add(Double.NaN);
+
+        assertEquals(100, sketch.count());
+        assertEquals(30, sketch.infinite());
+        assertEquals(1, sketch.min());
+        assertEquals(70, sketch.max());
+
+        assertEquals(0.1, sketch.cdf(Double.NEGATIVE_INFINITY));
+        assertEquals(0.1, sketch.cdf(0.5));
+        assertEquals(0.8, sketch.cdf(70));
+        assertEquals(1, sketch.cdf(Double.POSITIVE_INFINITY));
+
+        assertEquals(Double.NEGATIVE_INFINITY, sketch.quantile(0.05));
+        assertEquals(Double.POSITIVE_INFINITY, sketch.quantile(0.9));
+        double middle = sketch.quantile(0.45);
+        assertTrue(middle >= 1 && middle <= 70, () -> "quantile 0.45 is " + middle);
+    }
+
+    @Test
+    void answersNothingWhenEmpty() {
+        LeaderboardSketch sketch = new LeaderboardSketch();
+
+        assertEquals(0, sketch.count());
+        assertEquals(Double.NaN, sketch.min());
+        assertEquals(Double.NaN, sketch.max());
+        assertEquals(Double.NaN, sketch.cdf(1));
+        assertEquals(Double.NaN, sketch.quantile(0.5));
+    }
+
+    @Test
+    void survivesPersistence() {
+        Random random = new Random(20);
+        double[] sample = sample(random);
+        LeaderboardSketch sketch = sketchOf(sample);
+        sketch.add(Double.NEGATIVE_INFINITY);
+        sketch.add(Double.POSITIVE_INFINITY);
+
+        // Go through JSON, so the document is decoded from scratch, as it would be when read back from the database
+        Document document = sketch.toDocument();
+        LeaderboardSketch restored = LeaderboardSketch.fromDocument(Document.parse(document.toJson()));
+
+        assertEquals(document, restored.toDocument());
+        assertEquals(sketch.count(), restored.count());
+        assertEquals(sketch.infinite(), restored.infinite());
+        for (double quantile : QUANTILES) {
+            assertEquals(sketch.quantile(quantile), restored.quantile(quantile));
+        }
+
+        // A restored sketch keeps absorbing values like the original
+        for (int i = 0; i < 1_000; i++) {
+            double value = random.nextDouble() * 1_000;
+            sketch.add(value);
+            restored.add(value);
+        }
+        assertEquals(sketch.toDocument(), restored.toDocument());
+
+        // An empty sketch stores infinite extremes, which have to survive too
+        LeaderboardSketch empty = LeaderboardSketch.fromDocument(
+            Document.parse(new LeaderboardSketch().toDocument().toJson()));
+        assertEquals(0, empty.count());
+        assertEquals(Double.NaN, empty.min());
+    }
+
+    /**
+     * Generate a sample shaped like leaderboard stats: mostly small values, with a long tail, and a few negative ones
+     */
+    private static double[] sample(Random random) {
+        double[] sample = new double[VALUES];
+        for (int i = 0; i < VALUES; i++) {
+            double value = Math.exp(random.nextGaussian() * 2 + 3);
+            sample[i] = random.nextInt(50) == 0 ? -value : value;
+        }
+        return sample;
+    }
+
+    private static LeaderboardSketch sketchOf(double[] sample) {
+        LeaderboardSketch sketch = new LeaderboardSketch();
+        for (double value : sample) {
+            sketch.add(value);
+        }
+        return sketch;
+    }
+
+    /**
+     * @return The exact fraction of the sorted sample less than or equal to the value
+     */
+    private static double rank(double[] sorted, double value) {
+        int index = Arrays.binarySearch(sorted, value);
+        int below = index >= 0 ? index + 1 : -index - 1;
+        return (double) below / sorted.length;
+    }
+}
@@ -0,0 +1,506 @@
+/*
+ * This file is a part of the Nadeshiko project. Nadeshiko is free software, licensed under the MIT license.
+ *
+ * Usage of these works (including, yet not limited to, reuse, modification, copying, distribution, and selling) is
+ * permitted, provided that the relevant copyright notice and permission notice (as specified in LICENSE) shall be
+ * included in all copies or substantial portions of this software.
+ *
+ * These works are provided "AS IS" with absolutely no warranty of any kind, either expressed or implied.
+ *
+ * You should have received a copy of the MIT License alongside this software; refer to LICENSE for information.
+ * If not, refer to https://mit-license.org.
+ */
+
+package io.nadeshiko.nadeshiko.leaderboards;
+
+import static io.nadeshiko.nadeshiko.leaderboards.Leaderboard.*;
+
+import com.google.gson.JsonObject;
+import io.nadeshiko.nadeshiko.util.JsonUtil;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * The lambdas built in leaderboards were derived with before they were declared as {@link LeaderboardDerivation}s,
+ * copied verbatim, to check the derivations against
+ *
+ * @author chloe
+ */
+final class LegacyDerivations {
+
+    /**
+     * The lambda each leaderboard declared as a {@link LeaderboardDerivation} was derived with before
+     */
+    static final Map<Leaderboard, Function<JsonObject, Number>> LAMBDAS;
+
+    static {
+        Map<Leaderboard, Function<JsonObject, Number>> lambdas = new EnumMap<>(Leaderboard.class);
+        register(lambdas);
+        LAMBDAS = Collections.unmodifiableMap(lambdas);
+    }
+
+    private LegacyDerivations() {
+    }
+
+    /**
+     * Derive a stat the way {@link Leaderboard#derive(JsonObject)} did with a lambda
+     * @param leaderboard The leaderboard to derive the stat of
+     * @param input The category's input
+     * @return The stat, or 0 if the lambda threw
+     */
+    static Number derive(Leaderboard leaderboard, JsonObject input) {
+        try {
+            return LAMBDAS.get(leaderboard).apply(input);
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    private static void register(Map<Leaderboard, Function<JsonObject, Number>> lambdas) {
+        lambdas.put(NETWORK_FIRST_LOGIN, profile -> profile.get("first_login").getAsLong());
+        lambdas.put(NETWORK_NETWORK_LEVEL, profile -> profile.get("network_level").getAsFloat());
+        lambdas.put(NETWORK_ACHIEVEMENT_POINTS, profile -> profile.get("achievement_points").getAsInt());
+        lambdas.put(NETWORK_KARMA, profile -> profile.get("karma").getAsInt());
+        lambdas.put(NETWORK_RANKS_GIFTED, profile -> profile.get("ranks_gifted").getAsInt());
+        lambdas.put(NETWORK_QUESTS_COMPLETED, profile -> profile.get("quests_completed").getAsInt());
+        lambdas.put(BEDWARS_EXP, bw -> bw.get("Experience").getAsLong());
+        lambdas.put(BEDWARS_TICKETS_EARNED, bw ->
+            bw.getAsJsonObject("slumber").get("total_tickets_earned").getAsLong());
+        lambdas.put(BEDWARS_COMPLETED_CHALLENGES, bw -> bw.get("total_challenges_completed").getAsInt());
+        lambdas.put(BEDWARS_COLLECTED_EMERALDS, bw -> bw.get("emerald_resources_collected_bedwars").getAsInt());
+        lambdas.put(BEDWARS_COLLECTED_DIAMONDS, bw -> bw.get("diamond_resources_collected_bedwars").getAsInt());
+        lambdas.put(BEDWARS_WINSTREAK, bw -> bw.get("winstreak").getAsInt());
+        lambdas.put(BEDWARS_WINS, bw -> bw.get("wins_bedwars").getAsInt());
+        lambdas.put(BEDWARS_WLR, bw -> bw.get("wins_bedwars").getAsDouble() / bw.get("losses_bedwars").getAsDouble());
+        lambdas.put(BEDWARS_FINALS, bw -> bw.get("final_kills_bedwars").getAsInt());
+        lambdas.put(BEDWARS_FKDR, bw ->
+            bw.get("final_kills_bedwars").getAsDouble() / bw.get("final_deaths_bedwars").getAsDouble());
+        lambdas.put(BEDWARS_KILLS, bw -> bw.get("kills_bedwars").getAsInt());
+        lambdas.put(BEDWARS_KDR, bw -> bw.get("kills_bedwars").getAsDouble() / bw.get("deaths_bedwars").getAsDouble());
+        lambdas.put(BEDWARS_BEDS, bw -> bw.get("beds_broken_bedwars").getAsInt());
+        lambdas.put(BEDWARS_BBLR, bw ->
+            bw.get("beds_broken_bedwars").getAsDouble() / bw.get("beds_lost_bedwars").getAsDouble());
+        lambdas.put(BEDWARS_SOLO_WINSTREAK, bw -> bw.get("eight_one_winstreak").getAsInt());
+        lambdas.put(BEDWARS_SOLO_WINS, bw -> bw.get("eight_one_wins_bedwars").getAsInt());
+        lambdas.put(BEDWARS_SOLO_WLR, bw ->
+            bw.get("eight_one_wins_bedwars").getAsDouble() / bw.get("eight_one_losses_bedwars").getAsDouble());
+        lambdas.put(BEDWARS_SOLO_FINALS, bw -> bw.get("eight_one_final_kills_bedwars").getAsInt());
+        lambdas.put(BEDWARS_SOLO_FKDR, bw ->
+            bw.get("eight_one_final_kills_bedwars").getAsDouble()
+            / bw.get("eight_one_final_deaths_bedwars").getAsDouble());
+        lambdas.put(BEDWARS_DOUBLES_WINSTREAK, bw -> bw.get("eight_two_winstreak").getAsInt());
+        lambdas.put(BEDWARS_DOUBLES_WINS, bw -> bw.get("eight_two_wins_bedwars").getAsInt());
+        lambdas.put(BEDWARS_DOUBLES_WLR, bw ->
+            bw.get("eight_two_wins_bedwars").getAsDouble() / bw.get("eight_two_losses_bedwars").getAsDouble());
+        lambdas.put(BEDWARS_DOUBLES_FINALS, bw -> bw.get("eight_two_final_kills_bedwars").getAsInt());
+        lambdas.put(BEDWARS_DOUBLES_FKDR, bw ->
+            bw.get("eight_two_final_kills_bedwars").getAsDouble()
+            / bw.get("eight_two_final_deaths_bedwars").getAsDouble());
+        lambdas.put(BEDWARS_THREES_WINSTREAK, bw -> bw.get("four_three_winstreak").getAsInt());
+        lambdas.put(BEDWARS_THREES_WINS, bw -> bw.get("four_three_wins_bedwars").getAsInt());
+        lambdas.put(BEDWARS_THREES_WLR, bw ->
+            bw.get("four_three_wins_bedwars").getAsDouble() / bw.get("four_three_losses_bedwars").getAsDouble());
+        lambdas.put(BEDWARS_THREES_FINALS, bw -> bw.get("four_three_final_kills_bedwars").getAsInt());
+        lambdas.put(BEDWARS_THREES_FKDR, bw ->
+            bw.get("four_three_final_kills_bedwars").getAsDouble()
+            / bw.get("four_three_final_deaths_bedwars").getAsDouble());
+        lambdas.put(BEDWARS_FOURS_WINSTREAK, bw -> bw.get("four_four_winstreak").getAsInt());
+        lambdas.put(BEDWARS_FOURS_WINS, bw -> bw.get("four_four_wins_bedwars").getAsInt());
+        lambdas.put(BEDWARS_FOURS_WLR, bw ->
+            bw.get("four_four_wins_bedwars").getAsDouble() / bw.get("four_four_losses_bedwars").getAsDouble());
+        lambdas.put(BEDWARS_FOURS_FINALS, bw -> bw.get("four_four_final_kills_bedwars").getAsInt());
+        lambdas.put(BEDWARS_FOURS_FKDR, bw ->
+            bw.get("four_four_final_kills_bedwars").getAsDouble()
+            / bw.get("four_four_final_deaths_bedwars").getAsDouble());
+        lambdas.put(BEDWARS_FOURVFOUR_WINSTREAK, bw -> bw.get("two_four_winstreak").getAsInt());
+        lambdas.put(BEDWARS_FOURVFOUR_WINS, bw -> bw.get("two_four_wins_bedwars").getAsInt());
+        lambdas.put(BEDWARS_FOURVFOUR_WLR, bw ->
+            bw.get("two_four_wins_bedwars").getAsDouble() / bw.get("two_four_losses_bedwars").getAsDouble());
+        lambdas.put(BEDWARS_FOURVFOUR_FINALS, bw -> bw.get("two_four_final_kills_bedwars").getAsInt());
+        lambdas.put(BEDWARS_FOURVFOUR_FKDR, bw ->
+            bw.get("two_four_final_kills_bedwars").getAsDouble()
+            / bw.get("two_four_final_deaths_bedwars").getAsDouble());
+        lambdas.put(BEDWARS_COLLECTED_IRON, bw -> bw.get("iron_resources_collected_bedwars").getAsInt());
+        lambdas.put(BEDWARS_COLLECTED_GOLD, bw -> bw.get("gold_resources_collected_bedwars").getAsInt());
+        lambdas.put(BEDWARS_TOKENS, bw -> bw.get("coins").getAsInt());
+        lambdas.put(DUELS_CLICKS, duels -> duels.get("melee_swings").getAsInt());
+        lambdas.put(DUELS_WINS, duels -> duels.get("wins").getAsInt());
+        lambdas.put(DUELS_WLR, duels -> duels.get("wins").getAsDouble() / duels.get("losses").getAsDouble());
+        lambdas.put(DUELS_KILLS, duels -> duels.get("kills").getAsInt());
+        lambdas.put(DUELS_DAMAGE_DEALT, duels -> duels.get("damage_dealt").getAsLong());
+        lambdas.put(DUELS_HEALTH_REGENERATED, duels -> duels.get("health_regenerated").getAsLong());
+        lambdas.put(DUELS_WINSTREAK, duels -> duels.get("current_winstreak").getAsInt());
+        lambdas.put(DUELS_BEST_WINSTREAK, duels -> duels.get("best_overall_winstreak").getAsInt());
+        lambdas.put(DUELS_BRIDGE_WINS, duels -> duels.get("bridge_duel_wins").getAsInt());
+        lambdas.put(DUELS_BRIDGE_GOALS, duels -> duels.get("bridge_duel_goals").getAsInt());
+        lambdas.put(DUELS_SW_WINS, duels -> duels.get("sw_duel_wins").getAsInt());
+        lambdas.put(DUELS_CLASSIC_WINS, duels -> duels.get("classic_duel_wins").getAsInt());
+        lambdas.put(DUELS_UHC_WINS, duels -> duels.get("uhc_duel_wins").getAsInt());
+        lambdas.put(DUELS_SUMO_WINS, duels -> duels.get("sumo_duel_wins").getAsInt());
+        lambdas.put(DUELS_PARKOUR_WINS, duels -> duels.get("parkour_eight_wins").getAsInt());
+        lambdas.put(DUELS_BLITZ_WINS, duels -> duels.get("blitz_duel_wins").getAsInt());
+        lambdas.put(DUELS_BOW_WINS, duels -> duels.get("bow_duel_wins").getAsInt());
+        lambdas.put(DUELS_MW_WINS, duels -> duels.get("mw_duel_wins").getAsInt());
+        lambdas.put(DUELS_BOWSPLEEF_WINS, duels -> duels.get("bowspleef_duel_wins").getAsInt());
+        lambdas.put(DUELS_OP_WINS, duels -> duels.get("op_duel_wins").getAsInt());
+        lambdas.put(DUELS_COMBO_WINS, duels -> duels.get("combo_duel_wins").getAsInt());
+        lambdas.put(DUELS_BOXING_WINS, duels -> duels.get("boxing_duel_wins").getAsInt());
+        lambdas.put(DUELS_NODEBUFF_WINS, duels -> duels.get("potion_duel_wins").getAsInt());
+        lambdas.put(DUELS_ARENA_WINS, duels -> duels.get("duel_arena_wins").getAsInt());
+        lambdas.put(DUELS_TOKENS, duels -> duels.get("coins").getAsInt());
+        lambdas.put(SKYWARS_EXP, sw -> sw.get("skywars_experience").getAsInt());
+        lambdas.put(SKYWARS_WINS, sw -> sw.get("wins").getAsInt());
+        lambdas.put(SKYWARS_WLR, sw -> sw.get("wins").getAsDouble() / sw.get("losses").getAsDouble());
+        lambdas.put(SKYWARS_KILLS, sw -> sw.get("kills").getAsInt());
+        lambdas.put(SKYWARS_KDR, sw -> sw.get("kills").getAsDouble() / sw.get("deaths").getAsDouble());
+        lambdas.put(SKYWARS_SOLO_NORMAL_WINS, sw -> sw.get("wins_solo_normal").getAsInt());
+        lambdas.put(SKYWARS_SOLO_NORMAL_WLR, sw ->
+            sw.get("wins_solo_normal").getAsDouble() / Math.max(sw.get("losses_solo_normal").getAsDouble(), 1));
+        lambdas.put(SKYWARS_SOLO_NORMAL_KILLS, sw -> sw.get("kills_solo_normal").getAsInt());
+        lambdas.put(SKYWARS_SOLO_NORMAL_KDR, sw ->
+            sw.get("kills_solo_normal").getAsDouble() / Math.max(sw.get("deaths_solo_normal").getAsDouble(), 1));
+        lambdas.put(SKYWARS_SOLO_INSANE_WINS, sw -> sw.get("wins_solo_insane").getAsInt());
+        lambdas.put(SKYWARS_SOLO_INSANE_WLR, sw ->
+            sw.get("wins_solo_insane").getAsDouble() / Math.max(sw.get("losses_solo_insane").getAsDouble(), 1));
+        lambdas.put(SKYWARS_SOLO_INSANE_KILLS, sw -> sw.get("kills_solo_insane").getAsInt());
+        lambdas.put(SKYWARS_SOLO_INSANE_KDR, sw ->
+            sw.get("kills_solo_insane").getAsDouble() / Math.max(sw.get("deaths_solo_insane").getAsDouble(), 1));
+        lambdas.put(SKYWARS_TEAM_NORMAL_WINS, sw -> sw.get("wins_team_normal").getAsInt());
+        lambdas.put(SKYWARS_TEAM_NORMAL_WLR, sw ->
+            sw.get("wins_team_normal").getAsDouble() / Math.max(sw.get("losses_team_normal").getAsDouble(), 1));
+        lambdas.put(SKYWARS_TEAM_NORMAL_KILLS, sw -> sw.get("kills_team_normal").getAsInt());
+        lambdas.put(SKYWARS_TEAM_NORMAL_KDR, sw ->
+            sw.get("kills_team_normal").getAsDouble() / Math.max(sw.get("deaths_team_normal").getAsDouble(), 1));
+        lambdas.put(SKYWARS_TEAM_INSANE_WINS, sw -> sw.get("wins_team_insane").getAsInt());
+        lambdas.put(SKYWARS_TEAM_INSANE_WLR, sw ->
+            sw.get("wins_team_insane").getAsDouble() / Math.max(sw.get("losses_team_insane").getAsDouble(), 1));
+        lambdas.put(SKYWARS_TEAM_INSANE_KILLS, sw -> sw.get("kills_team_insane").getAsInt());
+        lambdas.put(SKYWARS_TEAM_INSANE_KDR, sw ->
+            sw.get("kills_team_insane").getAsDouble() / Math.max(sw.get("deaths_team_insane").getAsDouble(), 1));
+        lambdas.put(SKYWARS_COINS, sw -> sw.get("coins").getAsInt());
+        lambdas.put(SKYWARS_TOKENS, sw -> sw.get("cosmetic_tokens").getAsInt());
+        lambdas.put(SKYWARS_LAB_WINS, sw -> sw.get("wins_lab").getAsInt());
+        lambdas.put(SKYWARS_LAB_WLR, sw ->
+            sw.get("wins_lab").getAsDouble() / Math.max(sw.get("losses_lab").getAsDouble(), 1));
+        lambdas.put(SKYWARS_LAB_KILLS, sw -> sw.get("kills_lab").getAsInt());
+        lambdas.put(SKYWARS_LAB_KDR, sw ->
+            sw.get("kills_lab").getAsDouble() / Math.max(sw.get("deaths_lab").getAsDouble(), 1));
+        lambdas.put(SKYWARS_LUCKY_BLOCK_WINS, sw -> sw.get("lab_win_lucky_blocks_lab").getAsInt());
+        lambdas.put(PIT_EXP, pit -> pit.getAsJsonObject("profile").get("xp").getAsLong());
+        lambdas.put(PIT_GOLD, pit -> pit.getAsJsonObject("profile").get("cash").getAsDouble());
+        lambdas.put(PIT_DAMAGE_DEALT, pit -> pit.getAsJsonObject("pit_stats_ptl").get("damage_dealt").getAsInt());
+        lambdas.put(PIT_JOINS, pit -> pit.getAsJsonObject("pit_stats_ptl").get("joins").getAsInt());
+        lambdas.put(PIT_PLAYTIME, pit -> pit.getAsJsonObject("pit_stats_ptl").get("playtime_minutes").getAsInt());
+        lambdas.put(PIT_CHAT_MESSAGES, pit -> pit.getAsJsonObject("pit_stats_ptl").get("chat_messages").getAsInt());
+        lambdas.put(PIT_CLICKS, pit -> pit.getAsJsonObject("pit_stats_ptl").get("left_clicks").getAsInt());
+        lambdas.put(PIT_KILLS, pit -> pit.getAsJsonObject("pit_stats_ptl").get("kills").getAsInt());
+        lambdas.put(PIT_NIGHT_QUESTS_COMPLETED, pit ->
+            pit.getAsJsonObject("pit_stats_ptl").get("night_quests_completed").getAsInt());
+        lambdas.put(PIT_WHEAT_FARMED, pit -> pit.getAsJsonObject("pit_stats_ptl").get("wheat_farmed").getAsInt());
+        lambdas.put(PIT_RENOWN, pit -> pit.getAsJsonObject("profile").get("renown").getAsInt());
+        lambdas.put(PIT_ITEMS_FISHED, pit -> pit.getAsJsonObject("pit_stats_ptl").get("fished_anything").getAsInt());
+        lambdas.put(PIT_INGOTS_PICKED_UP, pit ->
+            pit.getAsJsonObject("pit_stats_ptl").get("ingots_picked_up").getAsInt());
+        lambdas.put(PIT_LAUNCHER_LAUNCHES, pit ->
+            pit.getAsJsonObject("pit_stats_ptl").get("launched_by_launchers").getAsInt());
+        lambdas.put(PIT_HIGHEST_KILLSTREAK, pit -> pit.getAsJsonObject("pit_stats_ptl").get("max_streak").getAsInt());
+        lambdas.put(PIT_ITEMS_ENCHANTED, pit ->
+            JsonUtil.getNullableInt(pit.getAsJsonObject("pit_stats_ptl").get("enchanted_tier1"))
+            + JsonUtil.getNullableInt(pit.getAsJsonObject("pit_stats_ptl").get("enchanted_tier2"))
+            + JsonUtil.getNullableInt(pit.getAsJsonObject("pit_stats_ptl").get("enchanted_tier3")));
+        lambdas.put(PIT_CONTRACTS_COMPLETED, pit ->
+            pit.getAsJsonObject("pit_stats_ptl").get("contracts_completed").getAsInt());
+        lambdas.put(BUILD_BATTLE_WINS, bb -> bb.get("wins").getAsInt());
+        lambdas.put(BUILD_BATTLE_SCORE, bb -> bb.get("score").getAsInt());
+        lambdas.put(BUILD_BATTLE_VOTES, bb -> bb.get("total_votes").getAsInt());
+        lambdas.put(BUILD_BATTLE_GTB_WINS, bb -> bb.get("wins_guess_the_build").getAsInt());
+        lambdas.put(BUILD_BATTLE_GTB_CORRECT_GUESSES, bb -> bb.get("correct_guesses").getAsInt());
+        lambdas.put(BUILD_BATTLE_SPEED_BUILDERS_WINS, bb -> bb.get("wins_speed_builders").getAsInt());
+        lambdas.put(BUILD_BATTLE_TOKENS, bb -> bb.get("coins").getAsInt());
+        lambdas.put(BUILD_BATTLE_SOLO_WINS, bb -> bb.get("wins_solo_normal").getAsInt());
+        lambdas.put(BUILD_BATTLE_TEAM_WINS, bb -> bb.get("wins_teams_normal").getAsInt());
+        lambdas.put(BUILD_BATTLE_PRO_WINS, bb -> bb.get("wins_solo_pro").getAsInt());
+        lambdas.put(MURDER_MYSTERY_KILLS, mm -> mm.get("kills").getAsInt());
+        lambdas.put(MURDER_MYSTERY_WINS, mm -> mm.get("wins").getAsInt());
+        lambdas.put(MURDER_MYSTERY_MURDERER_WINS, mm -> mm.get("murderer_wins").getAsInt());
+        lambdas.put(MURDER_MYSTERY_DETECTIVE_WINS, mm -> mm.get("detective_wins").getAsInt());
+        lambdas.put(MURDER_MYSTERY_CLASSIC_WINS, mm -> mm.get("wins_MURDER_CLASSIC").getAsInt());
+        lambdas.put(MURDER_MYSTERY_DOUBLE_UP_WINS, mm -> mm.get("wins_MURDER_DOUBLE_UP").getAsInt());
+        lambdas.put(MURDER_MYSTERY_ASSASSINS_WINS, mm -> mm.get("wins_MURDER_ASSASSINS").getAsInt());
+        lambdas.put(MURDER_MYSTERY_INFECTION_WINS, mm -> mm.get("wins_MURDER_INFECTION").getAsInt());
+        lambdas.put(TNT_GAMES_WINS, tnt -> tnt.get("wins").getAsInt());
+        lambdas.put(TNT_GAMES_BOWSPLEEF_WINS, tnt -> tnt.get("wins_bowspleef").getAsInt());
+        lambdas.put(TNT_GAMES_PVPRUN_WINS, tnt -> tnt.get("wins_pvprun").getAsInt());
+        lambdas.put(TNT_GAMES_PVPRUN_KILLS, tnt -> tnt.get("kills_pvprun").getAsInt());
+        lambdas.put(TNT_GAMES_PVPRUN_LONGEST, tnt -> tnt.get("record_pvprun").getAsInt());
+        lambdas.put(TNT_GAMES_TNTRUN_WINS, tnt -> tnt.get("wins_tntrun").getAsInt());
+        lambdas.put(TNT_GAMES_TNTRUN_LONGEST, tnt -> tnt.get("record_tntrun").getAsInt());
+        lambdas.put(TNT_GAMES_TNTTAG_WINS, tnt -> tnt.get("wins_tntag").getAsInt());
+        lambdas.put(TNT_GAMES_TNTTAG_KILLS, tnt -> tnt.get("kills_tntag").getAsInt());
+        lambdas.put(TNT_GAMES_WIZARDS_WINS, tnt -> tnt.get("wins_capture").getAsInt());
+        lambdas.put(TNT_GAMES_WIZARDS_KILLS, tnt -> tnt.get("kills_capture").getAsInt());
+        lambdas.put(TNT_GAMES_TOKENS, tnt -> tnt.get("coins").getAsInt());
+        lambdas.put(TNT_GAMES_WIZARDS_POINTS_CAPTURED, tnt -> tnt.get("points_capture").getAsInt());
+        lambdas.put(ARCADE_COINS, ar -> ar.get("coins").getAsInt());
+        lambdas.put(ARCADE_DROPPER_BEST_TIME, ar -> ar.getAsJsonObject("dropper").get("fastest_game").getAsInt());
+        lambdas.put(ARCADE_DROPPER_WINS, ar -> ar.getAsJsonObject("dropper").get("wins").getAsInt());
+        lambdas.put(ARCADE_HYPIXEL_SAYS_WINS, ar -> ar.get("wins_simon_says").getAsInt());
+        lambdas.put(ARCADE_MINI_WALLS_WINS, ar -> ar.get("wins_mini_walls").getAsInt());
+        lambdas.put(ARCADE_MINI_WALLS_KILLS, ar -> ar.get("kills_mini_walls").getAsInt());
+        lambdas.put(ARCADE_PARTY_WINS, ar -> ar.get("wins_party").getAsInt());
+        lambdas.put(ARCADE_PIXEL_PARTY_WINS, ar -> ar.getAsJsonObject("pixel_party").get("wins").getAsInt());
+        lambdas.put(ARCADE_THROW_OUT_WINS, ar -> ar.get("wins_throw_out").getAsInt());
+        lambdas.put(ARCADE_THROW_OUT_KILLS, ar -> ar.get("kills_throw_out").getAsInt());
+        lambdas.put(ARCADE_ZOMBIES_WINS, ar -> ar.get("wins_zombies").getAsInt());
+        lambdas.put(ARCADE_ZOMBIES_KILLS, ar -> ar.get("zombie_kills_zombies").getAsInt());
+        lambdas.put(ARCADE_ZOMBIES_WINDOWS_REPAIRED, ar -> ar.get("windows_repaired_zombies").getAsInt());
+        lambdas.put(ARCADE_ZOMBIES_PLAYERS_REVIVED, ar -> ar.get("players_revived_zombies").getAsInt());
+        lambdas.put(ARCADE_ZOMBIES_DOORS_OPENED, ar -> ar.get("doors_opened_zombies").getAsInt());
+        lambdas.put(ARCADE_BLOCKING_DEAD_WINS, ar -> ar.get("wins_dayone").getAsInt());
+        lambdas.put(ARCADE_BLOCKING_DEAD_KILLS, ar -> ar.get("kills_dayone").getAsInt());
+        lambdas.put(ARCADE_BOUNTY_HUNTERS_WINS, ar -> ar.get("wins_oneinthequiver").getAsInt());
+        lambdas.put(ARCADE_BOUNTY_HUNTERS_KILLS, ar -> ar.get("kills_oneinthequiver").getAsInt());
+        lambdas.put(ARCADE_CREEPER_ATTACK_MAX_WAVE, ar -> ar.get("max_wave").getAsInt());
+        lambdas.put(ARCADE_DRAGON_WARS_WINS, ar -> ar.get("wins_dragonwars2").getAsInt());
+        lambdas.put(ARCADE_DRAGON_WARS_KILLS, ar -> ar.get("kills_dragonwars2").getAsInt());
+        lambdas.put(ARCADE_ENDER_SPLEEF_WINS, ar -> ar.get("wins_ender").getAsInt());
+        lambdas.put(ARCADE_ENDER_SPLEEF_BLOCKS_DESTROYED, ar -> ar.get("blocks_destroyed_ender").getAsInt());
+        lambdas.put(ARCADE_FARM_HUNT_WINS, ar -> ar.get("wins_farm_hunt").getAsInt());
+        lambdas.put(ARCADE_FARM_HUNT_HUNTER_WINS, ar -> ar.get("hunter_wins_farm_hunt").getAsInt());
+        lambdas.put(ARCADE_FARM_HUNT_ANIMAL_WINS, ar -> ar.get("animal_wins_farm_hunt").getAsInt());
+        lambdas.put(ARCADE_FARM_HUNT_KILLS, ar -> ar.get("kills_farm_hunt").getAsInt());
+        lambdas.put(ARCADE_FARM_HUNT_TAUNTS_USED, ar -> ar.get("taunts_used_farm_hunt").getAsInt());
+        lambdas.put(ARCADE_FARM_HUNT_POOP_COLLECTED, ar -> ar.get("poop_collected_farm_hunt").getAsInt());
+        lambdas.put(ARCADE_FOOTBALL_WINS, ar -> ar.get("wins_soccer").getAsInt());
+        lambdas.put(ARCADE_FOOTBALL_GOALS, ar -> ar.get("goals_soccer").getAsInt());
+        lambdas.put(ARCADE_FOOTBALL_KICKS, ar -> ar.get("kicks_soccer").getAsInt());
+        lambdas.put(ARCADE_FOOTBALL_POWER_KICKS, ar -> ar.get("powerkicks_soccer").getAsInt());
+        lambdas.put(ARCADE_GALAXY_WARS_WINS, ar -> ar.get("sw_game_wins").getAsInt());
+        lambdas.put(ARCADE_GALAXY_WARS_KILLS, ar -> ar.get("sw_kills").getAsInt());
+        lambdas.put(ARCADE_GALAXY_WARS_KDR, ar ->
+            ar.get("sw_kills").getAsDouble() / Math.max(ar.get("sw_deaths").getAsDouble(), 1));
+        lambdas.put(ARCADE_HIDE_AND_SEEK_PARTY_POOPER_WINS, ar ->
+            JsonUtil.getNullableInt(ar.get("party_pooper_hider_wins_hide_and_seek"))
+            + JsonUtil.getNullableInt(ar.get("party_pooper_seeker_wins_hide_and_seek")));
+        lambdas.put(ARCADE_HIDE_AND_SEEK_PROP_HUNT_WINS, ar ->
+            JsonUtil.getNullableInt(ar.get("prop_hunt_hider_wins_hide_and_seek"))
+            + JsonUtil.getNullableInt(ar.get("prop_hunt_seeker_wins_hide_and_seek")));
+        lambdas.put(ARCADE_HOLE_IN_THE_WALL_WINS, ar -> ar.get("wins_hole_in_the_wall").getAsInt());
+        lambdas.put(ARCADE_HOLE_IN_THE_WALL_QUALIFICATIONS_RECORD, ar -> ar.get("hitw_record_q").getAsInt());
+        lambdas.put(ARCADE_HOLE_IN_THE_WALL_FINALS_RECORD, ar -> ar.get("hitw_record_f").getAsInt());
+        lambdas.put(ARCADE_MINI_WALLS_FINAL_KILLS, ar -> ar.get("final_kills_mini_walls").getAsInt());
+        lambdas.put(ARCADE_PIXEL_PARTY_POWERUPS_COLLECTED, ar ->
+            ar.getAsJsonObject("pixel_party").get("power_ups_collected").getAsInt());
+        lambdas.put(ARCADE_PIXEL_PARTY_NORMAL_WINS, ar ->
+            ar.getAsJsonObject("pixel_party").get("wins_normal").getAsInt());
+        lambdas.put(ARCADE_PIXEL_PARTY_HYPER_WINS, ar ->
+            ar.getAsJsonObject("pixel_party").get("wins_hyper").getAsInt());
+        lambdas.put(ARCADE_PIXEL_PAINTERS_WINS, ar -> ar.get("wins_draw_their_thing").getAsInt());
+        lambdas.put(ARCADE_GRINCH_SIMULATOR_WINS, ar -> ar.get("wins_grinch_simulator_v2").getAsInt());
+        lambdas.put(ARCADE_GRINCH_SIMULATOR_GIFTS_STOLEN, ar -> ar.get("gifts_grinch_simulator_v2").getAsInt());
+        lambdas.put(ARCADE_SCUBA_SIMULATOR_WINS, ar -> ar.get("wins_scuba_simulator").getAsInt());
+        lambdas.put(ARCADE_SANTA_SIMULATOR_WINS, ar -> ar.get("wins_santa_simulator").getAsInt());
+        lambdas.put(ARCADE_HALLOWEEN_SIMULATOR_WINS, ar -> ar.get("wins_halloween_simulator").getAsInt());
+        lambdas.put(ARCADE_EASTER_SIMULATOR_WINS, ar -> ar.get("wins_easter_simulator").getAsInt());
+        lambdas.put(BLITZ_COINS, bsg -> bsg.get("coins").getAsInt());
+        lambdas.put(BLITZ_SOLO_WINS, bsg -> bsg.get("wins_solo_normal").getAsInt());
+        lambdas.put(BLITZ_TEAM_WINS, bsg -> bsg.get("wins_teams_normal").getAsInt());
+        lambdas.put(BLITZ_KILLS, bsg -> bsg.get("kills").getAsInt());
+        lambdas.put(BLITZ_TEAM_KILLS, bsg -> bsg.get("kills_teams_normal").getAsInt());
+        lambdas.put(BLITZ_DAMAGE_DEALT, bsg -> bsg.get("damage").getAsInt());
+        lambdas.put(ARENA_BRAWL_COINS, ab -> ab.get("coins").getAsInt());
+        lambdas.put(ARENA_BRAWL_WINS, ab -> ab.get("wins").getAsInt());
+        lambdas.put(ARENA_BRAWL_KILLS, ab ->
+            JsonUtil.getNullableInt(ab.get("kills_1v1")) + JsonUtil.getNullableInt(ab.get("kills_2v2"))
+            + JsonUtil.getNullableInt(ab.get("kills_4v4")));
+        lambdas.put(ARENA_BRAWL_MAGICAL_CHESTS, ab -> ab.get("magical_chest").getAsInt());
+        lambdas.put(PAINTBALL_COINS, pb -> pb.get("coins").getAsInt());
+        lambdas.put(PAINTBALL_WINS, pb -> pb.get("wins").getAsInt());
+        lambdas.put(PAINTBALL_KILLS, pb -> pb.get("kills").getAsInt());
+        lambdas.put(PAINTBALL_KDR, pb -> pb.get("kills").getAsDouble() / Math.max(pb.get("deaths").getAsDouble(), 1));
+        lambdas.put(PAINTBALL_KILLSTREAKS, pb -> pb.get("killstreaks").getAsInt());
+        lambdas.put(PAINTBALL_SHOTS_FIRED, pb -> pb.get("shots_fired").getAsInt());
+        lambdas.put(QUAKECRAFT_COINS, qc -> qc.get("coins").getAsInt());
+        lambdas.put(QUAKECRAFT_WINS, qc ->
+            JsonUtil.getNullableInt(qc.get("wins")) + JsonUtil.getNullableInt(qc.get("wins_teams")));
+        lambdas.put(QUAKECRAFT_KILLS, qc ->
+            JsonUtil.getNullableInt(qc.get("kills")) + JsonUtil.getNullableInt(qc.get("kills_teams")));
+        lambdas.put(QUAKECRAFT_DISTANCE_TRAVELLED, qc -> qc.get("distance_travelled").getAsInt());
+        lambdas.put(TURBO_KART_RACERS_COINS, tkr -> tkr.get("coins").getAsInt());
+        lambdas.put(TURBO_KART_RACERS_TROPHIES, tkr ->
+            JsonUtil.getNullableInt(tkr.get("gold_trophy")) + JsonUtil.getNullableInt(tkr.get("silver_trophy"))
+            + JsonUtil.getNullableInt(tkr.get("bronze_trophy")));
+        lambdas.put(TURBO_KART_RACERS_GOLD_TROPHIES, tkr -> tkr.get("gold_trophy").getAsInt());
+        lambdas.put(TURBO_KART_RACERS_LAPS, tkr -> tkr.get("laps_completed").getAsInt());
+        lambdas.put(TURBO_KART_RACERS_ITEM_BOX_PICKUPS, tkr -> tkr.get("box_pickups").getAsInt());
+        lambdas.put(VAMPIREZ_COINS, vz -> vz.get("coins").getAsInt());
+        lambdas.put(VAMPIREZ_HUMAN_WINS, vz -> vz.get("human_wins").getAsInt());
+        lambdas.put(VAMPIREZ_HUMAN_KILLS, vz -> vz.get("human_kills").getAsInt());
+        lambdas.put(VAMPIREZ_VAMPIRE_WINS, vz -> vz.get("vampire_wins").getAsInt());
+        lambdas.put(VAMPIREZ_VAMPIRE_KILLS, vz -> vz.get("vampire_kills").getAsInt());
+        lambdas.put(VAMPIREZ_ZOMBIE_KILLS, vz -> vz.get("zombie_kills").getAsInt());
+        lambdas.put(WALLS_COINS, wl -> wl.get("coins").getAsInt());
+        lambdas.put(WALLS_WINS, wl -> wl.get("wins").getAsInt());
+        lambdas.put(WALLS_KILLS, wl -> wl.get("kills").getAsInt());
+        lambdas.put(WALLS_KDR, wl -> wl.get("kills").getAsDouble() / Math.max(wl.get("deaths").getAsDouble(), 1));
+        lambdas.put(WALLS_ASSISTS, wl -> wl.get("assists").getAsInt());
+        lambdas.put(COPS_AND_CRIMS_SCORE, cc -> cc.get("score").getAsInt());
+        lambdas.put(COPS_AND_CRIMS_COINS, cc -> cc.get("coins").getAsInt());
+        lambdas.put(COPS_AND_CRIMS_DEFUSAL_WINS, cc -> cc.get("game_wins").getAsInt());
+        lambdas.put(COPS_AND_CRIMS_DEFUSAL_KILLS, cc -> cc.get("kills").getAsInt());
+        lambdas.put(COPS_AND_CRIMS_DEFUSAL_BOMBS_PLANTED, cc -> cc.get("bombs_planted").getAsInt());
+        lambdas.put(COPS_AND_CRIMS_DEFUSAL_BOMBS_DEFUSED, cc -> cc.get("bombs_defused").getAsInt());
+        lambdas.put(COPS_AND_CRIMS_DEFUSAL_ROUND_WINS, cc -> cc.get("round_wins").getAsInt());
+        lambdas.put(COPS_AND_CRIMS_DEFUSAL_KDR, cc ->
+            cc.get("kills").getAsDouble() / Math.max(cc.get("deaths").getAsDouble(), 1));
+        lambdas.put(COPS_AND_CRIMS_TEAM_DEATHMATCH_WINS, cc -> cc.get("game_wins_deathmatch").getAsInt());
+        lambdas.put(COPS_AND_CRIMS_TEAM_DEATHMATCH_KILLS, cc -> cc.get("kills_deathmatch").getAsInt());
+        lambdas.put(COPS_AND_CRIMS_TEAM_DEATHMATCH_KDR, cc ->
+            cc.get("kills_deathmatch").getAsDouble() / Math.max(cc.get("deaths_deathmatch").getAsDouble(), 1));
+        lambdas.put(COPS_AND_CRIMS_GUN_GAME_WINS, cc -> cc.get("game_wins_gungame").getAsInt());
+        lambdas.put(COPS_AND_CRIMS_GUN_GAME_KILLS, cc -> cc.get("kills_gungame").getAsInt());
+        lambdas.put(COPS_AND_CRIMS_GUN_GAME_KDR, cc ->
+            cc.get("kills_gungame").getAsDouble() / Math.max(cc.get("deaths_gungame").getAsDouble(), 1));
+        lambdas.put(COPS_AND_CRIMS_GUN_GAME_FASTEST_WIN, cc -> cc.get("fastest_win_gungame").getAsInt());
+        lambdas.put(MEGA_WALLS_COINS, mw -> mw.get("coins").getAsInt());
+        lambdas.put(MEGA_WALLS_CLASS_POINTS, mw -> mw.get("class_points").getAsInt());
+        lambdas.put(MEGA_WALLS_WINS, mw -> mw.get("wins").getAsInt());
+        lambdas.put(MEGA_WALLS_WITHER_KILLS, mw -> mw.get("wither_kills").getAsInt());
+        lambdas.put(MEGA_WALLS_WLR, mw -> mw.get("wins").getAsDouble() / Math.max(mw.get("losses").getAsDouble(), 1));
+        lambdas.put(MEGA_WALLS_FINAL_KILLS, mw ->
+            JsonUtil.getNullableInt(mw.get("final_kills")) + JsonUtil.getNullableInt(mw.get("finalKills")));
+        lambdas.put(MEGA_WALLS_KILLS, mw -> mw.get("kills").getAsInt());
+        lambdas.put(MEGA_WALLS_KDR, mw -> mw.get("kills").getAsDouble() / Math.max(mw.get("deaths").getAsDouble(), 1));
+        lambdas.put(MEGA_WALLS_MYTHIC_FAVOR, mw -> mw.get("mythic_favor").getAsInt());
+        lambdas.put(MEGA_WALLS_STANDARD_WINS, mw -> mw.get("wins_standard").getAsInt());
+        lambdas.put(MEGA_WALLS_STANDARD_WITHER_KILLS, mw -> mw.get("wither_kills_standard").getAsInt());
+        lambdas.put(MEGA_WALLS_STANDARD_WLR, mw ->
+            mw.get("wins_standard").getAsDouble() / Math.max(mw.get("losses_standard").getAsDouble(), 1));
+        lambdas.put(MEGA_WALLS_STANDARD_FINAL_KILLS, mw -> mw.get("final_kills_standard").getAsInt());
+        lambdas.put(MEGA_WALLS_STANDARD_FKDR, mw ->
+            mw.get("final_kills_standard").getAsDouble() / Math.max(mw.get("final_deaths_standard").getAsDouble(), 1));
+        lambdas.put(MEGA_WALLS_STANDARD_KILLS, mw -> mw.get("kills_standard").getAsInt());
+        lambdas.put(MEGA_WALLS_STANDARD_KDR, mw ->
+            mw.get("kills_standard").getAsDouble() / Math.max(mw.get("deaths_standard").getAsDouble(), 1));
+        lambdas.put(MEGA_WALLS_FACEOFF_WINS, mw -> mw.get("wins_face_off").getAsInt());
+        lambdas.put(MEGA_WALLS_FACEOFF_WITHER_KILLS, mw -> mw.get("wither_kills_face_off").getAsInt());
+        lambdas.put(MEGA_WALLS_FACEOFF_WLR, mw ->
+            mw.get("wins_face_off").getAsDouble() / Math.max(mw.get("losses_face_off").getAsDouble(), 1));
+        lambdas.put(MEGA_WALLS_FACEOFF_FINAL_KILLS, mw -> mw.get("final_kills_face_off").getAsInt());
+        lambdas.put(MEGA_WALLS_FACEOFF_FKDR, mw ->
+            mw.get("final_kills_face_off").getAsDouble() / Math.max(mw.get("final_deaths_face_off").getAsDouble(), 1));
+        lambdas.put(MEGA_WALLS_FACEOFF_KILLS, mw -> mw.get("kills_face_off").getAsInt());
+        lambdas.put(MEGA_WALLS_FACEOFF_KDR, mw ->
+            mw.get("kills_face_off").getAsDouble() / Math.max(mw.get("deaths_face_off").getAsDouble(), 1));
+        lambdas.put(SMASH_HEROES_COINS, sh -> sh.get("coins").getAsInt());
+        lambdas.put(SMASH_HEROES_WINS, sh -> sh.get("wins").getAsInt());
+        lambdas.put(SMASH_HEROES_WLR, sh -> sh.get("wins").getAsDouble() / Math.max(sh.get("losses").getAsDouble(), 1));
+        lambdas.put(SMASH_HEROES_KILLS, sh -> sh.get("kills").getAsInt());
+        lambdas.put(SMASH_HEROES_KDR, sh ->
+            sh.get("kills").getAsDouble() / Math.max(sh.get("deaths").getAsDouble(), 1));
+        lambdas.put(SMASH_HEROES_SMASH_LEVEL, sh -> sh.get("smashLevel").getAsInt());
+        lambdas.put(UHC_COINS, uhc -> uhc.get("coins").getAsInt());
+        lambdas.put(UHC_SCORE, uhc -> uhc.get("score").getAsInt());
+        lambdas.put(UHC_WINS, uhc ->
+            JsonUtil.getNullableInt(uhc.get("wins")) + JsonUtil.getNullableInt(uhc.get("wins_solo"))
+            + JsonUtil.getNullableInt(uhc.get("wins_no_diamonds")) + JsonUtil.getNullableInt(uhc.get("wins_brawl"))
+            + JsonUtil.getNullableInt(uhc.get("wins_solo_brawl")) + JsonUtil.getNullableInt(uhc.get("wins_duo_brawl"))
+            + JsonUtil.getNullableInt(uhc.get("wins_vanilla_doubles")));
+        lambdas.put(UHC_KILLS, uhc ->
+            JsonUtil.getNullableInt(uhc.get("kills")) + JsonUtil.getNullableInt(uhc.get("kills_solo"))
+            + JsonUtil.getNullableInt(uhc.get("kills_no_diamonds")) + JsonUtil.getNullableInt(uhc.get("kills_brawl"))
+            + JsonUtil.getNullableInt(uhc.get("kills_solo_brawl"))
+            + JsonUtil.getNullableInt(uhc.get("kills_duo_brawl"))
+            + JsonUtil.getNullableInt(uhc.get("kills_vanilla_doubles")));
+        lambdas.put(UHC_TEAMS_WINS, uhc -> uhc.get("wins").getAsInt());
+        lambdas.put(UHC_TEAMS_KILLS, uhc -> uhc.get("kills").getAsInt());
+        lambdas.put(UHC_TEAMS_KDR, uhc ->
+            uhc.get("kills").getAsDouble() / Math.max(uhc.get("deaths").getAsDouble(), 1));
+        lambdas.put(UHC_SOLO_WINS, uhc -> uhc.get("wins_solo").getAsInt());
+        lambdas.put(UHC_SOLO_KILLS, uhc -> uhc.get("kills_solo").getAsInt());
+        lambdas.put(UHC_SOLO_KDR, uhc ->
+            uhc.get("kills_solo").getAsDouble() / Math.max(uhc.get("deaths_solo").getAsDouble(), 1));
+        lambdas.put(SPEED_UHC_SCORE, suhc -> suhc.get("score").getAsInt());
+        lambdas.put(SPEED_UHC_KILLS, suhc -> suhc.get("kills").getAsInt());
+        lambdas.put(SPEED_UHC_WINS, suhc -> suhc.get("wins").getAsInt());
+        lambdas.put(SPEED_UHC_WLR, suhc ->
+            suhc.get("wins").getAsDouble() / Math.max(suhc.get("losses").getAsDouble(), 1));
+        lambdas.put(SPEED_UHC_KDR, suhc ->
+            suhc.get("kills").getAsDouble() / Math.max(suhc.get("deaths").getAsDouble(), 1));
+        lambdas.put(WARLORDS_COINS, wl -> wl.get("coins").getAsInt());
+        lambdas.put(WARLORDS_KILLS, wl -> wl.get("kills").getAsInt());
+        lambdas.put(WARLORDS_WINS, wl -> wl.get("wins").getAsInt());
+        lambdas.put(WARLORDS_KDR, wl -> wl.get("kills").getAsDouble() / Math.max(wl.get("deaths").getAsDouble(), 1));
+        lambdas.put(WARLORDS_CAPTURE_THE_FLAG_WINS, wl -> wl.get("wins_capturetheflag").getAsInt());
+        lambdas.put(WARLORDS_CAPTURE_THE_FLAG_KILLS, wl -> wl.get("kills_capturetheflag").getAsInt());
+        lambdas.put(WARLORDS_CAPTURE_THE_FLAG_CAPTURES, wl -> wl.get("flag_conquer_self").getAsInt());
+        lambdas.put(WARLORDS_CAPTURE_THE_FLAG_RETURNS, wl -> wl.get("flag_returns").getAsInt());
+        lambdas.put(WARLORDS_DOMINATION_WINS, wl -> wl.get("wins_domination").getAsInt());
+        lambdas.put(WARLORDS_DOMINATION_KILLS, wl -> wl.get("kills_domination").getAsInt());
+        lambdas.put(WARLORDS_DOMINATION_CAPTURES, wl -> wl.get("dom_point_captures").getAsInt());
+        lambdas.put(WARLORDS_TEAM_DEATHMATCH_WINS, wl -> wl.get("wins_teamdeathmatch").getAsInt());
+        lambdas.put(WARLORDS_TEAM_DEATHMATCH_KILLS, wl -> wl.get("kills_teamdeathmatch").getAsInt());
+        lambdas.put(WOOL_GAMES_WOOL, wg -> wg.get("coins").getAsInt());
+        lambdas.put(WOOL_GAMES_LEVEL, wg -> wg.getAsJsonObject("progression").get("experience").getAsInt());
+        lambdas.put(WOOL_GAMES_SHEEP_WARS_WINS, wg ->
+            wg.getAsJsonObject("sheep_wars").getAsJsonObject("stats").get("wins").getAsInt());
+        lambdas.put(WOOL_GAMES_SHEEP_WARS_KDR, wg ->
+            wg.getAsJsonObject("sheep_wars").getAsJsonObject("stats").get("kills").getAsDouble()
+            / Math.max(wg.getAsJsonObject("sheep_wars").getAsJsonObject("stats").get("deaths").getAsDouble(), 1));
+        lambdas.put(WOOL_GAMES_SHEEP_WARS_KILLS, wg ->
+            wg.getAsJsonObject("sheep_wars").getAsJsonObject("stats").get("kills").getAsInt());
+        lambdas.put(WOOL_GAMES_SHEEP_WARS_WLR, wg ->
+            wg.getAsJsonObject("sheep_wars").getAsJsonObject("stats").get("wins").getAsDouble()
+            / Math.max(wg.getAsJsonObject("sheep_wars").getAsJsonObject("stats").get("losses").getAsDouble(), 1));
+        lambdas.put(WOOL_GAMES_WOOL_WARS_WINS, wg ->
+            wg.getAsJsonObject("wool_wars").getAsJsonObject("stats").get("wins").getAsInt());
+        lambdas.put(WOOL_GAMES_WOOL_WARS_KDR, wg ->
+            wg.getAsJsonObject("wool_wars").getAsJsonObject("stats").get("kills").getAsDouble()
+            / Math.max(wg.getAsJsonObject("wool_wars").getAsJsonObject("stats").get("deaths").getAsDouble(), 1));
+        lambdas.put(WOOL_GAMES_WOOL_WARS_KILLS, wg ->
+            wg.getAsJsonObject("wool_wars").getAsJsonObject("stats").get("kills").getAsInt());
+        lambdas.put(WOOL_GAMES_CAPTURE_THE_WOOL_WINS, wg ->
+            wg.getAsJsonObject("capture_the_wool").getAsJsonObject("stats").get("participated_wins").getAsInt());
+        lambdas.put(WOOL_GAMES_CAPTURE_THE_WOOL_KDR, wg ->
+            wg.getAsJsonObject("capture_the_wool").getAsJsonObject("stats").get("kills").getAsDouble()
+            / Math.max(wg.getAsJsonObject("capture_the_wool").getAsJsonObject("stats").get("deaths").getAsDouble(), 1));
+        lambdas.put(WOOL_GAMES_CAPTURE_THE_WOOL_KILLS, wg ->
+            wg.getAsJsonObject("capture_the_wool").getAsJsonObject("stats").get("kills").getAsInt());
+        lambdas.put(WOOL_GAMES_CAPTURE_THE_WOOL_WLR, wg ->
+            wg.getAsJsonObject("capture_the_wool").getAsJsonObject("stats").get("participated_wins").getAsDouble()
+            / Math.max(wg.getAsJsonObject("capture_the_wool").getAsJsonObject("stats").get("participated_losses")
+                .getAsDouble(), 1));
+        lambdas.put(FISHING_FISH_CAUGHT, fish ->
+            JsonUtil.getNullableInt(fish.getAsJsonObject("stats").getAsJsonObject("permanent")
+                .getAsJsonObject("water").get("fish"))
+            + JsonUtil.getNullableInt(fish.getAsJsonObject("stats").getAsJsonObject("permanent")
+                .getAsJsonObject("lava").get("fish"))
+            + JsonUtil.getNullableInt(fish.getAsJsonObject("stats").getAsJsonObject("permanent")
+                .getAsJsonObject("ice").get("fish")));
+        lambdas.put(FISHING_TREASURE_CAUGHT, fish ->
+            JsonUtil.getNullableInt(fish.getAsJsonObject("stats").getAsJsonObject("permanent")
+                .getAsJsonObject("water").get("treasure"))
+            + JsonUtil.getNullableInt(fish.getAsJsonObject("stats").getAsJsonObject("permanent")
+                .getAsJsonObject("lava").get("treasure"))
+            + JsonUtil.getNullableInt(fish.getAsJsonObject("stats").getAsJsonObject("permanent")
+                .getAsJsonObject("ice").get("treasure")));
+        lambdas.put(FISHING_JUNK_CAUGHT, fish ->
+            JsonUtil.getNullableInt(fish.getAsJsonObject("stats").getAsJsonObject("permanent")
+                .getAsJsonObject("water").get("junk"))
+            + JsonUtil.getNullableInt(fish.getAsJsonObject("stats").getAsJsonObject("permanent")
+                .getAsJsonObject("lava").get("junk"))
+            + JsonUtil.getNullableInt(fish.getAsJsonObject("stats").getAsJsonObject("permanent")
+                .getAsJsonObject("ice").get("junk")));
+        lambdas.put(FISHING_MYTHICAL_FISH_CAUGHT, fish ->
+            JsonUtil.getNullableInt(fish.getAsJsonObject("orbs").get("selene"))
+            + JsonUtil.getNullableInt(fish.getAsJsonObject("orbs").get("helios"))
+            + JsonUtil.getNullableInt(fish.getAsJsonObject("orbs").get("nyx"))
+            + JsonUtil.getNullableInt(fish.getAsJsonObject("orbs").get("zeus"))
+            + JsonUtil.getNullableInt(fish.getAsJsonObject("orbs").get("aphrodite"))
+            + JsonUtil.getNullableInt(fish.getAsJsonObject("orbs").get("archimedes"))
+            + JsonUtil.getNullableInt(fish.getAsJsonObject("orbs").get("hades")));
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * This file is a part of the Nadeshiko project. Nadeshiko is free software, licensed under the MIT license.
+ *
+ * Usage of these works (including, yet not limited to, reuse, modification, copying, distribution, and selling) is
+ * permitted, provided that the relevant copyright notice and permission notice (as specified in LICENSE) shall be
+ * included in all copies or substantial portions of this software.
+ *
+ * These works are provided "AS IS" with absolutely no warranty of any kind, either expressed or implied.
+ *
+ * You should have received a copy of the MIT License alongside this software; refer to LICENSE for information.
+ * If not, refer to https://mit-license.org.
+ */
+
+package io.nadeshiko.nadeshiko.leaderboards;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Generator of random category inputs, holding the stats leaderboards are derived from
+ *
+ * @author chloe
+ */
+final class RandomPlayers {
+
+    /**
+     * The chance that an object on the way to a stat is missing
+     */
+    private static final double MISSING_OBJECT = 0.05;
+
+    private RandomPlayers() {
+    }
+
+    /**
+     * @param leaderboards Leaderboards declared as {@link LeaderboardDerivation}s
+     * @return The paths of every stat the leaderboards are derived from, in the order they are first read
+     */
+    static Set<String> paths(Collection<Leaderboard> leaderboards) {
+        Set<String> paths = new LinkedHashSet<>();
+
+        for (Leaderboard leaderboard : leaderboards) {
+            // category:sortDirection:form(stats), where a single stat is followed by its type
+            String description = leaderboard.describe();
+            String derivation = description.substring(description.indexOf(':', description.indexOf(':') + 1) + 1);
+            String stats = derivation.substring(derivation.indexOf('(') + 1, derivation.length() - 1);
+
+            if (derivation.startsWith("stat(")) {
+                stats = stats.substring(0, stats.lastIndexOf(':'));
+            }
+
+            paths.addAll(Set.of(stats.split("[/+]")));
+        }
+
+        return paths;
+    }
+
+    /**
+     * Generate a category input
+     * @param random The source of randomness
+     * @param paths The paths of the stats the input may hold
+     * @param presence The chance that each stat is present
+     * @param malformed Whether stats and the objects holding them may also be of types the API never returns
+     * @return The input
+     */
+    static JsonObject generate(Random random, Collection<String> paths, double presence, boolean malformed) {
+        JsonObject input = new JsonObject();
+
+        paths:
+        for (String path : paths) {
+            String[] keys = path.split("\\.");
+            JsonObject object = input;
+
+            for (int i = 0; i < keys.length - 1; i++) {
+                JsonElement child = object.get(keys[i]);
+
+                if (child == null) {
+                    if (random.nextDouble() < MISSING_OBJECT) {
+                        continue paths;
+                    }
+
+                    child = malformed && random.nextDouble() < 0.02 ? value(random, true) : new JsonObject();
+                    object.add(keys[i], child);
+                }
+
+                if (!(child instanceof JsonObject nested)) {
+                    continue paths;
+                }
+
+                object = nested;
+            }
+
+            if (random.nextDouble() < presence) {
+                object.add(keys[keys.length - 1], value(random, malformed));
+            }
+        }
+
+        return input;
+    }
+
+    /**
+     * Generate a stat
+     */
+    private static JsonElement value(Random random, boolean malformed) {
+        int kind = random.nextInt(malformed ? 10 : 5);
+
+        return switch (kind) {
+            case 0 -> new JsonPrimitive(0);
+            case 1 -> new JsonPrimitive(random.nextInt(10_000));
+            case 2 -> new JsonPrimitive(random.nextInt(Integer.MAX_VALUE));
+            case 3 -> new JsonPrimitive(Integer.MAX_VALUE + 1L + random.nextInt(Integer.MAX_VALUE));
+            case 4 -> new JsonPrimitive(random.nextDouble() * 1_000);
+            case 5 -> new JsonPrimitive(String.valueOf(random.nextInt(10_000)));
+            case 6 -> new JsonPrimitive("not a number");
+            case 7 -> new JsonPrimitive(random.nextBoolean());
+            case 8 -> JsonNull.INSTANCE;
+            default -> new JsonObject();
+        };
+    }
+}
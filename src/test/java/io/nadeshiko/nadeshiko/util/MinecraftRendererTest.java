@@ -0,0 +1,170 @@
+/*
+ * This file is a part of the Nadeshiko project. Nadeshiko is free software, licensed under the MIT license.
+ *
+ * Usage of these works (including, yet not limited to, reuse, modification, copying, distribution, and selling) is
+ * permitted, provided that the relevant copyright notice and permission notice (as specified in LICENSE) shall be
+ * included in all copies or substantial portions of this software.
+ *
+ * These works are provided "AS IS" with absolutely no warranty of any kind, either expressed or implied.
+ *
+ * You should have received a copy of the MIT License alongside this software; refer to LICENSE for information.
+ * If not, refer to https://mit-license.org.
+ */
+
+package io.nadeshiko.nadeshiko.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Golden image checks of {@link MinecraftRenderer}, rendering strings pixel for pixel like the character by character
+ * {@link LegacyMinecraftRenderer} did. Mismatching images are written to {@code target/golden}.
+ *
+ * @author chloe
+ */
+class MinecraftRendererTest {
+
+	/**
+	 * Tagged names and levels, as drawn on cards
+	 */
+	static final List<String> STRINGS = List.of(
+		"§7Notch",
+		"§a[VIP] Steve",
+		"§b[MVP§c+§b] chloe",
+		"§6[MVP§0++§6] Technoblade",
+		"§c[§fYOUTUBE§c] Alex",
+		"§l§6[2000✫]§r §b[MVP§2+§b] Brooke",
+		"§8[§7100✫§8] §f§lBold §rand §eregular",
+		"§d[PIG§b+++§d] ナデシコ",
+		"Plain text, without any codes"
+	);
+
+	private static final int WIDTH = 900;
+	private static final int HEIGHT = 80;
+
+	@BeforeAll
+	static void registerFonts() throws Exception {
+		for (String font : List.of("Minecraft.otf", "MinecraftBold.otf", "Inter-Bold.ttf")) {
+			try (InputStream stream = MinecraftRendererTest.class.getResourceAsStream("/cards/fonts/" + font)) {
+				GraphicsEnvironment.getLocalGraphicsEnvironment()
+					.registerFont(Font.createFont(Font.TRUETYPE_FONT, stream));
+			}
+		}
+	}
+
+	@Test
+	void drawsMinecraftStringsLikeTheLegacyRenderer() throws IOException {
+		for (boolean hinted : new boolean[] {false, true}) {
+			for (int size : new int[] {30, 40}) {
+				for (String string : STRINGS) {
+					assertSameImage("minecraft-" + size + (hinted ? "-hinted" : ""), string, hinted,
+						graphics -> LegacyMinecraftRenderer.drawMinecraftString(graphics, string, 10, 50, size),
+						graphics -> MinecraftRenderer.drawMinecraftString(graphics, string, 10, 50, size));
+				}
+			}
+		}
+	}
+
+	@Test
+	void drawsCustomStringsLikeTheLegacyRenderer() throws IOException {
+		// The legacy renderer drew custom strings in no color after codes other than colors, such as §l
+		List<String> colored = STRINGS.stream()
+			.filter(string -> !string.matches(".*§[^0-9a-f].*"))
+			.toList();
+
+		for (boolean hinted : new boolean[] {false, true}) {
+			for (String string : colored) {
+				assertSameImage("custom" + (hinted ? "-hinted" : ""), string, hinted,
+					graphics -> {
+						graphics.setFont(new Font("Inter Bold", Font.PLAIN, 32));
+						LegacyMinecraftRenderer.drawCustomString(graphics, string, 10, 50);
+					},
+					graphics -> {
+						graphics.setFont(new Font("Inter Bold", Font.PLAIN, 32));
+						MinecraftRenderer.drawCustomString(graphics, string, 10, 50);
+					});
+			}
+		}
+	}
+
+	@Test
+	void measuresRegularStringsLikeTheLegacyRenderer() {
+		Graphics2D graphics = image().createGraphics();
+
+		for (String string : List.of("§7Notch", "§b[MVP§c+§b] chloe", "Plain text, without any codes")) {
+			assertEquals(LegacyMinecraftRenderer.minecraftWidth(graphics, string, 40),
+				MinecraftRenderer.minecraftWidth(graphics, string, 40), string);
+		}
+	}
+
+	@Test
+	void ignoresTrailingSectionSymbols() {
+		Graphics2D graphics = image().createGraphics();
+
+		assertEquals(MinecraftRenderer.minecraftWidth(graphics, "§aSteve", 40),
+			MinecraftRenderer.minecraftWidth(graphics, "§aSteve§", 40));
+		MinecraftRenderer.drawMinecraftString(graphics, "§aSteve§", 10, 50, 40);
+	}
+
+	/**
+	 * Render a string with both renderers, and compare the images
+	 */
+	private static void assertSameImage(String name, String string, boolean hinted, Consumer<Graphics2D> expected,
+	                                    Consumer<Graphics2D> actual) throws IOException {
+
+		BufferedImage expectedImage = render(hinted, expected);
+		BufferedImage actualImage = render(hinted, actual);
+
+		for (int y = 0; y < HEIGHT; y++) {
+			for (int x = 0; x < WIDTH; x++) {
+				if (expectedImage.getRGB(x, y) != actualImage.getRGB(x, y)) {
+					File directory = new File("target/golden");
+					directory.mkdirs();
+
+					String file = name + "-" + Integer.toHexString(string.hashCode());
+					ImageIO.write(expectedImage, "png", new File(directory, file + "-expected.png"));
+					ImageIO.write(actualImage, "png", new File(directory, file + "-actual.png"));
+
+					fail("\"" + string + "\" (" + name + ") differs at " + x + ", " + y + ", see target/golden/" + file);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Render onto a dark background, like the cards'
+	 */
+	private static BufferedImage render(boolean hinted, Consumer<Graphics2D> renderer) {
+		BufferedImage image = image();
+		Graphics2D graphics = image.createGraphics();
+
+		if (hinted) {
+			graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_LCD_HRGB);
+			graphics.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+		}
+
+		graphics.setColor(new Color(32, 32, 40));
+		graphics.fillRect(0, 0, WIDTH, HEIGHT);
+		graphics.setColor(Color.WHITE);
+
+		renderer.accept(graphics);
+		graphics.dispose();
+		return image;
+	}
+
+	private static BufferedImage image() {
+		return new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+	}
+}